@@ -0,0 +1,18 @@
+package io.geewit.utils.benchmarks.core.enums;
+
+import io.geewit.utils.core.enums.Name;
+import io.geewit.utils.core.enums.Value;
+
+/**
+ * 基准测试用的枚举
+ * @author geewit
+ */
+public enum BenchmarkEnum implements Name, Value<Integer> {
+    alpha, bravo, charlie, delta, echo, foxtrot, golf, hotel,
+    india, juliet, kilo, lima, mike, november, oscar, papa;
+
+    @Override
+    public Integer value() {
+        return this.ordinal();
+    }
+}
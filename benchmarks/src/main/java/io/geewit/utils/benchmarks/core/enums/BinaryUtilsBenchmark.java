@@ -0,0 +1,61 @@
+package io.geewit.utils.benchmarks.core.enums;
+
+import io.geewit.utils.core.enums.BinaryUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BinaryUtils} 的基准测试
+ * @author geewit
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinaryUtilsBenchmark {
+
+    EnumSet<BenchmarkEnum> enumSet;
+
+    int binary;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.enumSet = EnumSet.of(BenchmarkEnum.alpha, BenchmarkEnum.delta, BenchmarkEnum.hotel, BenchmarkEnum.papa);
+        this.binary = BinaryUtils.toBinary(enumSet);
+    }
+
+    @Benchmark
+    public int toBinary() {
+        return BinaryUtils.toBinary(enumSet);
+    }
+
+    @Benchmark
+    public EnumSet<BenchmarkEnum> fromBinary() {
+        return BinaryUtils.fromBinary(binary, BenchmarkEnum.class);
+    }
+
+    @Benchmark
+    public List<Integer> fromBinaryToValues() {
+        return BinaryUtils.fromBinaryToValues(binary, BenchmarkEnum.class);
+    }
+
+    @Benchmark
+    public int allTrue() {
+        return BinaryUtils.allTrue(BenchmarkEnum.class);
+    }
+
+    @Benchmark
+    public boolean hasAll() {
+        return BinaryUtils.hasAll(enumSet, binary);
+    }
+
+    @Benchmark
+    public boolean hasAny() {
+        return BinaryUtils.hasAny(enumSet, binary);
+    }
+}
@@ -0,0 +1,49 @@
+package io.geewit.utils.benchmarks.core.enums;
+
+import io.geewit.utils.core.enums.EnumUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EnumUtils} 的基准测试
+ * @author geewit
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EnumUtilsBenchmark {
+
+    @Param({"alpha", "PAPA"})
+    String token;
+
+    Integer value;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.value = EnumUtils.forToken(BenchmarkEnum.class, token).value();
+    }
+
+    @Benchmark
+    public BenchmarkEnum forToken() {
+        return EnumUtils.forToken(BenchmarkEnum.class, token);
+    }
+
+    @Benchmark
+    public BenchmarkEnum forTokenWithDefault() {
+        return EnumUtils.forToken(BenchmarkEnum.class, token, BenchmarkEnum.alpha);
+    }
+
+    @Benchmark
+    public BenchmarkEnum forValue() {
+        return EnumUtils.forValue(BenchmarkEnum.class, value);
+    }
+
+    @Benchmark
+    public BenchmarkEnum forValueWithDefault() {
+        return EnumUtils.forValue(BenchmarkEnum.class, value, BenchmarkEnum.alpha);
+    }
+}
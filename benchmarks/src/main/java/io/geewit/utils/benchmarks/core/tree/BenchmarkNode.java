@@ -0,0 +1,63 @@
+package io.geewit.utils.benchmarks.core.tree;
+
+import io.geewit.utils.core.tree.SignedTreeNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 基准测试用的树节点
+ * @author geewit
+ */
+public class BenchmarkNode extends SignedTreeNode<BenchmarkNode, Long> {
+
+    /**
+     * 生成一棵随机形状的树的扁平节点列表, 父节点总是排在子节点之前
+     *
+     * @param size 节点数量
+     * @param maxChildren 每个节点最多的子节点数量
+     * @param seed 随机种子
+     * @return 扁平节点列表
+     */
+    public static List<BenchmarkNode> generate(int size, int maxChildren, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<BenchmarkNode> nodes = new ArrayList<>(size);
+        int parentIndex = 0;
+        int childrenOfParent = 0;
+        int expectedChildren = 1 + random.nextInt(maxChildren);
+        for (int i = 0; i < size; i++) {
+            BenchmarkNode node = new BenchmarkNode();
+            node.setId((long) i + 1);
+            node.setSign(random.nextInt(3));
+            if (i > 0) {
+                if (childrenOfParent >= expectedChildren) {
+                    parentIndex++;
+                    childrenOfParent = 0;
+                    expectedChildren = 1 + random.nextInt(maxChildren);
+                }
+                node.setParentId(nodes.get(parentIndex).getId());
+                childrenOfParent++;
+            }
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    /**
+     * 还原节点为未建树的状态, 以便在每次基准调用前重复建树
+     *
+     * @param nodes 节点列表
+     */
+    public static void reset(List<BenchmarkNode> nodes) {
+        for (BenchmarkNode node : nodes) {
+            List<BenchmarkNode> children = node.getChildren();
+            if (children == null) {
+                node.setChildren(new ArrayList<>());
+            } else {
+                children.clear();
+            }
+            node.setParent(null);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package io.geewit.utils.benchmarks.core.tree;
+
+import io.geewit.utils.core.tree.FilteredTree;
+import io.geewit.utils.core.tree.TreeUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * {@link TreeUtils#filter} 与从命中节点逐个向上回溯祖先的基准测试
+ * @author geewit
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilteredTreeBenchmark {
+
+    @Param({"300000"})
+    int size;
+
+    /**
+     * 每 matchEvery 个节点命中一个
+     */
+    @Param({"100", "10000"})
+    int matchEvery;
+
+    List<BenchmarkNode> nodes;
+
+    List<BenchmarkNode> roots;
+
+    Predicate<BenchmarkNode> predicate;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        this.nodes = BenchmarkNode.generate(size, 8, 42L);
+        // 以第一层节点作为森林的根, 便于按根节点并行
+        this.roots = TreeUtils.buildTree(nodes, null).getFirst().getChildren();
+        this.predicate = node -> node.getId() % matchEvery == 0;
+    }
+
+    /**
+     * 按手工的写法: 建立 id 索引, 找出命中节点后逐个沿 parentId 向上收集祖先, 再为保留的节点筛选子节点
+     */
+    @Benchmark
+    public Map<BenchmarkNode, List<BenchmarkNode>> ancestorWalk() {
+        Map<Long, BenchmarkNode> nodeMap = new HashMap<>(size);
+        nodes.forEach(node -> nodeMap.put(node.getId(), node));
+        Set<BenchmarkNode> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (BenchmarkNode node : nodes) {
+            if (predicate.test(node)) {
+                // 祖先已经收集过时停止
+                for (BenchmarkNode ancestor = node; ancestor != null && kept.add(ancestor); ) {
+                    ancestor = nodeMap.get(ancestor.getParentId());
+                }
+            }
+        }
+        Map<BenchmarkNode, List<BenchmarkNode>> keptChildren = new IdentityHashMap<>();
+        for (BenchmarkNode node : kept) {
+            keptChildren.put(node, node.getChildren().stream().filter(kept::contains).toList());
+        }
+        return keptChildren;
+    }
+
+    @Benchmark
+    public FilteredTree<BenchmarkNode, Long> filter() {
+        return TreeUtils.filter(roots, predicate);
+    }
+
+    @Benchmark
+    public FilteredTree<BenchmarkNode, Long> filterParallel() {
+        return TreeUtils.filter(roots, predicate, ForkJoinPool.commonPool());
+    }
+}
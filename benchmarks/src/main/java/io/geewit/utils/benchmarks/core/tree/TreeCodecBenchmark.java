@@ -0,0 +1,81 @@
+package io.geewit.utils.benchmarks.core.tree;
+
+import io.geewit.utils.core.tree.TreeCodec;
+import io.geewit.utils.core.tree.TreeUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TreeCodec} 还原树与按行数据重新建树的基准测试
+ * @author geewit
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TreeCodecBenchmark {
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    /**
+     * 模拟从数据库读出的行: id, parentId, sign
+     */
+    long[] ids;
+    long[] parentIds;
+    int[] signs;
+
+    List<BenchmarkNode> roots;
+
+    TreeCodec<BenchmarkNode, Long> codec;
+
+    byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        List<BenchmarkNode> nodes = BenchmarkNode.generate(size, 8, 42L);
+        this.ids = new long[size];
+        this.parentIds = new long[size];
+        this.signs = new int[size];
+        for (int i = 0; i < size; i++) {
+            BenchmarkNode node = nodes.get(i);
+            ids[i] = node.getId();
+            parentIds[i] = node.getParentId() == null ? 0L : node.getParentId();
+            signs[i] = node.getSign();
+        }
+        this.roots = TreeUtils.buildTree(nodes, null);
+        this.codec = TreeCodec.ofLong(BenchmarkNode::new);
+        this.bytes = codec.toByteArray(roots);
+    }
+
+    /**
+     * 按行数据创建节点后重新建树
+     */
+    @Benchmark
+    public List<BenchmarkNode> rebuildFromRows() {
+        List<BenchmarkNode> nodes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BenchmarkNode node = new BenchmarkNode();
+            node.setId(ids[i]);
+            node.setParentId(parentIds[i] == 0L ? null : parentIds[i]);
+            node.setSign(signs[i]);
+            nodes.add(node);
+        }
+        return TreeUtils.buildTree(nodes, null);
+    }
+
+    @Benchmark
+    public List<BenchmarkNode> read() {
+        return codec.read(bytes);
+    }
+
+    @Benchmark
+    public byte[] write() {
+        return codec.toByteArray(roots);
+    }
+}
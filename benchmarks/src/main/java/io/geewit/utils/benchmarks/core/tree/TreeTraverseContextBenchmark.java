@@ -0,0 +1,114 @@
+package io.geewit.utils.benchmarks.core.tree;
+
+import io.geewit.utils.core.tree.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TreeTraverseContext#cascadeSign()} 的基准测试
+ * @author geewit
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TreeTraverseContextBenchmark {
+
+    static final SignChildConsumer<BenchmarkNode, Long> SIGN_CHILD_CONSUMER = (parentNode, childNode, signParameter) -> {
+        Integer sign = signParameter.getSign();
+        if (parentNode == null || parentNode.getSign() <= 0 || sign > 1) {
+            childNode.setSign(sign);
+            return;
+        }
+        Boolean transmissionDown = signParameter.getTransmissionDown();
+        childNode.setSign(transmissionDown != null && transmissionDown ? sign : 1);
+    };
+
+    static final SignParentConsumer<BenchmarkNode, Long> SIGN_PARENT_CONSUMER = (parentNode, allChildrenSign, overwrite) -> {
+        if (allChildrenSign > 0 && parentNode.getSign() == 0) {
+            parentNode.setSign(1);
+            return;
+        }
+        if (allChildrenSign == 0 && parentNode.getSign() > 0 && overwrite) {
+            parentNode.setSign(0);
+        }
+    };
+
+    static final TransmissionChildConsumer<BenchmarkNode, Long> TRANSMISSION_CHILD_CONSUMER = (parentNode, childNode) -> {
+        if (parentNode != null && parentNode.getSign() != null && parentNode.getSign() > 0 && childNode.getSign() < 1) {
+            childNode.setSign(1);
+        }
+    };
+
+    static final CompressChildConsumer<BenchmarkNode, Long> COMPRESS_CHILD_CONSUMER = (parentNode, childNode) -> {
+        if (parentNode != null && parentNode.getSign() != null && parentNode.getSign() > 0 && childNode.getSign() <= 1) {
+            childNode.setSign(0);
+        }
+    };
+
+    @Param({"10000", "500000"})
+    int size;
+
+    @Param({"100"})
+    int parameterCount;
+
+    @Param({"1", "4"})
+    int parallelism;
+
+    List<BenchmarkNode> nodes;
+
+    int[] originSigns;
+
+    List<NodeSignParameter<Long>> signParameters;
+
+    TreeTraverseContext<BenchmarkNode, Long> context;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        this.nodes = BenchmarkNode.generate(size, 8, 42L);
+        this.originSigns = new int[size];
+        for (int i = 0; i < size; i++) {
+            this.originSigns[i] = nodes.get(i).getSign();
+        }
+        SplittableRandom random = new SplittableRandom(7L);
+        this.signParameters = new ArrayList<>(parameterCount);
+        for (int i = 0; i < parameterCount; i++) {
+            this.signParameters.add(NodeSignParameter.<Long>builder()
+                    .id(1L + random.nextInt(size))
+                    .sign(random.nextInt(3))
+                    .build());
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        BenchmarkNode.reset(nodes);
+        for (int i = 0; i < size; i++) {
+            nodes.get(i).setSign(originSigns[i]);
+        }
+        this.context = TreeTraverseContext.<BenchmarkNode, Long>builder()
+                .nodes(nodes)
+                .signParameters(new ArrayList<>(signParameters))
+                .overwrite(true)
+                .transmission(true)
+                .compress(true)
+                .parallelism(parallelism)
+                .signChildConsumer(SIGN_CHILD_CONSUMER)
+                .signParentConsumer(SIGN_PARENT_CONSUMER)
+                .transmissionChildConsumer(TRANSMISSION_CHILD_CONSUMER)
+                .compressChildConsumer(COMPRESS_CHILD_CONSUMER)
+                .build();
+    }
+
+    @Benchmark
+    public List<BenchmarkNode> cascadeSign() {
+        context.cascadeSign();
+        return context.getRoots();
+    }
+}
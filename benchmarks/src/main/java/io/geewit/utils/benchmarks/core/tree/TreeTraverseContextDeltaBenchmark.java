@@ -0,0 +1,87 @@
+package io.geewit.utils.benchmarks.core.tree;
+
+import io.geewit.utils.core.tree.NodeSignParameter;
+import io.geewit.utils.core.tree.TreeTraverseContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static io.geewit.utils.benchmarks.core.tree.TreeTraverseContextBenchmark.COMPRESS_CHILD_CONSUMER;
+import static io.geewit.utils.benchmarks.core.tree.TreeTraverseContextBenchmark.SIGN_CHILD_CONSUMER;
+import static io.geewit.utils.benchmarks.core.tree.TreeTraverseContextBenchmark.SIGN_PARENT_CONSUMER;
+import static io.geewit.utils.benchmarks.core.tree.TreeTraverseContextBenchmark.TRANSMISSION_CHILD_CONSUMER;
+
+/**
+ * {@link TreeTraverseContext#applyDelta(java.util.Collection)} 的基准测试, 与 {@link TreeTraverseContextBenchmark} 的全量标记对比
+ * @author geewit
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TreeTraverseContextDeltaBenchmark {
+
+    @Param({"10000", "500000"})
+    int size;
+
+    @Param({"100"})
+    int parameterCount;
+
+    @Param({"1", "10"})
+    int deltaCount;
+
+    TreeTraverseContext<BenchmarkNode, Long> context;
+
+    List<List<NodeSignParameter<Long>>> deltas;
+
+    int deltaIndex;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        List<BenchmarkNode> nodes = BenchmarkNode.generate(size, 8, 42L);
+        SplittableRandom random = new SplittableRandom(7L);
+        List<NodeSignParameter<Long>> signParameters = new ArrayList<>(parameterCount);
+        for (int i = 0; i < parameterCount; i++) {
+            signParameters.add(NodeSignParameter.<Long>builder()
+                    .id(1L + random.nextInt(size))
+                    .sign(random.nextInt(3))
+                    .build());
+        }
+        this.context = TreeTraverseContext.<BenchmarkNode, Long>builder()
+                .nodes(nodes)
+                .signParameters(signParameters)
+                .overwrite(true)
+                .transmission(true)
+                .compress(true)
+                .signChildConsumer(SIGN_CHILD_CONSUMER)
+                .signParentConsumer(SIGN_PARENT_CONSUMER)
+                .transmissionChildConsumer(TRANSMISSION_CHILD_CONSUMER)
+                .compressChildConsumer(COMPRESS_CHILD_CONSUMER)
+                .build();
+        this.context.cascadeSign();
+
+        // 预先生成一批变化的参数, 每次调用依次取一组
+        this.deltas = new ArrayList<>(1024);
+        for (int i = 0; i < 1024; i++) {
+            List<NodeSignParameter<Long>> delta = new ArrayList<>(deltaCount);
+            for (int j = 0; j < deltaCount; j++) {
+                delta.add(NodeSignParameter.<Long>builder()
+                        .id(1L + random.nextInt(size))
+                        .sign(random.nextInt(3))
+                        .build());
+            }
+            this.deltas.add(delta);
+        }
+    }
+
+    @Benchmark
+    public List<BenchmarkNode> applyDelta() {
+        context.applyDelta(deltas.get(deltaIndex++ & 1023));
+        return context.getRoots();
+    }
+}
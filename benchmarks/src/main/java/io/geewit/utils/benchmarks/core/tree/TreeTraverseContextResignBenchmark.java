@@ -0,0 +1,83 @@
+package io.geewit.utils.benchmarks.core.tree;
+
+import io.geewit.utils.core.tree.NodeSignParameter;
+import io.geewit.utils.core.tree.TreeTraverseContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static io.geewit.utils.benchmarks.core.tree.TreeTraverseContextBenchmark.COMPRESS_CHILD_CONSUMER;
+import static io.geewit.utils.benchmarks.core.tree.TreeTraverseContextBenchmark.SIGN_CHILD_CONSUMER;
+import static io.geewit.utils.benchmarks.core.tree.TreeTraverseContextBenchmark.SIGN_PARENT_CONSUMER;
+import static io.geewit.utils.benchmarks.core.tree.TreeTraverseContextBenchmark.TRANSMISSION_CHILD_CONSUMER;
+
+/**
+ * 在同一个 {@link TreeTraverseContext} 上重复执行 {@link TreeTraverseContext#cascadeSign()} 的基准测试,
+ * 不包含建树的开销, 用于观察每次标记产生的垃圾
+ * @author geewit
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TreeTraverseContextResignBenchmark {
+
+    @Param({"10000", "500000"})
+    int size;
+
+    @Param({"100"})
+    int parameterCount;
+
+    List<BenchmarkNode> nodes;
+
+    int[] originSigns;
+
+    TreeTraverseContext<BenchmarkNode, Long> context;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        this.nodes = BenchmarkNode.generate(size, 8, 42L);
+        this.originSigns = new int[size];
+        for (int i = 0; i < size; i++) {
+            this.originSigns[i] = nodes.get(i).getSign();
+        }
+        SplittableRandom random = new SplittableRandom(7L);
+        List<NodeSignParameter<Long>> signParameters = new ArrayList<>(parameterCount);
+        for (int i = 0; i < parameterCount; i++) {
+            signParameters.add(NodeSignParameter.<Long>builder()
+                    .id(1L + random.nextInt(size))
+                    .sign(random.nextInt(3))
+                    .build());
+        }
+        this.context = TreeTraverseContext.<BenchmarkNode, Long>builder()
+                .nodes(nodes)
+                .signParameters(signParameters)
+                .overwrite(true)
+                .transmission(true)
+                .compress(true)
+                .signChildConsumer(SIGN_CHILD_CONSUMER)
+                .signParentConsumer(SIGN_PARENT_CONSUMER)
+                .transmissionChildConsumer(TRANSMISSION_CHILD_CONSUMER)
+                .compressChildConsumer(COMPRESS_CHILD_CONSUMER)
+                .build();
+        this.context.cascadeSign();
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        for (int i = 0; i < size; i++) {
+            nodes.get(i).setSign(originSigns[i]);
+        }
+    }
+
+    @Benchmark
+    public List<BenchmarkNode> cascadeSign() {
+        context.cascadeSign();
+        return context.getRoots();
+    }
+}
@@ -0,0 +1,74 @@
+package io.geewit.utils.benchmarks.core.tree;
+
+import io.geewit.utils.core.tree.TreeTraverser;
+import io.geewit.utils.core.tree.TreeUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Stack;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TreeTraverser} 与原先 {@link Stack} 两次入栈的后序遍历的基准测试
+ * @author geewit
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TreeTraverserBenchmark {
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    @Param({"2", "8"})
+    int maxChildren;
+
+    List<BenchmarkNode> roots;
+
+    TreeTraverser<BenchmarkNode> traverser;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        this.roots = TreeUtils.buildTree(BenchmarkNode.generate(size, maxChildren, 42L), null);
+        this.traverser = new TreeTraverser<>();
+    }
+
+    /**
+     * 原先 TreeTraverseContext 中的写法: 先序压入一个栈, 再倒出到另一个栈得到后序
+     */
+    @Benchmark
+    public void stackPostOrder(Blackhole blackhole) {
+        for (BenchmarkNode root : roots) {
+            Stack<BenchmarkNode> stack = new Stack<>();
+            stack.push(root);
+            Stack<BenchmarkNode> nodeStack = new Stack<>();
+            while (!stack.isEmpty()) {
+                BenchmarkNode node = stack.pop();
+                nodeStack.push(node);
+                node.getChildren().forEach(stack::push);
+            }
+            while (!nodeStack.isEmpty()) {
+                blackhole.consume(nodeStack.pop());
+            }
+        }
+    }
+
+    @Benchmark
+    public void postOrder(Blackhole blackhole) {
+        traverser.postOrder(roots, blackhole::consume);
+    }
+
+    @Benchmark
+    public void preOrder(Blackhole blackhole) {
+        traverser.preOrder(roots, blackhole::consume);
+    }
+
+    @Benchmark
+    public void levelOrder(Blackhole blackhole) {
+        traverser.levelOrder(roots, blackhole::consume);
+    }
+}
@@ -0,0 +1,62 @@
+package io.geewit.utils.benchmarks.core.tree;
+
+import io.geewit.utils.core.tree.CompactTree;
+import io.geewit.utils.core.tree.TreeUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TreeUtils#buildTree} 的基准测试
+ * @author geewit
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TreeUtilsBenchmark {
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    @Param({"8"})
+    int maxChildren;
+
+    List<BenchmarkNode> nodes;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        this.nodes = BenchmarkNode.generate(size, maxChildren, 42L);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        BenchmarkNode.reset(nodes);
+    }
+
+    @Benchmark
+    public List<BenchmarkNode> buildTree() {
+        return TreeUtils.buildTree(nodes, null);
+    }
+
+    @Benchmark
+    public List<BenchmarkNode> buildTreeParallel() {
+        return TreeUtils.buildTreeParallel(nodes, null, null, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public List<BenchmarkNode> buildTreeStreaming() {
+        return TreeUtils.<BenchmarkNode, Long>streamingBuilder(null, null)
+                .acceptAll(nodes.iterator())
+                .build();
+    }
+
+    @Benchmark
+    public CompactTree<BenchmarkNode, Long> buildCompactTree() {
+        return TreeUtils.buildCompactTree(nodes, null, null);
+    }
+}
@@ -0,0 +1,104 @@
+package io.geewit.utils.benchmarks.core.uuid;
+
+import io.geewit.utils.core.uuid.UUID;
+import io.geewit.utils.core.uuid.codec.base.Base16Codec;
+import io.geewit.utils.core.uuid.codec.base.Base32CrockfordCodec;
+import io.geewit.utils.core.uuid.codec.base.Base58BtcCodec;
+import io.geewit.utils.core.uuid.codec.base.Base62Codec;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * base-16/32/58/62 编解码与基于 {@link BigInteger} 的 base-62 编码的基准测试
+ * @author geewit
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BaseNCodecBenchmark {
+
+    private static final String BASE_62 = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    private static final BigInteger RADIX_62 = BigInteger.valueOf(62);
+
+    UUID uuid;
+
+    String base16;
+
+    String base32;
+
+    String base58;
+
+    String base62;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.uuid = new UUID(0x0190a1b2c3d47e5fL, 0x8a9b0c1d2e3f4051L);
+        this.base16 = Base16Codec.INSTANCE.encode(uuid);
+        this.base32 = Base32CrockfordCodec.INSTANCE.encode(uuid);
+        this.base58 = Base58BtcCodec.INSTANCE.encode(uuid);
+        this.base62 = Base62Codec.INSTANCE.encode(uuid);
+    }
+
+    @Benchmark
+    public String encodeBase16() {
+        return Base16Codec.INSTANCE.encode(uuid);
+    }
+
+    @Benchmark
+    public String encodeBase32Crockford() {
+        return Base32CrockfordCodec.INSTANCE.encode(uuid);
+    }
+
+    @Benchmark
+    public String encodeBase58() {
+        return Base58BtcCodec.INSTANCE.encode(uuid);
+    }
+
+    @Benchmark
+    public String encodeBase62() {
+        return Base62Codec.INSTANCE.encode(uuid);
+    }
+
+    /**
+     * 逐位除以 62 的 {@link BigInteger} 实现
+     */
+    @Benchmark
+    public String encodeBase62ViaBigInteger() {
+        BigInteger value = new BigInteger(Long.toUnsignedString(uuid.getMostSignificantBits()))
+                .shiftLeft(64)
+                .or(new BigInteger(Long.toUnsignedString(uuid.getLeastSignificantBits())));
+        char[] chars = new char[22];
+        for (int i = chars.length - 1; i >= 0; i--) {
+            BigInteger[] division = value.divideAndRemainder(RADIX_62);
+            chars[i] = BASE_62.charAt(division[1].intValue());
+            value = division[0];
+        }
+        return new String(chars);
+    }
+
+    @Benchmark
+    public UUID decodeBase16() {
+        return Base16Codec.INSTANCE.decode(base16);
+    }
+
+    @Benchmark
+    public UUID decodeBase32Crockford() {
+        return Base32CrockfordCodec.INSTANCE.decode(base32);
+    }
+
+    @Benchmark
+    public UUID decodeBase58() {
+        return Base58BtcCodec.INSTANCE.decode(base58);
+    }
+
+    @Benchmark
+    public UUID decodeBase62() {
+        return Base62Codec.INSTANCE.decode(base62);
+    }
+}
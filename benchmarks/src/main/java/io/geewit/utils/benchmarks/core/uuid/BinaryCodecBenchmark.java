@@ -0,0 +1,86 @@
+package io.geewit.utils.benchmarks.core.uuid;
+
+import io.geewit.utils.core.uuid.UUID;
+import io.geewit.utils.core.uuid.codec.BinaryCodec;
+import io.geewit.utils.core.uuid.codec.StandardStringCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BinaryCodec} 批量读写堆外缓冲区与按字符串读写的基准测试
+ * @author geewit
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinaryCodecBenchmark {
+
+    @Param({"10000"})
+    int size;
+
+    UUID[] uuids;
+
+    ByteBuffer buffer;
+
+    ByteBuffer stringBuffer;
+
+    Arena arena;
+
+    MemorySegment segment;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(11L);
+        this.uuids = new UUID[size];
+        for (int i = 0; i < size; i++) {
+            this.uuids[i] = new UUID(random.nextLong(), random.nextLong());
+        }
+        this.buffer = ByteBuffer.allocateDirect(size * BinaryCodec.UUID_BYTES);
+        this.stringBuffer = ByteBuffer.allocateDirect(size * 36);
+        this.arena = Arena.ofShared();
+        this.segment = arena.allocate((long) size * BinaryCodec.UUID_BYTES);
+        BinaryCodec.INSTANCE.write(uuids, segment, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.arena.close();
+    }
+
+    /**
+     * 以 36 字符的字符串形式写入
+     */
+    @Benchmark
+    public ByteBuffer writeStrings() {
+        stringBuffer.clear();
+        for (UUID uuid : uuids) {
+            StandardStringCodec.INSTANCE.encode(uuid, stringBuffer);
+        }
+        return stringBuffer;
+    }
+
+    @Benchmark
+    public ByteBuffer writeByteBuffer() {
+        buffer.clear();
+        BinaryCodec.INSTANCE.write(uuids, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public long writeMemorySegment() {
+        return BinaryCodec.INSTANCE.write(uuids, segment, 0);
+    }
+
+    @Benchmark
+    public UUID[] readMemorySegment() {
+        return BinaryCodec.INSTANCE.read(segment, 0, size);
+    }
+}
@@ -0,0 +1,72 @@
+package io.geewit.utils.benchmarks.core.uuid;
+
+import io.geewit.utils.core.uuid.UUID;
+import io.geewit.utils.core.uuid.factory.standard.TimeOrderedEpochFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TimeOrderedEpochFactory} 在 SecureRandom 池 ({@link TimeOrderedEpochFactory.Builder#withSecureRandom()})、熵池与 ThreadLocalRandom 三种随机数模式下的基准测试
+ * <p>
+ * 各模式都使用无锁模式, 以便比较随机数来源本身的开销。
+ * </p>
+ * @author geewit
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RandomModeBenchmark {
+
+    TimeOrderedEpochFactory secure;
+
+    TimeOrderedEpochFactory entropyPool;
+
+    TimeOrderedEpochFactory fast;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.secure = TimeOrderedEpochFactory.builder().withSecureRandom().withLockFree().build();
+        this.entropyPool = TimeOrderedEpochFactory.builder().withEntropyPool().withLockFree().build();
+        this.fast = TimeOrderedEpochFactory.builder().withFastRandom().withLockFree().build();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UUID secure1() {
+        return secure.create();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID secure8() {
+        return secure.create();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UUID entropyPool1() {
+        return entropyPool.create();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID entropyPool8() {
+        return entropyPool.create();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UUID fast1() {
+        return fast.create();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID fast8() {
+        return fast.create();
+    }
+}
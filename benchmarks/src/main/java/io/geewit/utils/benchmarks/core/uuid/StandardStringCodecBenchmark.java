@@ -0,0 +1,67 @@
+package io.geewit.utils.benchmarks.core.uuid;
+
+import io.geewit.utils.core.uuid.UUID;
+import io.geewit.utils.core.uuid.codec.StandardStringCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link StandardStringCodec} 写入调用方缓冲区与创建字符串的基准测试
+ * @author geewit
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StandardStringCodecBenchmark {
+
+    UUID uuid;
+
+    String string;
+
+    byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.uuid = new UUID(0x0190a1b2c3d47e5fL, 0x8a9b0c1d2e3f4051L);
+        this.bytes = new byte[64];
+        StandardStringCodec.INSTANCE.encode(uuid, bytes, 0);
+        this.string = new String(bytes, 0, 36, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 先创建字符串再复制到字节数组
+     */
+    @Benchmark
+    public byte[] encodeViaString() {
+        java.util.UUID jdk = new java.util.UUID(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        return jdk.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public int encodeToBytes() {
+        return StandardStringCodec.INSTANCE.encode(uuid, bytes, 0);
+    }
+
+    /**
+     * 先截取字符串再解析
+     */
+    @Benchmark
+    public UUID decodeViaString() {
+        return StandardStringCodec.INSTANCE.decode(new String(bytes, 0, 36, StandardCharsets.US_ASCII));
+    }
+
+    @Benchmark
+    public UUID decodeFromBytes() {
+        return StandardStringCodec.INSTANCE.decode(bytes, 0, 36);
+    }
+
+    @Benchmark
+    public UUID decodeFromCharSequence() {
+        return StandardStringCodec.INSTANCE.decode(string, 0, 36);
+    }
+}
@@ -0,0 +1,155 @@
+package io.geewit.utils.benchmarks.core.uuid;
+
+import io.geewit.utils.core.uuid.UUID;
+import io.geewit.utils.core.uuid.factory.standard.TimeOrderedEpochFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TimeOrderedEpochFactory} 加锁模式、无锁模式与分段模式在 1/8/64 个线程争用下的基准测试
+ * <p>
+ * locked / lockFree / striped 都使用 {@link TimeOrderedEpochFactory.Builder#withFastRandom()}, 避免 SecureRandom 本身的开销掩盖锁的争用;
+ * defaultLocked / defaultLockFree / defaultStriped 使用各模式默认的随机数 (加锁模式为全局加锁的 SecureRandom 池, 无锁和分段模式为熵池),
+ * 即不指定随机数时实际得到的吞吐量。
+ * </p>
+ * @author geewit
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimeOrderedEpochFactoryBenchmark {
+
+    TimeOrderedEpochFactory locked;
+
+    TimeOrderedEpochFactory lockFree;
+
+    TimeOrderedEpochFactory striped;
+
+    TimeOrderedEpochFactory defaultLocked;
+
+    TimeOrderedEpochFactory defaultLockFree;
+
+    TimeOrderedEpochFactory defaultStriped;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.locked = TimeOrderedEpochFactory.builder().withFastRandom().build();
+        this.lockFree = TimeOrderedEpochFactory.builder().withFastRandom().withLockFree().build();
+        this.striped = TimeOrderedEpochFactory.builder().withFastRandom().withStripes(64).build();
+        this.defaultLocked = TimeOrderedEpochFactory.builder().build();
+        this.defaultLockFree = TimeOrderedEpochFactory.builder().withLockFree().build();
+        this.defaultStriped = TimeOrderedEpochFactory.builder().withStripes(64).build();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UUID locked1() {
+        return locked.create();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID locked8() {
+        return locked.create();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public UUID locked64() {
+        return locked.create();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UUID lockFree1() {
+        return lockFree.create();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID lockFree8() {
+        return lockFree.create();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public UUID lockFree64() {
+        return lockFree.create();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UUID striped1() {
+        return striped.create();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID striped8() {
+        return striped.create();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public UUID striped64() {
+        return striped.create();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UUID defaultLocked1() {
+        return defaultLocked.create();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID defaultLocked8() {
+        return defaultLocked.create();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public UUID defaultLocked64() {
+        return defaultLocked.create();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UUID defaultLockFree1() {
+        return defaultLockFree.create();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID defaultLockFree8() {
+        return defaultLockFree.create();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public UUID defaultLockFree64() {
+        return defaultLockFree.create();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UUID defaultStriped1() {
+        return defaultStriped.create();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID defaultStriped8() {
+        return defaultStriped.create();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public UUID defaultStriped64() {
+        return defaultStriped.create();
+    }
+}
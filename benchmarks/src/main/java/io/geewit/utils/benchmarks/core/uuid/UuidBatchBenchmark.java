@@ -0,0 +1,57 @@
+package io.geewit.utils.benchmarks.core.uuid;
+
+import io.geewit.utils.core.uuid.UUID;
+import io.geewit.utils.core.uuid.UuidCreator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量生成 UUIDv7 与逐个生成的基准测试
+ * @author geewit
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UuidBatchBenchmark {
+
+    @Param({"100000"})
+    int size;
+
+    long[] msbs;
+
+    long[] lsbs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.msbs = new long[size];
+        this.lsbs = new long[size];
+    }
+
+    /**
+     * 逐个调用 {@link UuidCreator#getTimeOrderedEpoch()}
+     */
+    @Benchmark
+    public long[] oneByOne() {
+        for (int i = 0; i < size; i++) {
+            UUID uuid = UuidCreator.getTimeOrderedEpoch();
+            msbs[i] = uuid.getMostSignificantBits();
+            lsbs[i] = uuid.getLeastSignificantBits();
+        }
+        return msbs;
+    }
+
+    @Benchmark
+    public UUID[] create() {
+        return UuidCreator.getTimeOrderedEpoch(size);
+    }
+
+    @Benchmark
+    public long[] fill() {
+        UuidCreator.fillTimeOrderedEpoch(msbs, lsbs);
+        return msbs;
+    }
+}
@@ -0,0 +1,99 @@
+package io.geewit.utils.benchmarks.core.uuid;
+
+import io.geewit.utils.core.uuid.UUID;
+import io.geewit.utils.core.uuid.codec.StandardStringCodec;
+import io.geewit.utils.core.uuid.codec.UuidBulkCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UuidBulkCodec} 批量解析与 {@link StandardStringCodec} 逐个解析的单线程基准测试
+ * <p>
+ * 模拟 CSV 导入: 每行 40 字节, UUID 位于行首。结果为单核每毫秒处理的批次数, 乘以 {@link #size} 即每核吞吐量。
+ * </p>
+ * @author geewit
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UuidBulkCodecBenchmark {
+
+    @Param({"10000"})
+    int size;
+
+    String[] strings;
+
+    byte[] data;
+
+    int[] offsets;
+
+    long[] out;
+
+    boolean[] valid;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7L);
+        this.strings = new String[size];
+        this.data = new byte[size * 40];
+        this.offsets = new int[size];
+        this.out = new long[size * 2];
+        this.valid = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            this.strings[i] = new java.util.UUID(random.nextLong(), random.nextLong()).toString();
+            this.offsets[i] = i * 40;
+            System.arraycopy(strings[i].getBytes(StandardCharsets.US_ASCII), 0, data, offsets[i], 36);
+            this.data[offsets[i] + 36] = ',';
+            this.data[offsets[i] + 39] = '\n';
+        }
+    }
+
+    /**
+     * 逐个调用 {@link StandardStringCodec#decode(CharSequence, int, int)}
+     */
+    @Benchmark
+    public long[] decodeStringsOneByOne() {
+        for (int i = 0; i < size; i++) {
+            UUID uuid = StandardStringCodec.INSTANCE.decode(strings[i], 0, 36);
+            out[i << 1] = uuid.getMostSignificantBits();
+            out[(i << 1) + 1] = uuid.getLeastSignificantBits();
+        }
+        return out;
+    }
+
+    @Benchmark
+    public long[] decodeStringsBulk() {
+        UuidBulkCodec.INSTANCE.decodeAll(strings, out);
+        return out;
+    }
+
+    /**
+     * 逐个调用 {@link StandardStringCodec#decode(byte[], int, int)}
+     */
+    @Benchmark
+    public long[] decodeBytesOneByOne() {
+        for (int i = 0; i < size; i++) {
+            UUID uuid = StandardStringCodec.INSTANCE.decode(data, offsets[i], 36);
+            out[i << 1] = uuid.getMostSignificantBits();
+            out[(i << 1) + 1] = uuid.getLeastSignificantBits();
+        }
+        return out;
+    }
+
+    @Benchmark
+    public long[] decodeBytesBulk() {
+        UuidBulkCodec.INSTANCE.decodeAll(data, offsets, out);
+        return out;
+    }
+
+    @Benchmark
+    public int validateBytesBulk() {
+        return UuidBulkCodec.INSTANCE.validateAll(data, offsets, valid);
+    }
+}
@@ -0,0 +1,40 @@
+package io.geewit.utils.benchmarks.core.uuid;
+
+import io.geewit.utils.core.uuid.UUID;
+import io.geewit.utils.core.uuid.UuidCreator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UuidCreator} UUIDv7 生成的基准测试
+ * @author geewit
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UuidCreatorBenchmark {
+
+    @Benchmark
+    public UUID getTimeOrderedEpoch() {
+        return UuidCreator.getTimeOrderedEpoch();
+    }
+
+    @Benchmark
+    public UUID getTimeOrderedEpochFast() {
+        return UuidCreator.getTimeOrderedEpochFast();
+    }
+
+    @Benchmark
+    public UUID getTimeOrderedEpochPlus1() {
+        return UuidCreator.getTimeOrderedEpochPlus1();
+    }
+
+    @Benchmark
+    public UUID getTimeOrderedEpochPlusN() {
+        return UuidCreator.getTimeOrderedEpochPlusN();
+    }
+}
@@ -0,0 +1,52 @@
+package io.geewit.utils.benchmarks.web.json;
+
+import io.geewit.utils.web.json.JsonUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JsonUtils} 的基准测试
+ * @author geewit
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonUtilsBenchmark {
+
+    /**
+     * 基准测试用的载荷
+     *
+     * @param id 主键
+     * @param name 名称
+     * @param createdAt 创建时间
+     * @param tags 标签
+     */
+    public record Payload(Long id, String name, Instant createdAt, List<String> tags) {
+    }
+
+    Payload payload;
+
+    String json;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.payload = new Payload(1234567890123L, "geewit", Instant.parse("2024-01-01T00:00:00Z"), List.of("a", "b", "c"));
+        this.json = JsonUtils.toJson(payload);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return JsonUtils.toJson(payload);
+    }
+
+    @Benchmark
+    public Payload fromJson() {
+        return JsonUtils.fromJson(json, Payload.class);
+    }
+}
@@ -0,0 +1,117 @@
+package io.geewit.utils.core.tree;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+/**
+ * 单线程的自下而上聚合过程, 复用遍历器和按深度暂存的子节点聚合值
+ * @param <N> 树节点类型
+ * @param <A> 聚合值类型
+ * @author geewit
+ */
+final class AggregateCollector<N extends TreeNode<N, ?>, A> {
+    /**
+     * 没有聚合值的占位, 聚合值本身可以为 null
+     */
+    private static final Object EMPTY = new Object();
+
+    private final TreeAggregator<N, A> aggregator;
+    private final BiConsumer<? super N, ? super A> consumer;
+    private final TreeTraverser<N> traverser = new TreeTraverser<>();
+    /**
+     * pending[depth] 为当前路径上深度为 depth - 1 的节点已经访问过的子节点的聚合值
+     */
+    private Object[] pending = filled(16);
+
+    AggregateCollector(TreeAggregator<N, A> aggregator, BiConsumer<? super N, ? super A> consumer) {
+        this.aggregator = aggregator;
+        this.consumer = consumer;
+    }
+
+    /**
+     * 顺序聚合所有树
+     *
+     * @param roots 根节点列表
+     * @param aggregator 聚合逻辑
+     * @param consumer 接收每个节点的聚合值, 子节点先于父节点
+     */
+    static <N extends TreeNode<N, ?>, A> void aggregate(Collection<N> roots,
+                                                        TreeAggregator<N, A> aggregator,
+                                                        BiConsumer<? super N, ? super A> consumer) {
+        Objects.requireNonNull(aggregator, "aggregator must not be null");
+        Objects.requireNonNull(consumer, "consumer must not be null");
+        if (roots == null || roots.isEmpty()) {
+            return;
+        }
+        AggregateCollector<N, A> collector = new AggregateCollector<>(aggregator, consumer);
+        for (N root : roots) {
+            collector.aggregate(root);
+        }
+    }
+
+    /**
+     * 在 pool 上按根节点并行聚合, 每个叶子任务负责一段根节点
+     *
+     * @param roots 根节点列表
+     * @param aggregator 聚合逻辑, 会被多个线程同时调用
+     * @param consumer 接收每个节点的聚合值, 会被多个线程同时调用, 每个节点只调用一次
+     * @param pool 线程池
+     */
+    @SuppressWarnings("unchecked")
+    static <N extends TreeNode<N, ?>, A> void aggregate(Collection<N> roots,
+                                                        TreeAggregator<N, A> aggregator,
+                                                        BiConsumer<? super N, ? super A> consumer,
+                                                        ForkJoinPool pool) {
+        Objects.requireNonNull(pool, "pool must not be null");
+        if (roots == null || roots.size() < 2 || pool.getParallelism() <= 1) {
+            aggregate(roots, aggregator, consumer);
+            return;
+        }
+        Objects.requireNonNull(aggregator, "aggregator must not be null");
+        Objects.requireNonNull(consumer, "consumer must not be null");
+        Object[] array = roots.toArray();
+        RangeTask.invoke(pool, array.length, RangeTask.threshold(pool, array.length, 1), (from, to) -> {
+            AggregateCollector<N, A> collector = new AggregateCollector<>(aggregator, consumer);
+            for (int i = from; i < to; i++) {
+                collector.aggregate((N) array[i]);
+            }
+        });
+    }
+
+    /**
+     * 聚合一棵树
+     *
+     * @param root 根节点
+     * @return 根节点的聚合值
+     */
+    @SuppressWarnings("unchecked")
+    A aggregate(N root) {
+        traverser.postOrder(root, (node, depth) -> {
+            if (depth + 2 > pending.length) {
+                int length = pending.length;
+                pending = Arrays.copyOf(pending, Math.max(depth + 2, length << 1));
+                Arrays.fill(pending, length, pending.length, EMPTY);
+            }
+            // 后序遍历时子节点都已访问过, 子节点的聚合值已经合并到 pending[depth + 1]
+            Object children = pending[depth + 1];
+            pending[depth + 1] = EMPTY;
+            A value = aggregator.lift(node);
+            if (children != EMPTY) {
+                value = aggregator.combine(value, (A) children);
+            }
+            consumer.accept(node, value);
+            Object siblings = pending[depth];
+            pending[depth] = siblings == EMPTY ? value : aggregator.combine((A) siblings, value);
+        });
+        Object value = pending[0];
+        pending[0] = EMPTY;
+        return value == EMPTY ? null : (A) value;
+    }
+
+    private static Object[] filled(int length) {
+        Object[] array = new Object[length];
+        Arrays.fill(array, EMPTY);
+        return array;
+    }
+}
@@ -0,0 +1,135 @@
+package io.geewit.utils.core.tree;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link TreeNode#children} 的默认实现, 子节点较多时维护子节点id索引。
+ * <p>
+ * 索引只在 {@link TreeNode#addChild} / {@link TreeNode#removeChild} 等写入路径上建立和更新,
+ * 并记录建立时列表的结构修改次数 ({@link #modCount}), 绕过 {@link TreeNode#addChild} 直接增删子节点后索引立即失效,
+ * {@link #set} 替换子节点时丢弃索引, 读取路径只使用有效的索引, 不修改任何状态, 因此可以在线程间共享已经构建好的树。
+ * 通过 {@link #subList} 替换子节点不会被发现, 读取路径仍会核对命中的子节点id。
+ * </p>
+ *
+ * @param <N> 树节点类型
+ * @param <Key> 主键类型
+ * @author geewit
+ */
+final class ChildList<N extends TreeNode<N, Key>, Key extends Serializable> extends ArrayList<N> {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 子节点数量超过该值时才建立子节点id索引
+     */
+    static final int INDEX_THRESHOLD = 32;
+
+    /**
+     * 子节点id → 第一个该id的子节点
+     */
+    private transient Map<Key, N> index;
+
+    /**
+     * 建立索引时的 {@link #modCount}
+     */
+    private transient int indexedModCount;
+
+    /**
+     * 建立索引时是否有重复id的子节点, 有时移除子节点后需要查找下一个同id的子节点
+     */
+    private transient boolean duplicates;
+
+    ChildList() {
+    }
+
+    /**
+     * 替换子节点时丢弃索引, 不修改 {@link #modCount}, 因此不影响正在使用的迭代器
+     */
+    @Override
+    public N set(int index, N element) {
+        this.index = null;
+        return super.set(index, element);
+    }
+
+    /**
+     * 返回与列表一致的索引, 不修改任何状态
+     *
+     * @return 索引, 没有建立或已经失效时返回null
+     */
+    Map<Key, N> index() {
+        return index != null && indexedModCount == modCount ? index : null;
+    }
+
+    /**
+     * 写入路径上调用, 子节点较多且索引失效时重建索引
+     *
+     * @return 与列表一致的索引, 子节点较少时返回null
+     */
+    Map<Key, N> syncIndex() {
+        if (this.size() <= INDEX_THRESHOLD) {
+            this.index = null;
+            return null;
+        }
+        if (this.index() == null) {
+            Map<Key, N> rebuilt = HashMap.newHashMap(this.size());
+            boolean duplicated = false;
+            for (N child : this) {
+                if (child != null && child.getId() != null && rebuilt.putIfAbsent(child.getId(), child) != null) {
+                    duplicated = true;
+                }
+            }
+            this.index = rebuilt;
+            this.duplicates = duplicated;
+            this.indexedModCount = modCount;
+        }
+        return this.index;
+    }
+
+    /**
+     * 追加子节点并同步有效的索引
+     *
+     * @param child 子节点, id不为null且不重复
+     */
+    void addIndexed(N child) {
+        boolean indexed = this.index() != null;
+        this.add(child);
+        if (indexed) {
+            this.index.put(child.getId(), child);
+            this.indexedModCount = modCount;
+        }
+    }
+
+    /**
+     * 移除指定位置的子节点并就地更新有效的索引
+     * <p>
+     * 只有建立索引时存在重复id的子节点, 才需要查找下一个同id的子节点, 否则为 O(1)
+     * </p>
+     *
+     * @param position 子节点位置
+     */
+    void removeIndexed(int position) {
+        boolean indexed = this.index() != null;
+        N removed = this.remove(position);
+        if (!indexed) {
+            return;
+        }
+        Key id = removed == null ? null : removed.getId();
+        if (id != null && this.index.get(id) == removed) {
+            this.index.remove(id);
+            if (duplicates) {
+                for (N child : this) {
+                    if (child != null && id.equals(child.getId())) {
+                        this.index.put(id, child);
+                        break;
+                    }
+                }
+            }
+        }
+        this.indexedModCount = modCount;
+    }
+}
@@ -0,0 +1,258 @@
+package io.geewit.utils.core.tree;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * 紧凑的只读树视图
+ * <p>
+ * 每个节点按其在输入列表中的位置分配一个稠密的 int 下标,
+ * 父节点 / 第一个子节点 / 下一个兄弟节点的关系保存在 {@code int[]} 中,
+ * 建树时不会修改节点的 {@link TreeNode#children}, 需要时再通过 {@link #materialize(int)} 按需填充。
+ * </p>
+ * <p>
+ * {@code Long} 主键使用开放寻址的 long → int 映射, 其他主键类型使用 {@link HashMap}。
+ * 构建完成后视图本身不可变, 可以在线程间共享; {@link #materialize(int)} 会修改节点, 需要调用方自行同步。
+ * </p>
+ * @param <N> 树节点类型
+ * @param <Key> 主键类型
+ * @author geewit
+ */
+public final class CompactTree<N extends TreeNode<N, Key>, Key extends Serializable> {
+    /**
+     * 不存在的下标
+     */
+    public static final int NONE = -1;
+
+    private final Object[] nodes;
+    private final int[] parents;
+    private final int[] firstChildren;
+    private final int[] nextSiblings;
+    private final int[] childCounts;
+    private final int[] roots;
+    private final KeyIndex keyIndex;
+
+    private CompactTree(Object[] nodes,
+                        int[] parents,
+                        int[] firstChildren,
+                        int[] nextSiblings,
+                        int[] childCounts,
+                        int[] roots,
+                        KeyIndex keyIndex) {
+        this.nodes = nodes;
+        this.parents = parents;
+        this.firstChildren = firstChildren;
+        this.nextSiblings = nextSiblings;
+        this.childCounts = childCounts;
+        this.roots = roots;
+        this.keyIndex = keyIndex;
+    }
+
+    /**
+     * 构建紧凑树, 根节点和孤儿节点的判定规则与 {@link TreeUtils#buildTree(List, Predicate, Serializable)} 一致
+     *
+     * @param nodes 节点列表
+     * @param rootPredicate 判断根节点的谓词条件，可为空
+     * @param rootId 指定的根节点ID，可为空
+     * @return 紧凑树
+     */
+    @SuppressWarnings("unchecked")
+    static <N extends TreeNode<N, Key>, Key extends Serializable> CompactTree<N, Key> build(List<N> nodes,
+                                                                                            Predicate<N> rootPredicate,
+                                                                                            Key rootId) {
+        int size = nodes == null ? 0 : nodes.size();
+        Object[] array = size == 0 ? new Object[0] : nodes.toArray();
+        KeyIndex keyIndex = KeyIndex.build(size, i -> ((TreeNode<?, ?>) array[i]).id);
+
+        int[] parents = new int[size];
+        int[] firstChildren = new int[size];
+        int[] nextSiblings = new int[size];
+        int[] childCounts = new int[size];
+        // 只在构建时用于保持子节点顺序
+        int[] lastChildren = new int[size];
+        Arrays.fill(parents, NONE);
+        Arrays.fill(firstChildren, NONE);
+        Arrays.fill(nextSiblings, NONE);
+        Arrays.fill(lastChildren, NONE);
+
+        int[] roots = new int[Math.min(size, 16)];
+        int rootCount = 0;
+        for (int i = 0; i < size; i++) {
+            N node = (N) array[i];
+            if (TreeUtils.isRoot(node, rootPredicate, rootId)) {
+                if (rootCount == roots.length) {
+                    roots = Arrays.copyOf(roots, Math.max(rootCount << 1, 1));
+                }
+                roots[rootCount++] = i;
+                continue;
+            }
+            int parent = keyIndex.indexOf(node.parentId);
+            if (parent == NONE) {
+                continue;
+            }
+            parents[i] = parent;
+            if (lastChildren[parent] == NONE) {
+                firstChildren[parent] = i;
+            } else {
+                nextSiblings[lastChildren[parent]] = i;
+            }
+            lastChildren[parent] = i;
+            childCounts[parent]++;
+        }
+        return new CompactTree<>(array, parents, firstChildren, nextSiblings, childCounts,
+                Arrays.copyOf(roots, rootCount), keyIndex);
+    }
+
+    /**
+     * 节点数量 (包括孤儿节点)
+     *
+     * @return 节点数量
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * 根节点数量
+     *
+     * @return 根节点数量
+     */
+    public int rootCount() {
+        return roots.length;
+    }
+
+    /**
+     * 第 i 个根节点的下标
+     *
+     * @param i 根节点序号
+     * @return 下标
+     */
+    public int root(int i) {
+        return roots[i];
+    }
+
+    /**
+     * 获取下标对应的节点
+     *
+     * @param index 下标
+     * @return 节点
+     */
+    @SuppressWarnings("unchecked")
+    public N node(int index) {
+        return (N) nodes[index];
+    }
+
+    /**
+     * 获取主键对应的下标, 主键重复时返回第一个
+     *
+     * @param id 主键
+     * @return 下标, 不存在时返回 {@link #NONE}
+     */
+    public int indexOf(Key id) {
+        return keyIndex.indexOf(id);
+    }
+
+    /**
+     * 父节点下标
+     *
+     * @param index 下标
+     * @return 父节点下标, 根节点和孤儿节点返回 {@link #NONE}
+     */
+    public int parent(int index) {
+        return parents[index];
+    }
+
+    /**
+     * 第一个子节点的下标
+     *
+     * @param index 下标
+     * @return 子节点下标, 没有子节点时返回 {@link #NONE}
+     */
+    public int firstChild(int index) {
+        return firstChildren[index];
+    }
+
+    /**
+     * 下一个兄弟节点的下标
+     *
+     * @param index 下标
+     * @return 兄弟节点下标, 没有时返回 {@link #NONE}
+     */
+    public int nextSibling(int index) {
+        return nextSiblings[index];
+    }
+
+    /**
+     * 子节点数量
+     *
+     * @param index 下标
+     * @return 子节点数量
+     */
+    public int childCount(int index) {
+        return childCounts[index];
+    }
+
+    /**
+     * 是否为根节点
+     *
+     * @param index 下标
+     * @return 是否为根节点
+     */
+    public boolean isRoot(int index) {
+        return Arrays.binarySearch(roots, index) >= 0;
+    }
+
+    /**
+     * 以节点顺序返回根节点列表, 不会填充 {@link TreeNode#children}
+     *
+     * @return 根节点列表
+     */
+    public List<N> getRoots() {
+        List<N> list = new ArrayList<>(roots.length);
+        for (int root : roots) {
+            list.add(this.node(root));
+        }
+        return list;
+    }
+
+    /**
+     * 以节点顺序返回子节点列表, 不会填充 {@link TreeNode#children}
+     *
+     * @param index 下标
+     * @return 子节点列表
+     */
+    public List<N> children(int index) {
+        List<N> children = new ArrayList<>(childCounts[index]);
+        for (int child = firstChildren[index]; child != NONE; child = nextSiblings[child]) {
+            children.add(this.node(child));
+        }
+        return children;
+    }
+
+    /**
+     * 按需填充下标对应节点的 {@link TreeNode#children}, 覆盖原有的子节点列表
+     *
+     * @param index 下标
+     * @return 节点
+     */
+    public N materialize(int index) {
+        N node = this.node(index);
+        node.children = this.children(index);
+        return node;
+    }
+
+    /**
+     * 填充所有节点的 {@link TreeNode#children}, 结果与 {@link TreeUtils#buildTree(List, Predicate, Serializable)} 相同
+     *
+     * @return 根节点列表
+     */
+    public List<N> materializeAll() {
+        for (int i = 0; i < nodes.length; i++) {
+            if (childCounts[i] > 0) {
+                this.materialize(i);
+            }
+        }
+        return this.getRoots();
+    }
+}
@@ -0,0 +1,214 @@
+package io.geewit.utils.core.tree;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+/**
+ * 按条件过滤后的树视图: 只包含满足条件的节点及其所有祖先节点
+ * <p>
+ * 过滤时对每棵树做一次后序遍历, 每个节点只判断一次条件,
+ * 子节点的保留结果在遍历栈上向父节点汇总, 不需要再从命中节点向上回溯。
+ * 视图不复制节点也不修改 {@link TreeNode#children}, 只按节点身份记录保留下来的子节点,
+ * 通过 {@link #getRoots()} 和 {@link #children(TreeNode)} 遍历过滤后的树。
+ * </p>
+ * <p>
+ * 视图是过滤时的快照, 构建完成后不可变, 可以在线程间共享。
+ * </p>
+ * @param <N> 树节点类型
+ * @param <Key> 主键类型
+ * @author geewit
+ */
+public final class FilteredTree<N extends TreeNode<N, Key>, Key extends Serializable> {
+    private final List<N> roots;
+    /**
+     * 保留的节点 → 保留的子节点
+     */
+    private final Map<N, List<N>> keptChildren;
+    /**
+     * 满足条件的节点
+     */
+    private final Set<N> matched;
+
+    private FilteredTree(List<N> roots, Map<N, List<N>> keptChildren, Set<N> matched) {
+        this.roots = Collections.unmodifiableList(roots);
+        this.keptChildren = keptChildren;
+        this.matched = matched;
+    }
+
+    /**
+     * 顺序过滤
+     *
+     * @param roots 根节点列表
+     * @param predicate 过滤条件
+     * @return 过滤后的视图
+     */
+    static <N extends TreeNode<N, Key>, Key extends Serializable> FilteredTree<N, Key> filter(Collection<N> roots,
+                                                                                              Predicate<? super N> predicate) {
+        Objects.requireNonNull(predicate, "predicate must not be null");
+        Collector<N> collector = new Collector<N>(predicate);
+        List<N> keptRoots = new ArrayList<>();
+        if (roots != null) {
+            for (N root : roots) {
+                if (collector.filter(root)) {
+                    keptRoots.add(root);
+                }
+            }
+        }
+        return new FilteredTree<>(keptRoots, collector.keptChildren, collector.matched);
+    }
+
+    /**
+     * 在 pool 上按根节点并行过滤, 每个叶子任务负责一段根节点, 结果与顺序过滤一致
+     *
+     * @param roots 根节点列表
+     * @param predicate 过滤条件, 会被多个线程同时调用
+     * @param pool 线程池
+     * @return 过滤后的视图
+     */
+    @SuppressWarnings("unchecked")
+    static <N extends TreeNode<N, Key>, Key extends Serializable> FilteredTree<N, Key> filter(Collection<N> roots,
+                                                                                              Predicate<? super N> predicate,
+                                                                                              ForkJoinPool pool) {
+        Objects.requireNonNull(pool, "pool must not be null");
+        if (roots == null || roots.size() < 2 || pool.getParallelism() <= 1) {
+            return filter(roots, predicate);
+        }
+        Objects.requireNonNull(predicate, "predicate must not be null");
+        Object[] array = roots.toArray();
+        boolean[] keptRoots = new boolean[array.length];
+        // 每个叶子任务的结果放在其起始下标处, 合并时按根节点顺序读取
+        Object[] collectors = new Object[array.length];
+        RangeTask.invoke(pool, array.length, RangeTask.threshold(pool, array.length, 1), (from, to) -> {
+            Collector<N> collector = new Collector<N>(predicate);
+            for (int i = from; i < to; i++) {
+                keptRoots[i] = collector.filter((N) array[i]);
+            }
+            collectors[from] = collector;
+        });
+
+        List<N> kept = new ArrayList<>();
+        Map<N, List<N>> keptChildren = new IdentityHashMap<>();
+        Set<N> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < array.length; i++) {
+            if (collectors[i] instanceof Collector<?> collector) {
+                keptChildren.putAll(((Collector<N>) collector).keptChildren);
+                matched.addAll(((Collector<N>) collector).matched);
+            }
+            if (keptRoots[i]) {
+                kept.add((N) array[i]);
+            }
+        }
+        return new FilteredTree<>(kept, keptChildren, matched);
+    }
+
+    /**
+     * 保留的根节点
+     *
+     * @return 根节点的只读列表
+     */
+    public List<N> getRoots() {
+        return roots;
+    }
+
+    /**
+     * 保留的子节点, 按 {@link TreeNode#children} 的顺序排列
+     *
+     * @param node 节点
+     * @return 子节点的只读列表, 节点没有被保留时返回空列表
+     */
+    public List<N> children(N node) {
+        List<N> children = keptChildren.get(node);
+        return children == null ? Collections.emptyList() : Collections.unmodifiableList(children);
+    }
+
+    /**
+     * 节点是否被保留 (满足条件或者是满足条件节点的祖先)
+     *
+     * @param node 节点
+     * @return 是否被保留
+     */
+    public boolean contains(N node) {
+        return keptChildren.containsKey(node);
+    }
+
+    /**
+     * 节点是否满足条件
+     *
+     * @param node 节点
+     * @return 是否满足条件
+     */
+    public boolean matches(N node) {
+        return matched.contains(node);
+    }
+
+    /**
+     * 保留的节点数量
+     *
+     * @return 节点数量
+     */
+    public int size() {
+        return keptChildren.size();
+    }
+
+    /**
+     * 满足条件的节点数量
+     *
+     * @return 节点数量
+     */
+    public int matchCount() {
+        return matched.size();
+    }
+
+    /**
+     * 单线程的过滤过程, 复用遍历器和按深度暂存的子节点列表
+     */
+    private static final class Collector<N extends TreeNode<N, ?>> {
+        private final Predicate<? super N> predicate;
+        private final TreeTraverser<N> traverser = new TreeTraverser<>();
+        private final Map<N, List<N>> keptChildren = new IdentityHashMap<>();
+        private final Set<N> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+        /**
+         * pending[depth] 为当前路径上深度为 depth - 1 的节点已经保留的子节点
+         */
+        private Object[] pending = new Object[16];
+
+        private Collector(Predicate<? super N> predicate) {
+            this.predicate = predicate;
+        }
+
+        /**
+         * 过滤一棵树
+         *
+         * @return 根节点是否被保留
+         */
+        @SuppressWarnings("unchecked")
+        private boolean filter(N root) {
+            traverser.postOrder(root, (node, depth) -> {
+                if (depth + 2 > pending.length) {
+                    pending = Arrays.copyOf(pending, Math.max(depth + 2, pending.length << 1));
+                }
+                // 后序遍历时子节点都已访问过, 其中保留下来的子节点暂存在 pending[depth + 1]
+                List<N> children = (List<N>) pending[depth + 1];
+                pending[depth + 1] = null;
+                boolean matches = predicate.test(node);
+                if (matches) {
+                    matched.add(node);
+                }
+                if (matches || children != null) {
+                    keptChildren.put(node, children == null ? Collections.emptyList() : children);
+                    List<N> siblings = (List<N>) pending[depth];
+                    if (siblings == null) {
+                        siblings = new ArrayList<>();
+                        pending[depth] = siblings;
+                    }
+                    siblings.add(node);
+                }
+            });
+            boolean kept = pending[0] != null;
+            pending[0] = null;
+            return kept;
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package io.geewit.utils.core.tree;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * 不可变的树快照, 适合多线程共享的读多写少场景
+ * <p>
+ * 节点按先序排列在扁平数组中 (结构数组: 主键 / 父节点下标 / 子树结束下标 / sign 各一列),
+ * 以节点为根的子树恰好是下标区间 [index, end), 遍历时只读连续的 int 数组, 不经过 {@link TreeNode#children}。
+ * 冻结时对主键、父子关系和 sign 做快照, 之后修改原来的节点不会影响快照,
+ * 快照本身不可变, 可以不加锁、不复制地在线程间共享。
+ * </p>
+ * <p>
+ * {@link #node(int)} 返回的是冻结时的节点对象, 只用于读取业务字段, 调用方不应修改;
+ * 结构和 sign 请通过快照的方法读取。
+ * </p>
+ * <p>
+ * {@link #withSigns(Map)}、{@link #prune(IntPredicate)} 以写时复制的方式派生新的快照:
+ * 没有变化的列 (节点、主键、父子关系、主键索引) 直接与原快照共享, 只复制发生变化的列,
+ * 原快照不受影响。
+ * </p>
+ * @param <N> 树节点类型
+ * @param <Key> 主键类型
+ * @author geewit
+ */
+public final class FrozenTree<N extends TreeNode<N, Key>, Key extends Serializable> {
+    /**
+     * 不存在的下标
+     */
+    public static final int NONE = -1;
+
+    /**
+     * 按先序排列的节点
+     */
+    private final Object[] nodes;
+    /**
+     * 冻结时的主键
+     */
+    private final Object[] ids;
+    private final int[] parents;
+    /**
+     * 子树的结束下标(不包含)
+     */
+    private final int[] ends;
+    private final int[] roots;
+    /**
+     * 冻结时的 sign, 节点不是 {@link SignedTreeNode} 时为 null
+     */
+    private final int[] signs;
+    /**
+     * 主键索引, 与主键列一起共享
+     */
+    private final LazyKeyIndex keyIndex;
+
+    private FrozenTree(Object[] nodes, Object[] ids, int[] parents, int[] ends, int[] roots, int[] signs, LazyKeyIndex keyIndex) {
+        this.nodes = nodes;
+        this.ids = ids;
+        this.parents = parents;
+        this.ends = ends;
+        this.roots = roots;
+        this.signs = signs;
+        this.keyIndex = keyIndex;
+    }
+
+    /**
+     * 冻结 {@link TreeUtils#buildTree} 返回的树
+     *
+     * @param roots 根节点列表
+     * @return 快照
+     */
+    static <N extends TreeNode<N, Key>, Key extends Serializable> FrozenTree<N, Key> freeze(Collection<N> roots) {
+        List<N> order = new ArrayList<>();
+        TreeIndex.IntList depthList = new TreeIndex.IntList();
+        if (roots != null) {
+            TreeTraverser<N> traverser = new TreeTraverser<>();
+            for (N root : roots) {
+                traverser.preOrder(root, (node, depth) -> {
+                    order.add(node);
+                    depthList.add(depth);
+                });
+            }
+        }
+        int size = order.size();
+        int[] depths = depthList.toArray();
+        Object[] nodes = order.toArray();
+        Object[] ids = new Object[size];
+        int[] parents = PreOrderIntervals.parents(depths);
+        int[] signs = null;
+        int rootCount = 0;
+        for (int i = 0; i < size; i++) {
+            N node = order.get(i);
+            ids[i] = node.id;
+            if (node instanceof SignedTreeNode<?, ?> signedNode) {
+                if (signs == null) {
+                    signs = new int[size];
+                }
+                signs[i] = signedNode.sign == null ? 0 : signedNode.sign;
+            }
+            if (parents[i] == NONE) {
+                rootCount++;
+            }
+        }
+        return create(nodes, ids, parents, signs, rootCount);
+    }
+
+    /**
+     * 根据先序排列的节点和父节点下标计算子树结束下标和根节点
+     */
+    private static <N extends TreeNode<N, Key>, Key extends Serializable> FrozenTree<N, Key> create(Object[] nodes,
+                                                                                                    Object[] ids,
+                                                                                                    int[] parents,
+                                                                                                    int[] signs,
+                                                                                                    int rootCount) {
+        int[] ends = PreOrderIntervals.ends(parents);
+        int[] roots = new int[rootCount];
+        // 根节点的子树首尾相接
+        for (int i = 0, root = 0; root < rootCount; i = ends[i]) {
+            roots[root++] = i;
+        }
+        return new FrozenTree<>(nodes, ids, parents, ends, roots, signs, new LazyKeyIndex(ids));
+    }
+
+    /**
+     * 节点数量
+     *
+     * @return 节点数量
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * 根节点数量
+     *
+     * @return 根节点数量
+     */
+    public int rootCount() {
+        return roots.length;
+    }
+
+    /**
+     * 第 i 个根节点的下标
+     *
+     * @param i 根节点序号
+     * @return 下标
+     */
+    public int root(int i) {
+        return roots[i];
+    }
+
+    /**
+     * 获取下标对应的节点, 只用于读取
+     *
+     * @param index 下标
+     * @return 节点
+     */
+    @SuppressWarnings("unchecked")
+    public N node(int index) {
+        return (N) nodes[index];
+    }
+
+    /**
+     * 冻结时的主键
+     *
+     * @param index 下标
+     * @return 主键
+     */
+    @SuppressWarnings("unchecked")
+    public Key id(int index) {
+        return (Key) ids[index];
+    }
+
+    /**
+     * 获取主键对应的下标, 主键重复时返回先序遍历中的第一个
+     *
+     * @param id 主键
+     * @return 下标, 不存在时返回 {@link #NONE}
+     */
+    public int indexOf(Key id) {
+        return keyIndex.indexOf(id);
+    }
+
+    /**
+     * 父节点下标
+     *
+     * @param index 下标
+     * @return 父节点下标, 根节点返回 {@link #NONE}
+     */
+    public int parent(int index) {
+        return parents[index];
+    }
+
+    /**
+     * 第一个子节点的下标
+     *
+     * @param index 下标
+     * @return 子节点下标, 没有子节点时返回 {@link #NONE}
+     */
+    public int firstChild(int index) {
+        return index + 1 < ends[index] ? index + 1 : NONE;
+    }
+
+    /**
+     * 下一个兄弟节点的下标, 根节点的兄弟节点为下一个根节点
+     *
+     * @param index 下标
+     * @return 兄弟节点下标, 没有时返回 {@link #NONE}
+     */
+    public int nextSibling(int index) {
+        int parent = parents[index];
+        int next = ends[index];
+        return next < (parent == NONE ? nodes.length : ends[parent]) ? next : NONE;
+    }
+
+    /**
+     * 子节点数量
+     *
+     * @param index 下标
+     * @return 子节点数量
+     */
+    public int childCount(int index) {
+        int count = 0;
+        for (int child = index + 1; child < ends[index]; child = ends[child]) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 子树的节点数量(包括自身)
+     *
+     * @param index 下标
+     * @return 节点数量
+     */
+    public int subtreeSize(int index) {
+        return ends[index] - index;
+    }
+
+    /**
+     * 判断是否为祖先节点(不包括自身)
+     *
+     * @param ancestor 祖先节点下标
+     * @param descendant 子孙节点下标
+     * @return 是否为祖先节点
+     */
+    public boolean isAncestor(int ancestor, int descendant) {
+        return ancestor < descendant && descendant < ends[ancestor];
+    }
+
+    /**
+     * 冻结时的 sign, 冻结时为 null 的 sign 视为 0
+     *
+     * @param index 下标
+     * @return sign, 节点不是 {@link SignedTreeNode} 时返回 0
+     */
+    public int sign(int index) {
+        return signs == null ? 0 : signs[index];
+    }
+
+    /**
+     * 根节点列表
+     *
+     * @return 根节点的只读列表
+     */
+    public List<N> getRoots() {
+        return this.nodeList(roots.length, i -> roots[i]);
+    }
+
+    /**
+     * 子节点列表
+     *
+     * @param index 下标
+     * @return 子节点的只读列表
+     */
+    public List<N> children(int index) {
+        int[] children = new int[this.childCount(index)];
+        for (int child = index + 1, i = 0; child < ends[index]; child = ends[child]) {
+            children[i++] = child;
+        }
+        return this.nodeList(children.length, i -> children[i]);
+    }
+
+    /**
+     * 以节点为根的子树, 按先序排列
+     *
+     * @param index 下标
+     * @return 子树节点 (包括自身) 的只读列表
+     */
+    public List<N> subtree(int index) {
+        return this.nodeList(ends[index] - index, i -> index + i);
+    }
+
+    /**
+     * 派生修改了部分 sign 的快照, 除 sign 列外与当前快照共享
+     *
+     * @param signs 主键 → 新的 sign, 不存在的主键会被忽略
+     * @return 新的快照, 没有变化时返回当前快照
+     */
+    public FrozenTree<N, Key> withSigns(Map<Key, Integer> signs) {
+        int[] copy = null;
+        for (Map.Entry<Key, Integer> entry : signs.entrySet()) {
+            int index = this.indexOf(entry.getKey());
+            int sign = entry.getValue() == null ? 0 : entry.getValue();
+            if (index == NONE || this.sign(index) == sign) {
+                continue;
+            }
+            if (copy == null) {
+                copy = this.signs == null ? new int[nodes.length] : this.signs.clone();
+            }
+            copy[index] = sign;
+        }
+        if (copy == null) {
+            return this;
+        }
+        return new FrozenTree<>(nodes, ids, parents, ends, roots, copy, keyIndex);
+    }
+
+    /**
+     * 派生修改了一个节点 sign 的快照, 除 sign 列外与当前快照共享
+     *
+     * @param id 主键
+     * @param sign 新的 sign
+     * @return 新的快照, 没有变化时返回当前快照
+     */
+    public FrozenTree<N, Key> withSign(Key id, int sign) {
+        return this.withSigns(Collections.singletonMap(id, sign));
+    }
+
+    /**
+     * 派生剪掉部分子树的快照, 节点对象与当前快照共享
+     *
+     * @param removePredicate 按下标判断是否剪掉以该节点为根的子树, 可以通过 {@link #node(int)}、{@link #sign(int)} 读取节点;
+     *                        被剪掉节点的子孙不会再被判断
+     * @return 新的快照, 没有剪掉任何节点时返回当前快照
+     */
+    public FrozenTree<N, Key> prune(IntPredicate removePredicate) {
+        int size = nodes.length;
+        int[] newIndexes = new int[size];
+        int[] kept = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; ) {
+            if (removePredicate.test(i)) {
+                i = ends[i];
+                continue;
+            }
+            newIndexes[i] = count;
+            kept[count++] = i;
+            i++;
+        }
+        if (count == size) {
+            return this;
+        }
+        Object[] newNodes = new Object[count];
+        Object[] newIds = new Object[count];
+        int[] newParents = new int[count];
+        int[] newSigns = signs == null ? null : new int[count];
+        int rootCount = 0;
+        for (int i = 0; i < count; i++) {
+            int old = kept[i];
+            newNodes[i] = nodes[old];
+            newIds[i] = ids[old];
+            if (newSigns != null) {
+                newSigns[i] = signs[old];
+            }
+            int parent = parents[old];
+            if (parent == NONE) {
+                newParents[i] = NONE;
+                rootCount++;
+            } else {
+                // 父节点被剪掉时子节点也已被剪掉, 保留节点的父节点一定保留
+                newParents[i] = newIndexes[parent];
+            }
+        }
+        return create(newNodes, newIds, newParents, newSigns, rootCount);
+    }
+
+    private List<N> nodeList(int size, IntUnaryOperator indexes) {
+        return new AbstractList<>() {
+            @Override
+            public N get(int i) {
+                Objects.checkIndex(i, size);
+                return FrozenTree.this.node(indexes.applyAsInt(i));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * 主键 → 下标的索引, 第一次查询时建立, 主键列不变的快照之间共享
+     */
+    private static final class LazyKeyIndex {
+        private final Object[] ids;
+        private volatile KeyIndex keyIndex;
+
+        private LazyKeyIndex(Object[] ids) {
+            this.ids = ids;
+        }
+
+        private int indexOf(Object id) {
+            if (id == null) {
+                return NONE;
+            }
+            KeyIndex keyIndex = this.keyIndex;
+            if (keyIndex == null) {
+                synchronized (this) {
+                    keyIndex = this.keyIndex;
+                    if (keyIndex == null) {
+                        keyIndex = KeyIndex.build(ids.length, i -> ids[i]);
+                        this.keyIndex = keyIndex;
+                    }
+                }
+            }
+            return keyIndex.indexOf(id);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.geewit.utils.core.tree;
+
+import java.util.Arrays;
+
+/**
+ * 按节点的稠密下标 (0 ~ size - 1) 保存 sign 的 int 数组
+ * <p>
+ * {@link TreeTraverseContext} 用它保存每个节点的标记参数的 sign 和状态位,
+ * 遍历过程中直接读写基本类型, 不再为每个节点装箱成 {@link Integer} 或创建 {@link NodeSignParameter}。
+ * </p>
+ * <p>
+ * 非线程安全, 不同线程写不同的下标时是安全的。
+ * </p>
+ * @author geewit
+ */
+final class IntSignStore {
+    private final int[] signs;
+
+    /**
+     * @param size 节点数量, 所有下标的 sign 初始为 0
+     */
+    IntSignStore(int size) {
+        this.signs = new int[size];
+    }
+
+    /**
+     * @return 节点数量
+     */
+    int size() {
+        return signs.length;
+    }
+
+    /**
+     * @return 下标为 index 的节点的 sign
+     */
+    int get(int index) {
+        return signs[index];
+    }
+
+    /**
+     * 设置下标为 index 的节点的 sign
+     */
+    void set(int index, int sign) {
+        signs[index] = sign;
+    }
+
+    /**
+     * @return 是否包含全部 flags 位
+     */
+    boolean test(int index, int flags) {
+        return (signs[index] & flags) == flags;
+    }
+
+    /**
+     * 设置 flags 位
+     */
+    void add(int index, int flags) {
+        signs[index] |= flags;
+    }
+
+    /**
+     * 清除 flags 位
+     */
+    void remove(int index, int flags) {
+        signs[index] &= ~flags;
+    }
+
+    /**
+     * 把所有节点的 sign 设置为同一个值
+     */
+    void fill(int sign) {
+        Arrays.fill(signs, sign);
+    }
+}
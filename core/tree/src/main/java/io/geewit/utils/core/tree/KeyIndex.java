@@ -0,0 +1,91 @@
+package io.geewit.utils.core.tree;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * 主键 → 下标的只读索引
+ * <p>
+ * 主键全部为 {@link Long} (或 null) 时使用 {@link LongIndexMap} 避免装箱, 否则使用 {@link HashMap}。
+ * null 主键不建立索引, 主键重复时保留第一个下标。
+ * 构建完成后不可变, 可以在线程间共享。
+ * </p>
+ * @author geewit
+ */
+final class KeyIndex {
+    /**
+     * 不存在的下标
+     */
+    static final int NONE = -1;
+
+    private final LongIndexMap longIndex;
+    private final Map<Object, Integer> objectIndex;
+
+    private KeyIndex(LongIndexMap longIndex, Map<Object, Integer> objectIndex) {
+        this.longIndex = longIndex;
+        this.objectIndex = objectIndex;
+    }
+
+    /**
+     * 建立索引
+     *
+     * @param size 主键数量
+     * @param ids 按下标读取主键
+     * @param <Key> 主键类型
+     * @return 索引
+     */
+    static <Key> KeyIndex build(int size, IntFunction<? extends Key> ids) {
+        return build(size, ids, null);
+    }
+
+    /**
+     * 建立索引
+     *
+     * @param size 主键数量
+     * @param ids 按下标读取主键
+     * @param duplicates 接收重复的主键 (第一次之后每出现一次接收一次), 可为空
+     * @param <Key> 主键类型
+     * @return 索引
+     */
+    static <Key> KeyIndex build(int size, IntFunction<? extends Key> ids, Consumer<? super Key> duplicates) {
+        boolean longKeys = true;
+        for (int i = 0; i < size; i++) {
+            Key id = ids.apply(i);
+            if (id != null && !(id instanceof Long)) {
+                longKeys = false;
+                break;
+            }
+        }
+        LongIndexMap longIndex = longKeys ? new LongIndexMap(size) : null;
+        Map<Object, Integer> objectIndex = longKeys ? null : HashMap.newHashMap(size);
+        for (int i = 0; i < size; i++) {
+            Key id = ids.apply(i);
+            if (id == null) {
+                continue;
+            }
+            boolean absent = longKeys ? longIndex.putIfAbsent((Long) id, i) : objectIndex.putIfAbsent(id, i) == null;
+            if (!absent && duplicates != null) {
+                duplicates.accept(id);
+            }
+        }
+        return new KeyIndex(longIndex, objectIndex);
+    }
+
+    /**
+     * 获取主键对应的下标
+     *
+     * @param id 主键
+     * @return 下标, 不存在时返回 {@link #NONE}
+     */
+    int indexOf(Object id) {
+        if (id == null) {
+            return NONE;
+        }
+        if (longIndex != null) {
+            return id instanceof Long longId ? longIndex.get(longId) : NONE;
+        }
+        return objectIndex.getOrDefault(id, NONE);
+    }
+}
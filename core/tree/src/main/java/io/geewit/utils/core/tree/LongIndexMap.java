@@ -0,0 +1,114 @@
+package io.geewit.utils.core.tree;
+
+/**
+ * long → int 的开放寻址(线性探测)哈希表, 用于 {@code Long} 主键的节点下标映射, 避免装箱
+ * <p>
+ * 不支持删除; 写入非线程安全, 构建完成后的只读访问可以在线程间共享
+ * </p>
+ * @author geewit
+ */
+final class LongIndexMap {
+    /**
+     * 不存在时返回的下标
+     */
+    static final int NOT_FOUND = -1;
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int mask;
+    private int size;
+
+    LongIndexMap(int expectedSize) {
+        int capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR));
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * 放入 key → value, 已存在时保留旧值 (与 {@code Collectors.toMap(..., (oldValue, newValue) -> oldValue)} 一致)
+     *
+     * @param key 主键
+     * @param value 下标
+     * @return 是否放入成功
+     */
+    boolean putIfAbsent(long key, int value) {
+        int slot = slot(key);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > keys.length * LOAD_FACTOR) {
+            this.rehash();
+        }
+        return true;
+    }
+
+    /**
+     * 获取 key 对应的下标
+     *
+     * @param key 主键
+     * @return 下标, 不存在时返回 {@link #NOT_FOUND}
+     */
+    int get(long key) {
+        int slot = slot(key);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        // murmur3 fmix64, 打散连续自增的主键
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    private void rehash() {
+        long[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+        boolean[] oldUsed = this.used;
+        int capacity = oldKeys.length << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = slot(oldKeys[i]);
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                used[slot] = true;
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        return n < 0 ? 1 << 30 : n;
+    }
+}
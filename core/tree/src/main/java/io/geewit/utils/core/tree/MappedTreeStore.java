@@ -0,0 +1,403 @@
+package io.geewit.utils.core.tree;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * 只读的内存映射树存储, 适合行政区划这类节点很多但不再变化的层级
+ * <p>
+ * 树先写成文件, 再以只读方式映射到内存, 导航时直接读取映射内存, 不在堆上创建节点对象,
+ * 常驻内存由操作系统的页缓存管理, 多个进程可以共享同一个文件。文件布局 (小端):
+ * <ul>
+ *     <li>32 字节的文件头: 魔数、版本、节点数量、根节点数量、主键表长度</li>
+ *     <li>按先序排列的定长节点记录, 每条 32 字节:
+ *     主键(long)、父节点下标、子树结束下标(不包含)、下一个兄弟节点下标、子节点数量、深度、sign(各 int)</li>
+ *     <li>升序排列的去重主键表(long), 以及对应的节点下标表(int), 按主键二分查找</li>
+ *     <li>根节点下标表(int)</li>
+ * </ul>
+ * 以节点为根的子树恰好是下标区间 [index, subtreeEnd), 与 {@link FrozenTree} 的下标一致。
+ * </p>
+ * <p>
+ * 只支持 Long 主键, 主键不能为空, 主键重复时按主键查找返回先序遍历中的第一个。
+ * 实例可以被多个线程同时读取, {@link #close()} 之后不能再访问。
+ * </p>
+ * @author geewit
+ */
+public final class MappedTreeStore implements AutoCloseable {
+    /**
+     * 不存在的下标
+     */
+    public static final int NONE = -1;
+
+    private static final int MAGIC = 0x53545747;
+    private static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 32;
+    private static final int RECORD_BYTES = 32;
+
+    private static final int ID_OFFSET = 0;
+    private static final int PARENT_OFFSET = 8;
+    private static final int END_OFFSET = 12;
+    private static final int NEXT_SIBLING_OFFSET = 16;
+    private static final int CHILD_COUNT_OFFSET = 20;
+    private static final int DEPTH_OFFSET = 24;
+    private static final int SIGN_OFFSET = 28;
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final int size;
+    private final int rootCount;
+    private final int keyCount;
+    private final long keysOffset;
+    private final long keyIndexesOffset;
+    private final long rootsOffset;
+
+    private MappedTreeStore(Arena arena, MemorySegment segment, int size, int rootCount, int keyCount) {
+        this.arena = arena;
+        this.segment = segment;
+        this.size = size;
+        this.rootCount = rootCount;
+        this.keyCount = keyCount;
+        this.keysOffset = HEADER_BYTES + (long) size * RECORD_BYTES;
+        this.keyIndexesOffset = keysOffset + (long) keyCount * Long.BYTES;
+        this.rootsOffset = keyIndexesOffset + (long) keyCount * Integer.BYTES;
+    }
+
+    /**
+     * 把树写入文件, 文件已存在时覆盖
+     *
+     * @param roots 根节点列表, 通常为 {@link TreeUtils#buildTree} 的结果
+     * @param path 文件路径
+     * @param <N> 树节点类型
+     * @throws IOException 写入失败
+     * @throws IllegalArgumentException 存在主键为空的节点
+     */
+    public static <N extends TreeNode<N, Long>> void write(Collection<N> roots, Path path) throws IOException {
+        write(FrozenTree.freeze(roots), path);
+    }
+
+    /**
+     * 把树快照写入文件, 文件已存在时覆盖
+     *
+     * @param tree 树快照
+     * @param path 文件路径
+     * @param <N> 树节点类型
+     * @throws IOException 写入失败
+     * @throws IllegalArgumentException 存在主键为空的节点
+     */
+    public static <N extends TreeNode<N, Long>> void write(FrozenTree<N, Long> tree, Path path) throws IOException {
+        Objects.requireNonNull(tree, "tree must not be null");
+        Objects.requireNonNull(path, "path must not be null");
+        int size = tree.size();
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            Long id = tree.id(i);
+            if (id == null) {
+                throw new IllegalArgumentException("node id must not be null, index: " + i);
+            }
+            keys[i] = id;
+        }
+        Arrays.sort(keys);
+        int keyCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (keyCount == 0 || keys[keyCount - 1] != keys[i]) {
+                keys[keyCount++] = keys[i];
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(tree.rootCount()).putInt(keyCount)
+                    .putInt(0).putLong(0L);
+            int[] depths = new int[size];
+            for (int i = 0; i < size; i++) {
+                int parent = tree.parent(i);
+                depths[i] = parent == FrozenTree.NONE ? 0 : depths[parent] + 1;
+                flushIfFull(channel, buffer, RECORD_BYTES);
+                buffer.putLong(tree.id(i))
+                        .putInt(parent)
+                        .putInt(i + tree.subtreeSize(i))
+                        .putInt(tree.nextSibling(i))
+                        .putInt(tree.childCount(i))
+                        .putInt(depths[i])
+                        .putInt(tree.sign(i));
+            }
+            for (int i = 0; i < keyCount; i++) {
+                flushIfFull(channel, buffer, Long.BYTES);
+                buffer.putLong(keys[i]);
+            }
+            for (int i = 0; i < keyCount; i++) {
+                flushIfFull(channel, buffer, Integer.BYTES);
+                buffer.putInt(tree.indexOf(keys[i]));
+            }
+            for (int i = 0; i < tree.rootCount(); i++) {
+                flushIfFull(channel, buffer, Integer.BYTES);
+                buffer.putInt(tree.root(i));
+            }
+            flushIfFull(channel, buffer, BUFFER_SIZE);
+        }
+    }
+
+    private static void flushIfFull(FileChannel channel, ByteBuffer buffer, int required) throws IOException {
+        if (buffer.remaining() >= required) {
+            return;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * 以只读方式映射 {@link #write} 写出的文件
+     *
+     * @param path 文件路径
+     * @return 树存储, 使用完毕后需要关闭
+     * @throws IOException 读取失败或文件格式错误
+     */
+    public static MappedTreeStore open(Path path) throws IOException {
+        Objects.requireNonNull(path, "path must not be null");
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                throw new IOException("not a tree store: " + path);
+            }
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize, arena);
+            if (segment.get(INT, 0) != MAGIC) {
+                throw new IOException("not a tree store: " + path);
+            }
+            int version = segment.get(INT, 4);
+            if (version != VERSION) {
+                throw new IOException("unsupported tree store version: " + version);
+            }
+            int size = segment.get(INT, 8);
+            int rootCount = segment.get(INT, 12);
+            int keyCount = segment.get(INT, 16);
+            if (size < 0 || rootCount < 0 || keyCount < 0
+                    || fileSize != HEADER_BYTES + (long) size * RECORD_BYTES + (long) keyCount * (Long.BYTES + Integer.BYTES)
+                    + (long) rootCount * Integer.BYTES) {
+                throw new IOException("tree store truncated or corrupt: " + path);
+            }
+            return new MappedTreeStore(arena, segment, size, rootCount, keyCount);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 节点数量
+     *
+     * @return 节点数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 根节点数量
+     *
+     * @return 根节点数量
+     */
+    public int rootCount() {
+        return rootCount;
+    }
+
+    /**
+     * 第 i 个根节点的下标
+     *
+     * @param i 根节点序号
+     * @return 下标
+     */
+    public int root(int i) {
+        Objects.checkIndex(i, rootCount);
+        return segment.get(INT, rootsOffset + (long) i * Integer.BYTES);
+    }
+
+    /**
+     * 主键
+     *
+     * @param index 下标
+     * @return 主键
+     */
+    public long id(int index) {
+        return segment.get(LONG, this.record(index) + ID_OFFSET);
+    }
+
+    /**
+     * 获取主键对应的下标, 在主键表中二分查找
+     *
+     * @param id 主键
+     * @return 下标, 不存在时返回 {@link #NONE}
+     */
+    public int indexOf(long id) {
+        int low = 0;
+        int high = keyCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long key = segment.get(LONG, keysOffset + (long) mid * Long.BYTES);
+            if (key < id) {
+                low = mid + 1;
+            } else if (key > id) {
+                high = mid - 1;
+            } else {
+                return segment.get(INT, keyIndexesOffset + (long) mid * Integer.BYTES);
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * 父节点下标
+     *
+     * @param index 下标
+     * @return 父节点下标, 根节点返回 {@link #NONE}
+     */
+    public int parent(int index) {
+        return segment.get(INT, this.record(index) + PARENT_OFFSET);
+    }
+
+    /**
+     * 第一个子节点的下标
+     *
+     * @param index 下标
+     * @return 子节点下标, 没有子节点时返回 {@link #NONE}
+     */
+    public int firstChild(int index) {
+        return index + 1 < this.subtreeEnd(index) ? index + 1 : NONE;
+    }
+
+    /**
+     * 下一个兄弟节点的下标, 根节点的兄弟节点为下一个根节点
+     *
+     * @param index 下标
+     * @return 兄弟节点下标, 没有时返回 {@link #NONE}
+     */
+    public int nextSibling(int index) {
+        return segment.get(INT, this.record(index) + NEXT_SIBLING_OFFSET);
+    }
+
+    /**
+     * 子节点数量
+     *
+     * @param index 下标
+     * @return 子节点数量
+     */
+    public int childCount(int index) {
+        return segment.get(INT, this.record(index) + CHILD_COUNT_OFFSET);
+    }
+
+    /**
+     * 子节点的下标
+     *
+     * @param index 下标
+     * @return 按原来的顺序排列的子节点下标
+     */
+    public int[] children(int index) {
+        int[] children = new int[this.childCount(index)];
+        int child = this.firstChild(index);
+        for (int i = 0; i < children.length; i++) {
+            children[i] = child;
+            child = this.nextSibling(child);
+        }
+        return children;
+    }
+
+    /**
+     * 深度, 根节点为 0
+     *
+     * @param index 下标
+     * @return 深度
+     */
+    public int depth(int index) {
+        return segment.get(INT, this.record(index) + DEPTH_OFFSET);
+    }
+
+    /**
+     * 子树的结束下标(不包含), 子树为下标区间 [index, subtreeEnd)
+     *
+     * @param index 下标
+     * @return 结束下标
+     */
+    public int subtreeEnd(int index) {
+        return segment.get(INT, this.record(index) + END_OFFSET);
+    }
+
+    /**
+     * 子树的节点数量(包括自身)
+     *
+     * @param index 下标
+     * @return 节点数量
+     */
+    public int subtreeSize(int index) {
+        return this.subtreeEnd(index) - index;
+    }
+
+    /**
+     * 判断是否为祖先节点(不包括自身)
+     *
+     * @param ancestor 祖先节点下标
+     * @param descendant 子孙节点下标
+     * @return 是否为祖先节点
+     */
+    public boolean isAncestor(int ancestor, int descendant) {
+        Objects.checkIndex(descendant, size);
+        return ancestor < descendant && descendant < this.subtreeEnd(ancestor);
+    }
+
+    /**
+     * 写入时的 sign, 写入时为 null 的 sign 视为 0
+     *
+     * @param index 下标
+     * @return sign, 节点不是 {@link SignedTreeNode} 时返回 0
+     */
+    public int sign(int index) {
+        return segment.get(INT, this.record(index) + SIGN_OFFSET);
+    }
+
+    /**
+     * 从节点到根节点的主键路径
+     *
+     * @param index 下标
+     * @return 主键, 第一个为节点自身, 最后一个为根节点
+     */
+    public long[] pathIds(int index) {
+        long[] ids = new long[this.depth(index) + 1];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = this.id(index);
+            index = this.parent(index);
+        }
+        return ids;
+    }
+
+    /**
+     * 解除内存映射, 之后不能再访问
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private long record(int index) {
+        Objects.checkIndex(index, size);
+        return HEADER_BYTES + (long) index * RECORD_BYTES;
+    }
+}
@@ -0,0 +1,61 @@
+package io.geewit.utils.core.tree;
+
+import java.util.Arrays;
+
+/**
+ * 先序编号的树结构计算
+ * <p>
+ * 按先序遍历给节点编号后, 以节点为根的子树恰好是编号区间 [index, end) (嵌套集合),
+ * 父节点编号和子树结束编号都可以由深度列一次顺序扫描得到, 供 {@link TreeIndex} 和 {@link FrozenTree} 共用。
+ * </p>
+ * @author geewit
+ */
+final class PreOrderIntervals {
+    /**
+     * 根节点的父节点编号
+     */
+    static final int NONE = -1;
+
+    private PreOrderIntervals() {
+    }
+
+    /**
+     * 根据先序排列的深度计算父节点编号
+     *
+     * @param depths 先序排列的节点深度, 根节点为 0
+     * @return 父节点编号, 根节点为 {@link #NONE}
+     */
+    static int[] parents(int[] depths) {
+        int[] parents = new int[depths.length];
+        // 先序遍历中每层最近访问的节点就是下一层节点的父节点
+        int[] lastByDepth = new int[16];
+        for (int i = 0; i < depths.length; i++) {
+            int depth = depths[i];
+            if (depth >= lastByDepth.length) {
+                lastByDepth = Arrays.copyOf(lastByDepth, Math.max(depth + 1, lastByDepth.length << 1));
+            }
+            parents[i] = depth == 0 ? NONE : lastByDepth[depth - 1];
+            lastByDepth[depth] = i;
+        }
+        return parents;
+    }
+
+    /**
+     * 根据先序排列的父节点编号计算子树的结束编号(不包含)
+     *
+     * @param parents 父节点编号, 根节点为 {@link #NONE}
+     * @return 子树的结束编号
+     */
+    static int[] ends(int[] parents) {
+        int size = parents.length;
+        int[] ends = new int[size];
+        // 子节点的编号都大于父节点, 倒序累加子树大小
+        for (int i = size - 1; i >= 0; i--) {
+            ends[i] += i + 1;
+            if (parents[i] != NONE) {
+                ends[parents[i]] += ends[i] - i;
+            }
+        }
+        return ends;
+    }
+}
@@ -0,0 +1,75 @@
+package io.geewit.utils.core.tree;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 把 [from, to) 区间递归二分后在 {@link ForkJoinPool} 上并行处理的任务
+ * @author geewit
+ */
+final class RangeTask extends RecursiveAction {
+
+    /**
+     * 区间处理逻辑
+     */
+    @FunctionalInterface
+    interface RangeConsumer {
+        /**
+         * 处理 [from, to) 区间
+         * @param from 起始下标(包含)
+         * @param to 结束下标(不包含)
+         */
+        void accept(int from, int to);
+    }
+
+    private final int from;
+    private final int to;
+    private final int threshold;
+    private final RangeConsumer consumer;
+
+    private RangeTask(int from, int to, int threshold, RangeConsumer consumer) {
+        this.from = from;
+        this.to = to;
+        this.threshold = threshold;
+        this.consumer = consumer;
+    }
+
+    /**
+     * 在 pool 上并行处理 [0, size), 每个叶子任务至少处理 threshold 个元素
+     *
+     * @param pool 线程池
+     * @param size 区间大小
+     * @param threshold 叶子任务的最小区间
+     * @param consumer 区间处理逻辑
+     */
+    static void invoke(ForkJoinPool pool, int size, int threshold, RangeConsumer consumer) {
+        if (size <= 0) {
+            return;
+        }
+        pool.invoke(new RangeTask(0, size, Math.max(threshold, 1), consumer));
+    }
+
+    /**
+     * 按线程池并行度计算的叶子任务区间大小
+     *
+     * @param pool 线程池
+     * @param size 区间大小
+     * @param minThreshold 最小区间
+     * @return 叶子任务区间大小
+     */
+    static int threshold(ForkJoinPool pool, int size, int minThreshold) {
+        // 每个线程分到约 4 个叶子任务, 便于工作窃取
+        return Math.max(minThreshold, size / (pool.getParallelism() << 2) + 1);
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= threshold) {
+            consumer.accept(from, to);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new RangeTask(from, middle, threshold, consumer),
+                new RangeTask(middle, to, threshold, consumer));
+    }
+}
@@ -12,6 +12,10 @@ import java.io.Serializable;
 public interface SignChildConsumer<N extends SignedTreeNode<N, Key>, Key extends Serializable> {
     /**
      * 根据父节点的sign和传入参数的sign设置子节点的sign
+     * <p>
+     * signParameter 是遍历时复用的对象(包括调用方传入的标记参数, 也会先复制到复用对象中),
+     * 只在本次调用内有效, 不能保存它的引用, 需要时复制其中的值。
+     * </p>
      * @param parentNode 父节点
      * @param childNode 子节点
      * @param signParameter 传入参数的sign
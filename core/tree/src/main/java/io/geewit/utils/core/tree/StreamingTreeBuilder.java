@@ -0,0 +1,164 @@
+package io.geewit.utils.core.tree;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * 流式构建树形结构, 节点可以按任意顺序逐个到达
+ * <p>
+ * 每到达一个节点就挂到已经到达的父节点下; 父节点还没有到达时先按父节点主键暂存,
+ * 等父节点到达后一次性挂上。不需要先把所有节点收集成 {@link List},
+ * 可以直接消费数据库游标、{@link Stream}, 或者作为 {@link Consumer} 传给分页加载 / 响应式流。
+ * </p>
+ * <p>
+ * 根节点判定、主键重复时的处理以及子节点顺序都与 {@link TreeUtils#buildTree(List, Predicate, Serializable)} 一致,
+ * 区别是最后仍然没有父节点的孤儿节点可以通过 {@link #getOrphans()} 获取。
+ * 非线程安全。
+ * </p>
+ * <pre>{@code
+ * StreamingTreeBuilder<Org, Long> builder = TreeUtils.streamingBuilder(null, null);
+ * CollectionPageableLoads.pageLoadAndConsumer(1000, orgRepository::findAll, builder);
+ * List<Org> roots = builder.build();
+ * Map<Long, List<Org>> orphans = builder.getOrphans();
+ * }</pre>
+ * @param <N> 树节点类型
+ * @param <Key> 主键类型
+ * @author geewit
+ */
+public final class StreamingTreeBuilder<N extends TreeNode<N, Key>, Key extends Serializable> implements Consumer<N> {
+    private final Predicate<N> rootPredicate;
+    private final Key rootId;
+    private final List<N> roots = new ArrayList<>();
+    /**
+     * 已经到达的节点, 主键重复时保留第一个
+     */
+    private final Map<Key, N> nodeMap = new HashMap<>();
+    /**
+     * 父节点主键 → 等待父节点到达的子节点, 按第一次等待的顺序排列
+     */
+    private final Map<Key, List<N>> parked = new LinkedHashMap<>();
+    private int count;
+    private boolean built;
+
+    StreamingTreeBuilder(Predicate<N> rootPredicate, Key rootId) {
+        this.rootPredicate = rootPredicate;
+        this.rootId = rootId;
+    }
+
+    /**
+     * 接收一个节点
+     *
+     * @param node 节点
+     * @throws IllegalStateException 已经调用过 {@link #build()}
+     */
+    @Override
+    public void accept(N node) {
+        if (built) {
+            throw new IllegalStateException("StreamingTreeBuilder has already been built");
+        }
+        count++;
+        if (node.id != null && nodeMap.putIfAbsent(node.id, node) == null) {
+            List<N> children = parked.remove(node.id);
+            if (children != null) {
+                node.children.addAll(children);
+            }
+        }
+        if (TreeUtils.isRoot(node, rootPredicate, rootId)) {
+            roots.add(node);
+            return;
+        }
+        N parent = nodeMap.get(node.parentId);
+        if (parent != null) {
+            parent.children.add(node);
+        } else {
+            parked.computeIfAbsent(node.parentId, _ -> new ArrayList<>(1)).add(node);
+        }
+    }
+
+    /**
+     * 接收迭代器中剩余的所有节点, 适用于数据库游标
+     *
+     * @param nodes 节点迭代器
+     * @return this
+     */
+    public StreamingTreeBuilder<N, Key> acceptAll(Iterator<? extends N> nodes) {
+        while (nodes.hasNext()) {
+            this.accept(nodes.next());
+        }
+        return this;
+    }
+
+    /**
+     * 接收所有节点
+     *
+     * @param nodes 节点集合, 例如一页数据
+     * @return this
+     */
+    public StreamingTreeBuilder<N, Key> acceptAll(Iterable<? extends N> nodes) {
+        for (N node : nodes) {
+            this.accept(node);
+        }
+        return this;
+    }
+
+    /**
+     * 按顺序接收流中的所有节点, 流会被消费
+     *
+     * @param nodes 节点流
+     * @return this
+     */
+    public StreamingTreeBuilder<N, Key> acceptAll(Stream<? extends N> nodes) {
+        nodes.forEachOrdered(this);
+        return this;
+    }
+
+    /**
+     * 结束接收并返回根节点列表, 之后不能再接收节点
+     *
+     * @return 根节点列表, 多次调用返回同一个列表
+     */
+    public List<N> build() {
+        if (!built) {
+            built = true;
+            nodeMap.clear();
+        }
+        return roots;
+    }
+
+    /**
+     * 已经接收的节点数量
+     *
+     * @return 节点数量
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * 仍在等待父节点的孤儿节点
+     * <p>
+     * 在 {@link #build()} 之后调用即为最终没有找到父节点的节点, 这些节点不会出现在树中。
+     * </p>
+     *
+     * @return 缺失的父节点主键 → 孤儿节点列表 (按接收顺序) 的只读视图
+     */
+    public Map<Key, List<N>> getOrphans() {
+        return Collections.unmodifiableMap(parked);
+    }
+
+    /**
+     * 孤儿节点数量
+     *
+     * @return 孤儿节点数量
+     */
+    public int orphanCount() {
+        int orphanCount = 0;
+        for (List<N> orphans : parked.values()) {
+            orphanCount += orphans.size();
+        }
+        return orphanCount;
+    }
+}
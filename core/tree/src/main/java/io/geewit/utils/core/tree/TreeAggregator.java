@@ -0,0 +1,70 @@
+package io.geewit.utils.core.tree;
+
+import java.util.Objects;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * 自下而上的子树聚合逻辑, 例如子树节点数、金额合计、最大时间戳
+ * <p>
+ * 节点的聚合值为 combine(lift(node), combine(子节点1的聚合值, 子节点2的聚合值, ...)), 子节点按 {@link TreeNode#children} 的顺序合并。
+ * combine 需要满足结合律, 不要求交换律; 不修改传入的参数时可以安全地并行聚合。
+ * 通过 {@link TreeUtils#aggregate} 在一次后序遍历中得到所有节点的聚合值。
+ * </p>
+ * @param <N> 树节点类型
+ * @param <A> 聚合值类型
+ * @author geewit
+ */
+public interface TreeAggregator<N extends TreeNode<N, ?>, A> {
+    /**
+     * 节点自身的值
+     *
+     * @param node 节点
+     * @return 节点自身的值
+     */
+    A lift(N node);
+
+    /**
+     * 合并两个聚合值
+     *
+     * @param left 左侧的聚合值
+     * @param right 右侧的聚合值
+     * @return 合并后的聚合值
+     */
+    A combine(A left, A right);
+
+    /**
+     * 根据取值逻辑和合并逻辑创建聚合逻辑
+     *
+     * @param lift 节点自身的值
+     * @param combine 合并两个聚合值, 需要满足结合律
+     * @param <N> 树节点类型
+     * @param <A> 聚合值类型
+     * @return 聚合逻辑
+     */
+    static <N extends TreeNode<N, ?>, A> TreeAggregator<N, A> of(Function<? super N, ? extends A> lift, BinaryOperator<A> combine) {
+        Objects.requireNonNull(lift, "lift must not be null");
+        Objects.requireNonNull(combine, "combine must not be null");
+        return new TreeAggregator<>() {
+            @Override
+            public A lift(N node) {
+                return lift.apply(node);
+            }
+
+            @Override
+            public A combine(A left, A right) {
+                return combine.apply(left, right);
+            }
+        };
+    }
+
+    /**
+     * 子树的节点数量(包括自身)
+     *
+     * @param <N> 树节点类型
+     * @return 聚合逻辑
+     */
+    static <N extends TreeNode<N, ?>> TreeAggregator<N, Integer> count() {
+        return of(_ -> 1, Integer::sum);
+    }
+}
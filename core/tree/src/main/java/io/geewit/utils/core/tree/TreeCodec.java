@@ -0,0 +1,498 @@
+package io.geewit.utils.core.tree;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 已建好的树的紧凑二进制编码, 用于把树缓存到文件或缓存服务后在启动时快速还原, 代替按行数据重新建树
+ * <p>
+ * 节点按先序逐个写出, 每个节点一条记录:
+ * <ul>
+ *     <li>头部 varint: 根节点, 或父节点相对上一个节点的层级差 (上一个节点的子节点为 0, 兄弟节点为 1, 依次类推),
+ *     低两位标记 id 与根节点的 parentId 是否为空</li>
+ *     <li>根节点的 parentId, 非根节点的 parentId 取父节点的 id, 不再写出</li>
+ *     <li>id, Long 主键写为与上一个主键之差的 zigzag varint, 其它主键写为长度 varint 加字节</li>
+ *     <li>sign 的 zigzag varint, 只在节点为 {@link SignedTreeNode} 时写出</li>
+ * </ul>
+ * 先序中父节点总在当前路径上, 读取时只需保留当前路径, 因此读写都是流式的, 内存占用只与树的深度有关。
+ * {@link TreeNode#parentIds}、{@link SignedTreeNode#transmission} 以及子类自己的字段不会写出。
+ * </p>
+ * <p>
+ * 同一个实例可以被多个线程同时使用。
+ * </p>
+ * @param <N> 树节点类型
+ * @param <Key> 主键类型
+ * @author geewit
+ */
+public final class TreeCodec<N extends TreeNode<N, Key>, Key extends Serializable> {
+    private static final byte[] MAGIC = {'G', 'W', 'T'};
+    private static final byte VERSION = 1;
+
+    private static final int FLAG_SIGNS = 1;
+
+    private static final byte LONG_KEYS = 0;
+    private static final byte BYTES_KEYS = 1;
+
+    private static final int END = 0;
+    private static final int ROOT = 1;
+    /**
+     * 头部低两位: id 不为空、根节点的 parentId 不为空
+     */
+    private static final int HAS_ID = 1;
+    private static final int HAS_PARENT_ID = 2;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Supplier<N> factory;
+    private final byte keyType;
+    private final Function<Key, byte[]> encoder;
+    private final Function<byte[], Key> decoder;
+
+    private TreeCodec(Supplier<N> factory, byte keyType, Function<Key, byte[]> encoder, Function<byte[], Key> decoder) {
+        this.factory = Objects.requireNonNull(factory, "factory must not be null");
+        this.keyType = keyType;
+        this.encoder = encoder;
+        this.decoder = decoder;
+    }
+
+    /**
+     * Long 主键的编码
+     *
+     * @param factory 创建空节点
+     * @param <N> 树节点类型
+     * @return 编码
+     */
+    public static <N extends TreeNode<N, Long>> TreeCodec<N, Long> ofLong(Supplier<N> factory) {
+        return new TreeCodec<>(factory, LONG_KEYS, null, null);
+    }
+
+    /**
+     * String 主键的编码, 主键按 UTF-8 写出
+     *
+     * @param factory 创建空节点
+     * @param <N> 树节点类型
+     * @return 编码
+     */
+    public static <N extends TreeNode<N, String>> TreeCodec<N, String> ofString(Supplier<N> factory) {
+        return of(factory, key -> key.getBytes(StandardCharsets.UTF_8), bytes -> new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 自定义主键序列化的编码
+     *
+     * @param factory 创建空节点
+     * @param encoder 主键 → 字节
+     * @param decoder 字节 → 主键
+     * @param <N> 树节点类型
+     * @param <Key> 主键类型
+     * @return 编码
+     */
+    public static <N extends TreeNode<N, Key>, Key extends Serializable> TreeCodec<N, Key> of(Supplier<N> factory,
+                                                                                              Function<Key, byte[]> encoder,
+                                                                                              Function<byte[], Key> decoder) {
+        Objects.requireNonNull(encoder, "encoder must not be null");
+        Objects.requireNonNull(decoder, "decoder must not be null");
+        return new TreeCodec<>(factory, BYTES_KEYS, encoder, decoder);
+    }
+
+    /**
+     * 把树写入输出流, 输出流不会被关闭
+     *
+     * @param roots 根节点列表
+     * @param out 输出流
+     * @throws IOException 写入失败
+     */
+    public void write(Collection<N> roots, OutputStream out) throws IOException {
+        Objects.requireNonNull(out, "out must not be null");
+        try {
+            this.encode(roots, new StreamOutput(out));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 把树写入 buffer 的当前位置
+     *
+     * @param roots 根节点列表
+     * @param buffer 目标 buffer
+     * @throws java.nio.BufferOverflowException buffer 剩余空间不足
+     */
+    public void write(Collection<N> roots, ByteBuffer buffer) {
+        Objects.requireNonNull(buffer, "buffer must not be null");
+        this.encode(roots, new BufferOutput(buffer));
+    }
+
+    /**
+     * 把树编码为字节数组
+     *
+     * @param roots 根节点列表
+     * @return 编码后的字节
+     */
+    public byte[] toByteArray(Collection<N> roots) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(BUFFER_SIZE);
+        this.encode(roots, new StreamOutput(out));
+        return out.toByteArray();
+    }
+
+    /**
+     * 从输入流读取树, 不会读取超出树数据的字节; 输入流没有缓冲时请包装为 {@link BufferedInputStream}
+     *
+     * @param in 输入流
+     * @return 根节点列表
+     * @throws IOException 读取失败或数据不完整、格式错误
+     */
+    public List<N> read(InputStream in) throws IOException {
+        Objects.requireNonNull(in, "in must not be null");
+        return this.decode(new StreamInput(in));
+    }
+
+    /**
+     * 从 buffer 的当前位置读取树, 读取后 buffer 的位置在树数据之后
+     *
+     * @param buffer 源 buffer
+     * @return 根节点列表
+     * @throws IllegalArgumentException 数据不完整或格式错误
+     */
+    public List<N> read(ByteBuffer buffer) {
+        Objects.requireNonNull(buffer, "buffer must not be null");
+        try {
+            return this.decode(new BufferInput(buffer));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 从字节数组读取树
+     *
+     * @param bytes 编码后的字节
+     * @return 根节点列表
+     * @throws IllegalArgumentException 数据不完整或格式错误
+     */
+    public List<N> read(byte[] bytes) {
+        return this.read(ByteBuffer.wrap(bytes));
+    }
+
+    private void encode(Collection<N> roots, Output output) {
+        boolean signs = roots != null && !roots.isEmpty() && roots.iterator().next() instanceof SignedTreeNode<?, ?>;
+        output.write(MAGIC);
+        output.write(VERSION);
+        output.write(signs ? FLAG_SIGNS : 0);
+        output.write(keyType);
+        if (roots != null && !roots.isEmpty()) {
+            Encoder encoding = new Encoder(output, signs);
+            TreeTraverser<N> traverser = new TreeTraverser<>();
+            for (N root : roots) {
+                traverser.preOrder(root, encoding);
+            }
+        }
+        output.writeVarLong(END);
+        output.flush();
+    }
+
+    /**
+     * 按先序写出节点, 记录上一个节点的深度以计算层级差
+     */
+    private final class Encoder implements ObjIntConsumer<N> {
+        private final Output output;
+        private final boolean signs;
+        private int previousDepth = -1;
+        private long previousKey;
+
+        private Encoder(Output output, boolean signs) {
+            this.output = output;
+            this.signs = signs;
+        }
+
+        @Override
+        public void accept(N node, int depth) {
+            Key id = node.id;
+            int flags = id == null ? 0 : HAS_ID;
+            if (depth == 0) {
+                Key parentId = node.parentId;
+                flags |= parentId == null ? 0 : HAS_PARENT_ID;
+                output.writeVarLong((ROOT << 2) | flags);
+                if (parentId != null) {
+                    this.writeKey(parentId);
+                }
+            } else {
+                output.writeVarLong((long) (previousDepth + 1 - depth + 2) << 2 | flags);
+            }
+            if (id != null) {
+                this.writeKey(id);
+            }
+            if (signs) {
+                Integer sign = node instanceof SignedTreeNode<?, ?> signed ? signed.sign : null;
+                output.writeVarLong(sign == null ? 0 : zigzag(sign) + 1);
+            }
+            previousDepth = depth;
+        }
+
+        private void writeKey(Key key) {
+            if (keyType == LONG_KEYS) {
+                long value = (Long) key;
+                output.writeVarLong(zigzag(value - previousKey));
+                previousKey = value;
+            } else {
+                byte[] bytes = encoder.apply(key);
+                output.writeVarLong(bytes.length);
+                output.write(bytes);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<N> decode(Input input) throws IOException {
+        for (byte magic : MAGIC) {
+            if (input.read() != magic) {
+                throw new IOException("not a tree codec stream");
+            }
+        }
+        int version = input.read();
+        if (version != VERSION) {
+            throw new IOException("unsupported tree codec version: " + version);
+        }
+        boolean signs = (input.read() & FLAG_SIGNS) != 0;
+        int type = input.read();
+        if (type != keyType) {
+            throw new IOException("key type mismatch: " + type);
+        }
+        List<N> roots = new ArrayList<>();
+        // 当前路径, path[size - 1] 为上一个节点
+        Object[] path = new Object[16];
+        int size = 0;
+        long[] previousKey = new long[1];
+        while (true) {
+            long header = input.readVarLong();
+            long kind = header >>> 2;
+            if (kind == END) {
+                return roots;
+            }
+            N node = factory.get();
+            if (node.children == null) {
+                node.children = new ChildList<>();
+            }
+            if (kind == ROOT) {
+                node.parentId = (header & HAS_PARENT_ID) == 0 ? null : this.readKey(input, previousKey);
+                roots.add(node);
+                size = 0;
+            } else {
+                long up = kind - 2;
+                if (up >= size) {
+                    throw new IOException("invalid parent level: " + up);
+                }
+                size -= (int) up;
+                N parent = (N) path[size - 1];
+                node.parent = parent;
+                node.parentId = parent.id;
+                parent.children.add(node);
+            }
+            node.id = (header & HAS_ID) == 0 ? null : this.readKey(input, previousKey);
+            if (signs) {
+                long sign = input.readVarLong();
+                if (node instanceof SignedTreeNode<?, ?> signed) {
+                    signed.sign = sign == 0 ? null : unzigzag(sign - 1);
+                }
+            }
+            if (size == path.length) {
+                path = Arrays.copyOf(path, size << 1);
+            }
+            path[size++] = node;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Key readKey(Input input, long[] previousKey) throws IOException {
+        if (keyType == LONG_KEYS) {
+            long value = previousKey[0] + unzigzagLong(input.readVarLong());
+            previousKey[0] = value;
+            return (Key) Long.valueOf(value);
+        }
+        long length = input.readVarLong();
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IOException("invalid key length: " + length);
+        }
+        return decoder.apply(input.read((int) length));
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzagLong(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int unzigzag(long value) {
+        return (int) unzigzagLong(value);
+    }
+
+    /**
+     * 写出端
+     */
+    private abstract static class Output {
+        abstract void write(int b);
+
+        abstract void write(byte[] bytes);
+
+        void flush() {
+        }
+
+        final void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                this.write((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            this.write((int) value);
+        }
+    }
+
+    /**
+     * 带缓冲的输出流写出端, 写入失败时抛出 {@link UncheckedIOException}
+     */
+    private static final class StreamOutput extends Output {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+
+        private StreamOutput(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        void write(int b) {
+            if (position == buffer.length) {
+                this.flush();
+            }
+            buffer[position++] = (byte) b;
+        }
+
+        @Override
+        void write(byte[] bytes) {
+            if (bytes.length > buffer.length - position) {
+                this.flush();
+                if (bytes.length > buffer.length) {
+                    this.writeOut(bytes, bytes.length);
+                    return;
+                }
+            }
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        @Override
+        void flush() {
+            this.writeOut(buffer, position);
+            position = 0;
+        }
+
+        private void writeOut(byte[] bytes, int length) {
+            try {
+                out.write(bytes, 0, length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static final class BufferOutput extends Output {
+        private final ByteBuffer buffer;
+
+        private BufferOutput(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        void write(int b) {
+            buffer.put((byte) b);
+        }
+
+        @Override
+        void write(byte[] bytes) {
+            buffer.put(bytes);
+        }
+    }
+
+    /**
+     * 读取端
+     */
+    private abstract static class Input {
+        /**
+         * @return 下一个字节 (0 ~ 255)
+         * @throws EOFException 数据不完整
+         */
+        abstract int read() throws IOException;
+
+        abstract byte[] read(int length) throws IOException;
+
+        final long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = this.read();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("malformed varint");
+        }
+    }
+
+    private static final class StreamInput extends Input {
+        private final InputStream in;
+
+        private StreamInput(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        int read() throws IOException {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            return b;
+        }
+
+        @Override
+        byte[] read(int length) throws IOException {
+            byte[] bytes = in.readNBytes(length);
+            if (bytes.length < length) {
+                throw new EOFException();
+            }
+            return bytes;
+        }
+    }
+
+    private static final class BufferInput extends Input {
+        private final ByteBuffer buffer;
+
+        private BufferInput(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        int read() throws IOException {
+            if (!buffer.hasRemaining()) {
+                throw new EOFException("tree data truncated");
+            }
+            return buffer.get() & 0xFF;
+        }
+
+        @Override
+        byte[] read(int length) throws IOException {
+            if (buffer.remaining() < length) {
+                throw new EOFException("tree data truncated");
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return bytes;
+        }
+    }
+}
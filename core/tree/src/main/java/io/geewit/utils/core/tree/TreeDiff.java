@@ -0,0 +1,320 @@
+package io.geewit.utils.core.tree;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * 两次建树结果之间按 {@link TreeNode#id} 比较的差异, 以及把差异应用到旧树上的补丁
+ * <p>
+ * 差异包括新增的节点、删除的节点、父节点变化的节点以及 {@link SignedTreeNode#sign} 变化的节点,
+ * 不包括兄弟节点之间的顺序。
+ * </p>
+ * <p>
+ * 比较时先在两棵 {@link FrozenTree} 上各做一次倒序扫描, 为每个子树计算 64 位哈希
+ * (主键、sign 以及子节点哈希的无序组合); 然后按先序扫描, 主键相同且子树哈希相同时再逐个比较两棵子树的主键、sign 和结构,
+ * 确认没有变化后整棵子树直接跳过, 不会因为哈希碰撞漏掉差异; 比较只读连续的数组, 不查找主键,
+ * 所以总耗时为 O(n), 变化越少跳过的越多。主键重复的节点只比较先序遍历中的第一个。
+ * </p>
+ * @param <N> 树节点类型
+ * @param <Key> 主键类型
+ * @author geewit
+ */
+public final class TreeDiff<N extends TreeNode<N, Key>, Key extends Serializable> {
+    /**
+     * 新增的节点
+     *
+     * @param node 新树中的节点
+     * @param parentId 新树中的父节点主键, 根节点为 null
+     * @param <N> 树节点类型
+     * @param <Key> 主键类型
+     */
+    public record Insert<N, Key>(N node, Key parentId) {
+    }
+
+    /**
+     * 父节点变化的节点
+     *
+     * @param id 主键
+     * @param oldParentId 旧树中的父节点主键, 根节点为 null
+     * @param newParentId 新树中的父节点主键, 根节点为 null
+     * @param <Key> 主键类型
+     */
+    public record Move<Key>(Key id, Key oldParentId, Key newParentId) {
+    }
+
+    /**
+     * sign 变化的节点
+     *
+     * @param id 主键
+     * @param oldSign 旧树中的 sign
+     * @param newSign 新树中的 sign
+     * @param <Key> 主键类型
+     */
+    public record SignChange<Key>(Key id, int oldSign, int newSign) {
+    }
+
+    private final List<Insert<N, Key>> inserted;
+    private final List<Key> removed;
+    private final List<Move<Key>> moved;
+    private final List<SignChange<Key>> signChanged;
+
+    private TreeDiff(List<Insert<N, Key>> inserted, List<Key> removed, List<Move<Key>> moved, List<SignChange<Key>> signChanged) {
+        this.inserted = Collections.unmodifiableList(inserted);
+        this.removed = Collections.unmodifiableList(removed);
+        this.moved = Collections.unmodifiableList(moved);
+        this.signChanged = Collections.unmodifiableList(signChanged);
+    }
+
+    /**
+     * 比较两个快照
+     *
+     * @param oldTree 旧树
+     * @param newTree 新树
+     * @return 差异
+     */
+    static <N extends TreeNode<N, Key>, Key extends Serializable> TreeDiff<N, Key> diff(FrozenTree<N, Key> oldTree,
+                                                                                        FrozenTree<N, Key> newTree) {
+        long[] oldHashes = subtreeHashes(oldTree);
+        long[] newHashes = subtreeHashes(newTree);
+        List<Insert<N, Key>> inserted = new ArrayList<>();
+        List<Key> removed = new ArrayList<>();
+        List<Move<Key>> moved = new ArrayList<>();
+        List<SignChange<Key>> signChanged = new ArrayList<>();
+
+        // 新树中的节点: 新增 / 移动 / sign 变化
+        for (int i = 0; i < newTree.size(); ) {
+            Key id = newTree.id(i);
+            Key parentId = parentId(newTree, i);
+            int old = oldTree.indexOf(id);
+            if (old == FrozenTree.NONE) {
+                inserted.add(new Insert<>(newTree.node(i), parentId));
+                i++;
+                continue;
+            }
+            Key oldParentId = parentId(oldTree, old);
+            if (!Objects.equals(oldParentId, parentId)) {
+                moved.add(new Move<>(id, oldParentId, parentId));
+            }
+            if (oldTree.sign(old) != newTree.sign(i)) {
+                signChanged.add(new SignChange<>(id, oldTree.sign(old), newTree.sign(i)));
+            }
+            i = oldHashes[old] == newHashes[i] && sameSubtree(oldTree, old, newTree, i) ? i + newTree.subtreeSize(i) : i + 1;
+        }
+        // 旧树中的节点: 删除
+        for (int i = 0; i < oldTree.size(); ) {
+            Key id = oldTree.id(i);
+            int current = newTree.indexOf(id);
+            if (current == FrozenTree.NONE) {
+                removed.add(id);
+                i++;
+                continue;
+            }
+            i = oldHashes[i] == newHashes[current] && sameSubtree(oldTree, i, newTree, current) ? i + oldTree.subtreeSize(i) : i + 1;
+        }
+        return new TreeDiff<>(inserted, removed, moved, signChanged);
+    }
+
+    /**
+     * 倒序计算每个子树的哈希, 子节点的下标都大于父节点
+     */
+    private static long[] subtreeHashes(FrozenTree<?, ?> tree) {
+        long[] hashes = new long[tree.size()];
+        for (int i = hashes.length - 1; i >= 0; i--) {
+            Object id = tree.id(i);
+            long hash = idHash(id);
+            hash = mix(hash * 0x9E3779B97F4A7C15L + tree.sign(i));
+            // 子节点哈希求和, 与兄弟节点顺序无关
+            long children = 0;
+            for (int child = tree.firstChild(i); child != FrozenTree.NONE; child = tree.nextSibling(child)) {
+                children += mix(hashes[child]);
+            }
+            hashes[i] = mix(hash ^ children);
+        }
+        return hashes;
+    }
+
+    /**
+     * 主键的 64 位哈希: {@code Long} 取原值, 字符串按字符计算 64 位的 FNV-1a, 其他类型取 {@link Object#hashCode()}
+     */
+    private static long idHash(Object id) {
+        if (id instanceof Long longId) {
+            return longId;
+        }
+        if (id instanceof String string) {
+            long hash = 0xCBF29CE484222325L;
+            for (int i = 0; i < string.length(); i++) {
+                hash = (hash ^ string.charAt(i)) * 0x100000001B3L;
+            }
+            return hash;
+        }
+        return Objects.hashCode(id);
+    }
+
+    /**
+     * 子树哈希相同时按先序逐个比较主键、sign 和父节点的相对位置, 排除哈希碰撞
+     * <p>
+     * 兄弟节点顺序不同时返回 false, 调用方继续逐个比较子节点, 结果仍然正确
+     * </p>
+     */
+    private static boolean sameSubtree(FrozenTree<?, ?> oldTree, int old, FrozenTree<?, ?> newTree, int current) {
+        int size = oldTree.subtreeSize(old);
+        if (size != newTree.subtreeSize(current)) {
+            return false;
+        }
+        for (int k = 0; k < size; k++) {
+            if (oldTree.sign(old + k) != newTree.sign(current + k) || !Objects.equals(oldTree.id(old + k), newTree.id(current + k))) {
+                return false;
+            }
+            if (k > 0 && oldTree.parent(old + k) - old != newTree.parent(current + k) - current) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * SplitMix64 的混合函数
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    private static <Key extends Serializable> Key parentId(FrozenTree<?, Key> tree, int index) {
+        int parent = tree.parent(index);
+        return parent == FrozenTree.NONE ? null : tree.id(parent);
+    }
+
+    /**
+     * 新增的节点, 按新树的先序排列, 父节点总是排在子节点之前
+     *
+     * @return 只读列表
+     */
+    public List<Insert<N, Key>> getInserted() {
+        return inserted;
+    }
+
+    /**
+     * 删除的节点主键, 按旧树的先序排列
+     *
+     * @return 只读列表
+     */
+    public List<Key> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * 父节点变化的节点
+     *
+     * @return 只读列表
+     */
+    public List<Move<Key>> getMoved() {
+        return moved;
+    }
+
+    /**
+     * sign 变化的节点
+     *
+     * @return 只读列表
+     */
+    public List<SignChange<Key>> getSignChanged() {
+        return signChanged;
+    }
+
+    /**
+     * 两棵树是否没有差异
+     *
+     * @return 是否没有差异
+     */
+    public boolean isEmpty() {
+        return inserted.isEmpty() && removed.isEmpty() && moved.isEmpty() && signChanged.isEmpty();
+    }
+
+    /**
+     * 变化的数量
+     *
+     * @return 变化的数量
+     */
+    public int size() {
+        return inserted.size() + removed.size() + moved.size() + signChanged.size();
+    }
+
+    /**
+     * 把差异应用到旧树上, 旧树的节点会被直接修改
+     * <p>
+     * 依次删除节点、新增节点、移动节点、修改 sign。新增和移动的节点追加到新父节点子节点列表的末尾,
+     * 所以结果与新树只有兄弟节点顺序的区别。
+     * </p>
+     *
+     * @param roots 旧树的根节点列表, 不会被修改
+     * @param copier 复制新增节点的逻辑, 需要返回新的对象, 复制结果的 {@link TreeNode#children} 会被重置为空列表
+     * @return 应用差异后的根节点列表
+     */
+    public List<N> apply(Collection<N> roots, UnaryOperator<N> copier) {
+        List<N> result = roots == null ? new ArrayList<>() : new ArrayList<>(roots);
+        Map<Key, N> nodeMap = new HashMap<>();
+        Map<Key, N> parentMap = new HashMap<>();
+        TreeTraverser<N> traverser = new TreeTraverser<>();
+        traverser.preOrder(result, node -> {
+            nodeMap.putIfAbsent(node.id, node);
+            if (node.children != null) {
+                for (N child : node.children) {
+                    parentMap.putIfAbsent(child.id, node);
+                }
+            }
+        });
+
+        for (Key id : removed) {
+            N node = nodeMap.remove(id);
+            if (node != null) {
+                detach(result, parentMap.remove(id), node);
+            }
+        }
+        for (Insert<N, Key> insert : inserted) {
+            N node = copier.apply(insert.node());
+            node.children = new ChildList<>();
+            nodeMap.put(node.id, node);
+            attach(result, nodeMap, parentMap, insert.parentId(), node);
+        }
+        for (Move<Key> move : moved) {
+            N node = nodeMap.get(move.id());
+            if (node != null) {
+                detach(result, parentMap.remove(move.id()), node);
+                node.parentId = move.newParentId();
+                attach(result, nodeMap, parentMap, move.newParentId(), node);
+            }
+        }
+        for (SignChange<Key> signChange : signChanged) {
+            if (nodeMap.get(signChange.id()) instanceof SignedTreeNode<?, ?> node) {
+                node.sign = signChange.newSign();
+            }
+        }
+        return result;
+    }
+
+    private static <N extends TreeNode<N, Key>, Key extends Serializable> void detach(List<N> roots, N parent, N node) {
+        List<N> siblings = parent == null ? roots : parent.children;
+        for (int i = 0; i < siblings.size(); i++) {
+            if (siblings.get(i) == node) {
+                siblings.remove(i);
+                return;
+            }
+        }
+    }
+
+    private static <N extends TreeNode<N, Key>, Key extends Serializable> void attach(List<N> roots,
+                                                                                      Map<Key, N> nodeMap,
+                                                                                      Map<Key, N> parentMap,
+                                                                                      Key parentId,
+                                                                                      N node) {
+        N parent = parentId == null ? null : nodeMap.get(parentId);
+        if (parent == null) {
+            roots.add(node);
+            return;
+        }
+        parent.children.add(node);
+        parentMap.put(node.id, parent);
+    }
+}
@@ -0,0 +1,369 @@
+package io.geewit.utils.core.tree;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * 祖先 / 子孙关系的只读索引
+ * <p>
+ * 按先序遍历给每个节点编号, 以节点为根的子树恰好是编号区间 [index, end) (嵌套集合),
+ * 所以祖先判断、子孙列表、深度都是 O(1);
+ * 最近公共祖先是两个编号之间深度最小的节点的父节点, 第一次查询时建立 O(n) 的分块区间最小值索引, 之后每次 O(1)。
+ * </p>
+ * <p>
+ * 索引是构建时树结构的快照, 之后修改 {@link TreeNode#children} 不会反映到索引中。
+ * 构建完成后不可变, 可以在线程间共享; {@link #fillParentIds(String)} 会修改节点, 需要调用方自行同步。
+ * 主键重复时以先序遍历中第一个节点为准。
+ * </p>
+ * @param <N> 树节点类型
+ * @param <Key> 主键类型
+ * @author geewit
+ */
+public final class TreeIndex<N extends TreeNode<N, Key>, Key extends Serializable> {
+    /**
+     * 不存在的编号
+     */
+    public static final int NONE = -1;
+
+    /**
+     * 按先序编号排列的节点
+     */
+    private final Object[] nodes;
+    private final int[] parents;
+    private final int[] depths;
+    /**
+     * 子树的结束编号(不包含)
+     */
+    private final int[] ends;
+    private final KeyIndex keyIndex;
+    private final List<N> preOrder;
+    /**
+     * 深度的区间最小值索引, 第一次查询最近公共祖先时建立
+     */
+    private volatile DepthRangeMin depthRangeMin;
+
+    @SuppressWarnings("unchecked")
+    private TreeIndex(Object[] nodes, int[] parents, int[] depths, int[] ends, KeyIndex keyIndex) {
+        this.nodes = nodes;
+        this.parents = parents;
+        this.depths = depths;
+        this.ends = ends;
+        this.keyIndex = keyIndex;
+        this.preOrder = Collections.unmodifiableList((List<N>) (List<?>) Arrays.asList(nodes));
+    }
+
+    /**
+     * 根据 {@link TreeUtils#buildTree} 返回的根节点建立索引
+     *
+     * @param roots 根节点列表
+     * @return 索引
+     */
+    static <N extends TreeNode<N, Key>, Key extends Serializable> TreeIndex<N, Key> build(Collection<N> roots) {
+        List<N> order = new ArrayList<>();
+        IntList depthList = new IntList();
+        if (roots != null) {
+            TreeTraverser<N> traverser = new TreeTraverser<>();
+            for (N root : roots) {
+                traverser.preOrder(root, (node, depth) -> {
+                    order.add(node);
+                    depthList.add(depth);
+                });
+            }
+        }
+        Object[] nodes = order.toArray();
+        int[] depths = depthList.toArray();
+        int[] parents = PreOrderIntervals.parents(depths);
+        int[] ends = PreOrderIntervals.ends(parents);
+        KeyIndex keyIndex = KeyIndex.build(nodes.length, i -> ((TreeNode<?, ?>) nodes[i]).id);
+        return new TreeIndex<>(nodes, parents, depths, ends, keyIndex);
+    }
+
+    /**
+     * 节点数量
+     *
+     * @return 节点数量
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * 获取主键对应的先序编号
+     *
+     * @param id 主键
+     * @return 编号, 不存在时返回 {@link #NONE}
+     */
+    public int indexOf(Key id) {
+        return keyIndex.indexOf(id);
+    }
+
+    /**
+     * 获取编号对应的节点
+     *
+     * @param index 编号
+     * @return 节点
+     */
+    @SuppressWarnings("unchecked")
+    public N node(int index) {
+        return (N) nodes[index];
+    }
+
+    /**
+     * 获取主键对应的节点
+     *
+     * @param id 主键
+     * @return 节点, 不存在时返回 null
+     */
+    public N get(Key id) {
+        int index = this.indexOf(id);
+        return index == NONE ? null : this.node(index);
+    }
+
+    /**
+     * 父节点
+     *
+     * @param id 主键
+     * @return 父节点, 根节点或不存在时返回 null
+     */
+    public N parent(Key id) {
+        int index = this.indexOf(id);
+        return index == NONE || parents[index] == NONE ? null : this.node(parents[index]);
+    }
+
+    /**
+     * 节点深度
+     *
+     * @param id 主键
+     * @return 深度, 根节点为 0, 不存在时返回 {@link #NONE}
+     */
+    public int depth(Key id) {
+        int index = this.indexOf(id);
+        return index == NONE ? NONE : depths[index];
+    }
+
+    /**
+     * 子树的节点数量(包括自身)
+     *
+     * @param id 主键
+     * @return 节点数量, 不存在时返回 0
+     */
+    public int subtreeSize(Key id) {
+        int index = this.indexOf(id);
+        return index == NONE ? 0 : ends[index] - index;
+    }
+
+    /**
+     * 判断是否为祖先节点(不包括自身)
+     *
+     * @param ancestorId 祖先节点主键
+     * @param descendantId 子孙节点主键
+     * @return 是否为祖先节点
+     */
+    public boolean isAncestor(Key ancestorId, Key descendantId) {
+        int ancestor = this.indexOf(ancestorId);
+        int descendant = this.indexOf(descendantId);
+        return ancestor != NONE && descendant != NONE && ancestor < descendant && descendant < ends[ancestor];
+    }
+
+    /**
+     * 所有子孙节点(不包括自身), 按先序排列
+     *
+     * @param id 主键
+     * @return 子孙节点的只读视图, 不存在时返回空列表
+     */
+    public List<N> descendants(Key id) {
+        int index = this.indexOf(id);
+        if (index == NONE) {
+            return Collections.emptyList();
+        }
+        return preOrder.subList(index + 1, ends[index]);
+    }
+
+    /**
+     * 从根节点到父节点的所有祖先节点
+     *
+     * @param id 主键
+     * @return 祖先节点列表, 根节点或不存在时返回空列表
+     */
+    public List<N> ancestors(Key id) {
+        int index = this.indexOf(id);
+        if (index == NONE) {
+            return Collections.emptyList();
+        }
+        N[] ancestors = newArray(depths[index]);
+        for (int parent = parents[index], i = ancestors.length - 1; parent != NONE; parent = parents[parent], i--) {
+            ancestors[i] = this.node(parent);
+        }
+        return Arrays.asList(ancestors);
+    }
+
+    /**
+     * 最近公共祖先, 一个节点是另一个节点的祖先时返回该祖先节点
+     *
+     * @param id1 主键
+     * @param id2 主键
+     * @return 最近公共祖先, 不在同一棵树或不存在时返回 null
+     */
+    public N lowestCommonAncestor(Key id1, Key id2) {
+        int index1 = this.indexOf(id1);
+        int index2 = this.indexOf(id2);
+        if (index1 == NONE || index2 == NONE) {
+            return null;
+        }
+        int from = Math.min(index1, index2);
+        int to = Math.max(index1, index2);
+        if (to < ends[from]) {
+            return this.node(from);
+        }
+        // (from, to] 中深度最小的节点是最近公共祖先的子节点, 不在同一棵树时为根节点
+        int parent = parents[this.minDepth(from + 1, to)];
+        return parent == NONE ? null : this.node(parent);
+    }
+
+    /**
+     * 一次先序遍历填充所有节点的 {@link TreeNode#parentIds}: 从根节点到父节点的主键以 delimiter 连接, 根节点为空字符串
+     *
+     * @param delimiter 分隔符
+     */
+    public void fillParentIds(String delimiter) {
+        for (int i = 0; i < nodes.length; i++) {
+            N node = this.node(i);
+            int parent = parents[i];
+            if (parent == NONE) {
+                node.parentIds = "";
+            } else {
+                N parentNode = this.node(parent);
+                String parentIds = parentNode.parentIds;
+                node.parentIds = parentIds.isEmpty()
+                        ? String.valueOf(parentNode.id)
+                        : parentIds + delimiter + parentNode.id;
+            }
+        }
+    }
+
+    /**
+     * @return [from, to] 中深度最小的编号
+     */
+    private int minDepth(int from, int to) {
+        DepthRangeMin rangeMin = this.depthRangeMin;
+        if (rangeMin == null) {
+            rangeMin = new DepthRangeMin(depths);
+            this.depthRangeMin = rangeMin;
+        }
+        return rangeMin.min(from, to);
+    }
+
+    @SuppressWarnings("unchecked")
+    private N[] newArray(int length) {
+        return (N[]) new TreeNode<?, ?>[length];
+    }
+
+    /**
+     * 深度的区间最小值查询
+     * <p>
+     * 编号按 32 个一块: 块内每个编号保存一个位掩码, 记录从块首到该编号的单调栈
+     * (深度严格递增, 栈中每个编号的深度都小于它之后到该编号的所有深度),
+     * 块内查询取掩码中不小于起点的最低位; 跨块查询再加上块最小值的稀疏表。
+     * 共约 n + (n / 32) * log2(n / 32) 个 int, 200 万个节点约 12 MB, 查询 O(1)。
+     * </p>
+     */
+    static final class DepthRangeMin {
+        private static final int BLOCK_SHIFT = 5;
+        private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+        private final int[] depths;
+        private final int[] masks;
+        /**
+         * blockTable[k][b] 为块 [b, b + 2^k) 中深度最小的编号
+         */
+        private final int[][] blockTable;
+
+        DepthRangeMin(int[] depths) {
+            int size = depths.length;
+            int blocks = (size + BLOCK_SIZE - 1) >>> BLOCK_SHIFT;
+            int[] masks = new int[size];
+            int[] blockMins = new int[blocks];
+            for (int block = 0; block < blocks; block++) {
+                int start = block << BLOCK_SHIFT;
+                int end = Math.min(start + BLOCK_SIZE, size);
+                int mask = 0;
+                for (int i = start; i < end; i++) {
+                    // 弹出栈顶(最高位)深度不小于当前编号的编号
+                    while (mask != 0 && depths[start + 31 - Integer.numberOfLeadingZeros(mask)] >= depths[i]) {
+                        mask &= ~Integer.highestOneBit(mask);
+                    }
+                    mask |= 1 << (i - start);
+                    masks[i] = mask;
+                }
+                blockMins[block] = start + Integer.numberOfTrailingZeros(mask);
+            }
+            int levels = blocks == 0 ? 0 : 32 - Integer.numberOfLeadingZeros(blocks);
+            int[][] blockTable = new int[levels][];
+            if (levels > 0) {
+                blockTable[0] = blockMins;
+            }
+            for (int level = 1; level < levels; level++) {
+                int half = 1 << (level - 1);
+                int[] previous = blockTable[level - 1];
+                int[] row = new int[blocks - (1 << level) + 1];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = lower(depths, previous[i], previous[i + half]);
+                }
+                blockTable[level] = row;
+            }
+            this.depths = depths;
+            this.masks = masks;
+            this.blockTable = blockTable;
+        }
+
+        /**
+         * @return [from, to] 中深度最小的编号
+         */
+        int min(int from, int to) {
+            int fromBlock = from >>> BLOCK_SHIFT;
+            int toBlock = to >>> BLOCK_SHIFT;
+            if (fromBlock == toBlock) {
+                return this.inBlock(from, to);
+            }
+            int min = lower(depths, this.inBlock(from, (fromBlock << BLOCK_SHIFT) + BLOCK_SIZE - 1), this.inBlock(toBlock << BLOCK_SHIFT, to));
+            if (fromBlock + 1 < toBlock) {
+                int length = toBlock - fromBlock - 1;
+                int level = 31 - Integer.numberOfLeadingZeros(length);
+                int[] row = blockTable[level];
+                min = lower(depths, min, lower(depths, row[fromBlock + 1], row[toBlock - (1 << level)]));
+            }
+            return min;
+        }
+
+        /**
+         * @return 同一块内 [from, to] 中深度最小的编号
+         */
+        private int inBlock(int from, int to) {
+            int start = from & -BLOCK_SIZE;
+            return start + Integer.numberOfTrailingZeros(masks[to] & (-1 << (from - start)));
+        }
+
+        private static int lower(int[] depths, int left, int right) {
+            return depths[left] <= depths[right] ? left : right;
+        }
+    }
+
+    /**
+     * 构建时收集深度用的 int 列表
+     */
+    static final class IntList {
+        private int[] values = new int[64];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -6,11 +6,7 @@ import lombok.ToString;
 import lombok.experimental.FieldNameConstants;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.*;
 
 /**
  * 简单树节点
@@ -44,25 +40,112 @@ public abstract class TreeNode<N extends TreeNode<N, Key>, Key extends Serializa
     /**
      * 子级节点
      */
-    protected List<N> children = new ArrayList<>();
+    protected List<N> children = new ChildList<>();
 
     /**
      * 添加子节点到当前节点的子节点列表中
      * 如果子节点列表为空，则创建新的列表并添加该子节点
      * 如果子节点列表不为空，则检查是否已存在相同ID的子节点，如果不存在则添加
+     * <p>
+     * 默认的子节点列表在子节点数量超过 32 时使用子节点id索引检查重复, 均摊 O(1),
+     * 通过 {@link #setChildren} 设置的其他列表逐个比较
+     * </p>
      *
      * @param child 要添加的子节点，不能为null
      */
     public void addChild(N child) {
         // 如果子节点列表为空，创建新的列表并添加子节点
         if(children == null) {
-            children = Stream.of(child).collect(Collectors.toList());
-        } else {
-            // 检查子节点列表中是否已存在相同ID的节点，避免重复添加
-            if (children.stream().filter(Objects::nonNull).map(TreeNode::getId).filter(Objects::nonNull).noneMatch(id -> id.equals(child.getId()))) {
-                children.add(child);
+            children = new ChildList<>();
+            children.add(child);
+            return;
+        }
+        Key childId = child.getId();
+        if (childId == null) {
+            children.add(child);
+            return;
+        }
+        ChildList<N, Key> list = this.childList();
+        if (list != null) {
+            Map<Key, N> index = list.syncIndex();
+            if (index != null) {
+                N existing = index.get(childId);
+                if (existing != null && !childId.equals(existing.getId())) {
+                    // 子节点的id被直接修改过, 逐个比较
+                    existing = this.findChild(childId);
+                }
+                if (existing == null) {
+                    list.addIndexed(child);
+                }
+                return;
+            }
+        }
+        // 检查子节点列表中是否已存在相同ID的节点，避免重复添加
+        if (this.findChild(childId) == null) {
+            children.add(child);
+        }
+    }
+
+    /**
+     * 根据id获取子节点, 不修改节点的任何状态
+     *
+     * @param id 子节点id
+     * @return 第一个id相同的子节点, 不存在时返回null
+     */
+    public N getChild(Key id) {
+        if (id == null || children == null || children.isEmpty()) {
+            return null;
+        }
+        ChildList<N, Key> list = this.childList();
+        if (list != null) {
+            Map<Key, N> index = list.index();
+            if (index != null) {
+                N child = index.get(id);
+                if (child == null || id.equals(child.getId())) {
+                    return child;
+                }
+            }
+        }
+        return this.findChild(id);
+    }
+
+    /**
+     * 根据id移除子节点
+     *
+     * @param id 子节点id
+     * @return 被移除的子节点, 不存在时返回null
+     */
+    public N removeChild(Key id) {
+        N child = this.getChild(id);
+        if (child == null) {
+            return null;
+        }
+        for (int i = 0; i < children.size(); i++) {
+            if (children.get(i) == child) {
+                ChildList<N, Key> list = this.childList();
+                if (list != null) {
+                    list.removeIndexed(i);
+                } else {
+                    children.remove(i);
+                }
+                break;
+            }
+        }
+        return child;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ChildList<N, Key> childList() {
+        return children instanceof ChildList<?, ?> list ? (ChildList<N, Key>) list : null;
+    }
+
+    private N findChild(Key id) {
+        for (N child : children) {
+            if (child != null && id.equals(child.getId())) {
+                return child;
             }
         }
+        return null;
     }
 
     /**
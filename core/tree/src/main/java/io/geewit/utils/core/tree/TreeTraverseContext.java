@@ -1,5 +1,6 @@
 package io.geewit.utils.core.tree;
 
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -7,6 +8,9 @@ import lombok.experimental.FieldNameConstants;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -59,13 +63,39 @@ public class TreeTraverseContext<N extends SignedTreeNode<N, Key>, Key extends S
     @Builder.Default
     private boolean compress = Boolean.FALSE;
 
+    /**
+     * 标记时的并行度, 大于 1 时在 {@link ForkJoinPool} 上并行处理各个根节点的树以及靠近根节点的子树,
+     * 结果与顺序处理一致; 此时各个 consumer 会被多个线程同时调用, 需要是线程安全的。
+     * 根节点的父节点也在 nodes 中或者节点 id 重复时仍然顺序处理
+     */
+    @Builder.Default
+    private int parallelism = 1;
+
+    /**
+     * 并行标记使用的线程池, 多次标记之间复用; 为空时使用 {@link ForkJoinPool#commonPool()}。
+     * 由调用方创建和关闭, parallelism 只决定是否并行以及拆分任务的粒度
+     */
+    private ForkJoinPool forkJoinPool;
+
+    /**
+     * 建树前是否校验节点列表, 开启后发现 parentId 形成的环时抛出 {@link IllegalStateException},
+     * 避免按 parentId 向上查找时死循环; 孤儿节点等校验结果保存在 validation 中
+     */
+    @Builder.Default
+    private boolean validate = false;
+
+    /**
+     * 开启 validate 时建树前的校验结果
+     */
+    private TreeValidation<Key> validation;
+
     /**
      * 输入的节点标记参数集合
      */
     private Collection<NodeSignParameter<Key>> signParameters;
 
     /**
-     * 输入的节点标记参数Map(方便获取)
+     * 输入的节点标记参数Map(方便获取), 只包含有效的输入参数, 0 标记向下 / 向上传递以及 overwrite 补充的参数保存在 signStore 中
      */
     private Map<Key, NodeSignParameter<Key>> signParametersMap;
 
@@ -90,6 +120,34 @@ public class TreeTraverseContext<N extends SignedTreeNode<N, Key>, Key extends S
 
     private Predicate<N> rootPredicate;
 
+    /**
+     * 复用的非递归遍历器
+     */
+    @FieldNameConstants.Exclude
+    @Getter(AccessLevel.NONE)
+    private final TreeTraverser<N> traverser = new TreeTraverser<>();
+
+    /**
+     * 顺序标记时使用的缓冲区
+     */
+    @FieldNameConstants.Exclude
+    @Getter(AccessLevel.NONE)
+    private final SignBuffer<N, Key> signBuffer = new SignBuffer<>(traverser);
+
+    /**
+     * 按节点下标保存的标记参数
+     */
+    @FieldNameConstants.Exclude
+    @Getter(AccessLevel.NONE)
+    private final SignParameterStore<N, Key> signStore = new SignParameterStore<>();
+
+    /**
+     * 多次增量标记之间复用的状态
+     */
+    @FieldNameConstants.Exclude
+    @Getter(AccessLevel.NONE)
+    private final DeltaState<Key> deltaState = new DeltaState<>();
+
     /**
      * 清除所有数据结构和引用
      * 此方法将释放所有持有的集合对象和引用，将其设置为null以帮助垃圾回收。
@@ -135,6 +193,9 @@ public class TreeTraverseContext<N extends SignedTreeNode<N, Key>, Key extends S
         this.transmissionChildConsumer = null;
         this.compressChildConsumer = null;
         this.rootPredicate = null;
+        this.validation = null;
+        this.signStore.clear();
+        this.deltaState.clear();
     }
 
     private void buildTree() {
@@ -145,6 +206,10 @@ public class TreeTraverseContext<N extends SignedTreeNode<N, Key>, Key extends S
         if (this.roots != null) {
             return;
         }
+        if (this.validate) {
+            this.validation = TreeValidation.validate(nodes, rootPredicate, null);
+            this.validation.throwIfCyclic();
+        }
         this.roots = new ArrayList<>();
         this.nodeMap = nodes.stream().collect(Collectors.toMap(TreeNode::getId, node -> {
             if (node.sign == null) {
@@ -175,72 +240,55 @@ public class TreeTraverseContext<N extends SignedTreeNode<N, Key>, Key extends S
                 .filter(s -> s.getId() != null && s.getSign() != null)
                 .collect(Collectors.toMap(NodeSignParameter::getId,
                         s -> s, (oldValue, _) -> oldValue));
-        signParameters.forEach(sp -> {
-            if ((sp.getTransmissionDown() != null && sp.getTransmissionDown()) || (sp.getTransmissionUp() != null && sp.getTransmissionUp())) {
-                if (sp.getSign() != null && sp.getSign() == 0) {
-                    N node = nodeMap.get(sp.getId());
-                    if (node != null) {
-                        if (sp.getTransmissionDown() != null && sp.getTransmissionDown()) {
-                            Stack<N> downStack = new Stack<>();
-                            downStack.push(node);
-                            while (!downStack.isEmpty()) {
-                                N current = downStack.pop();
-                                NodeSignParameter<Key> childSignParameter = signParametersMap.get(current.id);
-                                if (childSignParameter == null) {
-                                    signParametersMap.put(current.id, NodeSignParameter.<Key>builder()
-                                            .id(current.id)
-                                            .sign(0)
-                                            .transmissionUp(Boolean.FALSE)
-                                            .build());
-                                }
-                                List<N> children = current.children;
-                                if (children != null && !children.isEmpty()) {
-                                    for (N child : children) {
-                                        downStack.push(child);
-                                    }
-                                }
-                            }
-                        }
-
-                        if (sp.getTransmissionUp() != null && sp.getTransmissionUp()) {
-                            Stack<N> upStack = new Stack<>();
-                            upStack.push(node);
-                            while (!upStack.isEmpty()) {
-                                N current = upStack.pop();
-                                NodeSignParameter<Key> childSignParameter = signParametersMap.get(current.id);
-                                if (childSignParameter == null) {
-                                    signParametersMap.put(current.id, NodeSignParameter.<Key>builder()
-                                            .id(current.id)
-                                            .sign(0)
-                                            .transmissionDown(Boolean.FALSE)
-                                            .build());
-                                }
-                                N parent = nodeMap.get(current.parentId);
-                                if (parent != null) {
-                                    upStack.push(parent);
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        });
+        signStore.reset(nodeMap);
+        for (NodeSignParameter<Key> sp : signParametersMap.values()) {
+            signStore.putExplicit(signStore.indexOf(sp.getId()), sp);
+        }
+        signParameters.forEach(this::expandZeroSignParameter);
 
         if (this.overwrite) {
             if (this.nodes == null || this.nodes.isEmpty()) {
                 return;
             }
             for (N node : this.nodes) {
-                signParametersMap.putIfAbsent(node.getId(), NodeSignParameter
-                        .<Key>builder()
-                        .id(node.id)
-                        .sign(0)
-                        .transmission(Boolean.FALSE)
-                        .build());
+                signStore.putZeroIfAbsent(signStore.indexOf(node), false, false);
+            }
+        }
+    }
+
+    /**
+     * 0 标记向下 / 向上传递时, 为子树 / 祖先节点补充 sign == 0 的标记参数(已存在时不覆盖)
+     *
+     * @param sp 输入的节点标记参数
+     */
+    private void expandZeroSignParameter(NodeSignParameter<Key> sp) {
+        if (!isZeroDown(sp) && !isZeroUp(sp)) {
+            return;
+        }
+        N node = nodeMap.get(sp.getId());
+        if (node == null) {
+            return;
+        }
+        if (isZeroDown(sp)) {
+            traverser.preOrder(node, current -> signStore.putZeroIfAbsent(signStore.indexOf(current), true, false));
+        }
+
+        if (isZeroUp(sp)) {
+            for (N current = node; current != null; current = this.parentOf(current)) {
+                signStore.putZeroIfAbsent(signStore.indexOf(current), false, true);
             }
         }
     }
 
+    private static boolean isZeroDown(NodeSignParameter<?> sp) {
+        return sp != null && sp.getSign() != null && sp.getSign() == 0
+                && sp.getTransmissionDown() != null && sp.getTransmissionDown();
+    }
+
+    private static boolean isZeroUp(NodeSignParameter<?> sp) {
+        return sp != null && sp.getSign() != null && sp.getSign() == 0
+                && sp.getTransmissionUp() != null && sp.getTransmissionUp();
+    }
 
     /**
      * 从根节点开始递归标记所有节点
@@ -273,105 +321,456 @@ public class TreeTraverseContext<N extends SignedTreeNode<N, Key>, Key extends S
         }
     }
 
+    /**
+     * 增量标记: 在已经执行过 {@link #cascadeSign()} 的树上合并变化的标记参数并重新标记
+     * <p>
+     * 复用已构建的 nodeMap / roots 和 signParametersMap, 变化的参数按 id 覆盖原有的参数,
+     * 只重新计算变化节点的子树以及变化节点到根节点的路径, 路径之外的节点只在自身或父节点的 sign 发生变化时才重新计算,
+     * 代价为 O(深度 + 受影响的子树) 而不是整棵树。
+     * 还没有标记过时等同于合并参数后执行 {@link #cascadeSign()}。
+     * 合并后的 signParameters 在多次增量标记之间复用, 是按 id 去重的只读集合。
+     * </p>
+     * <p>
+     * 开启 compress 时, 标记完成后只对受影响的区域和 sign 发生变化的节点重新压缩。
+     * </p>
+     *
+     * @param deltaParameters 变化的节点标记参数
+     */
+    public void applyDelta(Collection<NodeSignParameter<Key>> deltaParameters) {
+        if (deltaParameters == null || deltaParameters.isEmpty() || nodes == null || nodes.isEmpty()) {
+            return;
+        }
+        if (roots == null || nodeMap == null || signParametersMap == null) {
+            Map<Key, NodeSignParameter<Key>> mergedParameters = new LinkedHashMap<>();
+            if (signParameters != null) {
+                signParameters.stream().filter(TreeTraverseContext::isValid).forEach(sp -> mergedParameters.putIfAbsent(sp.getId(), sp));
+            }
+            deltaParameters.stream().filter(TreeTraverseContext::isValid).forEach(sp -> mergedParameters.put(sp.getId(), sp));
+            this.signParameters = new ArrayList<>(mergedParameters.values());
+            this.cascadeSign();
+            return;
+        }
+        Map<Key, NodeSignParameter<Key>> explicitParameters = this.mergeSignParameters(deltaParameters);
+
+        //region 变化的节点, 祖先节点也有变化时只保留最上层的节点
+        Set<Key> deltaKeys = new LinkedHashSet<>();
+        for (NodeSignParameter<Key> sp : deltaParameters) {
+            if (isValid(sp) && nodeMap.containsKey(sp.getId())) {
+                deltaKeys.add(sp.getId());
+            }
+        }
+        List<N> tops = new ArrayList<>();
+        for (Key deltaKey : deltaKeys) {
+            N node = nodeMap.get(deltaKey);
+            boolean covered = false;
+            for (N parent = this.parentOf(node); parent != null; parent = this.parentOf(parent)) {
+                if (deltaKeys.contains(parent.id)) {
+                    covered = true;
+                    break;
+                }
+            }
+            if (!covered) {
+                tops.add(node);
+            }
+        }
+        if (tops.isEmpty()) {
+            return;
+        }
+        //endregion
+
+        //region 重新计算受影响区域的标记参数
+        // 路径上的祖先节点及其深度
+        Map<N, Integer> pathDepths = new IdentityHashMap<>();
+        // 变化节点的子树, 自上而下
+        List<N> subtreeNodes = new ArrayList<>();
+        for (N top : tops) {
+            Deque<N> chain = new ArrayDeque<>();
+            for (N parent = this.parentOf(top); parent != null; parent = this.parentOf(parent)) {
+                chain.push(parent);
+            }
+            boolean zeroDown = false;
+            int depth = 0;
+            for (N ancestor : chain) {
+                if (pathDepths.putIfAbsent(ancestor, depth) == null) {
+                    this.resetSignParameter(ancestor, zeroDown, explicitParameters);
+                }
+                zeroDown |= isZeroDown(explicitParameters.get(ancestor.id));
+                depth++;
+            }
+
+            // 按深度记录最近访问的节点的子节点是否继承向下传递的 0 标记
+            BitSet zeroDownDepths = new BitSet();
+            boolean topZeroDown = zeroDown;
+            traverser.preOrder(top, (node, nodeDepth) -> {
+                boolean nodeZeroDown = nodeDepth == 0 ? topZeroDown : zeroDownDepths.get(nodeDepth - 1);
+                subtreeNodes.add(node);
+                this.resetSignParameter(node, nodeZeroDown, explicitParameters);
+                zeroDownDepths.set(nodeDepth, nodeZeroDown || isZeroDown(explicitParameters.get(node.id)));
+            });
+        }
+        List<N> path = new ArrayList<>(pathDepths.keySet());
+        path.sort(Comparator.comparingInt(pathDepths::get));
+        //endregion
+
+        //region 向下传递sign, 修复已存在sign可能缺漏
+        if (transmission) {
+            // 与 cascadeSign 一样自下而上: 先处理子树, 再处理路径上的祖先节点
+            for (int i = subtreeNodes.size() - 1; i >= 0; i--) {
+                this.transmissionDownSign(subtreeNodes.get(i));
+            }
+            for (int i = path.size() - 1; i >= 0; i--) {
+                this.transmissionDownSign(path.get(i));
+            }
+        }
+        //endregion
+
+        // 修改过sign的节点缓存栈
+        Deque<N> changedNodeStack = new ArrayDeque<>();
+        for (N top : tops) {
+            this.signSubtree(top, changedNodeStack, signBuffer);
+        }
+        //region 自下而上重新计算路径上的祖先节点
+        Deque<N> nodeStack = new ArrayDeque<>();
+        for (int i = path.size() - 1; i >= 0; i--) {
+            nodeStack.push(path.get(i));
+            while (!nodeStack.isEmpty()) {
+                this.signNode(nodeStack.pop(), nodeStack, changedNodeStack, true, signBuffer.parameter);
+            }
+        }
+        //endregion
+        Collection<N> changedNodes = compress ? Collections.newSetFromMap(new IdentityHashMap<>()) : null;
+        this.propagateChangedSigns(changedNodeStack, changedNodes);
+
+        if (compress) {
+            changedNodes.addAll(path);
+            changedNodes.addAll(subtreeNodes);
+            this.compressRegion(changedNodes, new IdentityHashMap<>(pathDepths));
+        }
+    }
+
+    /**
+     * 把变化的标记参数按 id 合并到 signParameters, 并更新向上传递的 0 标记数量
+     * <p>
+     * signParameters 被替换过时根据新的 signParameters 重建增量标记的状态
+     * </p>
+     *
+     * @param deltaParameters 变化的节点标记参数
+     * @return 合并后有效的标记参数, key: id
+     */
+    private Map<Key, NodeSignParameter<Key>> mergeSignParameters(Collection<NodeSignParameter<Key>> deltaParameters) {
+        Map<Key, NodeSignParameter<Key>> explicitParameters = deltaState.signParameters;
+        if (!deltaState.ready || signParameters != deltaState.published) {
+            deltaState.clear();
+            if (signParameters != null) {
+                for (NodeSignParameter<Key> sp : signParameters) {
+                    if (isValid(sp) && explicitParameters.putIfAbsent(sp.getId(), sp) == null && isZeroUp(sp)) {
+                        this.countZeroUp(sp.getId(), 1);
+                    }
+                }
+            }
+            deltaState.ready = true;
+        }
+        for (NodeSignParameter<Key> sp : deltaParameters) {
+            if (isValid(sp)) {
+                NodeSignParameter<Key> oldParameter = explicitParameters.put(sp.getId(), sp);
+                if (isZeroUp(oldParameter) != isZeroUp(sp)) {
+                    this.countZeroUp(sp.getId(), isZeroUp(sp) ? 1 : -1);
+                }
+            }
+        }
+        // 发布副本, 调用方拿到的集合不会随后续的增量标记变化
+        deltaState.published = new ArrayList<>(explicitParameters.values());
+        this.signParameters = deltaState.published;
+        return explicitParameters;
+    }
+
+    /**
+     * 更新节点及其所有祖先节点的子树中向上传递的 0 标记数量
+     */
+    private void countZeroUp(Key id, int increment) {
+        Map<Key, Integer> zeroUpCounts = deltaState.zeroUpCounts;
+        for (N node = nodeMap.get(id); node != null; node = this.parentOf(node)) {
+            zeroUpCounts.merge(node.id, increment, (oldValue, value) -> oldValue + value == 0 ? null : oldValue + value);
+        }
+    }
+
+    private static boolean isValid(NodeSignParameter<?> sp) {
+        return sp != null && sp.getId() != null && sp.getSign() != null;
+    }
+
+    /**
+     * 按照 {@link #buildSignParametersMap()} 的优先级重新计算节点的标记参数:
+     * 传入的参数 > 祖先节点向下传递的 0 标记 > 子孙节点向上传递的 0 标记 > overwrite
+     */
+    private void resetSignParameter(N node, boolean zeroDown, Map<Key, NodeSignParameter<Key>> explicitParameters) {
+        int index = signStore.indexOf(node);
+        NodeSignParameter<Key> explicitParameter = explicitParameters.get(node.id);
+        if (explicitParameter != null) {
+            signParametersMap.put(node.id, explicitParameter);
+            signStore.putExplicit(index, explicitParameter);
+            return;
+        }
+        signParametersMap.remove(node.id);
+        if (zeroDown) {
+            signStore.putZero(index, true, false);
+        } else if (deltaState.zeroUpCounts.containsKey(node.id)) {
+            signStore.putZero(index, false, true);
+        } else if (overwrite) {
+            signStore.putZero(index, false, false);
+        } else {
+            signStore.remove(index);
+        }
+    }
+
+    /**
+     * 自下而上地压缩受影响区域的节点及其子节点的sign
+     *
+     * @param region 受影响的节点
+     * @param depths 已知深度的节点, 计算其余节点的深度时复用并补充
+     */
+    private void compressRegion(Collection<N> region, Map<N, Integer> depths) {
+        Set<N> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<N> compressNodes = new ArrayList<>();
+        for (N node : region) {
+            int depth = this.depthOf(node, depths);
+            if (visited.add(node)) {
+                compressNodes.add(node);
+            }
+            for (N child : node.children) {
+                depths.putIfAbsent(child, depth + 1);
+                if (visited.add(child)) {
+                    compressNodes.add(child);
+                }
+            }
+        }
+        compressNodes.sort(Comparator.comparingInt(depths::get).reversed());
+        for (N node : compressNodes) {
+            N parentNode = this.parentOf(node);
+            if (parentNode != null) {
+                compressChildConsumer.accept(parentNode, node);
+            }
+        }
+    }
+
+    private void transmissionDownSign(N node) {
+        N parentNode = this.parentOf(node);
+        if (parentNode != null) {
+            transmissionChildConsumer.accept(parentNode, node);
+        }
+    }
+
+    private N parentOf(N node) {
+        return node.parentId == null ? null : nodeMap.get(node.parentId);
+    }
+
+    /**
+     * 计算节点的深度, 只向上查找到第一个已知深度的祖先节点, 并记录途经节点的深度
+     */
+    private int depthOf(N node, Map<N, Integer> depths) {
+        Integer known = depths.get(node);
+        if (known != null) {
+            return known;
+        }
+        Deque<N> chain = new ArrayDeque<>();
+        int depth = -1;
+        for (N current = node; current != null; current = this.parentOf(current)) {
+            known = depths.get(current);
+            if (known != null) {
+                depth = known;
+                break;
+            }
+            chain.push(current);
+        }
+        while (!chain.isEmpty()) {
+            depths.put(chain.pop(), ++depth);
+        }
+        return depth;
+    }
+
     /**
      * 自下而上根据 signParameters 标记树节点
      */
     private void signByParameters() {
+        if (this.isParallel()) {
+            int splitDepth = Integer.SIZE - Integer.numberOfLeadingZeros(parallelism - 1) + 1;
+            List<SignTask> tasks = new ArrayList<>(roots.size());
+            for (N root : roots) {
+                tasks.add(new SignTask(root, 0, splitDepth));
+            }
+            this.pool().invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+            return;
+        }
+        // 修改过sign的节点缓存栈
+        Deque<N> changedNodeStack = new ArrayDeque<>();
         for (N root : roots) {
-            // 自上而下的缓存栈
-            Stack<N> stack = new Stack<>();
-            stack.push(root);
-            // 自下而上的缓存栈
-            Stack<N> nodeStack = new Stack<>();
+            this.signSubtree(root, changedNodeStack, signBuffer);
+            this.propagateChangedSigns(changedNodeStack, null);
+        }
+    }
 
-            while (!stack.isEmpty()) {
-                N node = stack.pop();
-                nodeStack.push(node);
-                node.children.forEach(stack::push);
+    private ForkJoinPool pool() {
+        return forkJoinPool != null ? forkJoinPool : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * 是否并行标记: 各个根节点的树之间除了只读的 nodeMap 和标记参数外不共享节点时才能并行
+     */
+    private boolean isParallel() {
+        if (parallelism <= 1 || roots == null || roots.isEmpty() || nodeMap == null || nodes.size() != nodeMap.size()) {
+            return false;
+        }
+        for (N root : roots) {
+            if (root.parentId != null && nodeMap.containsKey(root.parentId)) {
+                return false;
             }
+        }
+        return true;
+    }
+
+    /**
+     * 自下而上根据 signParameters 标记以 top 为根的子树
+     *
+     * @param top 子树的根节点
+     * @param changedNodeStack 修改过sign的节点
+     * @param buffer 当前线程使用的缓冲区
+     */
+    private void signSubtree(N top, Deque<N> changedNodeStack, SignBuffer<N, Key> buffer) {
+        buffer.traverser.postOrder(top, node -> this.signNodeAndDrain(node, changedNodeStack, buffer));
+    }
 
-            // 修改过sign的节点缓存栈
-            Stack<N> changedNodeStack = new Stack<>();
+    /**
+     * 标记节点, 并在后序遍历到下一个节点之前处理完需要重新计算的子节点
+     */
+    private void signNodeAndDrain(N node, Deque<N> changedNodeStack, SignBuffer<N, Key> buffer) {
+        Deque<N> nodeStack = buffer.nodeStack;
+        this.signNode(node, nodeStack, changedNodeStack, false, buffer.parameter);
+        while (!nodeStack.isEmpty()) {
+            this.signNode(nodeStack.pop(), nodeStack, changedNodeStack, false, buffer.parameter);
+        }
+    }
 
-            while (!nodeStack.isEmpty()) {
-                N parentNode = nodeStack.pop();
-                Integer originParentSign = parentNode.sign;
-                this.setNodeSign(parentNode);
-                if (parentNode.children != null && !parentNode.children.isEmpty()) {
-                    Integer allChildrenSign = null;
-                    for (N childNode : parentNode.children) {
-                        //传入的sign
-                        this.setNodeSign(childNode);
-                        Integer sign = childNode.sign;
-                        if (sign > 0) {
-                            if (allChildrenSign == null) {
-                                allChildrenSign = sign;
-                            } else {
-                                if (sign == (allChildrenSign & sign)) {
-                                    allChildrenSign = sign;
-                                }
-                            }
-                        } else {
-                            allChildrenSign = 0;
+    /**
+     * 根据 signParameters 标记节点及其子节点, 再根据所有子节点的sign计算节点的sign
+     *
+     * @param parentNode 节点
+     * @param nodeStack 需要继续处理的有子节点的子节点
+     * @param changedNodeStack 修改过sign的节点
+     * @param changedOnly 是否只在节点或子节点的sign发生变化时继续处理子节点
+     * @param sharedParameter 传给 signChildConsumer 的复用参数
+     */
+    private void signNode(N parentNode, Deque<N> nodeStack, Deque<N> changedNodeStack, boolean changedOnly,
+                          NodeSignParameter<Key> sharedParameter) {
+        Integer originParentSign = parentNode.sign;
+        this.setNodeSign(parentNode, sharedParameter);
+        if (parentNode.children != null && !parentNode.children.isEmpty()) {
+            Integer evaluatedParentSign = parentNode.sign;
+            List<N> changedChildren = changedOnly ? new ArrayList<>() : null;
+            Integer allChildrenSign = null;
+            for (N childNode : parentNode.children) {
+                Integer originChildSign = childNode.sign;
+                //传入的sign
+                this.setNodeSign(childNode, sharedParameter);
+                Integer sign = childNode.sign;
+                if (sign > 0) {
+                    if (allChildrenSign == null) {
+                        allChildrenSign = sign;
+                    } else {
+                        if (sign == (allChildrenSign & sign)) {
+                            allChildrenSign = sign;
                         }
+                    }
+                } else {
+                    allChildrenSign = 0;
+                }
 
+                if (childNode.children != null && !childNode.children.isEmpty()) {
+                    if (!changedOnly) {
+                        nodeStack.push(childNode);
+                    } else if (!Objects.equals(sign, originChildSign)) {
+                        changedChildren.add(childNode);
+                    }
+                }
+            }
+            signParentConsumer.accept(parentNode, allChildrenSign, overwrite);
+            if (changedOnly) {
+                if (Objects.equals(parentNode.sign, originParentSign) && Objects.equals(parentNode.sign, evaluatedParentSign)) {
+                    changedChildren.forEach(nodeStack::push);
+                } else {
+                    // 节点的sign发生变化时子节点需要根据新的sign重新计算
+                    for (N childNode : parentNode.children) {
                         if (childNode.children != null && !childNode.children.isEmpty()) {
                             nodeStack.push(childNode);
                         }
                     }
-                    signParentConsumer.accept(parentNode, allChildrenSign, overwrite);
-                }
-                if (!Objects.equals(parentNode.sign, originParentSign)) {
-                    changedNodeStack.push(parentNode);
                 }
             }
-            while (!changedNodeStack.isEmpty()) {
-                N changedNode = changedNodeStack.pop();
-                if (changedNode == null) {
+        }
+        if (!Objects.equals(parentNode.sign, originParentSign)) {
+            changedNodeStack.push(parentNode);
+        }
+    }
+
+    /**
+     * 把修改过的sign传递给兄弟节点所在的父节点和子节点
+     *
+     * @param changedNodeStack 修改过sign的节点
+     * @param changedNodes 记录修改过sign的节点, 可为空
+     */
+    private void propagateChangedSigns(Deque<N> changedNodeStack, Collection<N> changedNodes) {
+        while (!changedNodeStack.isEmpty()) {
+            N changedNode = changedNodeStack.pop();
+            if (changedNode == null) {
+                continue;
+            }
+            if (changedNodes != null) {
+                changedNodes.add(changedNode);
+            }
+            Integer changedSign = changedNode.sign;
+            //region 处理 siblings
+            if (changedNode.parentId != null) {
+                N changedNodeParent = nodeMap.get(changedNode.parentId);
+                if (changedNodeParent == null) {
                     continue;
                 }
-                Integer changedSign = changedNode.sign;
-                //region 处理 siblings
-                if (changedNode.parentId != null) {
-                    N changedNodeParent = nodeMap.get(changedNode.parentId);
-                    if (changedNodeParent == null) {
-                        continue;
-                    }
 
-                    List<N> siblings = changedNodeParent.children;
-                    if (siblings != null && !siblings.isEmpty()) {
-                        for (N sibling : siblings) {
-                            if (Objects.equals(sibling.id, changedNode.id)) {
-                                continue;
-                            }
-                            if (changedSign != null) {
-                                if (changedSign != (sibling.sign & changedSign)) {
-                                    changedSign = 0;
-                                }
-                            }
+                List<N> siblings = changedNodeParent.children;
+                if (siblings != null && !siblings.isEmpty()) {
+                    for (N sibling : siblings) {
+                        if (Objects.equals(sibling.id, changedNode.id)) {
+                            continue;
                         }
-                        if (changedSign != null && changedSign > 0) {
-                            Integer originParentSign = changedNodeParent.sign;
-                            signParentConsumer.accept(changedNodeParent, changedSign, transmission);
-                            if (!Objects.equals(originParentSign, changedSign)) {
-                                changedNodeStack.push(changedNodeParent);
+                        if (changedSign != null) {
+                            if (changedSign != (sibling.sign & changedSign)) {
+                                changedSign = 0;
                             }
                         }
                     }
-                }
-                //endregion
-
-                List<N> children = changedNode.children;
-                if (children != null && !children.isEmpty()) {
-                    for (N child : children) {
-                        Integer originChildSign = child.sign;
-                        transmissionChildConsumer.accept(changedNode, child);
-                        if (!Objects.equals(child.sign, originChildSign)) {
-                            changedNodeStack.push(child);
+                    if (changedSign != null && changedSign > 0) {
+                        Integer originParentSign = changedNodeParent.sign;
+                        signParentConsumer.accept(changedNodeParent, changedSign, transmission);
+                        if (!Objects.equals(originParentSign, changedSign)) {
+                            changedNodeStack.push(changedNodeParent);
                         }
                     }
                 }
             }
+            //endregion
+
+            List<N> children = changedNode.children;
+            if (children != null && !children.isEmpty()) {
+                for (N child : children) {
+                    Integer originChildSign = child.sign;
+                    transmissionChildConsumer.accept(changedNode, child);
+                    if (!Objects.equals(child.sign, originChildSign)) {
+                        changedNodeStack.push(child);
+                    }
+                }
+            }
         }
     }
 
@@ -379,34 +778,34 @@ public class TreeTraverseContext<N extends SignedTreeNode<N, Key>, Key extends S
      * 自下而上地根据父节点传递下级节点的sign, 并在需要时压缩sign
      */
     private void transmissionAndCompressDownSign(Boolean transmission, Boolean compress) {
-
-        for (N root : roots) {
-            Stack<N> stack = new Stack<>();
-            stack.push(root);
-            Stack<N> nodeStack = new Stack<>();
-            while (!stack.isEmpty()) {
-                N node = stack.pop();
-                nodeStack.push(node);
-                node.children.forEach(stack::push);
-            }
-            while (!nodeStack.isEmpty()) {
-                N node = nodeStack.pop();
-                if (node.parentId != null) {
-                    N parentNode = nodeMap.get(node.parentId);
-                    if (parentNode != null) {
-                        if (transmission && this.transmission) {
-                            transmissionChildConsumer.accept(parentNode, node);
-                        }
-                        if (compress && this.compress) {
-                            compressChildConsumer.accept(parentNode, node);
-                        }
+        Consumer<N> visitor = node -> {
+            if (node.parentId != null) {
+                N parentNode = nodeMap.get(node.parentId);
+                if (parentNode != null) {
+                    if (transmission && this.transmission) {
+                        transmissionChildConsumer.accept(parentNode, node);
+                    }
+                    if (compress && this.compress) {
+                        compressChildConsumer.accept(parentNode, node);
                     }
                 }
             }
+        };
+        if (!this.isParallel()) {
+            traverser.postOrder(roots, visitor);
+            return;
         }
+        // 每个根节点的树只被一个任务处理
+        ForkJoinPool pool = this.pool();
+        RangeTask.invoke(pool, roots.size(), RangeTask.threshold(pool, roots.size(), 1), (from, to) -> {
+            TreeTraverser<N> rangeTraverser = new TreeTraverser<>();
+            for (int i = from; i < to; i++) {
+                rangeTraverser.postOrder(roots.get(i), visitor);
+            }
+        });
     }
 
-    private void setNodeSign(N thisNode) {
+    private void setNodeSign(N thisNode, NodeSignParameter<Key> sharedParameter) {
         if (thisNode == null) {
             return;
         }
@@ -414,29 +813,284 @@ public class TreeTraverseContext<N extends SignedTreeNode<N, Key>, Key extends S
         if (thisNode.parentId != null) {
             parentNode = nodeMap.get(thisNode.parentId);
         }
-        NodeSignParameter<Key> thisNodeSignParameter = signParametersMap.get(thisNode.id);
-        Integer thisSign;
-        if (thisNodeSignParameter == null) {
-            thisSign = thisNode.sign;
-            if (parentNode != null) {
-                NodeSignParameter<Key> parentNodeSignParameter = signParametersMap.get(parentNode.id);
-                if (parentNodeSignParameter != null) {
-                    Integer parentSign = parentNodeSignParameter.getSign();
-                    if (parentSign == 0 && parentNodeSignParameter.getTransmissionDown() != null && parentNodeSignParameter.getTransmissionDown()) {
-                        thisSign = 0;
-                    }
-                }
+        int index = signStore.indexOf(thisNode);
+        NodeSignParameter<Key> childSignParameter;
+        if (signStore.contains(index)) {
+            if (thisNode.transmission != null) {
+                signStore.setTransmissionDown(index, thisNode.transmission);
             }
+            childSignParameter = signStore.parameterOf(index, thisNode.id, sharedParameter);
         } else {
-            thisSign = thisNodeSignParameter.getSign();
-        }
-        NodeSignParameter<Key> childSignParameter = thisNodeSignParameter != null ? thisNodeSignParameter : NodeSignParameter.<Key>builder()
-                .id(thisNode.id)
-                .sign(thisSign)
-                .build();
-        if (thisNode.transmission != null) {
-            childSignParameter.setTransmissionDown(thisNode.transmission);
+            Integer thisSign = thisNode.sign;
+            if (parentNode != null && signStore.isZeroDown(signStore.indexOf(parentNode))) {
+                thisSign = 0;
+            }
+            childSignParameter = signStore.parameterOf(thisNode.id, thisSign, thisNode.transmission, sharedParameter);
         }
         signChildConsumer.accept(parentNode, thisNode, childSignParameter);
     }
+
+    /**
+     * 按节点下标保存的标记参数, 代替为每个节点创建 {@link NodeSignParameter}
+     * <p>
+     * 传入的参数保存原对象, 0 标记向下 / 向上传递以及 overwrite 补充的参数只保存 sign 和传递方向,
+     * 传给 {@link SignChildConsumer} 时, 包括传入的参数在内都复制到 {@link SignBuffer} 中的复用参数对象,
+     * 所以 signChildConsumer 不能持有传入的参数。
+     * </p>
+     * <p>
+     * 节点下标按 id 保存在 {@link KeyIndex} 中, 只在 reset 时编号, 不修改节点。
+     * </p>
+     * @param <N> 节点类型
+     * @param <Key> 节点id类型
+     */
+    private static final class SignParameterStore<N extends SignedTreeNode<N, Key>, Key extends Serializable> {
+        private static final int PRESENT = 1;
+        private static final int EXPLICIT = 1 << 1;
+        private static final int TRANSMISSION_DOWN = 1 << 2;
+        private static final int TRANSMISSION_UP = 1 << 3;
+
+        /**
+         * 建立下标时的 nodeMap, 用于发现 nodeMap 被替换
+         */
+        private Map<Key, N> indexedMap;
+        /**
+         * 节点 id → 下标
+         */
+        private KeyIndex keyIndex;
+        /**
+         * 节点数量
+         */
+        private int size;
+        /**
+         * 标记参数的 sign
+         */
+        private IntSignStore signs;
+        /**
+         * 标记参数的状态位
+         */
+        private IntSignStore flags;
+        /**
+         * 传入的标记参数
+         */
+        private NodeSignParameter<Key>[] explicitParameters;
+
+        /**
+         * 清空所有标记参数, nodeMap 变化时重新建立节点下标
+         */
+        @SuppressWarnings("unchecked")
+        private void reset(Map<Key, N> nodeMap) {
+            if (nodeMap == null) {
+                nodeMap = Collections.emptyMap();
+            }
+            if (nodeMap != indexedMap || size != nodeMap.size()) {
+                Object[] ids = nodeMap.keySet().toArray();
+                this.size = ids.length;
+                this.keyIndex = KeyIndex.build(size, i -> ids[i]);
+                this.signs = new IntSignStore(size);
+                this.flags = new IntSignStore(size);
+                this.explicitParameters = (NodeSignParameter<Key>[]) new NodeSignParameter<?>[size];
+                this.indexedMap = nodeMap;
+            } else {
+                flags.fill(0);
+                Arrays.fill(explicitParameters, null);
+            }
+        }
+
+        /**
+         * @return 节点下标, 不存在时为 -1
+         */
+        private int indexOf(Key id) {
+            return keyIndex == null ? KeyIndex.NONE : keyIndex.indexOf(id);
+        }
+
+        /**
+         * @return 节点下标, 与 nodeMap 中的节点 id 相同的节点共用同一个下标, 不存在时为 -1
+         */
+        private int indexOf(N node) {
+            return this.indexOf(node.id);
+        }
+
+        private boolean contains(int index) {
+            return index >= 0 && flags.test(index, PRESENT);
+        }
+
+        private void putExplicit(int index, NodeSignParameter<Key> sp) {
+            if (index < 0) {
+                return;
+            }
+            signs.set(index, sp.getSign());
+            flags.set(index, PRESENT | EXPLICIT);
+            explicitParameters[index] = sp;
+        }
+
+        private void putZero(int index, boolean transmissionDown, boolean transmissionUp) {
+            if (index < 0) {
+                return;
+            }
+            signs.set(index, 0);
+            flags.set(index, PRESENT | (transmissionDown ? TRANSMISSION_DOWN : 0) | (transmissionUp ? TRANSMISSION_UP : 0));
+            explicitParameters[index] = null;
+        }
+
+        private void putZeroIfAbsent(int index, boolean transmissionDown, boolean transmissionUp) {
+            if (index >= 0 && !flags.test(index, PRESENT)) {
+                this.putZero(index, transmissionDown, transmissionUp);
+            }
+        }
+
+        private void remove(int index) {
+            if (index >= 0) {
+                flags.set(index, 0);
+                explicitParameters[index] = null;
+            }
+        }
+
+        /**
+         * @return 标记参数是否为向下传递的 0 标记
+         */
+        private boolean isZeroDown(int index) {
+            if (!this.contains(index) || signs.get(index) != 0) {
+                return false;
+            }
+            if (flags.test(index, EXPLICIT)) {
+                Boolean transmissionDown = explicitParameters[index].getTransmissionDown();
+                return transmissionDown != null && transmissionDown;
+            }
+            return flags.test(index, TRANSMISSION_DOWN);
+        }
+
+        private void setTransmissionDown(int index, boolean transmissionDown) {
+            if (flags.test(index, EXPLICIT)) {
+                explicitParameters[index].setTransmissionDown(transmissionDown);
+            } else if (transmissionDown) {
+                flags.add(index, TRANSMISSION_DOWN);
+            } else {
+                flags.remove(index, TRANSMISSION_DOWN);
+            }
+        }
+
+        /**
+         * @return 已保存的标记参数, 传入的参数同样复制到 sharedParameter
+         */
+        private NodeSignParameter<Key> parameterOf(int index, Key id, NodeSignParameter<Key> sharedParameter) {
+            if (flags.test(index, EXPLICIT)) {
+                NodeSignParameter<Key> sp = explicitParameters[index];
+                return fill(sharedParameter, sp.getId(), sp.getSign(), sp.getTransmissionDown(), sp.getTransmissionUp());
+            }
+            return fill(sharedParameter, id, signs.get(index),
+                    flags.test(index, TRANSMISSION_DOWN), flags.test(index, TRANSMISSION_UP));
+        }
+
+        /**
+         * @return 没有标记参数的节点使用的标记参数
+         */
+        private NodeSignParameter<Key> parameterOf(Key id, Integer sign, Boolean transmission, NodeSignParameter<Key> sharedParameter) {
+            return fill(sharedParameter, id, sign, transmission == null || transmission, true);
+        }
+
+        private static <Key extends Serializable> NodeSignParameter<Key> fill(NodeSignParameter<Key> sharedParameter,
+                                                                              Key id,
+                                                                              Integer sign,
+                                                                              Boolean transmissionDown,
+                                                                              Boolean transmissionUp) {
+            sharedParameter.setId(id);
+            sharedParameter.setSign(sign);
+            sharedParameter.setTransmissionDown(transmissionDown);
+            sharedParameter.setTransmissionUp(transmissionUp);
+            return sharedParameter;
+        }
+
+        private void clear() {
+            this.indexedMap = null;
+            this.keyIndex = null;
+            this.size = 0;
+            this.signs = null;
+            this.flags = null;
+            this.explicitParameters = null;
+        }
+    }
+
+    /**
+     * 标记子树时每个线程各自使用的遍历器、节点栈和传给 signChildConsumer 的复用参数
+     * @param <N> 节点类型
+     * @param <Key> 节点id类型
+     */
+    private static final class SignBuffer<N extends SignedTreeNode<N, Key>, Key extends Serializable> {
+        private final TreeTraverser<N> traverser;
+        private final Deque<N> nodeStack = new ArrayDeque<>();
+        private final NodeSignParameter<Key> parameter = NodeSignParameter.<Key>builder().build();
+
+        private SignBuffer(TreeTraverser<N> traverser) {
+            this.traverser = traverser;
+        }
+    }
+
+    /**
+     * 并行标记子树的任务
+     * <p>
+     * 深度小于 splitDepth 时把每个子节点的子树拆成子任务, 子任务全部完成后按子节点的顺序合并修改过sign的节点,
+     * 再处理节点自身, 与顺序的后序遍历处理节点的顺序一致;
+     * 节点自身被处理之前, 子树中的节点只会读取它的sign和标记参数, 所以各个子任务之间互不影响。
+     * 根节点的任务最后在自己的树中传递修改过的sign。
+     * </p>
+     */
+    private final class SignTask extends RecursiveAction {
+        private final N node;
+        private final int depth;
+        private final int splitDepth;
+        /**
+         * 修改过sign的节点
+         */
+        private final Deque<N> changedNodeStack = new ArrayDeque<>();
+
+        private SignTask(N node, int depth, int splitDepth) {
+            this.node = node;
+            this.depth = depth;
+            this.splitDepth = splitDepth;
+        }
+
+        @Override
+        protected void compute() {
+            SignBuffer<N, Key> buffer = new SignBuffer<>(new TreeTraverser<N>());
+            List<N> children = node.children;
+            if (depth < splitDepth && children != null && children.size() > 1) {
+                List<SignTask> subtasks = new ArrayList<>(children.size());
+                for (N child : children) {
+                    subtasks.add(new SignTask(child, depth + 1, splitDepth));
+                }
+                invokeAll(subtasks);
+                for (SignTask subtask : subtasks) {
+                    // 按入栈的先后顺序合并
+                    subtask.changedNodeStack.descendingIterator().forEachRemaining(changedNodeStack::push);
+                }
+                signNodeAndDrain(node, changedNodeStack, buffer);
+            } else {
+                signSubtree(node, changedNodeStack, buffer);
+            }
+            if (depth == 0) {
+                propagateChangedSigns(changedNodeStack, null);
+            }
+        }
+    }
+
+    /**
+     * 增量标记的状态: 按 id 合并后的节点标记参数, 以及每个节点的子树中(包括自身)向上传递的 0 标记数量
+     * @param <Key> 节点id类型
+     */
+    private static final class DeltaState<Key extends Serializable> {
+        private final Map<Key, NodeSignParameter<Key>> signParameters = new LinkedHashMap<>();
+        private final Map<Key, Integer> zeroUpCounts = new HashMap<>();
+        /**
+         * 上次发布到 {@link TreeTraverseContext#signParameters} 的副本, 用来判断 signParameters 是否被替换过
+         */
+        private Collection<NodeSignParameter<Key>> published;
+        private boolean ready;
+
+        private void clear() {
+            this.signParameters.clear();
+            this.zeroUpCounts.clear();
+            this.published = null;
+            this.ready = false;
+        }
+    }
 }
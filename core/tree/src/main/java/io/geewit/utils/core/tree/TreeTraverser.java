@@ -0,0 +1,238 @@
+package io.geewit.utils.core.tree;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * 非递归的树遍历器, 支持先序 / 后序 / 层序遍历
+ * <p>
+ * 遍历使用的栈和队列在实例内复用, 只在树更深或更宽时扩容, 多次遍历之间不再分配新的数组;
+ * 后序遍历用子节点游标代替二次入栈, 每个节点只入栈一次。
+ * 子节点均按 {@link TreeNode#children} 的顺序访问, children 为空时视为叶子节点。
+ * </p>
+ * <p>
+ * 非线程安全, 也不能在访问逻辑中重入同一个实例, 需要嵌套遍历时使用不同的实例。
+ * </p>
+ * @param <N> 树节点类型
+ * @author geewit
+ */
+public final class TreeTraverser<N extends TreeNode<N, ?>> {
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * 节点栈
+     */
+    private Object[] stack = new Object[INITIAL_CAPACITY];
+    /**
+     * 先序遍历时为节点深度, 后序遍历时为下一个要访问的子节点下标
+     */
+    private int[] cursors = new int[INITIAL_CAPACITY];
+    /**
+     * 层序遍历的队列
+     */
+    private final ArrayDeque<N> queue = new ArrayDeque<>(INITIAL_CAPACITY);
+
+    private boolean traversing;
+
+    /**
+     * 先序遍历 (父节点先于子节点)
+     *
+     * @param root 根节点
+     * @param visitor 访问逻辑
+     */
+    public void preOrder(N root, Consumer<? super N> visitor) {
+        this.preOrder(root, (node, _) -> visitor.accept(node));
+    }
+
+    /**
+     * 先序遍历 (父节点先于子节点)
+     *
+     * @param root 根节点
+     * @param visitor 访问逻辑, 第二个参数为相对 root 的深度 (root 为 0)
+     */
+    @SuppressWarnings("unchecked")
+    public void preOrder(N root, ObjIntConsumer<? super N> visitor) {
+        if (root == null) {
+            return;
+        }
+        this.begin();
+        try {
+            int size = 0;
+            stack[size] = root;
+            cursors[size++] = 0;
+            while (size > 0) {
+                N node = (N) stack[--size];
+                int depth = cursors[size];
+                stack[size] = null;
+                visitor.accept(node, depth);
+                List<N> children = node.children;
+                if (children != null && !children.isEmpty()) {
+                    int count = children.size();
+                    this.ensureCapacity(size + count);
+                    // 逆序入栈, 保证按 children 的顺序出栈
+                    for (int i = count - 1; i >= 0; i--) {
+                        stack[size] = children.get(i);
+                        cursors[size++] = depth + 1;
+                    }
+                }
+            }
+        } finally {
+            this.end();
+        }
+    }
+
+    /**
+     * 后序遍历 (子节点先于父节点)
+     *
+     * @param root 根节点
+     * @param visitor 访问逻辑
+     */
+    public void postOrder(N root, Consumer<? super N> visitor) {
+        this.postOrder(root, (node, _) -> visitor.accept(node));
+    }
+
+    /**
+     * 后序遍历 (子节点先于父节点)
+     *
+     * @param root 根节点
+     * @param visitor 访问逻辑, 第二个参数为相对 root 的深度 (root 为 0)
+     */
+    @SuppressWarnings("unchecked")
+    public void postOrder(N root, ObjIntConsumer<? super N> visitor) {
+        if (root == null) {
+            return;
+        }
+        this.begin();
+        try {
+            int size = 0;
+            stack[size] = root;
+            cursors[size++] = 0;
+            while (size > 0) {
+                N node = (N) stack[size - 1];
+                List<N> children = node.children;
+                int cursor = cursors[size - 1];
+                if (children != null && cursor < children.size()) {
+                    cursors[size - 1] = cursor + 1;
+                    this.ensureCapacity(size + 1);
+                    stack[size] = children.get(cursor);
+                    cursors[size++] = 0;
+                } else {
+                    stack[--size] = null;
+                    visitor.accept(node, size);
+                }
+            }
+        } finally {
+            this.end();
+        }
+    }
+
+    /**
+     * 层序遍历 (按深度逐层访问)
+     *
+     * @param root 根节点
+     * @param visitor 访问逻辑
+     */
+    public void levelOrder(N root, Consumer<? super N> visitor) {
+        this.levelOrder(root, (node, _) -> visitor.accept(node));
+    }
+
+    /**
+     * 层序遍历 (按深度逐层访问)
+     *
+     * @param root 根节点
+     * @param visitor 访问逻辑, 第二个参数为相对 root 的深度 (root 为 0)
+     */
+    public void levelOrder(N root, ObjIntConsumer<? super N> visitor) {
+        if (root == null) {
+            return;
+        }
+        this.begin();
+        try {
+            queue.add(root);
+            int depth = 0;
+            while (!queue.isEmpty()) {
+                // 每次取出一整层
+                for (int remaining = queue.size(); remaining > 0; remaining--) {
+                    N node = queue.poll();
+                    visitor.accept(node, depth);
+                    List<N> children = node.children;
+                    if (children != null) {
+                        // 不用 addAll, 避免每个节点复制一次子节点数组
+                        for (int i = 0, count = children.size(); i < count; i++) {
+                            queue.add(children.get(i));
+                        }
+                    }
+                }
+                depth++;
+            }
+        } finally {
+            queue.clear();
+            this.end();
+        }
+    }
+
+    /**
+     * 依次先序遍历每个根节点
+     *
+     * @param roots 根节点列表
+     * @param visitor 访问逻辑
+     */
+    public void preOrder(Collection<N> roots, Consumer<? super N> visitor) {
+        if (roots != null) {
+            for (N root : roots) {
+                this.preOrder(root, visitor);
+            }
+        }
+    }
+
+    /**
+     * 依次后序遍历每个根节点
+     *
+     * @param roots 根节点列表
+     * @param visitor 访问逻辑
+     */
+    public void postOrder(Collection<N> roots, Consumer<? super N> visitor) {
+        if (roots != null) {
+            for (N root : roots) {
+                this.postOrder(root, visitor);
+            }
+        }
+    }
+
+    /**
+     * 依次层序遍历每个根节点
+     *
+     * @param roots 根节点列表
+     * @param visitor 访问逻辑
+     */
+    public void levelOrder(Collection<N> roots, Consumer<? super N> visitor) {
+        if (roots != null) {
+            for (N root : roots) {
+                this.levelOrder(root, visitor);
+            }
+        }
+    }
+
+    private void begin() {
+        if (traversing) {
+            throw new IllegalStateException("TreeTraverser is not reentrant");
+        }
+        traversing = true;
+    }
+
+    private void end() {
+        traversing = false;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > stack.length) {
+            int newCapacity = Math.max(capacity, stack.length << 1);
+            stack = Arrays.copyOf(stack, newCapacity);
+            cursors = Arrays.copyOf(cursors, newCapacity);
+        }
+    }
+}
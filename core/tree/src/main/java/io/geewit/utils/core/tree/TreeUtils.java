@@ -4,6 +4,9 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -16,6 +19,18 @@ public class TreeUtils {
     private TreeUtils() {
     }
 
+    /**
+     * 节点数量小于该值时并行构建退化为顺序构建
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+    /**
+     * 并行构建时每个叶子任务的最小节点数量
+     */
+    private static final int PARALLEL_MIN_CHUNK = 1 << 10;
+
+    private static final int ROOT_INDEX = -2;
+    private static final int ORPHAN_INDEX = -1;
+
     /**
      * 构建树形结构数据
      *
@@ -39,7 +54,7 @@ public class TreeUtils {
         try {
             // 遍历所有节点，构建父子关系
             nodes.forEach(node -> {
-                if ((rootId != null && Objects.equals(node.id, rootId)) || (rootId == null && (node.parentId == null || (rootPredicate != null && rootPredicate.test(node))))) {
+                if (isRoot(node, rootPredicate, rootId)) {
                     roots.add(node);
                 } else {
                     N parent = nodeMap.get(node.parentId);
@@ -54,6 +69,331 @@ public class TreeUtils {
         }
     }
 
+    /**
+     * 使用 {@link ForkJoinPool} 并行构建树形结构数据。
+     * <p>
+     * 先并行建立 id → 下标 的并发索引, 再按父节点下标分段并行挂载子节点,
+     * 每段只修改自己负责的父节点, 并按输入顺序追加子节点,
+     * 因此根节点顺序和每个父节点的子节点顺序与 {@link #buildTree(List, Predicate, Serializable)} 完全一致。
+     * </p>
+     *
+     * @param <N> 树节点类型，必须继承TreeNode
+     * @param <Key> 节点ID类型，必须实现Serializable接口
+     * @param nodes 所有需要构建树形结构的节点列表
+     * @param rootPredicate 判断根节点的谓词条件，可为空
+     * @param rootId 指定的根节点ID，可为空
+     * @param pool 执行并行任务的线程池
+     * @return 构建好的树形结构根节点列表
+     */
+    @SuppressWarnings("unchecked")
+    public static <N extends TreeNode<N, Key>, Key extends Serializable> List<N> buildTreeParallel(List<N> nodes,
+                                                                                                   Predicate<N> rootPredicate,
+                                                                                                   Key rootId,
+                                                                                                   ForkJoinPool pool) {
+        if (nodes == null || nodes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Objects.requireNonNull(pool, "pool must not be null");
+        int size = nodes.size();
+        if (size < PARALLEL_THRESHOLD || pool.getParallelism() <= 1) {
+            return buildTree(nodes, rootPredicate, rootId);
+        }
+        Object[] array = nodes.toArray();
+        int threshold = RangeTask.threshold(pool, size, PARALLEL_MIN_CHUNK);
+
+        // 主键重复时保留最小下标, 与顺序构建时 (oldValue, newValue) -> oldValue 的结果一致
+        Map<Key, Integer> indexMap = new ConcurrentHashMap<>(size);
+        RangeTask.invoke(pool, size, threshold, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                Key id = ((N) array[i]).id;
+                if (id != null) {
+                    indexMap.merge(id, i, Math::min);
+                }
+            }
+        });
+
+        int[] parents = new int[size];
+        RangeTask.invoke(pool, size, threshold, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                N node = (N) array[i];
+                if (isRoot(node, rootPredicate, rootId)) {
+                    parents[i] = ROOT_INDEX;
+                } else {
+                    Integer parent = node.parentId == null ? null : indexMap.get(node.parentId);
+                    parents[i] = parent == null ? ORPHAN_INDEX : parent;
+                }
+            }
+        });
+        indexMap.clear();
+
+        // 按父节点下标分桶 (计数排序), 桶内保持输入顺序, starts[p] ~ starts[p + 1] 为父节点 p 的子节点
+        int[] starts = new int[size + 1];
+        for (int parent : parents) {
+            if (parent >= 0) {
+                starts[parent + 1]++;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            starts[i + 1] += starts[i];
+        }
+        int[] children = new int[starts[size]];
+        int[] cursors = Arrays.copyOf(starts, size);
+        for (int i = 0; i < size; i++) {
+            int parent = parents[i];
+            if (parent >= 0) {
+                children[cursors[parent]++] = i;
+            }
+        }
+
+        // 每个叶子任务只追加自己负责的一段父节点的桶, 避免并发修改同一个 children 列表
+        RangeTask.invoke(pool, size, threshold, (from, to) -> {
+            for (int parent = from; parent < to; parent++) {
+                for (int k = starts[parent], end = starts[parent + 1]; k < end; k++) {
+                    ((N) array[parent]).children.add((N) array[children[k]]);
+                }
+            }
+        });
+
+        List<N> roots = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (parents[i] == ROOT_INDEX) {
+                roots.add((N) array[i]);
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * 构建紧凑的只读树视图。
+     * 与 {@link #buildTree(List, Predicate, Serializable)} 的根节点判定规则一致，
+     * 但父子关系保存在 {@code int[]} 中，不会修改节点的 {@link TreeNode#children}，适合百万级节点的树。
+     *
+     * @param <N> 树节点类型，必须继承TreeNode
+     * @param <Key> 节点ID类型，必须实现Serializable接口
+     * @param nodes 所有需要构建树形结构的节点列表
+     * @param rootPredicate 判断根节点的谓词条件，可为空
+     * @param rootId 指定的根节点ID，可为空
+     * @return 紧凑树视图
+     */
+    public static <N extends TreeNode<N, Key>, Key extends Serializable> CompactTree<N, Key> buildCompactTree(List<N> nodes,
+                                                                                                              Predicate<N> rootPredicate,
+                                                                                                              Key rootId) {
+        return CompactTree.build(nodes, rootPredicate, rootId);
+    }
+
+    /**
+     * 创建流式树构建器，节点可以按任意顺序从游标、{@link java.util.stream.Stream} 或分页加载中逐个到达，
+     * 不需要先收集成完整的列表。
+     * 与 {@link #buildTree(List, Predicate, Serializable)} 的根节点判定规则和子节点顺序一致，
+     * 最后仍然没有父节点的孤儿节点通过 {@link StreamingTreeBuilder#getOrphans()} 获取。
+     *
+     * @param <N> 树节点类型，必须继承TreeNode
+     * @param <Key> 节点ID类型，必须实现Serializable接口
+     * @param rootPredicate 判断根节点的谓词条件，可为空
+     * @param rootId 指定的根节点ID，可为空
+     * @return 流式树构建器
+     */
+    public static <N extends TreeNode<N, Key>, Key extends Serializable> StreamingTreeBuilder<N, Key> streamingBuilder(Predicate<N> rootPredicate,
+                                                                                                                       Key rootId) {
+        return new StreamingTreeBuilder<>(rootPredicate, rootId);
+    }
+
+    /**
+     * 根据 {@link #buildTree(List, Predicate, Serializable)} 返回的根节点建立祖先 / 子孙关系的只读索引，
+     * 用于 O(1) 的祖先判断、子孙列表、深度查询和最近公共祖先查询，以及一次性生成 {@link TreeNode#parentIds}。
+     *
+     * @param <N> 树节点类型，必须继承TreeNode
+     * @param <Key> 节点ID类型，必须实现Serializable接口
+     * @param roots 根节点列表
+     * @return 祖先 / 子孙关系索引
+     */
+    public static <N extends TreeNode<N, Key>, Key extends Serializable> TreeIndex<N, Key> buildIndex(Collection<N> roots) {
+        return TreeIndex.build(roots);
+    }
+
+    /**
+     * 把 {@link #buildTree(List, Predicate, Serializable)} 返回的树冻结为不可变的快照，
+     * 节点按先序保存在扁平数组中，可以不复制地在线程间共享，并支持写时复制地派生修改 sign 或剪枝后的快照。
+     *
+     * @param <N> 树节点类型，必须继承TreeNode
+     * @param <Key> 节点ID类型，必须实现Serializable接口
+     * @param roots 根节点列表
+     * @return 不可变的树快照
+     */
+    public static <N extends TreeNode<N, Key>, Key extends Serializable> FrozenTree<N, Key> freeze(Collection<N> roots) {
+        return FrozenTree.freeze(roots);
+    }
+
+    /**
+     * 一次后序遍历自下而上计算所有节点的子树聚合值 (例如子树节点数、金额合计、最大时间戳)，
+     * 代替从每个节点分别递归的 O(n·深度) 写法。
+     *
+     * @param <N> 树节点类型，必须继承TreeNode
+     * @param <Key> 节点ID类型，必须实现Serializable接口
+     * @param <A> 聚合值类型
+     * @param roots 根节点列表
+     * @param aggregator 聚合逻辑
+     * @return 节点 → 子树聚合值，按节点身份区分
+     */
+    public static <N extends TreeNode<N, Key>, Key extends Serializable, A> Map<N, A> aggregate(Collection<N> roots,
+                                                                                                TreeAggregator<N, A> aggregator) {
+        Map<N, A> result = new IdentityHashMap<>();
+        AggregateCollector.aggregate(roots, aggregator, result::put);
+        return result;
+    }
+
+    /**
+     * 一次后序遍历自下而上计算所有节点的子树聚合值，并交给 consumer 处理 (例如写回节点的字段)，子节点先于父节点。
+     *
+     * @param <N> 树节点类型，必须继承TreeNode
+     * @param <Key> 节点ID类型，必须实现Serializable接口
+     * @param <A> 聚合值类型
+     * @param roots 根节点列表
+     * @param aggregator 聚合逻辑
+     * @param consumer 接收每个节点的聚合值
+     */
+    public static <N extends TreeNode<N, Key>, Key extends Serializable, A> void aggregate(Collection<N> roots,
+                                                                                           TreeAggregator<N, A> aggregator,
+                                                                                           BiConsumer<? super N, ? super A> consumer) {
+        AggregateCollector.aggregate(roots, aggregator, consumer);
+    }
+
+    /**
+     * 使用 {@link ForkJoinPool} 按根节点并行计算所有节点的子树聚合值，
+     * 每个节点的聚合值与 {@link #aggregate(Collection, TreeAggregator, BiConsumer)} 一致。
+     *
+     * @param <N> 树节点类型，必须继承TreeNode
+     * @param <Key> 节点ID类型，必须实现Serializable接口
+     * @param <A> 聚合值类型
+     * @param roots 根节点列表
+     * @param aggregator 聚合逻辑，会被多个线程同时调用
+     * @param consumer 接收每个节点的聚合值，会被多个线程同时调用，每个节点只调用一次
+     * @param pool 执行并行任务的线程池
+     */
+    public static <N extends TreeNode<N, Key>, Key extends Serializable, A> void aggregate(Collection<N> roots,
+                                                                                           TreeAggregator<N, A> aggregator,
+                                                                                           BiConsumer<? super N, ? super A> consumer,
+                                                                                           ForkJoinPool pool) {
+        AggregateCollector.aggregate(roots, aggregator, consumer, pool);
+    }
+
+    /**
+     * 按 {@link TreeNode#id} 比较两次 {@link #buildTree(List, Predicate, Serializable)} 的结果，
+     * 得到新增、删除、移动 (父节点变化) 和 sign 变化的节点，可以通过 {@link TreeDiff#apply} 应用到旧树上。
+     *
+     * @param <N> 树节点类型，必须继承TreeNode
+     * @param <Key> 节点ID类型，必须实现Serializable接口
+     * @param oldRoots 旧树的根节点列表
+     * @param newRoots 新树的根节点列表
+     * @return 差异
+     */
+    public static <N extends TreeNode<N, Key>, Key extends Serializable> TreeDiff<N, Key> diff(Collection<N> oldRoots,
+                                                                                               Collection<N> newRoots) {
+        return TreeDiff.diff(FrozenTree.freeze(oldRoots), FrozenTree.freeze(newRoots));
+    }
+
+    /**
+     * 按 {@link TreeNode#id} 比较两个 {@link FrozenTree} 快照。
+     *
+     * @param <N> 树节点类型，必须继承TreeNode
+     * @param <Key> 节点ID类型，必须实现Serializable接口
+     * @param oldTree 旧的快照
+     * @param newTree 新的快照
+     * @return 差异
+     */
+    public static <N extends TreeNode<N, Key>, Key extends Serializable> TreeDiff<N, Key> diff(FrozenTree<N, Key> oldTree,
+                                                                                               FrozenTree<N, Key> newTree) {
+        return TreeDiff.diff(oldTree, newTree);
+    }
+
+    /**
+     * 按条件过滤树，只保留满足条件的节点及其所有祖先节点。
+     * 每棵树做一次后序遍历，每个节点只判断一次条件，返回的视图不复制也不修改节点。
+     *
+     * @param <N> 树节点类型，必须继承TreeNode
+     * @param <Key> 节点ID类型，必须实现Serializable接口
+     * @param roots 根节点列表
+     * @param predicate 过滤条件
+     * @return 过滤后的树视图
+     */
+    public static <N extends TreeNode<N, Key>, Key extends Serializable> FilteredTree<N, Key> filter(Collection<N> roots,
+                                                                                                     Predicate<? super N> predicate) {
+        return FilteredTree.filter(roots, predicate);
+    }
+
+    /**
+     * 使用 {@link ForkJoinPool} 按根节点并行过滤树，结果与 {@link #filter(Collection, Predicate)} 一致。
+     *
+     * @param <N> 树节点类型，必须继承TreeNode
+     * @param <Key> 节点ID类型，必须实现Serializable接口
+     * @param roots 根节点列表
+     * @param predicate 过滤条件，会被多个线程同时调用
+     * @param pool 执行并行任务的线程池
+     * @return 过滤后的树视图
+     */
+    public static <N extends TreeNode<N, Key>, Key extends Serializable> FilteredTree<N, Key> filter(Collection<N> roots,
+                                                                                                     Predicate<? super N> predicate,
+                                                                                                     ForkJoinPool pool) {
+        return FilteredTree.filter(roots, predicate, pool);
+    }
+
+    /**
+     * 构建树形结构数据，validate 为 true 时先调用 {@link #validate(List, Predicate, Serializable)} 校验节点列表，
+     * 发现 parentId 形成的环时抛出异常，避免之后按 parentId 向上查找时死循环；孤儿节点和重复的主键与不校验时一样处理。
+     *
+     * @param <N> 树节点类型，必须继承TreeNode
+     * @param <Key> 节点ID类型，必须实现Serializable接口
+     * @param nodes 所有需要构建树形结构的节点列表
+     * @param rootPredicate 判断根节点的谓词条件，可为空
+     * @param rootId 指定的根节点ID，可为空
+     * @param validate 是否在建树前校验
+     * @return 构建好的树形结构根节点列表
+     * @throws IllegalStateException validate 为 true 且 parentId 形成环时抛出，异常信息中列出环上的主键
+     */
+    public static <N extends TreeNode<N, Key>, Key extends Serializable> List<N> buildTree(List<N> nodes,
+                                                                                           Predicate<N> rootPredicate,
+                                                                                           Key rootId,
+                                                                                           boolean validate) {
+        if (validate) {
+            TreeValidation.validate(nodes, rootPredicate, rootId).throwIfCyclic();
+        }
+        return buildTree(nodes, rootPredicate, rootId);
+    }
+
+    /**
+     * 建树前校验节点列表，一次 O(n) 的非递归遍历找出 parentId 形成的环、找不到父节点的孤儿节点以及重复的主键，
+     * 有环的数据会让按 parentId 向上查找的逻辑死循环，孤儿节点会在建树时被丢弃。
+     *
+     * @param <N> 树节点类型，必须继承TreeNode
+     * @param <Key> 节点ID类型，必须实现Serializable接口
+     * @param nodes 所有需要构建树形结构的节点列表
+     * @param rootPredicate 判断根节点的谓词条件，可为空
+     * @param rootId 指定的根节点ID，可为空
+     * @return 校验结果
+     */
+    public static <N extends TreeNode<N, Key>, Key extends Serializable> TreeValidation<Key> validate(List<N> nodes,
+                                                                                                    Predicate<N> rootPredicate,
+                                                                                                    Key rootId) {
+        return TreeValidation.validate(nodes, rootPredicate, rootId);
+    }
+
+    /**
+     * 判断节点是否为根节点
+     *
+     * @param node 节点
+     * @param rootPredicate 判断根节点的谓词条件，可为空
+     * @param rootId 指定的根节点ID，可为空
+     * @return 是否为根节点
+     */
+    static <N extends TreeNode<N, Key>, Key extends Serializable> boolean isRoot(N node,
+                                                                                 Predicate<N> rootPredicate,
+                                                                                 Key rootId) {
+        if (rootId != null) {
+            return Objects.equals(node.id, rootId);
+        }
+        return node.parentId == null || (rootPredicate != null && rootPredicate.test(node));
+    }
+
     /**
      * 构建树形结构数据。
      * Build tree structure from flat node list.
@@ -0,0 +1,172 @@
+package io.geewit.utils.core.tree;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * 建树前对节点列表的校验结果: parentId 形成的环、找不到父节点的孤儿节点以及重复的主键
+ * <p>
+ * 校验按节点下标做一次非递归的三色遍历: 沿 parentId 向上走并把路径上的节点标为灰色,
+ * 走到灰色节点说明发现了环, 走到黑色节点、parentId 为空或找不到父节点时停止, 然后把整条路径标为黑色。
+ * 每个节点只会被标记一次, 总耗时 O(n), 有环时也不会死循环。
+ * </p>
+ * <p>
+ * 环按 parentId 判断, 与根节点的判定无关, 因为按 parentId 向上查找父节点的逻辑会在环上无限循环;
+ * 孤儿节点是不是根节点、但 parentId 在节点列表中不存在的节点, 与 {@link TreeUtils#buildTree(List, Predicate, Serializable)} 的判定一致。
+ * 主键重复时以第一个节点为准。
+ * </p>
+ * @param <Key> 主键类型
+ * @author geewit
+ */
+public final class TreeValidation<Key extends Serializable> {
+    private static final byte WHITE = 0;
+    private static final byte GRAY = 1;
+    private static final byte BLACK = 2;
+
+    private static final int NONE = -1;
+
+    /**
+     * 异常信息中最多列出的环的数量
+     */
+    private static final int MAX_REPORTED_CYCLES = 3;
+
+    private final List<List<Key>> cycles;
+    private final List<Key> orphanIds;
+    private final List<Key> duplicateIds;
+
+    private TreeValidation(List<List<Key>> cycles, List<Key> orphanIds, List<Key> duplicateIds) {
+        this.cycles = Collections.unmodifiableList(cycles);
+        this.orphanIds = Collections.unmodifiableList(orphanIds);
+        this.duplicateIds = Collections.unmodifiableList(duplicateIds);
+    }
+
+    /**
+     * 校验节点列表
+     *
+     * @param nodes 节点列表
+     * @param rootPredicate 判断根节点的谓词条件，可为空
+     * @param rootId 指定的根节点ID，可为空
+     * @return 校验结果
+     */
+    @SuppressWarnings("unchecked")
+    static <N extends TreeNode<N, Key>, Key extends Serializable> TreeValidation<Key> validate(List<N> nodes,
+                                                                                             Predicate<N> rootPredicate,
+                                                                                             Key rootId) {
+        List<List<Key>> cycles = new ArrayList<>();
+        List<Key> orphanIds = new ArrayList<>();
+        List<Key> duplicateIds = new ArrayList<>();
+        int size = nodes == null ? 0 : nodes.size();
+        if (size == 0) {
+            return new TreeValidation<>(cycles, orphanIds, duplicateIds);
+        }
+        Object[] array = nodes.toArray();
+        KeyIndex keyIndex = KeyIndex.build(size, i -> ((N) array[i]).id, duplicateIds::add);
+        int[] parents = new int[size];
+        for (int i = 0; i < size; i++) {
+            N node = (N) array[i];
+            int parent = keyIndex.indexOf(node.parentId);
+            parents[i] = parent;
+            if (parent == NONE && !TreeUtils.isRoot(node, rootPredicate, rootId)) {
+                orphanIds.add(node.id);
+            }
+        }
+
+        byte[] colors = new byte[size];
+        int[] path = new int[16];
+        for (int start = 0; start < size; start++) {
+            if (colors[start] != WHITE) {
+                continue;
+            }
+            int length = 0;
+            int current = start;
+            while (current != NONE && colors[current] == WHITE) {
+                colors[current] = GRAY;
+                if (length == path.length) {
+                    path = Arrays.copyOf(path, length << 1);
+                }
+                path[length++] = current;
+                current = parents[current];
+            }
+            if (current != NONE && colors[current] == GRAY) {
+                // 灰色节点在当前路径上, 从它开始到路径末尾就是环
+                int from = length - 1;
+                while (path[from] != current) {
+                    from--;
+                }
+                List<Key> cycle = new ArrayList<>(length - from);
+                for (int i = from; i < length; i++) {
+                    cycle.add(((N) array[path[i]]).id);
+                }
+                cycles.add(cycle);
+            }
+            for (int i = 0; i < length; i++) {
+                colors[path[i]] = BLACK;
+            }
+        }
+        return new TreeValidation<>(cycles, orphanIds, duplicateIds);
+    }
+
+    /**
+     * parentId 形成的环, 每个环按 子节点 → 父节点 的顺序列出主键
+     *
+     * @return 只读列表
+     */
+    public List<List<Key>> getCycles() {
+        return cycles;
+    }
+
+    /**
+     * 找不到父节点的孤儿节点主键, 按节点列表的顺序排列
+     *
+     * @return 只读列表
+     */
+    public List<Key> getOrphanIds() {
+        return orphanIds;
+    }
+
+    /**
+     * 重复出现的主键, 每多出现一次列出一次
+     *
+     * @return 只读列表
+     */
+    public List<Key> getDuplicateIds() {
+        return duplicateIds;
+    }
+
+    /**
+     * 是否存在环
+     *
+     * @return 是否存在环
+     */
+    public boolean hasCycles() {
+        return !cycles.isEmpty();
+    }
+
+    /**
+     * 是否没有环、孤儿节点和重复主键
+     *
+     * @return 是否通过校验
+     */
+    public boolean isValid() {
+        return cycles.isEmpty() && orphanIds.isEmpty() && duplicateIds.isEmpty();
+    }
+
+    /**
+     * 存在环时抛出异常, 孤儿节点和重复主键不会导致死循环, 不抛出异常
+     *
+     * @throws IllegalStateException 存在环
+     */
+    public void throwIfCyclic() {
+        if (cycles.isEmpty()) {
+            return;
+        }
+        throw new IllegalStateException("parentId cycles found: " + cycles.size() + ", "
+                + cycles.subList(0, Math.min(cycles.size(), MAX_REPORTED_CYCLES)));
+    }
+
+    @Override
+    public String toString() {
+        return "TreeValidation{cycles=" + cycles + ", orphanIds=" + orphanIds + ", duplicateIds=" + duplicateIds + '}';
+    }
+}
@@ -0,0 +1,100 @@
+package io.geewit.utils.core.tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FilteredTreeTest {
+
+    private static Org org(Long id, Long parentId) {
+        Org org = new Org();
+        org.setId(id);
+        org.setParentId(parentId);
+        return org;
+    }
+
+    private static List<Long> ids(List<Org> nodes) {
+        return nodes.stream().map(Org::getId).toList();
+    }
+
+    /**
+     *  1
+     *  |-2
+     *  |  |-4
+     *  |  |-5
+     *  |     |-8
+     *  |-3
+     *     |-6
+     *  7
+     */
+    @Test
+    void testFilter() {
+        List<Org> nodes = new ArrayList<>();
+        for (long[] pair : new long[][]{{1, 0}, {2, 1}, {3, 1}, {4, 2}, {5, 2}, {6, 3}, {7, 0}, {8, 5}}) {
+            nodes.add(org(pair[0], pair[1] == 0 ? null : pair[1]));
+        }
+        List<Org> roots = TreeUtils.buildTree(nodes, null);
+        FilteredTree<Org, Long> tree = TreeUtils.filter(roots, node -> node.getId() == 8L || node.getId() == 4L);
+
+        assertEquals(List.of(1L), ids(tree.getRoots()));
+        Org org1 = nodes.get(0);
+        Org org2 = nodes.get(1);
+        Org org5 = nodes.get(4);
+        assertEquals(List.of(2L), ids(tree.children(org1)));
+        assertEquals(List.of(4L, 5L), ids(tree.children(org2)));
+        assertEquals(List.of(8L), ids(tree.children(org5)));
+        assertEquals(List.of(), tree.children(nodes.get(2)));
+        assertEquals(5, tree.size());
+        assertEquals(2, tree.matchCount());
+        assertTrue(tree.contains(org2));
+        assertFalse(tree.matches(org2));
+        assertTrue(tree.matches(nodes.get(7)));
+        assertFalse(tree.contains(nodes.get(6)));
+        // 不修改原来的树
+        assertEquals(List.of(2L, 3L), ids(org1.getChildren()));
+
+        assertEquals(0, TreeUtils.filter(roots, _ -> false).size());
+        assertEquals(nodes.size(), TreeUtils.filter(roots, _ -> true).size());
+    }
+
+    @Test
+    void testParallelSameAsAncestorWalk() {
+        SplittableRandom random = new SplittableRandom(5L);
+        int size = 20_000;
+        List<Org> nodes = new ArrayList<>();
+        Map<Long, Org> nodeMap = new HashMap<>();
+        for (long id = 1; id <= size; id++) {
+            Org org = org(id, id <= 40 ? null : 1L + random.nextInt((int) id - 1));
+            nodes.add(org);
+            nodeMap.put(id, org);
+        }
+        List<Org> roots = TreeUtils.buildTree(nodes, null);
+        Set<Long> expected = new HashSet<>();
+        for (Org node : nodes) {
+            if (node.getId() % 97 == 0) {
+                for (Org ancestor = node; ancestor != null; ancestor = nodeMap.get(ancestor.getParentId())) {
+                    expected.add(ancestor.getId());
+                }
+            }
+        }
+
+        FilteredTree<Org, Long> sequential = TreeUtils.filter(roots, node -> node.getId() % 97 == 0);
+        FilteredTree<Org, Long> parallel;
+        try (ForkJoinPool pool = new ForkJoinPool(4)) {
+            parallel = TreeUtils.filter(roots, node -> node.getId() % 97 == 0, pool);
+        }
+        for (FilteredTree<Org, Long> tree : List.of(sequential, parallel)) {
+            assertEquals(expected.size(), tree.size());
+            assertEquals(size / 97, tree.matchCount());
+            for (Org node : nodes) {
+                assertEquals(expected.contains(node.getId()), tree.contains(node));
+                assertEquals(node.getChildren().stream().filter(child -> expected.contains(child.getId())).map(Org::getId).toList(),
+                        ids(tree.children(node)));
+            }
+        }
+        assertEquals(ids(sequential.getRoots()), ids(parallel.getRoots()));
+    }
+}
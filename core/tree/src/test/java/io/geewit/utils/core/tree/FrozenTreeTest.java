@@ -0,0 +1,126 @@
+package io.geewit.utils.core.tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrozenTreeTest {
+
+    private static Org org(Long id, Long parentId, Integer sign) {
+        Org org = new Org();
+        org.setId(id);
+        org.setParentId(parentId);
+        org.setSign(sign);
+        return org;
+    }
+
+    private static List<Long> ids(List<Org> nodes) {
+        return nodes.stream().map(Org::getId).toList();
+    }
+
+    /**
+     *  1
+     *  |-2
+     *  |  |-4
+     *  |  |-5
+     *  |-3
+     *     |-6
+     *  7
+     */
+    private static List<Org> orgs() {
+        List<Org> nodes = new ArrayList<>();
+        nodes.add(org(1L, null, 1));
+        nodes.add(org(2L, 1L, 2));
+        nodes.add(org(3L, 1L, null));
+        nodes.add(org(4L, 2L, 0));
+        nodes.add(org(5L, 2L, 1));
+        nodes.add(org(6L, 3L, 2));
+        nodes.add(org(7L, null, 0));
+        return nodes;
+    }
+
+    @Test
+    void testFreeze() {
+        List<Org> nodes = orgs();
+        FrozenTree<Org, Long> tree = TreeUtils.freeze(TreeUtils.buildTree(nodes, null));
+
+        assertEquals(7, tree.size());
+        assertEquals(List.of(1L, 7L), ids(tree.getRoots()));
+        int index2 = tree.indexOf(2L);
+        assertEquals(List.of(4L, 5L), ids(tree.children(index2)));
+        assertEquals(2, tree.childCount(tree.indexOf(1L)));
+        assertEquals(tree.indexOf(3L), tree.nextSibling(index2));
+        assertEquals(FrozenTree.NONE, tree.nextSibling(tree.indexOf(3L)));
+        assertEquals(tree.indexOf(7L), tree.nextSibling(tree.indexOf(1L)));
+        assertEquals(tree.indexOf(4L), tree.firstChild(index2));
+        assertEquals(FrozenTree.NONE, tree.firstChild(tree.indexOf(7L)));
+        assertEquals(tree.indexOf(1L), tree.parent(index2));
+        assertEquals(List.of(1L, 2L, 4L, 5L, 3L, 6L), ids(tree.subtree(tree.indexOf(1L))));
+        assertTrue(tree.isAncestor(tree.indexOf(1L), tree.indexOf(6L)));
+        assertFalse(tree.isAncestor(index2, tree.indexOf(6L)));
+        assertEquals(2, tree.sign(index2));
+        assertEquals(0, tree.sign(tree.indexOf(3L)));
+        assertEquals(FrozenTree.NONE, tree.indexOf(99L));
+
+        // 修改原来的节点不影响快照
+        nodes.get(1).setSign(0);
+        nodes.get(1).getChildren().clear();
+        nodes.get(1).setId(20L);
+        assertEquals(2, tree.sign(index2));
+        assertEquals(2L, tree.id(index2));
+        assertEquals(List.of(4L, 5L), ids(tree.children(index2)));
+        assertThrows(UnsupportedOperationException.class, () -> tree.getRoots().add(nodes.get(0)));
+    }
+
+    @Test
+    void testCopyOnWrite() {
+        FrozenTree<Org, Long> tree = TreeUtils.freeze(TreeUtils.buildTree(orgs(), null));
+
+        FrozenTree<Org, Long> resigned = tree.withSigns(Map.of(2L, 0, 6L, 1, 99L, 1));
+        assertEquals(2, tree.sign(tree.indexOf(2L)));
+        assertEquals(0, resigned.sign(resigned.indexOf(2L)));
+        assertEquals(1, resigned.sign(resigned.indexOf(6L)));
+        assertSame(tree.node(0), resigned.node(0));
+        assertSame(tree, tree.withSign(2L, 2));
+
+        FrozenTree<Org, Long> pruned = resigned.prune(index -> resigned.id(index) == 2L || resigned.id(index) == 7L);
+        assertEquals(3, pruned.size());
+        assertEquals(List.of(1L, 3L, 6L), ids(pruned.subtree(0)));
+        assertEquals(List.of(3L), ids(pruned.children(pruned.indexOf(1L))));
+        assertEquals(FrozenTree.NONE, pruned.indexOf(4L));
+        assertEquals(1, pruned.sign(pruned.indexOf(6L)));
+        assertEquals(7, resigned.size());
+        assertSame(resigned, resigned.prune(_ -> false));
+        assertEquals(0, resigned.prune(_ -> true).size());
+    }
+
+    @Test
+    void testSameAsTreeIndex() {
+        SplittableRandom random = new SplittableRandom(7L);
+        int size = 2_000;
+        List<Org> nodes = new ArrayList<>();
+        for (long id = 1; id <= size; id++) {
+            nodes.add(org(id, id <= 3 ? null : 1L + random.nextInt((int) id - 1), random.nextInt(3)));
+        }
+        List<Org> roots = TreeUtils.buildTree(nodes, null);
+        FrozenTree<Org, Long> tree = TreeUtils.freeze(roots);
+        TreeIndex<Org, Long> index = TreeUtils.buildIndex(roots);
+
+        assertEquals(ids(roots), ids(tree.getRoots()));
+        for (long id = 1; id <= size; id++) {
+            int i = tree.indexOf(id);
+            Org node = tree.node(i);
+            assertEquals(id, node.getId());
+            assertEquals(ids(node.getChildren()), ids(tree.children(i)));
+            assertEquals(index.subtreeSize(id), tree.subtreeSize(i));
+            assertEquals(node.getSign(), tree.sign(i));
+            Org parent = index.parent(id);
+            assertEquals(parent == null ? FrozenTree.NONE : tree.indexOf(parent.getId()), tree.parent(i));
+        }
+    }
+}
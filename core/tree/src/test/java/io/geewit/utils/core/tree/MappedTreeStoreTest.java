@@ -0,0 +1,92 @@
+package io.geewit.utils.core.tree;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedTreeStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private static Org org(Long id, Long parentId, Integer sign) {
+        Org org = new Org();
+        org.setId(id);
+        org.setParentId(parentId);
+        org.setSign(sign);
+        return org;
+    }
+
+    @Test
+    void testSameAsFrozenTree() throws IOException {
+        SplittableRandom random = new SplittableRandom(17L);
+        int size = 20_000;
+        List<Org> nodes = new ArrayList<>();
+        for (long id = 1; id <= size; id++) {
+            Long parentId = id <= 5 ? null : (1L + random.nextInt((int) id - 1)) * 31;
+            nodes.add(org(id * 31, parentId, id % 9 == 0 ? null : random.nextInt(100)));
+        }
+        List<Org> roots = TreeUtils.buildTree(nodes, null);
+        FrozenTree<Org, Long> frozen = TreeUtils.freeze(roots);
+        Path path = dir.resolve("regions.tree");
+        MappedTreeStore.write(roots, path);
+
+        try (MappedTreeStore store = MappedTreeStore.open(path)) {
+            assertEquals(frozen.size(), store.size());
+            assertEquals(frozen.rootCount(), store.rootCount());
+            for (int i = 0; i < frozen.rootCount(); i++) {
+                assertEquals(frozen.root(i), store.root(i));
+            }
+            for (int i = 0; i < size; i++) {
+                assertEquals(frozen.id(i), store.id(i));
+                assertEquals(i, store.indexOf(store.id(i)));
+                assertEquals(frozen.parent(i), store.parent(i));
+                assertEquals(frozen.firstChild(i), store.firstChild(i));
+                assertEquals(frozen.nextSibling(i), store.nextSibling(i));
+                assertEquals(frozen.childCount(i), store.childCount(i));
+                assertEquals(frozen.subtreeSize(i), store.subtreeSize(i));
+                assertEquals(frozen.sign(i), store.sign(i));
+                int parent = store.parent(i);
+                assertEquals(parent == MappedTreeStore.NONE ? 0 : store.depth(parent) + 1, store.depth(i));
+            }
+            int index = store.indexOf(size * 31L);
+            long[] idPath = store.pathIds(index);
+            assertEquals(size * 31L, idPath[0]);
+            assertEquals(MappedTreeStore.NONE, store.parent(store.indexOf(idPath[idPath.length - 1])));
+            assertTrue(store.isAncestor(store.indexOf(idPath[idPath.length - 1]), index));
+            assertEquals(MappedTreeStore.NONE, store.indexOf(30L));
+            int[] children = store.children(0);
+            assertEquals(frozen.childCount(0), children.length);
+            assertThrows(IndexOutOfBoundsException.class, () -> store.id(size));
+        }
+    }
+
+    @Test
+    void testEmptyAndCorrupt() throws IOException {
+        Path path = dir.resolve("empty.tree");
+        MappedTreeStore.write(List.<Org>of(), path);
+        try (MappedTreeStore store = MappedTreeStore.open(path)) {
+            assertEquals(0, store.size());
+            assertEquals(MappedTreeStore.NONE, store.indexOf(1L));
+        }
+
+        Org root = org(1L, null, 1);
+        root.addChild(org(2L, 1L, 2));
+        MappedTreeStore.write(List.of(root), path);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 4));
+        assertThrows(IOException.class, () -> MappedTreeStore.open(path));
+
+        root.getChildren().getFirst().setId(null);
+        assertThrows(IllegalArgumentException.class, () -> MappedTreeStore.write(List.of(root), path));
+    }
+}
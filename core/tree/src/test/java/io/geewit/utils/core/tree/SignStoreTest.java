@@ -0,0 +1,32 @@
+package io.geewit.utils.core.tree;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SignStoreTest {
+
+    @Test
+    void testIntSignStore() {
+        IntSignStore store = new IntSignStore(100);
+        for (int i = 0; i < store.size(); i++) {
+            store.set(i, i % 4);
+        }
+        assertEquals(100, store.size());
+        assertEquals(3, store.get(7));
+
+        store.add(7, 1 << 31);
+        assertTrue(store.test(7, 1 << 31 | 3));
+        store.remove(7, 1);
+        assertFalse(store.test(7, 1));
+        assertTrue(store.test(7, 2));
+        assertEquals(1 << 31 | 2, store.get(7));
+        store.set(8, 5);
+        assertEquals(5, store.get(8));
+        assertEquals(1, store.get(9));
+
+        store.fill(0);
+        assertEquals(0, store.get(99));
+        assertFalse(store.test(7, 2));
+    }
+}
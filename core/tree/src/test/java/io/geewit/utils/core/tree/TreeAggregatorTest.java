@@ -0,0 +1,89 @@
+package io.geewit.utils.core.tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TreeAggregatorTest {
+
+    private static Org org(Long id, Long parentId, Integer sign) {
+        Org org = new Org();
+        org.setId(id);
+        org.setParentId(parentId);
+        org.setSign(sign);
+        return org;
+    }
+
+    /**
+     *  1
+     *  |-2
+     *  |  |-4
+     *  |  |-5
+     *  |-3
+     *  6
+     */
+    @Test
+    void testAggregate() {
+        List<Org> nodes = new ArrayList<>();
+        for (long[] row : new long[][]{{1, 0, 1}, {2, 1, 2}, {3, 1, 3}, {4, 2, 4}, {5, 2, 5}, {6, 0, 6}}) {
+            nodes.add(org(row[0], row[1] == 0 ? null : row[1], (int) row[2]));
+        }
+        List<Org> roots = TreeUtils.buildTree(nodes, null);
+
+        Map<Org, Integer> counts = TreeUtils.aggregate(roots, TreeAggregator.count());
+        assertEquals(6, counts.size());
+        assertEquals(5, counts.get(nodes.get(0)));
+        assertEquals(3, counts.get(nodes.get(1)));
+        assertEquals(1, counts.get(nodes.get(3)));
+        assertEquals(1, counts.get(nodes.get(5)));
+
+        Map<Org, Integer> sums = TreeUtils.aggregate(roots, TreeAggregator.of(Org::getSign, Integer::sum));
+        assertEquals(15, sums.get(nodes.get(0)));
+        assertEquals(11, sums.get(nodes.get(1)));
+
+        // 只满足结合律的合并: 先序拼接主键
+        Map<Org, String> paths = TreeUtils.aggregate(roots, TreeAggregator.of(node -> String.valueOf(node.getId()), String::concat));
+        assertEquals("12453", paths.get(nodes.get(0)));
+        assertEquals("245", paths.get(nodes.get(1)));
+
+        List<Long> order = new ArrayList<>();
+        TreeUtils.aggregate(roots, TreeAggregator.<Org>count(), (node, _) -> order.add(node.getId()));
+        assertEquals(List.of(4L, 5L, 2L, 3L, 1L, 6L), order);
+    }
+
+    @Test
+    void testParallelSameAsRecursion() {
+        SplittableRandom random = new SplittableRandom(9L);
+        int size = 20_000;
+        List<Org> nodes = new ArrayList<>();
+        for (long id = 1; id <= size; id++) {
+            nodes.add(org(id, id <= 30 ? null : 1L + random.nextInt((int) id - 1), random.nextInt(1000)));
+        }
+        List<Org> roots = TreeUtils.buildTree(nodes, null);
+        TreeAggregator<Org, Long> max = TreeAggregator.of(node -> (long) node.getSign(), Math::max);
+
+        Map<Org, Long> sequential = TreeUtils.aggregate(roots, max);
+        Map<Long, Long> parallel = new ConcurrentHashMap<>();
+        try (ForkJoinPool pool = new ForkJoinPool(4)) {
+            TreeUtils.aggregate(roots, max, (node, value) -> parallel.put(node.getId(), value), pool);
+        }
+        assertEquals(size, parallel.size());
+        for (Org node : nodes) {
+            long expected = maxSign(node);
+            assertEquals(expected, sequential.get(node));
+            assertEquals(expected, parallel.get(node.getId()));
+        }
+    }
+
+    private static long maxSign(Org node) {
+        long max = node.getSign();
+        for (Org child : node.getChildren()) {
+            max = Math.max(max, maxSign(child));
+        }
+        return max;
+    }
+}
@@ -0,0 +1,118 @@
+package io.geewit.utils.core.tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TreeCodecTest {
+
+    static class Dept extends TreeNode<Dept, String> {
+    }
+
+    private static Org org(Long id, Long parentId, Integer sign) {
+        Org org = new Org();
+        org.setId(id);
+        org.setParentId(parentId);
+        org.setSign(sign);
+        return org;
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        SplittableRandom random = new SplittableRandom(16L);
+        int size = 5_000;
+        List<Org> nodes = new ArrayList<>();
+        for (long id = 1; id <= size; id++) {
+            Long parentId = id <= 3 ? -1L : 1L + random.nextInt((int) id - 1);
+            Integer sign = id % 7 == 0 ? null : random.nextInt(-1000, 1000);
+            // 乱序的主键
+            nodes.add(org(id * 1_000_003 % 9_999_991, parentId < 0 ? null : parentId * 1_000_003 % 9_999_991, sign));
+        }
+        nodes.getFirst().setParentId(0L);
+        List<Org> roots = TreeUtils.buildTree(nodes, node -> node.getParentId() == null || node.getParentId() == 0L, null);
+        TreeCodec<Org, Long> codec = TreeCodec.ofLong(Org::new);
+
+        byte[] bytes = codec.toByteArray(roots);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(roots, out);
+        assertArrayEquals(bytes, out.toByteArray());
+
+        assertSameForest(roots, codec.read(bytes));
+        assertSameForest(roots, codec.read(new ByteArrayInputStream(bytes)));
+
+        // 写入 buffer 的中间, 读取后位置在树数据之后
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 8);
+        buffer.putInt(42);
+        codec.write(roots, buffer);
+        buffer.putInt(24);
+        buffer.flip();
+        assertEquals(42, buffer.getInt());
+        assertSameForest(roots, codec.read(buffer));
+        assertEquals(24, buffer.getInt());
+
+        assertTrue(codec.read(codec.toByteArray(List.of())).isEmpty());
+    }
+
+    @Test
+    void testStringKeysAndCorruptData() {
+        Dept root = new Dept();
+        root.setId("总部");
+        Dept child = new Dept();
+        child.setId("研发");
+        child.setParentId("总部");
+        Dept leaf = new Dept();
+        leaf.setParentId("研发");
+        root.addChild(child);
+        child.setParent(root);
+        child.addChild(leaf);
+        leaf.setParent(child);
+
+        TreeCodec<Dept, String> codec = TreeCodec.ofString(Dept::new);
+        byte[] bytes = codec.toByteArray(List.of(root));
+        List<Dept> roots = codec.read(bytes);
+        assertEquals(1, roots.size());
+        Dept readChild = roots.getFirst().getChildren().getFirst();
+        assertEquals("研发", readChild.getId());
+        assertEquals("总部", readChild.getParentId());
+        assertSame(roots.getFirst(), readChild.getParent());
+        assertNull(readChild.getChildren().getFirst().getId());
+        assertEquals("研发", readChild.getChildren().getFirst().getParentId());
+
+        assertThrows(IllegalArgumentException.class, () -> codec.read(Arrays.copyOf(bytes, bytes.length - 1)));
+        assertThrows(EOFException.class, () -> codec.read(new ByteArrayInputStream(bytes, 0, bytes.length - 2)));
+        // 主键类型不一致
+        assertThrows(IllegalArgumentException.class, () -> TreeCodec.ofLong(Org::new).read(bytes));
+    }
+
+    private static void assertSameForest(List<Org> expected, List<Org> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertNull(actual.get(i).getParent());
+            assertSameTree(expected.get(i), actual.get(i));
+        }
+    }
+
+    private static void assertSameTree(Org expected, Org actual) {
+        Deque<Org[]> stack = new ArrayDeque<>();
+        stack.push(new Org[]{expected, actual});
+        while (!stack.isEmpty()) {
+            Org[] pair = stack.pop();
+            assertEquals(pair[0].getId(), pair[1].getId());
+            assertEquals(pair[0].getParentId(), pair[1].getParentId());
+            assertEquals(pair[0].getSign(), pair[1].getSign());
+            assertEquals(pair[0].getChildren().size(), pair[1].getChildren().size());
+            for (int i = 0; i < pair[0].getChildren().size(); i++) {
+                Org child = pair[1].getChildren().get(i);
+                assertSame(pair[1], child.getParent());
+                stack.push(new Org[]{pair[0].getChildren().get(i), child});
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package io.geewit.utils.core.tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TreeDiffTest {
+
+    static class Dept extends TreeNode<Dept, String> {
+    }
+
+    private static Dept dept(String id, String parentId) {
+        Dept dept = new Dept();
+        dept.setId(id);
+        dept.setParentId(parentId);
+        return dept;
+    }
+
+    private static Org org(Long id, Long parentId, Integer sign) {
+        Org org = new Org();
+        org.setId(id);
+        org.setParentId(parentId);
+        org.setSign(sign);
+        return org;
+    }
+
+    private static Org copy(Org node) {
+        return org(node.getId(), node.getParentId(), node.getSign());
+    }
+
+    private static List<Org> build(long[][] rows) {
+        List<Org> nodes = new ArrayList<>();
+        for (long[] row : rows) {
+            nodes.add(org(row[0], row[1] == 0 ? null : row[1], (int) row[2]));
+        }
+        return TreeUtils.buildTree(nodes, null);
+    }
+
+    /**
+     * 以 主键 → (父节点主键, sign) 表示一棵树, 忽略兄弟节点顺序
+     */
+    private static Map<Long, List<Long>> shape(Collection<Org> roots) {
+        Map<Long, List<Long>> shape = new HashMap<>();
+        new TreeTraverser<Org>().preOrder(roots, node -> {
+            shape.putIfAbsent(node.getId(), Arrays.asList(null, (long) node.getSign()));
+            node.getChildren().forEach(child -> shape.put(child.getId(), Arrays.asList(node.getId(), (long) child.getSign())));
+        });
+        return shape;
+    }
+
+    /**
+     *  old:          new:
+     *  1             1
+     *  |-2           |-2
+     *  |  |-4        |  |-5 (sign 1)
+     *  |  |-5        |-3
+     *  |-3              |-6
+     *     |-6           |-4
+     *  7             8
+     */
+    @Test
+    void testDiffAndApply() {
+        List<Org> oldRoots = build(new long[][]{{1, 0, 0}, {2, 1, 0}, {3, 1, 0}, {4, 2, 0}, {5, 2, 0}, {6, 3, 0}, {7, 0, 0}});
+        List<Org> newRoots = build(new long[][]{{1, 0, 0}, {2, 1, 0}, {3, 1, 0}, {5, 2, 1}, {6, 3, 0}, {4, 6, 0}, {8, 0, 0}});
+        TreeDiff<Org, Long> diff = TreeUtils.diff(oldRoots, newRoots);
+
+        assertEquals(List.of(8L), diff.getInserted().stream().map(insert -> insert.node().getId()).toList());
+        assertNull(diff.getInserted().getFirst().parentId());
+        assertEquals(List.of(7L), diff.getRemoved());
+        assertEquals(List.of(new TreeDiff.Move<>(4L, 2L, 6L)), diff.getMoved());
+        assertEquals(List.of(new TreeDiff.SignChange<>(5L, 0, 1)), diff.getSignChanged());
+        assertEquals(4, diff.size());
+
+        List<Org> patched = diff.apply(oldRoots, TreeDiffTest::copy);
+        assertEquals(shape(newRoots), shape(patched));
+        assertTrue(TreeUtils.diff(patched, newRoots).isEmpty());
+        assertTrue(TreeUtils.diff(newRoots, newRoots).isEmpty());
+        // 新增的节点同样使用带索引的子节点列表
+        Org inserted = patched.stream().filter(root -> root.getId() == 8L).findFirst().orElseThrow();
+        assertInstanceOf(ChildList.class, inserted.children);
+    }
+
+    @Test
+    void testRandomDiffAndApply() {
+        SplittableRandom random = new SplittableRandom(3L);
+        for (int round = 0; round < 20; round++) {
+            int size = 500 + random.nextInt(1000);
+            long[][] oldRows = new long[size][];
+            for (int i = 0; i < size; i++) {
+                long id = i + 1;
+                oldRows[i] = new long[]{id, id <= 3 ? 0 : 1 + random.nextInt(i), random.nextInt(3)};
+            }
+            // 删除尾部的节点, 追加新节点, 部分节点换父节点和 sign
+            List<long[]> newRows = new ArrayList<>();
+            int kept = size - random.nextInt(50);
+            for (int i = 0; i < kept; i++) {
+                long[] row = oldRows[i].clone();
+                if (i >= 3 && random.nextInt(20) == 0) {
+                    row[1] = 1 + random.nextInt(i);
+                }
+                if (random.nextInt(20) == 0) {
+                    row[2] = random.nextInt(3);
+                }
+                newRows.add(row);
+            }
+            for (int i = 0; i < random.nextInt(50); i++) {
+                long id = size + 1 + i;
+                newRows.add(new long[]{id, 1 + random.nextInt((int) id - 1), random.nextInt(3)});
+            }
+            List<Org> oldRoots = build(oldRows);
+            List<Org> newRoots = build(newRows.toArray(long[][]::new));
+            Map<Long, List<Long>> oldShape = shape(oldRoots);
+            Map<Long, List<Long>> newShape = shape(newRoots);
+
+            TreeDiff<Org, Long> diff = TreeUtils.diff(oldRoots, newRoots);
+            long expectedMoved = newShape.keySet().stream()
+                    .filter(id -> oldShape.containsKey(id) && !Objects.equals(oldShape.get(id).get(0), newShape.get(id).get(0)))
+                    .count();
+            assertEquals(expectedMoved, diff.getMoved().size());
+            assertEquals(newShape.keySet().stream().filter(id -> !oldShape.containsKey(id)).count(), diff.getInserted().size());
+            assertEquals(oldShape.keySet().stream().filter(id -> !newShape.containsKey(id)).count(), diff.getRemoved().size());
+
+            List<Org> patched = diff.apply(oldRoots, TreeDiffTest::copy);
+            assertEquals(newShape, shape(patched), "round: " + round);
+        }
+    }
+
+    /**
+     * "Aa" 和 "BB" 的 hashCode 相同, 子树哈希相同时也不能跳过内容不同的子树
+     */
+    @Test
+    void testCollidingStringIds() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        List<Dept> oldRoots = TreeUtils.buildTree(new ArrayList<>(List.of(dept("r", null), dept("Aa", "r"))), null);
+        List<Dept> newRoots = TreeUtils.buildTree(new ArrayList<>(List.of(dept("r", null), dept("BB", "r"))), null);
+        TreeDiff<Dept, String> diff = TreeUtils.diff(oldRoots, newRoots);
+
+        assertEquals(List.of("BB"), diff.getInserted().stream().map(insert -> insert.node().getId()).toList());
+        assertEquals("r", diff.getInserted().getFirst().parentId());
+        assertEquals(List.of("Aa"), diff.getRemoved());
+        assertTrue(diff.getMoved().isEmpty());
+    }
+}
@@ -0,0 +1,144 @@
+package io.geewit.utils.core.tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TreeIndexTest {
+
+    private static Org org(Long id, Long parentId) {
+        Org org = new Org();
+        org.setId(id);
+        org.setParentId(parentId);
+        return org;
+    }
+
+    /**
+     *  1
+     *  |-2
+     *  |  |-4
+     *  |  |-5
+     *  |     |-8
+     *  |-3
+     *     |-6
+     *  7
+     */
+    @Test
+    void testQueries() {
+        List<Org> nodes = new ArrayList<>();
+        nodes.add(org(1L, null));
+        nodes.add(org(2L, 1L));
+        nodes.add(org(3L, 1L));
+        nodes.add(org(4L, 2L));
+        nodes.add(org(5L, 2L));
+        nodes.add(org(6L, 3L));
+        nodes.add(org(7L, null));
+        nodes.add(org(8L, 5L));
+        TreeIndex<Org, Long> index = TreeUtils.buildIndex(TreeUtils.buildTree(nodes, null));
+
+        assertEquals(8, index.size());
+        assertTrue(index.isAncestor(1L, 8L));
+        assertTrue(index.isAncestor(2L, 5L));
+        assertFalse(index.isAncestor(3L, 8L));
+        assertFalse(index.isAncestor(8L, 8L));
+        assertFalse(index.isAncestor(1L, 7L));
+
+        assertEquals(List.of(4L, 5L, 8L), index.descendants(2L).stream().map(Org::getId).toList());
+        assertEquals(List.of(), index.descendants(8L));
+        assertEquals(List.of(), index.descendants(99L));
+        assertEquals(7, index.subtreeSize(1L));
+
+        assertEquals(0, index.depth(7L));
+        assertEquals(3, index.depth(8L));
+        assertEquals(TreeIndex.NONE, index.depth(99L));
+        assertEquals(5L, index.parent(8L).getId());
+        assertNull(index.parent(1L));
+        assertEquals(List.of(1L, 2L, 5L), index.ancestors(8L).stream().map(Org::getId).toList());
+
+        assertEquals(1L, index.lowestCommonAncestor(8L, 6L).getId());
+        assertEquals(2L, index.lowestCommonAncestor(4L, 8L).getId());
+        assertEquals(2L, index.lowestCommonAncestor(8L, 2L).getId());
+        assertEquals(8L, index.lowestCommonAncestor(8L, 8L).getId());
+        assertNull(index.lowestCommonAncestor(8L, 7L));
+
+        index.fillParentIds(",");
+        assertEquals("", nodes.get(0).getParentIds());
+        assertEquals("1", nodes.get(1).getParentIds());
+        assertEquals("1,2,5", nodes.get(7).getParentIds());
+        assertEquals("", nodes.get(6).getParentIds());
+    }
+
+    @Test
+    void testSameAsParentWalk() {
+        SplittableRandom random = new SplittableRandom(42L);
+        int size = 3_000;
+        List<Org> nodes = new ArrayList<>();
+        for (long id = 1; id <= size; id++) {
+            nodes.add(org(id, id <= 3 ? null : 1L + random.nextInt((int) id - 1)));
+        }
+        assertSameAsParentWalk(random, nodes);
+    }
+
+    @Test
+    void testSameAsParentWalkOnDeepTree() {
+        // 父节点总是最近的几个节点之一, 树很深, 查询区间多数落在同一块或相邻块内
+        SplittableRandom random = new SplittableRandom(7L);
+        int size = 3_000;
+        List<Org> nodes = new ArrayList<>();
+        for (long id = 1; id <= size; id++) {
+            nodes.add(org(id, id == 1 ? null : Math.max(1L, id - 1 - random.nextInt(4))));
+        }
+        assertSameAsParentWalk(random, nodes);
+    }
+
+    private static void assertSameAsParentWalk(SplittableRandom random, List<Org> nodes) {
+        int size = nodes.size();
+        TreeIndex<Org, Long> index = TreeUtils.buildIndex(TreeUtils.buildTree(nodes, null));
+        Map<Long, Long> parents = new HashMap<>();
+        nodes.forEach(node -> parents.put(node.getId(), node.getParentId()));
+
+        for (int i = 0; i < 2_000; i++) {
+            long a = 1L + random.nextInt(size);
+            long b = 1L + random.nextInt(size);
+            List<Long> pathA = new ArrayList<>();
+            for (Long id = a; id != null; id = parents.get(id)) {
+                pathA.add(id);
+            }
+            Set<Long> ancestorsA = new HashSet<>(pathA);
+            Long expected = null;
+            for (Long id = b; id != null; id = parents.get(id)) {
+                if (ancestorsA.contains(id)) {
+                    expected = id;
+                    break;
+                }
+            }
+            Org lca = index.lowestCommonAncestor(a, b);
+            assertEquals(expected, lca == null ? null : lca.getId());
+            assertEquals(pathA.size() - 1, index.depth(a));
+            assertEquals(a != b && ancestorsA.contains(b), index.isAncestor(b, a));
+        }
+    }
+
+    @Test
+    void testDepthRangeMin() {
+        SplittableRandom random = new SplittableRandom(3L);
+        for (int size : new int[]{1, 2, 31, 32, 33, 64, 65, 1_000}) {
+            int[] depths = new int[size];
+            for (int i = 0; i < size; i++) {
+                depths[i] = random.nextInt(8);
+            }
+            TreeIndex.DepthRangeMin rangeMin = new TreeIndex.DepthRangeMin(depths);
+            for (int from = 0; from < size; from++) {
+                int expected = from;
+                for (int to = from; to < size; to++) {
+                    if (depths[to] < depths[expected]) {
+                        expected = to;
+                    }
+                    assertEquals(depths[expected], depths[rangeMin.min(from, to)], "size: " + size + ", [" + from + ", " + to + "]");
+                }
+            }
+        }
+    }
+}
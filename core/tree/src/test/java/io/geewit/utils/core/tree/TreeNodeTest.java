@@ -0,0 +1,167 @@
+package io.geewit.utils.core.tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TreeNodeTest {
+
+    private static Org org(long id) {
+        Org org = new Org();
+        org.setId(id);
+        return org;
+    }
+
+    @Test
+    void testAddChildSkipsDuplicatesOnWideNodes() {
+        Org parent = org(0L);
+        for (long id = 1; id <= 10_000; id++) {
+            parent.addChild(org(id));
+            parent.addChild(org(id));
+        }
+        assertEquals(10_000, parent.getChildren().size());
+        assertEquals(1L, parent.getChildren().get(0).getId());
+        assertEquals(10_000L, parent.getChildren().get(9_999).getId());
+        assertEquals(5_000L, parent.getChild(5_000L).getId());
+        assertNull(parent.getChild(10_001L));
+    }
+
+    @Test
+    void testRemoveChild() {
+        Org parent = org(0L);
+        for (long id = 1; id <= 100; id++) {
+            parent.addChild(org(id));
+        }
+        Org removed = parent.removeChild(50L);
+        assertNotNull(removed);
+        assertEquals(50L, removed.getId());
+        assertNull(parent.getChild(50L));
+        assertNull(parent.removeChild(50L));
+        assertEquals(99, parent.getChildren().size());
+        assertEquals(51L, parent.getChildren().get(49).getId());
+
+        parent.addChild(org(50L));
+        assertEquals(50L, parent.getChildren().get(99).getId());
+    }
+
+    @Test
+    void testChildIndexFollowsDirectModifications() {
+        Org parent = org(0L);
+        for (long id = 1; id <= 100; id++) {
+            parent.addChild(org(id));
+        }
+        // 绕过 addChild 直接修改 children
+        parent.getChildren().add(org(101L));
+        assertEquals(101L, parent.getChild(101L).getId());
+        parent.addChild(org(101L));
+        assertEquals(101, parent.getChildren().size());
+
+        List<Org> replaced = new ArrayList<>();
+        for (long id = 200; id < 300; id++) {
+            replaced.add(org(id));
+        }
+        parent.setChildren(replaced);
+        assertNull(parent.getChild(1L));
+        assertEquals(250L, parent.getChild(250L).getId());
+
+        parent.clear();
+        assertNull(parent.getChild(250L));
+        parent.addChild(org(1L));
+        assertEquals(1, parent.getChildren().size());
+    }
+
+    @Test
+    void testChildIndexFollowsSameSizeModifications() {
+        Org parent = org(0L);
+        for (long id = 1; id <= 100; id++) {
+            parent.addChild(org(id));
+        }
+        // 直接移除一个子节点再添加另一个, 列表大小不变
+        parent.getChildren().remove(0);
+        parent.getChildren().add(org(500L));
+        parent.addChild(org(500L));
+        assertEquals(100, parent.getChildren().size());
+        parent.addChild(org(1L));
+        assertEquals(101, parent.getChildren().size());
+        assertEquals(1L, parent.getChild(1L).getId());
+
+        parent.getChildren().set(0, org(600L));
+        assertNull(parent.getChild(2L));
+        assertEquals(600L, parent.getChild(600L).getId());
+        parent.addChild(org(2L));
+        assertEquals(102, parent.getChildren().size());
+    }
+
+    @Test
+    void testListIteratorSetOnWideNodes() {
+        Org parent = org(0L);
+        for (long id = 1; id <= 100; id++) {
+            parent.addChild(org(id));
+        }
+        // 通过迭代器替换子节点不应该抛出 ConcurrentModificationException
+        ListIterator<Org> iterator = parent.getChildren().listIterator();
+        while (iterator.hasNext()) {
+            Org child = iterator.next();
+            iterator.set(org(child.getId() + 1000));
+        }
+        assertNull(parent.getChild(1L));
+        assertEquals(1001L, parent.getChild(1001L).getId());
+        parent.addChild(org(1001L));
+        assertEquals(100, parent.getChildren().size());
+    }
+
+    @Test
+    void testRemoveChildKeepsIndex() {
+        Org parent = org(0L);
+        for (long id = 1; id <= 100; id++) {
+            parent.addChild(org(id));
+        }
+        ChildList<Org, Long> list = (ChildList<Org, Long>) parent.getChildren();
+        Map<Long, Org> index = list.index();
+        assertNotNull(index);
+        for (long id = 1; id <= 50; id++) {
+            parent.removeChild(id);
+            parent.addChild(org(id + 100));
+        }
+        // 交替移除和添加时就地更新索引, 不重建
+        assertSame(index, list.index());
+        assertEquals(100, parent.getChildren().size());
+        assertNull(parent.getChild(1L));
+        assertEquals(150L, parent.getChild(150L).getId());
+    }
+
+    @Test
+    void testRemoveChildExposesDuplicate() {
+        Org parent = org(0L);
+        for (long id = 1; id <= 100; id++) {
+            parent.addChild(org(id));
+        }
+        // 绕过 addChild 添加重复id的子节点
+        Org duplicate = org(10L);
+        parent.getChildren().add(duplicate);
+        Org first = parent.getChild(10L);
+        assertNotSame(duplicate, first);
+        parent.addChild(org(200L));
+
+        assertSame(first, parent.removeChild(10L));
+        assertSame(duplicate, parent.getChild(10L));
+        assertSame(duplicate, parent.removeChild(10L));
+        assertNull(parent.getChild(10L));
+    }
+
+    @Test
+    void testAddNullChildToNullChildren() {
+        Org parent = org(0L);
+        parent.setChildren(null);
+        parent.addChild(null);
+        assertEquals(1, parent.getChildren().size());
+        assertNull(parent.getChildren().get(0));
+        parent.addChild(org(1L));
+        assertEquals(1L, parent.getChild(1L).getId());
+    }
+}
@@ -0,0 +1,116 @@
+package io.geewit.utils.core.tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 以 parallelism > 1 重新执行 {@link TreeTraverseContextTest} 的用例, 结果应与顺序标记一致
+ */
+public class TreeTraverseContextParallelTest extends TreeTraverseContextTest {
+
+    @Override
+    protected TreeTraverseContext.TreeTraverseContextBuilder<Org, Long> builder() {
+        return TreeTraverseContext.<Org, Long>builder().parallelism(4);
+    }
+
+    private static List<Org> randomOrgs(SplittableRandom random, int size, int rootCount) {
+        List<Org> nodes = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Org org = new Org();
+            org.setId(id);
+            org.setParentId(id <= rootCount ? null : 1L + random.nextInt((int) id - 1));
+            org.setSign(random.nextInt(3));
+            int transmission = random.nextInt(3);
+            org.setTransmission(transmission == 0 ? null : transmission == 1);
+            nodes.add(org);
+        }
+        return nodes;
+    }
+
+    private static List<Org> copyOrgs(List<Org> nodes) {
+        List<Org> copies = new ArrayList<>(nodes.size());
+        for (Org node : nodes) {
+            Org org = new Org();
+            org.setId(node.getId());
+            org.setParentId(node.getParentId());
+            org.setSign(node.getSign());
+            org.setTransmission(node.getTransmission());
+            copies.add(org);
+        }
+        return copies;
+    }
+
+    private static List<Integer> cascadeSign(List<Org> nodes, List<NodeSignParameter<Long>> signParameters, int mode, int parallelism) {
+        return cascadeSign(nodes, signParameters, mode, parallelism, null);
+    }
+
+    private static List<Integer> cascadeSign(List<Org> nodes, List<NodeSignParameter<Long>> signParameters, int mode, int parallelism,
+                                             ForkJoinPool pool) {
+        TreeTraverseContext.<Org, Long>builder()
+                .nodes(nodes)
+                // setNodeSign 会修改传入参数的 transmissionDown, 每次使用新的参数
+                .signParameters(signParameters.stream().map(sp -> sp.toBuilder().build()).toList())
+                .overwrite((mode & 1) != 0)
+                .transmission((mode & 2) != 0)
+                .compress((mode & 4) != 0)
+                .parallelism(parallelism)
+                .forkJoinPool(pool)
+                .signChildConsumer(signChildConsumer)
+                .signParentConsumer(signParentConsumer)
+                .compressChildConsumer(compressChildConsumer)
+                .transmissionChildConsumer(transmissionChildConsumer)
+                .build()
+                .cascadeSign();
+        return nodes.stream().map(Org::getSign).toList();
+    }
+
+    @Test
+    void testParallelSameAsSequential() {
+        SplittableRandom random = new SplittableRandom(42L);
+        for (int round = 0; round < 40; round++) {
+            int size = 500 + random.nextInt(2000);
+            List<Org> nodes = randomOrgs(random, size, 1 + random.nextInt(6));
+            List<NodeSignParameter<Long>> signParameters = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                NodeSignParameter.NodeSignParameterBuilder<Long> builder = NodeSignParameter.<Long>builder()
+                        .id(1L + random.nextInt(size))
+                        .sign(random.nextInt(3));
+                if (random.nextBoolean()) {
+                    builder.transmission(random.nextBoolean());
+                }
+                signParameters.add(builder.build());
+            }
+            for (int mode = 0; mode < 8; mode++) {
+                List<Integer> expected = cascadeSign(copyOrgs(nodes), signParameters, mode, 1);
+                for (int parallelism : new int[]{2, 4, 16}) {
+                    assertEquals(expected, cascadeSign(copyOrgs(nodes), signParameters, mode, parallelism),
+                            "round: " + round + ", mode: " + mode + ", parallelism: " + parallelism);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testReuseForkJoinPool() {
+        SplittableRandom random = new SplittableRandom(7L);
+        List<Org> nodes = randomOrgs(random, 3000, 4);
+        List<NodeSignParameter<Long>> signParameters = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            signParameters.add(NodeSignParameter.<Long>builder().id(1L + random.nextInt(3000)).sign(random.nextInt(3)).build());
+        }
+        try (ForkJoinPool pool = new ForkJoinPool(4)) {
+            for (int mode = 0; mode < 8; mode++) {
+                List<Integer> expected = cascadeSign(copyOrgs(nodes), signParameters, mode, 1);
+                // 同一个线程池在多次标记之间复用, 标记结束后不会被关闭
+                assertEquals(expected, cascadeSign(copyOrgs(nodes), signParameters, mode, 4, pool), "mode: " + mode);
+                assertFalse(pool.isShutdown());
+            }
+        }
+    }
+}
@@ -8,7 +8,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 public class TreeTraverseContextTest {
 
-    private static final SignChildConsumer<Org, Long> signChildConsumer = (parentNode, childNode, childNodeSign) -> {
+    static final SignChildConsumer<Org, Long> signChildConsumer = (parentNode, childNode, childNodeSign) -> {
         Integer sign = childNodeSign.getSign();
         Boolean transmissionDown = childNodeSign.getTransmissionDown();
         if (parentNode == null) {
@@ -30,7 +30,7 @@ public class TreeTraverseContextTest {
         }
     };
 
-    private static final SignParentConsumer<Org, Long> signParentConsumer = (parentNode, allChildrenSign, overwrite) -> {
+    static final SignParentConsumer<Org, Long> signParentConsumer = (parentNode, allChildrenSign, overwrite) -> {
         if (allChildrenSign > 0 && parentNode.sign == 0) {
             parentNode.setSign(1);
             return;
@@ -40,7 +40,7 @@ public class TreeTraverseContextTest {
         }
     };
 
-    private static final CompressChildConsumer<Org, Long> compressChildConsumer = (parentNode, childNode) -> {
+    static final CompressChildConsumer<Org, Long> compressChildConsumer = (parentNode, childNode) -> {
         if (parentNode == null) {
             return;
         }
@@ -49,7 +49,7 @@ public class TreeTraverseContextTest {
         }
     };
 
-    private static final TransmissionChildConsumer<Org, Long> transmissionChildConsumer = (parentNode, childNode) -> {
+    static final TransmissionChildConsumer<Org, Long> transmissionChildConsumer = (parentNode, childNode) -> {
         if (parentNode == null) {
             return;
         }
@@ -58,6 +58,13 @@ public class TreeTraverseContextTest {
         }
     };
 
+    /**
+     * 创建 TreeTraverseContext 的 builder, 子类修改标记方式后复用同样的测试用例
+     */
+    protected TreeTraverseContext.TreeTraverseContextBuilder<Org, Long> builder() {
+        return TreeTraverseContext.builder();
+    }
+
     /**
      *  ORG_01                               ☑ 1     0     1     1
      *     |-ORG_02                          ☑ 1     1     1     0
@@ -134,7 +141,7 @@ public class TreeTraverseContextTest {
         signParameters.add(NodeSignParameter.<Long>builder().id(6L).sign(2).build());
         signParameters.add(NodeSignParameter.<Long>builder().id(8L).sign(2).build());
 
-        TreeTraverseContext<Org, Long> treeTraversalContext = TreeTraverseContext.<Org, Long>builder()
+        TreeTraverseContext<Org, Long> treeTraversalContext = this.builder()
                 .nodes(nodes)
                 .signParameters(signParameters)
                 .overwrite(true)
@@ -221,7 +228,7 @@ public class TreeTraverseContextTest {
         Set<NodeSignParameter<Long>> signParameters = new HashSet<>();
         signParameters.add(NodeSignParameter.<Long>builder().id(1L).sign(1).build());
 
-        TreeTraverseContext<Org, Long> treeTraversalContext = TreeTraverseContext.<Org, Long>builder()
+        TreeTraverseContext<Org, Long> treeTraversalContext = this.builder()
                 .nodes(nodes)
                 .signParameters(signParameters)
                 .overwrite(true)
@@ -308,7 +315,7 @@ public class TreeTraverseContextTest {
         Set<NodeSignParameter<Long>> signParameters = new HashSet<>();
         signParameters.add(NodeSignParameter.<Long>builder().id(1L).sign(1).build());
 
-        TreeTraverseContext<Org, Long> treeTraversalContext = TreeTraverseContext.<Org, Long>builder()
+        TreeTraverseContext<Org, Long> treeTraversalContext = this.builder()
                 .nodes(nodes)
                 .signParameters(signParameters)
                 .overwrite(false)
@@ -395,7 +402,7 @@ public class TreeTraverseContextTest {
         Set<NodeSignParameter<Long>> signParameters = new HashSet<>();
         signParameters.add(NodeSignParameter.<Long>builder().id(1L).sign(1).build());
 
-        TreeTraverseContext<Org, Long> treeTraversalContext = TreeTraverseContext.<Org, Long>builder()
+        TreeTraverseContext<Org, Long> treeTraversalContext = this.builder()
                 .nodes(nodes)
                 .signParameters(signParameters)
                 .overwrite(false)
@@ -482,7 +489,7 @@ public class TreeTraverseContextTest {
         Set<NodeSignParameter<Long>> signParameters = new HashSet<>();
         signParameters.add(NodeSignParameter.<Long>builder().id(1L).sign(2).build());
 
-        TreeTraverseContext<Org, Long> treeTraversalContext = TreeTraverseContext.<Org, Long>builder()
+        TreeTraverseContext<Org, Long> treeTraversalContext = this.builder()
                 .nodes(nodes)
                 .signParameters(signParameters)
                 .overwrite(false)
@@ -571,7 +578,7 @@ public class TreeTraverseContextTest {
         signParameters.add(NodeSignParameter.<Long>builder().id(3L).sign(2).build());
         signParameters.add(NodeSignParameter.<Long>builder().id(4L).sign(2).build());
 
-        TreeTraverseContext<Org, Long> treeTraversalContext = TreeTraverseContext.<Org, Long>builder()
+        TreeTraverseContext<Org, Long> treeTraversalContext = this.builder()
                 .nodes(nodes)
                 .signParameters(signParameters)
                 .overwrite(false)
@@ -659,7 +666,7 @@ public class TreeTraverseContextTest {
         signParameters.add(NodeSignParameter.<Long>builder().id(3L).sign(2).build());
         signParameters.add(NodeSignParameter.<Long>builder().id(4L).sign(2).build());
 
-        TreeTraverseContext<Org, Long> treeTraversalContext = TreeTraverseContext.<Org, Long>builder()
+        TreeTraverseContext<Org, Long> treeTraversalContext = this.builder()
                 .nodes(nodes)
                 .signParameters(signParameters)
                 .overwrite(false)
@@ -760,7 +767,7 @@ public class TreeTraverseContextTest {
         signParameters.add(NodeSignParameter.<Long>builder().id(3L).sign(2).build());
         signParameters.add(NodeSignParameter.<Long>builder().id(4L).sign(2).build());
 
-        TreeTraverseContext<Org, Long> treeTraversalContext = TreeTraverseContext.<Org, Long>builder()
+        TreeTraverseContext<Org, Long> treeTraversalContext = this.builder()
                 .nodes(nodes)
                 .signParameters(signParameters)
                 .overwrite(true)
@@ -860,7 +867,7 @@ public class TreeTraverseContextTest {
         Set<NodeSignParameter<Long>> signParameters = new HashSet<>();
         signParameters.add(NodeSignParameter.<Long>builder().id(4L).sign(2).build());
 
-        TreeTraverseContext<Org, Long> treeTraversalContext = TreeTraverseContext.<Org, Long>builder()
+        TreeTraverseContext<Org, Long> treeTraversalContext = this.builder()
                 .nodes(nodes)
                 .signParameters(signParameters)
                 .overwrite(true)
@@ -960,7 +967,7 @@ public class TreeTraverseContextTest {
         Set<NodeSignParameter<Long>> signParameters = new HashSet<>();
         signParameters.add(NodeSignParameter.<Long>builder().id(10L).sign(2).build());
 
-        TreeTraverseContext<Org, Long> treeTraversalContext = TreeTraverseContext.<Org, Long>builder()
+        TreeTraverseContext<Org, Long> treeTraversalContext = this.builder()
                 .nodes(nodes)
                 .signParameters(signParameters)
                 .overwrite(true)
@@ -1062,7 +1069,7 @@ public class TreeTraverseContextTest {
         signParameters.add(NodeSignParameter.<Long>builder().id(5L).sign(1).build());
         signParameters.add(NodeSignParameter.<Long>builder().id(10L).sign(2).build());
 
-        TreeTraverseContext<Org, Long> treeTraversalContext = TreeTraverseContext.<Org, Long>builder()
+        TreeTraverseContext<Org, Long> treeTraversalContext = this.builder()
                 .nodes(nodes)
                 .signParameters(signParameters)
                 .overwrite(true)
@@ -1163,7 +1170,7 @@ public class TreeTraverseContextTest {
         signParameters.add(NodeSignParameter.<Long>builder().id(3L).sign(0).build());
         signParameters.add(NodeSignParameter.<Long>builder().id(4L).sign(0).build());
 
-        TreeTraverseContext<Org, Long> treeTraversalContext = TreeTraverseContext.<Org, Long>builder()
+        TreeTraverseContext<Org, Long> treeTraversalContext = this.builder()
                 .nodes(nodes)
                 .signParameters(signParameters)
                 .overwrite(true)
@@ -1263,7 +1270,7 @@ public class TreeTraverseContextTest {
         Set<NodeSignParameter<Long>> signParameters = new HashSet<>();
         signParameters.add(NodeSignParameter.<Long>builder().id(1L).sign(0).transmissionDown(true).build());
 
-        TreeTraverseContext<Org, Long> treeTraversalContext = TreeTraverseContext.<Org, Long>builder()
+        TreeTraverseContext<Org, Long> treeTraversalContext = this.builder()
                 .nodes(nodes)
                 .signParameters(signParameters)
                 .overwrite(false)
@@ -1363,7 +1370,7 @@ public class TreeTraverseContextTest {
         Set<NodeSignParameter<Long>> signParameters = new HashSet<>();
         signParameters.add(NodeSignParameter.<Long>builder().id(3L).sign(0).transmissionDown(true).build());
 
-        TreeTraverseContext<Org, Long> treeTraversalContext = TreeTraverseContext.<Org, Long>builder()
+        TreeTraverseContext<Org, Long> treeTraversalContext = this.builder()
                 .nodes(nodes)
                 .signParameters(signParameters)
                 .overwrite(false)
@@ -1462,7 +1469,7 @@ public class TreeTraverseContextTest {
 
         Set<NodeSignParameter<Long>> signParameters = new HashSet<>();
 
-        TreeTraverseContext<Org, Long> treeTraversalContext = TreeTraverseContext.<Org, Long>builder()
+        TreeTraverseContext<Org, Long> treeTraversalContext = this.builder()
                 .nodes(nodes)
                 .signParameters(signParameters)
                 .overwrite(true)
@@ -1514,7 +1521,7 @@ public class TreeTraverseContextTest {
         Set<NodeSignParameter<Long>> signParameters = new HashSet<>();
         signParameters.add(NodeSignParameter.<Long>builder().id(3L).sign(0).transmission(true).build());
 
-        TreeTraverseContext<Org, Long> treeTraversalContext = TreeTraverseContext.<Org, Long>builder()
+        TreeTraverseContext<Org, Long> treeTraversalContext = this.builder()
                 .nodes(nodes)
                 .signParameters(signParameters)
                 .overwrite(false)
@@ -1564,7 +1571,7 @@ public class TreeTraverseContextTest {
         Set<NodeSignParameter<Long>> signParameters = new HashSet<>();
         signParameters.add(NodeSignParameter.<Long>builder().id(3L).sign(0).transmission(true).build());
 
-        TreeTraverseContext<Org, Long> treeTraversalContext = TreeTraverseContext.<Org, Long>builder()
+        TreeTraverseContext<Org, Long> treeTraversalContext = this.builder()
                 .nodes(nodes)
                 .signParameters(signParameters)
                 .overwrite(false)
@@ -1615,7 +1622,7 @@ public class TreeTraverseContextTest {
         Set<NodeSignParameter<Long>> signParameters = new HashSet<>();
         signParameters.add(NodeSignParameter.<Long>builder().id(1L).sign(0).transmission(true).build());
 
-        TreeTraverseContext<Org, Long> treeTraversalContext = TreeTraverseContext.<Org, Long>builder()
+        TreeTraverseContext<Org, Long> treeTraversalContext = this.builder()
                 .nodes(nodes)
                 .signParameters(signParameters)
                 .overwrite(false)
@@ -1668,7 +1675,7 @@ public class TreeTraverseContextTest {
         signParameters.add(NodeSignParameter.<Long>builder().id(3L).sign(0).transmission(true).build());
         signParameters.add(NodeSignParameter.<Long>builder().id(4L).sign(0).transmission(true).build());
 
-        TreeTraverseContext<Org, Long> treeTraversalContext = TreeTraverseContext.<Org, Long>builder()
+        TreeTraverseContext<Org, Long> treeTraversalContext = this.builder()
                 .nodes(nodes)
                 .signParameters(signParameters)
                 .overwrite(false)
@@ -1686,4 +1693,243 @@ public class TreeTraverseContextTest {
         assertEquals(0, nodes.stream().filter(n -> n.getId().equals(3L)).findFirst().get().getSign());
         assertEquals(0, nodes.stream().filter(n -> n.getId().equals(4L)).findFirst().get().getSign());
     }
-}
\ No newline at end of file
+
+    private static Org org(Long id, Long parentId, Integer sign) {
+        Org org = new Org();
+        org.setId(id);
+        org.setParentId(parentId);
+        org.setSign(sign);
+        return org;
+    }
+
+    /**
+     *  ORG_01
+     *     |-ORG_02
+     *        |-ORG_04
+     *        |-ORG_05
+     *           |-ORG_08
+     *           |-ORG_09
+     *     |-ORG_03
+     *        |-ORG_06
+     *        |-ORG_07
+     *           |-ORG_10
+     *  ORG_11
+     *     |-ORG_12
+     *     |-ORG_13
+     */
+    private static List<Org> deltaOrgs() {
+        List<Org> nodes = new ArrayList<>();
+        nodes.add(org(1L, null, 0));
+        nodes.add(org(2L, 1L, 0));
+        nodes.add(org(3L, 1L, 1));
+        nodes.add(org(4L, 2L, 0));
+        nodes.add(org(5L, 2L, 0));
+        nodes.add(org(6L, 3L, 2));
+        nodes.add(org(7L, 3L, 1));
+        nodes.add(org(8L, 5L, 0));
+        nodes.add(org(9L, 5L, 1));
+        nodes.add(org(10L, 7L, 1));
+        nodes.add(org(11L, null, 0));
+        nodes.add(org(12L, 11L, 1));
+        nodes.add(org(13L, 11L, 0));
+        return nodes;
+    }
+
+    private static List<Org> copyOrgs(List<Org> nodes) {
+        return nodes.stream().map(node -> org(node.getId(), node.getParentId(), node.getSign())).toList();
+    }
+
+    private static List<Integer> signs(List<Org> nodes) {
+        return nodes.stream().map(Org::getSign).toList();
+    }
+
+    private static TreeTraverseContext<Org, Long> context(List<Org> nodes,
+                                                          Collection<NodeSignParameter<Long>> signParameters,
+                                                          boolean overwrite) {
+        return TreeTraverseContext.<Org, Long>builder()
+                .nodes(nodes)
+                .signParameters(signParameters)
+                .overwrite(overwrite)
+                .transmission(true)
+                .compress(false)
+                .signChildConsumer(signChildConsumer)
+                .signParentConsumer(signParentConsumer)
+                .compressChildConsumer(compressChildConsumer)
+                .transmissionChildConsumer(transmissionChildConsumer)
+                .build();
+    }
+
+    /**
+     * 先标记 signParameters, 再依次增量标记 deltaParameters, 每次的结果应与在相同的节点状态上按合并后的参数重新标记一致
+     */
+    @SafeVarargs
+    private static void assertApplyDeltaSameAsCascadeSign(List<NodeSignParameter<Long>> signParameters,
+                                                          boolean overwrite,
+                                                          List<NodeSignParameter<Long>>... deltaParameters) {
+        List<Org> nodes = deltaOrgs();
+        TreeTraverseContext<Org, Long> context = context(nodes, new ArrayList<>(signParameters), overwrite);
+        context.cascadeSign();
+
+        Map<Long, NodeSignParameter<Long>> mergedParameters = new LinkedHashMap<>();
+        signParameters.forEach(sp -> mergedParameters.put(sp.getId(), sp));
+        for (List<NodeSignParameter<Long>> delta : deltaParameters) {
+            delta.forEach(sp -> mergedParameters.put(sp.getId(), sp));
+            List<Org> expectedNodes = copyOrgs(nodes);
+            context(expectedNodes, new ArrayList<>(mergedParameters.values()), overwrite).cascadeSign();
+
+            context.applyDelta(delta);
+            assertEquals(signs(expectedNodes), signs(nodes));
+            assertEquals(mergedParameters.size(), context.getSignParameters().size());
+        }
+    }
+
+    @Test
+    void testApplyDeltaSameAsCascadeSign() {
+        List<NodeSignParameter<Long>> signParameters = List.of(
+                NodeSignParameter.<Long>builder().id(4L).sign(1).build(),
+                NodeSignParameter.<Long>builder().id(9L).sign(2).build(),
+                NodeSignParameter.<Long>builder().id(12L).sign(1).build());
+        for (boolean overwrite : new boolean[]{false, true}) {
+            // 叶子节点
+            assertApplyDeltaSameAsCascadeSign(signParameters, overwrite, List.of(
+                    NodeSignParameter.<Long>builder().id(8L).sign(2).build()));
+            // 覆盖已有的参数
+            assertApplyDeltaSameAsCascadeSign(signParameters, overwrite, List.of(
+                    NodeSignParameter.<Long>builder().id(9L).sign(1).build(),
+                    NodeSignParameter.<Long>builder().id(10L).sign(2).build()));
+            // 0 标记向下和向上传递, 再恢复
+            assertApplyDeltaSameAsCascadeSign(signParameters, overwrite, List.of(
+                    NodeSignParameter.<Long>builder().id(5L).sign(0).transmission(true).build()), List.of(
+                    NodeSignParameter.<Long>builder().id(5L).sign(1).build()));
+            // 祖先节点和子孙节点同时变化
+            assertApplyDeltaSameAsCascadeSign(signParameters, overwrite, List.of(
+                    NodeSignParameter.<Long>builder().id(3L).sign(2).build(),
+                    NodeSignParameter.<Long>builder().id(10L).sign(0).transmission(true).build()), List.of(
+                    NodeSignParameter.<Long>builder().id(7L).sign(2).build()));
+        }
+    }
+
+    @Test
+    void testApplyDeltaBeforeCascadeSign() {
+        List<Org> expectedNodes = deltaOrgs();
+        context(expectedNodes, List.of(
+                NodeSignParameter.<Long>builder().id(4L).sign(1).build(),
+                NodeSignParameter.<Long>builder().id(9L).sign(2).build()), true).cascadeSign();
+
+        // 没有标记过时等同于合并参数后执行 cascadeSign
+        List<Org> nodes = deltaOrgs();
+        TreeTraverseContext<Org, Long> context = context(nodes, List.of(
+                NodeSignParameter.<Long>builder().id(4L).sign(1).build()), true);
+        context.applyDelta(List.of(NodeSignParameter.<Long>builder().id(9L).sign(2).build()));
+        assertEquals(signs(expectedNodes), signs(nodes));
+    }
+
+    @Test
+    void testApplyDeltaOnlyTouchesAffectedRegion() {
+        List<Org> nodes = deltaOrgs();
+        TreeTraverseContext<Org, Long> context = context(nodes, new ArrayList<>(List.of(
+                NodeSignParameter.<Long>builder().id(4L).sign(1).build())), false);
+        context.cascadeSign();
+        List<Integer> before = signs(nodes);
+
+        // 直接修改另一棵树的节点, 增量标记时不应该被重新计算
+        nodes.get(11).setSign(2);
+        context.applyDelta(List.of(NodeSignParameter.<Long>builder().id(8L).sign(2).build()));
+
+        assertEquals(2, nodes.get(11).getSign());
+        assertEquals(before.get(12), nodes.get(12).getSign());
+        assertEquals(2, nodes.get(7).getSign());
+        assertTrue(nodes.get(4).getSign() > 0);
+    }
+
+    @Test
+    void testApplyDeltaPublishesSignParametersCopy() {
+        List<Org> nodes = deltaOrgs();
+        TreeTraverseContext<Org, Long> context = context(nodes, new ArrayList<>(List.of(
+                NodeSignParameter.<Long>builder().id(4L).sign(1).build())), false);
+        context.cascadeSign();
+        context.applyDelta(List.of(NodeSignParameter.<Long>builder().id(8L).sign(2).build()));
+        Collection<NodeSignParameter<Long>> published = context.getSignParameters();
+        assertEquals(2, published.size());
+
+        // 之前取得的 signParameters 不随后续的增量标记变化
+        context.applyDelta(List.of(NodeSignParameter.<Long>builder().id(9L).sign(2).build()));
+        assertEquals(2, published.size());
+        assertEquals(3, context.getSignParameters().size());
+    }
+
+    @Test
+    void testSignChildConsumerGetsReusedParameter() {
+        List<NodeSignParameter<Long>> signParameters = List.of(
+                NodeSignParameter.<Long>builder().id(4L).sign(1).build(),
+                NodeSignParameter.<Long>builder().id(9L).sign(2).build());
+        Set<NodeSignParameter<Long>> received = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<Long, Integer> receivedSigns = new HashMap<>();
+        List<Org> nodes = deltaOrgs();
+        TreeTraverseContext.<Org, Long>builder()
+                .nodes(nodes)
+                .signParameters(new ArrayList<>(signParameters))
+                .transmission(true)
+                .compress(false)
+                .signChildConsumer((parentNode, childNode, childNodeSign) -> {
+                    received.add(childNodeSign);
+                    receivedSigns.put(childNodeSign.getId(), childNodeSign.getSign());
+                    signChildConsumer.accept(parentNode, childNode, childNodeSign);
+                })
+                .signParentConsumer(signParentConsumer)
+                .compressChildConsumer(compressChildConsumer)
+                .transmissionChildConsumer(transmissionChildConsumer)
+                .build()
+                .cascadeSign();
+
+        // 传入的参数同样复制到复用的参数对象中, 不直接交给 signChildConsumer
+        assertEquals(1, received.size());
+        signParameters.forEach(sp -> assertFalse(received.contains(sp)));
+        assertEquals(1, receivedSigns.get(4L));
+        assertEquals(2, receivedSigns.get(9L));
+        assertEquals(nodes.size(), receivedSigns.size());
+    }
+
+    @Test
+    void testSignStoreWithReusedContextAndSharedNodes() {
+        List<NodeSignParameter<Long>> signParameters = List.of(
+                NodeSignParameter.<Long>builder().id(5L).sign(0).transmission(true).build(),
+                NodeSignParameter.<Long>builder().id(9L).sign(2).build(),
+                NodeSignParameter.<Long>builder().id(12L).sign(1).build());
+        List<Org> nodes = deltaOrgs();
+        nodes.get(2).setTransmission(false);
+        TreeTraverseContext<Org, Long> context = context(nodes, new ArrayList<>(signParameters), true);
+        context.cascadeSign();
+
+        // 同一个 context 再次标记, 与新的 context 结果一致
+        List<Org> expectedNodes = copyOrgs(nodes);
+        expectedNodes.get(2).setTransmission(false);
+        context(expectedNodes, new ArrayList<>(signParameters), true).cascadeSign();
+        context.cascadeSign();
+        assertEquals(signs(expectedNodes), signs(nodes));
+
+        // 另一个 context 按相反的顺序给同一批节点编号
+        Map<Long, Org> reversedNodeMap = new LinkedHashMap<>();
+        nodes.reversed().forEach(node -> reversedNodeMap.put(node.getId(), node));
+        TreeTraverseContext.<Org, Long>builder()
+                .nodes(nodes)
+                .nodeMap(reversedNodeMap)
+                .roots(context.getRoots())
+                .signParameters(new ArrayList<>(List.of(NodeSignParameter.<Long>builder().id(13L).sign(2).build())))
+                .signChildConsumer(signChildConsumer)
+                .signParentConsumer(signParentConsumer)
+                .compressChildConsumer(compressChildConsumer)
+                .transmissionChildConsumer(transmissionChildConsumer)
+                .build()
+                .cascadeSign();
+
+        List<NodeSignParameter<Long>> delta = List.of(NodeSignParameter.<Long>builder().id(11L).sign(2).build());
+        expectedNodes = copyOrgs(nodes);
+        expectedNodes.get(2).setTransmission(false);
+        List<NodeSignParameter<Long>> mergedParameters = new ArrayList<>(signParameters);
+        mergedParameters.addAll(delta);
+        context(expectedNodes, mergedParameters, true).cascadeSign();
+        context.applyDelta(delta);
+        assertEquals(signs(expectedNodes), signs(nodes));
+    }
+}
@@ -0,0 +1,89 @@
+package io.geewit.utils.core.tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TreeTraverserTest {
+
+    private static Org org(Long id, Long parentId) {
+        Org org = new Org();
+        org.setId(id);
+        org.setParentId(parentId);
+        return org;
+    }
+
+    /**
+     *  1
+     *  |-2
+     *  |  |-4
+     *  |  |-5
+     *  |-3
+     *     |-6
+     *  7
+     */
+    private static List<Org> roots() {
+        List<Org> nodes = new ArrayList<>();
+        nodes.add(org(1L, null));
+        nodes.add(org(2L, 1L));
+        nodes.add(org(3L, 1L));
+        nodes.add(org(4L, 2L));
+        nodes.add(org(5L, 2L));
+        nodes.add(org(6L, 3L));
+        nodes.add(org(7L, null));
+        return TreeUtils.buildTree(nodes, null);
+    }
+
+    @Test
+    void testTraverseOrders() {
+        List<Org> roots = roots();
+        TreeTraverser<Org> traverser = new TreeTraverser<>();
+
+        List<String> visited = new ArrayList<>();
+        traverser.preOrder(roots.getFirst(), (node, depth) -> visited.add(node.getId() + ":" + depth));
+        assertEquals(List.of("1:0", "2:1", "4:2", "5:2", "3:1", "6:2"), visited);
+
+        visited.clear();
+        traverser.postOrder(roots.getFirst(), (node, depth) -> visited.add(node.getId() + ":" + depth));
+        assertEquals(List.of("4:2", "5:2", "2:1", "6:2", "3:1", "1:0"), visited);
+
+        visited.clear();
+        traverser.levelOrder(roots.getFirst(), (node, depth) -> visited.add(node.getId() + ":" + depth));
+        assertEquals(List.of("1:0", "2:1", "3:1", "4:2", "5:2", "6:2"), visited);
+
+        List<Long> ids = new ArrayList<>();
+        traverser.postOrder(roots, node -> ids.add(node.getId()));
+        assertEquals(List.of(4L, 5L, 2L, 6L, 3L, 1L, 7L), ids);
+    }
+
+    @Test
+    void testDeepTreeAndReentrancy() {
+        // 深度远超线程栈的链表树
+        Org root = org(0L, null);
+        Org current = root;
+        for (long id = 1; id <= 200_000; id++) {
+            Org child = org(id, current.getId());
+            current.getChildren().add(child);
+            current = child;
+        }
+        TreeTraverser<Org> traverser = new TreeTraverser<>();
+        long[] last = new long[2];
+        traverser.postOrder(root, (node, depth) -> {
+            last[0] = node.getId();
+            last[1] = Math.max(last[1], depth);
+        });
+        assertEquals(0L, last[0]);
+        assertEquals(200_000L, last[1]);
+
+        assertThrows(IllegalStateException.class,
+                () -> traverser.preOrder(root, _ -> traverser.levelOrder(root, node -> {
+                })));
+        // 异常后可以继续使用
+        int[] count = new int[1];
+        traverser.levelOrder(root, _ -> count[0]++);
+        assertEquals(200_001, count[0]);
+    }
+}
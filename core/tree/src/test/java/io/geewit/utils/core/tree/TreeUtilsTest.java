@@ -0,0 +1,206 @@
+package io.geewit.utils.core.tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TreeUtilsTest {
+
+    static class Category extends TreeNode<Category, String> {
+    }
+
+    private static Org org(Long id, Long parentId) {
+        Org org = new Org();
+        org.setId(id);
+        org.setParentId(parentId);
+        org.setSign(0);
+        return org;
+    }
+
+    /**
+     *  1
+     *  |-2
+     *  |  |-4
+     *  |  |-5
+     *  |-3
+     *     |-6
+     *  7
+     *  (9 -> 8 孤儿节点)
+     */
+    private static List<Org> orgs() {
+        List<Org> nodes = new ArrayList<>();
+        nodes.add(org(5L, 2L));
+        nodes.add(org(1L, null));
+        nodes.add(org(2L, 1L));
+        nodes.add(org(3L, 1L));
+        nodes.add(org(4L, 2L));
+        nodes.add(org(6L, 3L));
+        nodes.add(org(7L, null));
+        nodes.add(org(9L, 8L));
+        return nodes;
+    }
+
+    /**
+     * 乱序的随机树, 包含重复主键和孤儿节点
+     */
+    private static List<Org> randomOrgs(int size, long seed) {
+        Random random = new Random(seed);
+        List<Org> nodes = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Long parentId = id <= 3 ? null : 1 + (long) random.nextInt((int) id - 1);
+            if (random.nextInt(1000) == 0) {
+                parentId = size + 1L + random.nextInt(100);
+            }
+            nodes.add(org(id, parentId));
+            if (random.nextInt(1000) == 0) {
+                nodes.add(org(id, parentId));
+            }
+        }
+        Collections.shuffle(nodes, random);
+        return nodes;
+    }
+
+    private static List<Long> ids(List<Org> nodes) {
+        return nodes.stream().map(TreeNode::getId).toList();
+    }
+
+    @Test
+    void testBuildCompactTree() {
+        List<Org> nodes = orgs();
+        CompactTree<Org, Long> tree = TreeUtils.buildCompactTree(nodes, null, null);
+
+        assertEquals(8, tree.size());
+        assertEquals(List.of(1L, 7L), ids(tree.getRoots()));
+        int index2 = tree.indexOf(2L);
+        assertEquals(2, index2);
+        assertEquals(List.of(5L, 4L), ids(tree.children(index2)));
+        assertEquals(2, tree.childCount(index2));
+        assertEquals(tree.indexOf(1L), tree.parent(index2));
+        assertEquals(CompactTree.NONE, tree.parent(tree.indexOf(9L)));
+        assertEquals(CompactTree.NONE, tree.indexOf(8L));
+        assertTrue(tree.isRoot(tree.indexOf(7L)));
+        assertFalse(tree.isRoot(tree.indexOf(9L)));
+
+        // 构建时不修改节点的 children
+        nodes.forEach(node -> assertTrue(node.getChildren().isEmpty()));
+
+        tree.materialize(index2);
+        assertEquals(List.of(5L, 4L), ids(nodes.get(index2).getChildren()));
+    }
+
+    @Test
+    void testCompactTreeMaterializeAllSameAsBuildTree() {
+        List<Org> expectedNodes = orgs();
+        List<Org> expectedRoots = TreeUtils.buildTree(expectedNodes, null);
+
+        List<Org> actualNodes = orgs();
+        List<Org> actualRoots = TreeUtils.buildCompactTree(actualNodes, null, null).materializeAll();
+
+        assertEquals(ids(expectedRoots), ids(actualRoots));
+        for (int i = 0; i < expectedNodes.size(); i++) {
+            assertEquals(ids(expectedNodes.get(i).getChildren()), ids(actualNodes.get(i).getChildren()));
+        }
+    }
+
+    @Test
+    void testBuildCompactTreeWithRootIdAndNonLongKeys() {
+        List<Category> nodes = new ArrayList<>();
+        for (String[] pair : new String[][]{{"a", null}, {"b", "a"}, {"c", "b"}, {"d", "b"}}) {
+            Category category = new Category();
+            category.setId(pair[0]);
+            category.setParentId(pair[1]);
+            nodes.add(category);
+        }
+        CompactTree<Category, String> tree = TreeUtils.buildCompactTree(nodes, null, "b");
+
+        assertEquals(1, tree.rootCount());
+        assertEquals("b", tree.node(tree.root(0)).getId());
+        assertEquals(List.of("c", "d"), tree.children(tree.indexOf("b")).stream().map(TreeNode::getId).toList());
+        assertEquals(CompactTree.NONE, tree.parent(tree.indexOf("a")));
+    }
+
+    @Test
+    void testStreamingBuilder() {
+        List<Org> nodes = orgs();
+        StreamingTreeBuilder<Org, Long> builder = TreeUtils.streamingBuilder(null, null);
+        nodes.forEach(builder);
+        List<Org> roots = builder.build();
+
+        assertEquals(List.of(1L, 7L), ids(roots));
+        assertEquals(List.of(5L, 4L), ids(nodes.get(2).getChildren()));
+        assertEquals(8, builder.count());
+        assertEquals(1, builder.orphanCount());
+        assertEquals(List.of(9L), ids(builder.getOrphans().get(8L)));
+        assertThrows(IllegalStateException.class, () -> builder.accept(org(10L, 1L)));
+    }
+
+    @Test
+    void testStreamingBuilderSameAsBuildTree() {
+        List<Org> expectedNodes = randomOrgs(50_000, 13L);
+        List<Org> expectedRoots = TreeUtils.buildTree(expectedNodes, null);
+
+        List<Org> actualNodes = randomOrgs(50_000, 13L);
+        StreamingTreeBuilder<Org, Long> builder = TreeUtils.<Org, Long>streamingBuilder(null, null)
+                .acceptAll(actualNodes.stream());
+        List<Org> actualRoots = builder.build();
+
+        assertEquals(ids(expectedRoots), ids(actualRoots));
+        for (int i = 0; i < expectedNodes.size(); i++) {
+            assertEquals(ids(expectedNodes.get(i).getChildren()), ids(actualNodes.get(i).getChildren()));
+        }
+        // 不在树中的节点就是孤儿节点及其子孙
+        Set<Long> reachable = new HashSet<>();
+        new TreeTraverser<Org>().preOrder(actualRoots, node -> reachable.add(node.getId()));
+        builder.getOrphans().forEach((parentId, orphans) -> {
+            assertFalse(reachable.contains(parentId));
+            orphans.forEach(orphan -> assertFalse(reachable.contains(orphan.getId())));
+        });
+        assertTrue(builder.orphanCount() > 0);
+    }
+
+    @Test
+    void testStreamingBuilderWithRootId() {
+        List<Category> nodes = new ArrayList<>();
+        for (String[] pair : new String[][]{{"d", "b"}, {"b", "a"}, {"c", "b"}, {"a", null}}) {
+            Category category = new Category();
+            category.setId(pair[0]);
+            category.setParentId(pair[1]);
+            nodes.add(category);
+        }
+        StreamingTreeBuilder<Category, String> builder = TreeUtils.<Category, String>streamingBuilder(null, "b")
+                .acceptAll(nodes.iterator());
+
+        assertEquals(List.of("b"), builder.build().stream().map(TreeNode::getId).toList());
+        assertEquals(List.of("d", "c"), nodes.get(1).getChildren().stream().map(TreeNode::getId).toList());
+        assertTrue(nodes.get(3).getChildren().isEmpty());
+        assertEquals(List.of("a"), builder.getOrphans().get(null).stream().map(TreeNode::getId).toList());
+    }
+
+    @Test
+    void testBuildTreeParallelSameAsBuildTree() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Org> expectedNodes = randomOrgs(50_000, 11L);
+            List<Org> expectedRoots = TreeUtils.buildTree(expectedNodes, null);
+
+            List<Org> actualNodes = randomOrgs(50_000, 11L);
+            List<Org> actualRoots = TreeUtils.buildTreeParallel(actualNodes, null, null, pool);
+
+            assertEquals(ids(expectedRoots), ids(actualRoots));
+            assertEquals(expectedNodes.size(), actualNodes.size());
+            for (int i = 0; i < expectedNodes.size(); i++) {
+                assertEquals(ids(expectedNodes.get(i).getChildren()), ids(actualNodes.get(i).getChildren()));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
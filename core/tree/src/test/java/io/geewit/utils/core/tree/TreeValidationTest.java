@@ -0,0 +1,117 @@
+package io.geewit.utils.core.tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TreeValidationTest {
+
+    private static Org org(Long id, Long parentId) {
+        Org org = new Org();
+        org.setId(id);
+        org.setParentId(parentId);
+        org.setSign(0);
+        return org;
+    }
+
+    /**
+     *  1
+     *  |-2
+     *  3 -> 4 -> 5 -> 3 (环), 6 -> 4 (挂在环上)
+     *  7 -> 7 (自环)
+     *  8 -> 99 (孤儿)
+     *  2 (重复)
+     */
+    @Test
+    void testValidate() {
+        List<Org> nodes = new ArrayList<>();
+        nodes.add(org(1L, null));
+        nodes.add(org(2L, 1L));
+        nodes.add(org(6L, 4L));
+        nodes.add(org(3L, 4L));
+        nodes.add(org(4L, 5L));
+        nodes.add(org(5L, 3L));
+        nodes.add(org(7L, 7L));
+        nodes.add(org(8L, 99L));
+        nodes.add(org(2L, 1L));
+        TreeValidation<Long> validation = TreeUtils.validate(nodes, null, null);
+
+        assertEquals(List.of(List.of(4L, 5L, 3L), List.of(7L)), validation.getCycles());
+        assertEquals(List.of(8L), validation.getOrphanIds());
+        assertEquals(List.of(2L), validation.getDuplicateIds());
+        assertTrue(validation.hasCycles());
+        assertFalse(validation.isValid());
+        assertThrows(IllegalStateException.class, validation::throwIfCyclic);
+
+        // 根节点判定只影响孤儿节点
+        TreeValidation<Long> withRootId = TreeUtils.validate(nodes, null, 8L);
+        assertEquals(List.of(1L), withRootId.getOrphanIds());
+        assertEquals(2, withRootId.getCycles().size());
+    }
+
+    @Test
+    void testValidTreeAndDeepChain() {
+        int size = 200_000;
+        List<Org> nodes = new ArrayList<>(size);
+        for (long id = size; id >= 1; id--) {
+            nodes.add(org(id, id == 1 ? null : id - 1));
+        }
+        TreeValidation<Long> validation = TreeUtils.validate(nodes, null, null);
+        assertTrue(validation.isValid());
+        assertDoesNotThrow(validation::throwIfCyclic);
+
+        nodes.getLast().setParentId((long) size);
+        assertEquals(size, TreeUtils.validate(nodes, null, null).getCycles().getFirst().size());
+    }
+
+    @Test
+    void testContextValidate() {
+        List<Org> nodes = new ArrayList<>();
+        nodes.add(org(1L, null));
+        nodes.add(org(2L, 3L));
+        nodes.add(org(3L, 2L));
+        nodes.add(org(4L, 9L));
+        TreeTraverseContext<Org, Long> context = TreeTraverseContext.<Org, Long>builder()
+                .nodes(nodes)
+                .signParameters(List.of(NodeSignParameter.<Long>builder().id(2L).sign(0).transmissionUp(true).build()))
+                .validate(true)
+                .build();
+
+        IllegalStateException exception = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> assertThrows(IllegalStateException.class, context::cascadeSign));
+        assertTrue(exception.getMessage().contains("[2, 3]"));
+        assertEquals(List.of(4L), context.getValidation().getOrphanIds());
+    }
+
+    @Test
+    void testBuildTreeValidate() {
+        List<Org> valid = new ArrayList<>();
+        valid.add(org(1L, null));
+        valid.add(org(2L, 1L));
+        valid.add(org(3L, 9L));
+        List<Org> roots = TreeUtils.buildTree(valid, null, null, true);
+        assertEquals(List.of(1L), roots.stream().map(Org::getId).toList());
+        assertEquals(1, roots.getFirst().getChildren().size());
+
+        List<Org> cyclic = new ArrayList<>();
+        cyclic.add(org(1L, null));
+        cyclic.add(org(2L, 3L));
+        cyclic.add(org(3L, 2L));
+        IllegalStateException exception = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> assertThrows(IllegalStateException.class, () -> TreeUtils.buildTree(cyclic, null, null, true)));
+        assertTrue(exception.getMessage().contains("[2, 3]"));
+        assertTrue(cyclic.getFirst().getChildren().isEmpty());
+
+        // 同样的数据向上传递 0 标记, 不校验时会沿着环死循环, 开启校验后直接失败
+        TreeTraverseContext<Org, Long> context = TreeTraverseContext.<Org, Long>builder()
+                .nodes(cyclic)
+                .signParameters(List.of(NodeSignParameter.<Long>builder().id(3L).sign(0).transmissionUp(true).build()))
+                .validate(true)
+                .build();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(IllegalStateException.class, context::cascadeSign));
+    }
+}
@@ -131,7 +131,7 @@ public final class UUID implements java.io.Serializable, Comparable<UUID> {
             int digit = charToDigit(s.charAt(i));
             // 将当前 128 位数乘 36 并加上当前数字
             long prodLow = lo * 36;
-            long carry = Math.multiplyHigh(lo, 36);
+            long carry = Math.unsignedMultiplyHigh(lo, 36);
             long prodHigh = hi * 36 + carry;
             long newLow = prodLow + digit;
             if (Long.compareUnsigned(newLow, prodLow) < 0) {
@@ -58,9 +58,11 @@ public final class UuidCreator {
     }
 
     /**
-     * Returns a string from a UUID.
+     * Returns the canonical string of a UUID, such as
+     * {@code 01234567-89ab-cdef-0123-456789abcdef}.
      * <p>
-     * It can be much faster than {@link UUID#toString()} in JDK 8.
+     * It is not the base-36 string of {@link UUID#toString()}, and it can be
+     * parsed back with {@link #fromString(String)}.
      * 
      * @param uuid a UUID
      * @return a UUID string
@@ -113,6 +115,35 @@ public final class UuidCreator {
         return UUID7.create();
     }
 
+    /**
+     * Returns a batch of time-ordered unique identifiers that use Unix Epoch
+     * (UUIDv7).
+     * <p>
+     * The whole batch is reserved at once, which is much cheaper than calling
+     * {@link #getTimeOrderedEpoch()} n times.
+     *
+     * @param n the number of UUIDs
+     * @return an array of UUIDv7
+     * @see TimeOrderedEpochFactory#create(int)
+     */
+    public static UUID[] getTimeOrderedEpoch(int n) {
+        return UUID7.create(n);
+    }
+
+    /**
+     * Fills two arrays with the bits of a batch of time-ordered unique
+     * identifiers that use Unix Epoch (UUIDv7), without creating UUID objects.
+     * <p>
+     * The i-th UUID is {@code new UUID(msbs[i], lsbs[i])}.
+     *
+     * @param msbs the most significant bits, one element per UUID
+     * @param lsbs the least significant bits, one element per UUID
+     * @see TimeOrderedEpochFactory#fill(long[], long[])
+     */
+    public static void fillTimeOrderedEpoch(long[] msbs, long[] lsbs) {
+        UUID7.fill(msbs, lsbs);
+    }
+
     /**
      * Returns a fast time-ordered unique identifier that uses Unix Epoch (UUIDv7).
      * <p>
@@ -139,6 +170,27 @@ public final class UuidCreator {
         return UUID7_FAST.create();
     }
 
+    /**
+     * Returns a time-ordered unique identifier that uses Unix Epoch (UUIDv7),
+     * generated by one of several independent stripes.
+     * <p>
+     * This method produces identifiers with 4 parts: time, stripe, counter and
+     * random. Each thread always uses the same stripe, and threads of different
+     * stripes never contend, which suits many (virtual) threads generating ids
+     * at a high rate. The random bits are taken from the shared entropy pool,
+     * so the threads do not wait for the global lock of the default secure
+     * random either.
+     * <p>
+     * The identifiers are unique and strictly increasing per thread, but not
+     * across threads.
+     *
+     * @return a UUIDv7
+     * @see TimeOrderedEpochFactory.Builder#withStripes(int)
+     */
+    public static UUID getTimeOrderedEpochStriped() {
+        return UUID7_STRIPED.create();
+    }
+
     /**
      * Returns a time-ordered unique identifier that uses Unix Epoch (UUIDv7).
      * <p>
@@ -250,6 +302,7 @@ public final class UuidCreator {
     private static final Proxy UUID7_FAST = new Proxy(Proxy.UUID7_FAST);
     private static final Proxy UUID7_PLUS_1 = new Proxy(Proxy.UUID7_PLUS_1);
     private static final Proxy UUID7_PLUS_N = new Proxy(Proxy.UUID7_PLUS_N);
+    private static final Proxy UUID7_STRIPED = new Proxy(Proxy.UUID7_STRIPED);
 
     private static class Proxy extends UuidFactory {
 
@@ -262,12 +315,19 @@ public final class UuidCreator {
         static final Supplier<UuidFactory> UUID7_FAST = () -> TimeOrderedEpochFactory.builder().withFastRandom().build();
         static final Supplier<UuidFactory> UUID7_PLUS_1 = () -> TimeOrderedEpochFactory.builder().withIncrementPlus1().build();
         static final Supplier<UuidFactory> UUID7_PLUS_N = () -> TimeOrderedEpochFactory.builder().withIncrementPlusN().build();
+        static final Supplier<UuidFactory> UUID7_STRIPED = () -> TimeOrderedEpochFactory.builder().withEntropyPool().withStripes(stripes()).build();
         // @formatter:on
 
         public Proxy(Supplier<UuidFactory> supplier) {
             this.supplier = supplier;
         }
 
+        // twice the number of processors, rounded up to a power of two
+        private static int stripes() {
+            final int processors = Math.max(1, Runtime.getRuntime().availableProcessors());
+            return Math.min(256, Integer.highestOneBit(processors * 2 - 1) << 1);
+        }
+
         private UuidFactory get() {
 
             if (factory != null) {
@@ -294,5 +354,15 @@ public final class UuidCreator {
         public UUID create(Parameters parameters) {
             return this.get().create(parameters);
         }
+
+        @Override
+        public UUID[] create(int n) {
+            return this.get().create(n);
+        }
+
+        @Override
+        public void fill(long[] msbs, long[] lsbs) {
+            this.get().fill(msbs, lsbs);
+        }
     }
 }
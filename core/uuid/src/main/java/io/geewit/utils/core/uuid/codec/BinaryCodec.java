@@ -0,0 +1,279 @@
+package io.geewit.utils.core.uuid.codec;
+
+import io.geewit.utils.core.uuid.UUID;
+import io.geewit.utils.core.uuid.exception.InvalidUuidException;
+import io.geewit.utils.core.uuid.util.UuidValidator;
+import io.geewit.utils.core.uuid.util.immutable.ByteArray;
+import io.geewit.utils.core.uuid.util.internal.ByteUtil;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * Codec for UUIDs in their 16-byte binary form.
+ * <p>
+ * The bytes are always big-endian, as defined in RFC 9562, whatever the order
+ * of the buffer, so the byte-wise unsigned order of encoded time-ordered UUIDs
+ * (v7, v6) is their creation order. Encoded UUIDs can be used as keys in
+ * sorted files and off-heap stores.
+ * <p>
+ * Besides the {@link UuidCodec} methods, this codec reads and writes arrays of
+ * UUIDs from and to a {@link ByteBuffer} or a {@link MemorySegment}, 16 bytes
+ * per UUID with no separator, so an id column can be stored without strings.
+ *
+ * @see <a href="https://www.rfc-editor.org/rfc/rfc9562.html#section-4">RFC 9562, section 4</a>
+ */
+public final class BinaryCodec implements UuidCodec<byte[]> {
+
+    /**
+     * A shared immutable instance.
+     */
+    public static final BinaryCodec INSTANCE = new BinaryCodec();
+
+    /**
+     * The number of bytes of an encoded UUID.
+     */
+    public static final int UUID_BYTES = 16;
+
+    private static final ValueLayout.OfLong BIG_ENDIAN_LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    /**
+     * Get an array of bytes from a UUID.
+     *
+     * @param uuid a UUID
+     * @return an array of 16 bytes
+     * @throws InvalidUuidException if the argument is invalid
+     */
+    @Override
+    public byte[] encode(UUID uuid) {
+        final byte[] bytes = new byte[UUID_BYTES];
+        this.encode(uuid, bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * Write a UUID as 16 bytes into the given array.
+     *
+     * @param uuid   a UUID
+     * @param bytes  the destination array
+     * @param offset the offset of the first byte
+     * @return the offset after the last byte written
+     * @throws InvalidUuidException      if the UUID is invalid
+     * @throws IndexOutOfBoundsException if the array is too short
+     */
+    public int encode(UUID uuid, byte[] bytes, int offset) {
+        UuidValidator.validate(uuid);
+        Objects.checkFromIndexSize(offset, UUID_BYTES, bytes.length);
+        put(uuid.getMostSignificantBits(), bytes, offset);
+        put(uuid.getLeastSignificantBits(), bytes, offset + 8);
+        return offset + UUID_BYTES;
+    }
+
+    /**
+     * Get a UUID from an array of bytes.
+     *
+     * @param bytes an array of 16 bytes
+     * @return a UUID
+     * @throws InvalidUuidException if the argument is invalid
+     */
+    @Override
+    public UUID decode(byte[] bytes) {
+        UuidValidator.validate(bytes);
+        return this.decode(bytes, 0);
+    }
+
+    /**
+     * Get a UUID from an immutable array of bytes.
+     *
+     * @param bytes an immutable array of 16 bytes
+     * @return a UUID
+     * @throws InvalidUuidException if the argument is invalid
+     */
+    public UUID decode(ByteArray bytes) {
+        if (bytes == null) {
+            throw InvalidUuidException.newInstance(null);
+        }
+        return this.decode(bytes.array());
+    }
+
+    /**
+     * Get a UUID from 16 bytes of the given array.
+     *
+     * @param bytes  the source array
+     * @param offset the offset of the first byte
+     * @return a UUID
+     * @throws IndexOutOfBoundsException if the array is too short
+     */
+    public UUID decode(byte[] bytes, int offset) {
+        Objects.checkFromIndexSize(offset, UUID_BYTES, bytes.length);
+        final long msb = ByteUtil.toNumber(bytes, offset, offset + 8);
+        final long lsb = ByteUtil.toNumber(bytes, offset + 8, offset + UUID_BYTES);
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * Write UUIDs at the position of a buffer, advancing the position.
+     *
+     * @param uuids  the UUIDs
+     * @param buffer the destination buffer, in any byte order
+     * @throws InvalidUuidException    if a UUID is null; nothing is written in that case
+     * @throws BufferOverflowException if the buffer has not enough space for all UUIDs;
+     *                                 nothing is written in that case
+     */
+    public void write(UUID[] uuids, ByteBuffer buffer) {
+        if (buffer.remaining() < (long) uuids.length * UUID_BYTES) {
+            throw new BufferOverflowException();
+        }
+        validate(uuids);
+        final boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+        int position = buffer.position();
+        for (UUID uuid : uuids) {
+            final long msb = uuid.getMostSignificantBits();
+            final long lsb = uuid.getLeastSignificantBits();
+            buffer.putLong(position, bigEndian ? msb : Long.reverseBytes(msb));
+            buffer.putLong(position + 8, bigEndian ? lsb : Long.reverseBytes(lsb));
+            position += UUID_BYTES;
+        }
+        buffer.position(position);
+    }
+
+    /**
+     * Read UUIDs from the position of a buffer, advancing the position.
+     *
+     * @param buffer the source buffer, in any byte order
+     * @param count  the number of UUIDs
+     * @return the UUIDs
+     * @throws BufferUnderflowException if the buffer has less than {@code count} UUIDs;
+     *                                  nothing is read in that case
+     */
+    public UUID[] read(ByteBuffer buffer, int count) {
+        final UUID[] uuids = new UUID[count];
+        this.read(buffer, uuids);
+        return uuids;
+    }
+
+    /**
+     * Read UUIDs from the position of a buffer into an array, advancing the
+     * position.
+     *
+     * @param buffer the source buffer, in any byte order
+     * @param uuids  the destination array, filled entirely
+     * @throws BufferUnderflowException if the buffer has less UUIDs than the array length;
+     *                                  nothing is read in that case
+     */
+    public void read(ByteBuffer buffer, UUID[] uuids) {
+        if (buffer.remaining() < (long) uuids.length * UUID_BYTES) {
+            throw new BufferUnderflowException();
+        }
+        final boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+        int position = buffer.position();
+        for (int i = 0; i < uuids.length; i++) {
+            final long msb = buffer.getLong(position);
+            final long lsb = buffer.getLong(position + 8);
+            uuids[i] = bigEndian ? new UUID(msb, lsb) : new UUID(Long.reverseBytes(msb), Long.reverseBytes(lsb));
+            position += UUID_BYTES;
+        }
+        buffer.position(position);
+    }
+
+    /**
+     * Write UUIDs into a memory segment.
+     *
+     * @param uuids   the UUIDs
+     * @param segment the destination segment
+     * @param offset  the offset of the first byte in the segment
+     * @return the offset after the last byte written
+     * @throws InvalidUuidException      if a UUID is null; nothing is written in that case
+     * @throws IndexOutOfBoundsException if the segment is too short; nothing is written in that case
+     */
+    public long write(UUID[] uuids, MemorySegment segment, long offset) {
+        Objects.checkFromIndexSize(offset, (long) uuids.length * UUID_BYTES, segment.byteSize());
+        validate(uuids);
+        long position = offset;
+        for (UUID uuid : uuids) {
+            segment.set(BIG_ENDIAN_LONG, position, uuid.getMostSignificantBits());
+            segment.set(BIG_ENDIAN_LONG, position + 8, uuid.getLeastSignificantBits());
+            position += UUID_BYTES;
+        }
+        return position;
+    }
+
+    /**
+     * Write the bits of UUIDs, as filled by the batch methods of the UUID
+     * factories, into a memory segment.
+     *
+     * @param msbs    the most significant bits of the UUIDs
+     * @param lsbs    the least significant bits of the UUIDs
+     * @param segment the destination segment
+     * @param offset  the offset of the first byte in the segment
+     * @return the offset after the last byte written
+     * @throws IllegalArgumentException  if the arrays have different lengths
+     * @throws IndexOutOfBoundsException if the segment is too short; nothing is written in that case
+     */
+    public long write(long[] msbs, long[] lsbs, MemorySegment segment, long offset) {
+        if (msbs.length != lsbs.length) {
+            throw new IllegalArgumentException("Different lengths: " + msbs.length + " and " + lsbs.length);
+        }
+        Objects.checkFromIndexSize(offset, (long) msbs.length * UUID_BYTES, segment.byteSize());
+        long position = offset;
+        for (int i = 0; i < msbs.length; i++) {
+            segment.set(BIG_ENDIAN_LONG, position, msbs[i]);
+            segment.set(BIG_ENDIAN_LONG, position + 8, lsbs[i]);
+            position += UUID_BYTES;
+        }
+        return position;
+    }
+
+    /**
+     * Read UUIDs from a memory segment.
+     *
+     * @param segment the source segment
+     * @param offset  the offset of the first byte in the segment
+     * @param count   the number of UUIDs
+     * @return the UUIDs
+     * @throws IndexOutOfBoundsException if the segment has less than {@code count} UUIDs
+     */
+    public UUID[] read(MemorySegment segment, long offset, int count) {
+        final UUID[] uuids = new UUID[count];
+        this.read(segment, offset, uuids);
+        return uuids;
+    }
+
+    /**
+     * Read UUIDs from a memory segment into an array.
+     *
+     * @param segment the source segment
+     * @param offset  the offset of the first byte in the segment
+     * @param uuids   the destination array, filled entirely
+     * @return the offset after the last byte read
+     * @throws IndexOutOfBoundsException if the segment has less UUIDs than the array length
+     */
+    public long read(MemorySegment segment, long offset, UUID[] uuids) {
+        Objects.checkFromIndexSize(offset, (long) uuids.length * UUID_BYTES, segment.byteSize());
+        long position = offset;
+        for (int i = 0; i < uuids.length; i++) {
+            uuids[i] = new UUID(segment.get(BIG_ENDIAN_LONG, position), segment.get(BIG_ENDIAN_LONG, position + 8));
+            position += UUID_BYTES;
+        }
+        return position;
+    }
+
+    private static void put(long value, byte[] bytes, int offset) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    // checks all the UUIDs before the first one is written
+    private static void validate(UUID[] uuids) {
+        for (UUID uuid : uuids) {
+            UuidValidator.validate(uuid);
+        }
+    }
+}
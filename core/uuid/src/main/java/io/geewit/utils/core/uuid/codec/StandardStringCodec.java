@@ -5,7 +5,11 @@ import io.geewit.utils.core.uuid.codec.base.Base16Codec;
 import io.geewit.utils.core.uuid.exception.InvalidUuidException;
 import io.geewit.utils.core.uuid.util.UuidValidator;
 import io.geewit.utils.core.uuid.util.immutable.CharArray;
-import io.geewit.utils.core.uuid.util.internal.JavaVersionUtil;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
 
 
 /**
@@ -55,13 +59,38 @@ public class StandardStringCodec implements UuidCodec<String> {
     private static final byte[] MAP = Base16Codec.INSTANCE.getBase().getMap().array();
     private static final CharArray ALPHABET = Base16Codec.INSTANCE.getBase().getAlphabet();
 
+    /**
+     * The positions of the 32 hexadecimal digits with and without hyphens.
+     */
+    private static final int[] POSITIONS_WITH_DASH = new int[32];
+    private static final int[] POSITIONS_WITHOUT_DASH = new int[32];
+
+    /**
+     * The hexadecimal digit at each position of the canonical string, from 0
+     * to 31, or -1 for a hyphen.
+     */
+    private static final int[] DIGITS = new int[LENGTH_WITH_DASH];
+
+    static {
+        for (int i = 0, j = 0; i < LENGTH_WITH_DASH; i++) {
+            if (i != DASH_POSITION_1 && i != DASH_POSITION_2 && i != DASH_POSITION_3 && i != DASH_POSITION_4) {
+                POSITIONS_WITH_DASH[j] = i;
+                POSITIONS_WITHOUT_DASH[j] = j;
+                DIGITS[i] = j;
+                j++;
+            } else {
+                DIGITS[i] = -1;
+            }
+        }
+    }
+
     private static final String URN_PREFIX = "urn:uuid:";
-    private static final boolean JAVA_VERSION_GREATER_THAN_8 = JavaVersionUtil.getJavaVersion() > 8;
 
     /**
      * Get a string from a UUID.
      * <p>
-     * It can be much faster than {@link UUID#toString()} in JDK 8.
+     * It returns the canonical string in lower case, not the base-36 string of
+     * {@link UUID#toString()}.
      * 
      * @param uuid a UUID
      * @return a UUID string
@@ -69,54 +98,8 @@ public class StandardStringCodec implements UuidCodec<String> {
      */
     @Override
     public String encode(UUID uuid) {
-
-        UuidValidator.validate(uuid);
-
-        if (JAVA_VERSION_GREATER_THAN_8) {
-            return uuid.toString();
-        }
-
-        final char[] chars = new char[36];
-        final long msb = uuid.getMostSignificantBits();
-        final long lsb = uuid.getLeastSignificantBits();
-
-        chars[0x00] = ALPHABET.get((int) (msb >>> 0x3c & 0xf));
-        chars[0x01] = ALPHABET.get((int) (msb >>> 0x38 & 0xf));
-        chars[0x02] = ALPHABET.get((int) (msb >>> 0x34 & 0xf));
-        chars[0x03] = ALPHABET.get((int) (msb >>> 0x30 & 0xf));
-        chars[0x04] = ALPHABET.get((int) (msb >>> 0x2c & 0xf));
-        chars[0x05] = ALPHABET.get((int) (msb >>> 0x28 & 0xf));
-        chars[0x06] = ALPHABET.get((int) (msb >>> 0x24 & 0xf));
-        chars[0x07] = ALPHABET.get((int) (msb >>> 0x20 & 0xf));
-        chars[0x08] = '-'; // 8
-        chars[0x09] = ALPHABET.get((int) (msb >>> 0x1c & 0xf));
-        chars[0x0a] = ALPHABET.get((int) (msb >>> 0x18 & 0xf));
-        chars[0x0b] = ALPHABET.get((int) (msb >>> 0x14 & 0xf));
-        chars[0x0c] = ALPHABET.get((int) (msb >>> 0x10 & 0xf));
-        chars[0x0d] = '-'; // 13
-        chars[0x0e] = ALPHABET.get((int) (msb >>> 0x0c & 0xf));
-        chars[0x0f] = ALPHABET.get((int) (msb >>> 0x08 & 0xf));
-        chars[0x10] = ALPHABET.get((int) (msb >>> 0x04 & 0xf));
-        chars[0x11] = ALPHABET.get((int) (msb & 0xf));
-        chars[0x12] = '-'; // 18
-        chars[0x13] = ALPHABET.get((int) (lsb >>> 0x3c & 0xf));
-        chars[0x14] = ALPHABET.get((int) (lsb >>> 0x38 & 0xf));
-        chars[0x15] = ALPHABET.get((int) (lsb >>> 0x34 & 0xf));
-        chars[0x16] = ALPHABET.get((int) (lsb >>> 0x30 & 0xf));
-        chars[0x17] = '-'; // 23
-        chars[0x18] = ALPHABET.get((int) (lsb >>> 0x2c & 0xf));
-        chars[0x19] = ALPHABET.get((int) (lsb >>> 0x28 & 0xf));
-        chars[0x1a] = ALPHABET.get((int) (lsb >>> 0x24 & 0xf));
-        chars[0x1b] = ALPHABET.get((int) (lsb >>> 0x20 & 0xf));
-        chars[0x1c] = ALPHABET.get((int) (lsb >>> 0x1c & 0xf));
-        chars[0x1d] = ALPHABET.get((int) (lsb >>> 0x18 & 0xf));
-        chars[0x1e] = ALPHABET.get((int) (lsb >>> 0x14 & 0xf));
-        chars[0x1f] = ALPHABET.get((int) (lsb >>> 0x10 & 0xf));
-        chars[0x20] = ALPHABET.get((int) (lsb >>> 0x0c & 0xf));
-        chars[0x21] = ALPHABET.get((int) (lsb >>> 0x08 & 0xf));
-        chars[0x22] = ALPHABET.get((int) (lsb >>> 0x04 & 0xf));
-        chars[0x23] = ALPHABET.get((int) (lsb & 0xf));
-
+        final char[] chars = new char[LENGTH_WITH_DASH];
+        this.encode(uuid, chars, 0);
         return new String(chars);
     }
 
@@ -160,6 +143,242 @@ public class StandardStringCodec implements UuidCodec<String> {
         throw InvalidUuidException.newInstance(modified);
     }
 
+    /**
+     * Writes the canonical string of a UUID into a byte array as ASCII.
+     * <p>
+     * It writes 36 bytes in lower case, such as
+     * {@code 01234567-89ab-cdef-0123-456789abcdef}, without allocating.
+     *
+     * @param uuid   a UUID
+     * @param dst    the destination array
+     * @param offset the index of the first byte to write
+     * @return the index after the last byte written
+     * @throws InvalidUuidException      if the UUID is null
+     * @throws IndexOutOfBoundsException if there are less than 36 bytes at the offset
+     */
+    public int encode(UUID uuid, byte[] dst, int offset) {
+        UuidValidator.validate(uuid);
+        return encode(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dst, offset);
+    }
+
+    /**
+     * Writes the canonical string of a UUID given by its bits into a byte array
+     * as ASCII, for example the bits written by
+     * {@link io.geewit.utils.core.uuid.factory.UuidFactory#fill(long[], long[])}.
+     *
+     * @param msb    the most significant bits
+     * @param lsb    the least significant bits
+     * @param dst    the destination array
+     * @param offset the index of the first byte to write
+     * @return the index after the last byte written
+     * @throws IndexOutOfBoundsException if there are less than 36 bytes at the offset
+     */
+    public int encode(long msb, long lsb, byte[] dst, int offset) {
+        Objects.checkFromIndexSize(offset, LENGTH_WITH_DASH, dst.length);
+        for (int i = 0; i < LENGTH_WITH_DASH; i++) {
+            dst[offset + i] = (byte) canonicalChar(msb, lsb, i);
+        }
+        return offset + LENGTH_WITH_DASH;
+    }
+
+    /**
+     * Writes the canonical string of a UUID into a char array.
+     *
+     * @param uuid   a UUID
+     * @param dst    the destination array
+     * @param offset the index of the first char to write
+     * @return the index after the last char written
+     * @throws InvalidUuidException      if the UUID is null
+     * @throws IndexOutOfBoundsException if there are less than 36 chars at the offset
+     */
+    public int encode(UUID uuid, char[] dst, int offset) {
+        UuidValidator.validate(uuid);
+        Objects.checkFromIndexSize(offset, LENGTH_WITH_DASH, dst.length);
+        final long msb = uuid.getMostSignificantBits();
+        final long lsb = uuid.getLeastSignificantBits();
+        for (int i = 0; i < LENGTH_WITH_DASH; i++) {
+            dst[offset + i] = canonicalChar(msb, lsb, i);
+        }
+        return offset + LENGTH_WITH_DASH;
+    }
+
+    /**
+     * Writes the canonical string of a UUID into a buffer as ASCII, at its
+     * position, and advances the position by 36.
+     *
+     * @param uuid   a UUID
+     * @param buffer the destination buffer
+     * @throws InvalidUuidException             if the UUID is null
+     * @throws java.nio.BufferOverflowException if there are less than 36 bytes remaining
+     */
+    public void encode(UUID uuid, ByteBuffer buffer) {
+        UuidValidator.validate(uuid);
+        if (buffer.remaining() < LENGTH_WITH_DASH) {
+            throw new BufferOverflowException();
+        }
+        if (buffer.hasArray()) {
+            final int position = buffer.position();
+            encode(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), buffer.array(),
+                    buffer.arrayOffset() + position);
+            buffer.position(position + LENGTH_WITH_DASH);
+            return;
+        }
+        final long msb = uuid.getMostSignificantBits();
+        final long lsb = uuid.getLeastSignificantBits();
+        for (int i = 0; i < LENGTH_WITH_DASH; i++) {
+            buffer.put((byte) canonicalChar(msb, lsb, i));
+        }
+    }
+
+    /**
+     * Returns the char at a position of the canonical string of a UUID, in
+     * lower case.
+     *
+     * @param msb      the most significant bits
+     * @param lsb      the least significant bits
+     * @param position a position from 0 to 35
+     * @return a hexadecimal digit or a hyphen
+     */
+    private static char canonicalChar(long msb, long lsb, int position) {
+        final int digit = DIGITS[position];
+        if (digit < 0) {
+            return '-';
+        }
+        final long bits = digit < 16 ? msb : lsb;
+        return ALPHABET.get((int) (bits >>> (60 - ((digit & 0xf) << 2))) & 0xf);
+    }
+
+    /**
+     * Get a UUID from a range of a char sequence, without creating substrings.
+     * <p>
+     * It accepts the same formats as {@link #decode(String)}.
+     *
+     * @param chars  a char sequence
+     * @param offset the index of the first char of the UUID
+     * @param length the number of chars of the UUID
+     * @return a UUID
+     * @throws InvalidUuidException      if the range is not a valid UUID string
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public UUID decode(final CharSequence chars, int offset, int length) {
+        if (chars == null) {
+            throw InvalidUuidException.newInstance(null);
+        }
+        Objects.checkFromIndexSize(offset, length, chars.length());
+        final int start = offset;
+        final int end = offset + length;
+        if (length == LENGTH_WITH_URN_PREFIX && regionMatches(chars, offset)) {
+            offset += URN_PREFIX.length();
+            length = LENGTH_WITH_DASH;
+        } else if (length == LENGTH_WITH_CURLY_BRACES && chars.charAt(offset) == '{' && chars.charAt(end - 1) == '}') {
+            offset++;
+            length = LENGTH_WITH_DASH;
+        }
+        final int[] positions;
+        if (length == LENGTH_WITHOUT_DASH) {
+            positions = POSITIONS_WITHOUT_DASH;
+        } else if (length == LENGTH_WITH_DASH && chars.charAt(offset + DASH_POSITION_1) == '-'
+                && chars.charAt(offset + DASH_POSITION_2) == '-' && chars.charAt(offset + DASH_POSITION_3) == '-'
+                && chars.charAt(offset + DASH_POSITION_4) == '-') {
+            positions = POSITIONS_WITH_DASH;
+        } else {
+            throw InvalidUuidException.newInstance(chars.subSequence(start, end));
+        }
+        long msb = 0;
+        long lsb = 0;
+        int invalid = 0;
+        for (int i = 0; i < 16; i++) {
+            final int chr = chars.charAt(offset + positions[i]);
+            final int value = chr > 255 ? -1 : MAP[chr];
+            invalid |= value;
+            msb = (msb << 4) | (value & 0xf);
+        }
+        for (int i = 16; i < 32; i++) {
+            final int chr = chars.charAt(offset + positions[i]);
+            final int value = chr > 255 ? -1 : MAP[chr];
+            invalid |= value;
+            lsb = (lsb << 4) | (value & 0xf);
+        }
+        if (invalid < 0) {
+            throw InvalidUuidException.newInstance(chars.subSequence(start, end));
+        }
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * Get a UUID from a range of a byte array of ASCII chars, without creating
+     * strings.
+     * <p>
+     * It accepts the same formats as {@link #decode(String)}.
+     *
+     * @param bytes  a byte array
+     * @param offset the index of the first byte of the UUID
+     * @param length the number of bytes of the UUID
+     * @return a UUID
+     * @throws InvalidUuidException      if the range is not a valid UUID string
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public UUID decode(final byte[] bytes, int offset, int length) {
+        if (bytes == null) {
+            throw InvalidUuidException.newInstance(null);
+        }
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        final int start = offset;
+        final int end = offset + length;
+        if (length == LENGTH_WITH_URN_PREFIX && regionMatches(bytes, offset)) {
+            offset += URN_PREFIX.length();
+            length = LENGTH_WITH_DASH;
+        } else if (length == LENGTH_WITH_CURLY_BRACES && bytes[offset] == '{' && bytes[end - 1] == '}') {
+            offset++;
+            length = LENGTH_WITH_DASH;
+        }
+        final int[] positions;
+        if (length == LENGTH_WITHOUT_DASH) {
+            positions = POSITIONS_WITHOUT_DASH;
+        } else if (length == LENGTH_WITH_DASH && bytes[offset + DASH_POSITION_1] == '-'
+                && bytes[offset + DASH_POSITION_2] == '-' && bytes[offset + DASH_POSITION_3] == '-'
+                && bytes[offset + DASH_POSITION_4] == '-') {
+            positions = POSITIONS_WITH_DASH;
+        } else {
+            throw InvalidUuidException.newInstance(new String(bytes, start, length, StandardCharsets.ISO_8859_1));
+        }
+        long msb = 0;
+        long lsb = 0;
+        int invalid = 0;
+        for (int i = 0; i < 16; i++) {
+            final int value = MAP[bytes[offset + positions[i]] & 0xff];
+            invalid |= value;
+            msb = (msb << 4) | (value & 0xf);
+        }
+        for (int i = 16; i < 32; i++) {
+            final int value = MAP[bytes[offset + positions[i]] & 0xff];
+            invalid |= value;
+            lsb = (lsb << 4) | (value & 0xf);
+        }
+        if (invalid < 0) {
+            throw InvalidUuidException.newInstance(new String(bytes, start, end - start, StandardCharsets.ISO_8859_1));
+        }
+        return new UUID(msb, lsb);
+    }
+
+    private static boolean regionMatches(final CharSequence chars, final int offset) {
+        for (int i = 0; i < URN_PREFIX.length(); i++) {
+            if (chars.charAt(offset + i) != URN_PREFIX.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionMatches(final byte[] bytes, final int offset) {
+        for (int i = 0; i < URN_PREFIX.length(); i++) {
+            if (bytes[offset + i] != URN_PREFIX.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private UUID parse(final String string) {
 
         long msb = (0) | this.get(string, 0);
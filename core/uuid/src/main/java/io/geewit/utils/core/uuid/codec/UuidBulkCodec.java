@@ -0,0 +1,282 @@
+package io.geewit.utils.core.uuid.codec;
+
+import io.geewit.utils.core.uuid.exception.InvalidUuidException;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Bulk parser and validator for canonical UUID strings, for example the UUID
+ * columns of a large CSV import.
+ * <p>
+ * The 32 hexadecimal digits of a canonical string are handled 8 at a time:
+ * each group of 8 ASCII chars is loaded into a {@code long}, one char per
+ * byte, and the digits are validated and converted in all 8 byte lanes at
+ * once with plain arithmetic (SWAR, SIMD within a register). This works on
+ * every JVM, with no incubator module, and needs no branch per char.
+ * <p>
+ * The parsed UUIDs are written as pairs of longs: {@code out[2 * i]} is the
+ * most significant bits and {@code out[2 * i + 1]} the least significant bits
+ * of the i-th UUID, so no UUID object is created.
+ * <p>
+ * Only the 36-char canonical form is handled by the fast path. Char sequences
+ * of other lengths fall back to {@link StandardStringCodec}, which also accepts
+ * the hexadecimal, Microsoft and URN forms.
+ */
+public final class UuidBulkCodec {
+
+    /**
+     * A shared immutable instance.
+     */
+    public static final UuidBulkCodec INSTANCE = new UuidBulkCodec();
+
+    private static final int LENGTH = 36;
+
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long LOW_NIBBLES = 0x0f0f0f0f0f0f0f0fL;
+    private static final long CASE_BITS = 0x2020202020202020L;
+
+    /**
+     * Returned by the word conversion for an invalid word; valid words fit in
+     * 32 bits.
+     */
+    private static final long INVALID = -1L;
+
+    /**
+     * Decodes canonical UUID strings.
+     *
+     * @param uuids the UUID strings
+     * @param out   the bits of the UUIDs, two elements per UUID
+     * @throws InvalidUuidException      if a UUID string is invalid, naming its index
+     * @throws IndexOutOfBoundsException if the output array is too short
+     */
+    public void decodeAll(CharSequence[] uuids, long[] out) {
+        Objects.requireNonNull(uuids, "Null uuids");
+        Objects.checkFromIndexSize(0, uuids.length * 2, out.length);
+        for (int i = 0; i < uuids.length; i++) {
+            if (!this.decode(uuids[i], out, i << 1)) {
+                throw invalid(i, uuids[i]);
+            }
+        }
+    }
+
+    /**
+     * Decodes canonical UUID strings of ASCII bytes, one UUID per array.
+     *
+     * @param uuids the UUID strings, 36 bytes each
+     * @param out   the bits of the UUIDs, two elements per UUID
+     * @throws InvalidUuidException      if a UUID string is invalid, naming its index
+     * @throws IndexOutOfBoundsException if the output array is too short
+     */
+    public void decodeAll(byte[][] uuids, long[] out) {
+        Objects.requireNonNull(uuids, "Null uuids");
+        Objects.checkFromIndexSize(0, uuids.length * 2, out.length);
+        for (int i = 0; i < uuids.length; i++) {
+            final byte[] uuid = uuids[i];
+            if (uuid == null || uuid.length != LENGTH || !decode(uuid, 0, out, i << 1)) {
+                throw invalid(i, uuid == null ? null : new String(uuid, StandardCharsets.ISO_8859_1));
+            }
+        }
+    }
+
+    /**
+     * Decodes canonical UUID strings of ASCII bytes at the given offsets of a
+     * buffer, for example the UUID column of the lines of a CSV file.
+     *
+     * @param data    the buffer
+     * @param offsets the offset of the first byte of each UUID string
+     * @param out     the bits of the UUIDs, two elements per UUID
+     * @throws InvalidUuidException      if a UUID string is invalid, naming its index
+     * @throws IndexOutOfBoundsException if a UUID string exceeds the buffer or the output array is too short
+     */
+    public void decodeAll(byte[] data, int[] offsets, long[] out) {
+        Objects.requireNonNull(data, "Null data");
+        Objects.checkFromIndexSize(0, offsets.length * 2, out.length);
+        for (int i = 0; i < offsets.length; i++) {
+            final int offset = offsets[i];
+            Objects.checkFromIndexSize(offset, LENGTH, data.length);
+            if (!decode(data, offset, out, i << 1)) {
+                throw invalid(i, new String(data, offset, LENGTH, StandardCharsets.ISO_8859_1));
+            }
+        }
+    }
+
+    /**
+     * Validates UUID strings.
+     *
+     * @param uuids the UUID strings
+     * @param valid whether each UUID string is valid
+     * @return the number of valid UUID strings
+     * @throws IndexOutOfBoundsException if the result array is too short
+     */
+    public int validateAll(CharSequence[] uuids, boolean[] valid) {
+        Objects.requireNonNull(uuids, "Null uuids");
+        Objects.checkFromIndexSize(0, uuids.length, valid.length);
+        final long[] bits = new long[2];
+        int count = 0;
+        for (int i = 0; i < uuids.length; i++) {
+            valid[i] = this.decode(uuids[i], bits, 0);
+            if (valid[i]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Validates canonical UUID strings of ASCII bytes at the given offsets of a
+     * buffer.
+     *
+     * @param data    the buffer
+     * @param offsets the offset of the first byte of each UUID string
+     * @param valid   whether each UUID string is valid
+     * @return the number of valid UUID strings
+     * @throws IndexOutOfBoundsException if a UUID string exceeds the buffer or the result array is too short
+     */
+    public int validateAll(byte[] data, int[] offsets, boolean[] valid) {
+        Objects.requireNonNull(data, "Null data");
+        Objects.checkFromIndexSize(0, offsets.length, valid.length);
+        final long[] bits = new long[2];
+        int count = 0;
+        for (int i = 0; i < offsets.length; i++) {
+            Objects.checkFromIndexSize(offsets[i], LENGTH, data.length);
+            valid[i] = decode(data, offsets[i], bits, 0);
+            if (valid[i]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean decode(CharSequence uuid, long[] out, int index) {
+        if (uuid == null) {
+            return false;
+        }
+        if (uuid.length() != LENGTH) {
+            // other forms are rare in bulk data
+            try {
+                final io.geewit.utils.core.uuid.UUID parsed = StandardStringCodec.INSTANCE.decode(uuid, 0, uuid.length());
+                out[index] = parsed.getMostSignificantBits();
+                out[index + 1] = parsed.getLeastSignificantBits();
+                return true;
+            } catch (InvalidUuidException e) {
+                return false;
+            }
+        }
+        // chars above 0x7f are marked by setting the high bit of their lane
+        int chars = 0;
+        long w0 = 0;
+        for (int i = 0; i < 8; i++) {
+            final int c = uuid.charAt(i);
+            chars |= c;
+            w0 = (w0 << 8) | c & 0xff;
+        }
+        long w1 = 0;
+        for (int i = 9; i < 13; i++) {
+            final int c = uuid.charAt(i);
+            chars |= c;
+            w1 = (w1 << 8) | c & 0xff;
+        }
+        for (int i = 14; i < 18; i++) {
+            final int c = uuid.charAt(i);
+            chars |= c;
+            w1 = (w1 << 8) | c & 0xff;
+        }
+        long w2 = 0;
+        for (int i = 19; i < 23; i++) {
+            final int c = uuid.charAt(i);
+            chars |= c;
+            w2 = (w2 << 8) | c & 0xff;
+        }
+        for (int i = 24; i < 28; i++) {
+            final int c = uuid.charAt(i);
+            chars |= c;
+            w2 = (w2 << 8) | c & 0xff;
+        }
+        long w3 = 0;
+        for (int i = 28; i < 36; i++) {
+            final int c = uuid.charAt(i);
+            chars |= c;
+            w3 = (w3 << 8) | c & 0xff;
+        }
+        if ((chars & ~0x7f) != 0 || uuid.charAt(8) != '-' || uuid.charAt(13) != '-' || uuid.charAt(18) != '-'
+                || uuid.charAt(23) != '-') {
+            return false;
+        }
+        return words(w0, w1, w2, w3, out, index);
+    }
+
+    private static boolean decode(byte[] data, int offset, long[] out, int index) {
+        if (data[offset + 8] != '-' || data[offset + 13] != '-' || data[offset + 18] != '-' || data[offset + 23] != '-') {
+            return false;
+        }
+        final long w0 = (long) LONG.get(data, offset);
+        final long w1 = ((long) (int) INT.get(data, offset + 9) << 32) | ((int) INT.get(data, offset + 14) & 0xffffffffL);
+        final long w2 = ((long) (int) INT.get(data, offset + 19) << 32) | ((int) INT.get(data, offset + 24) & 0xffffffffL);
+        final long w3 = (long) LONG.get(data, offset + 28);
+        return words(w0, w1, w2, w3, out, index);
+    }
+
+    private static boolean words(long w0, long w1, long w2, long w3, long[] out, int index) {
+        final long h0 = hex(w0);
+        final long h1 = hex(w1);
+        final long h2 = hex(w2);
+        final long h3 = hex(w3);
+        if ((h0 | h1 | h2 | h3) == INVALID) {
+            return false;
+        }
+        out[index] = (h0 << 32) | h1;
+        out[index + 1] = (h2 << 32) | h3;
+        return true;
+    }
+
+    /**
+     * Converts 8 ASCII hexadecimal digits, one per byte with the first digit in
+     * the highest byte, to their 32-bit value.
+     *
+     * @param word 8 ASCII chars
+     * @return the value, or {@link #INVALID} if a char is not a hexadecimal digit
+     */
+    static long hex(long word) {
+        // with all lanes below 0x80, the lane sums and differences below never carry or borrow
+        final long lower = word | CASE_BITS;
+        final long digits = ge(word, '0') & le(word, '9');
+        final long letters = ge(lower, 'a') & le(lower, 'f');
+        if ((word & HIGH_BITS) != 0 || (digits | letters) != HIGH_BITS) {
+            return INVALID;
+        }
+        // '0'-'9' keep their low nibble, 'a'-'f' and 'A'-'F' have 1-6 in it, plus 9
+        long nibbles = (word & LOW_NIBBLES) + (letters >>> 7) * 9;
+        // gather the 8 nibbles into the low 32 bits
+        nibbles = (nibbles | (nibbles >>> 4)) & 0x00ff00ff00ff00ffL;
+        nibbles = (nibbles | (nibbles >>> 8)) & 0x0000ffff0000ffffL;
+        return (nibbles | (nibbles >>> 16)) & 0x00000000ffffffffL;
+    }
+
+    /**
+     * The high bit of each lane is set if the lane is greater than or equal to
+     * the given char.
+     */
+    private static long ge(long word, char c) {
+        return (word + ONES * (0x80 - c)) & HIGH_BITS;
+    }
+
+    /**
+     * The high bit of each lane is set if the lane is less than or equal to the
+     * given char.
+     */
+    private static long le(long word, char c) {
+        return (ONES * (0x80 + c) - word) & HIGH_BITS;
+    }
+
+    private static InvalidUuidException invalid(int index, Object uuid) {
+        return new InvalidUuidException("Invalid UUID at index " + index + ": " + (uuid == null ? null : "\"" + uuid + "\""));
+    }
+}
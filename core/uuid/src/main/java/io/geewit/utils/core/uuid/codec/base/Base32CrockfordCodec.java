@@ -0,0 +1,35 @@
+package io.geewit.utils.core.uuid.codec.base;
+
+import io.geewit.utils.core.uuid.codec.base.function.Base32CrockfordDecoder;
+import io.geewit.utils.core.uuid.codec.base.function.Base32CrockfordEncoder;
+
+/**
+ * Codec for base-32 as defined by Douglas Crockford.
+ * <p>
+ * The UUID is encoded as a 128-bit number in 26 chars, the same way as a ULID,
+ * so the first char holds only the 3 highest bits and is never greater than
+ * '7'. The encoded strings sort in the same order as the UUIDs.
+ * <p>
+ * It is case insensitive, so it decodes from lower and upper case, but encodes
+ * to lower case only. It also decodes the aliases 'i' and 'l' as '1' and 'o'
+ * as '0'.
+ *
+ * @see <a href="https://www.crockford.com/base32.html">Base 32</a>
+ * @see <a href="https://github.com/ulid/spec">ULID</a>
+ */
+public final class Base32CrockfordCodec extends BaseNCodec {
+
+    private static final BaseN BASE_N = new BaseN("0123456789abcdefghjkmnpqrstvwxyz");
+
+    /**
+     * A shared immutable instance.
+     */
+    public static final Base32CrockfordCodec INSTANCE = new Base32CrockfordCodec();
+
+    /**
+     * Default constructor.
+     */
+    public Base32CrockfordCodec() {
+        super(BASE_N, new Base32CrockfordEncoder(BASE_N), new Base32CrockfordDecoder(BASE_N));
+    }
+}
@@ -0,0 +1,32 @@
+package io.geewit.utils.core.uuid.codec.base;
+
+import io.geewit.utils.core.uuid.codec.base.function.BaseNRemainderDecoder;
+import io.geewit.utils.core.uuid.codec.base.function.BaseNRemainderEncoder;
+
+/**
+ * Codec for base-58 with the Bitcoin alphabet.
+ * <p>
+ * The alphabet has no '0', 'O', 'I' and 'l', so the encoded strings are easy
+ * to read and copy. The UUID is encoded as a 128-bit number in 22 chars, padded
+ * with '1'.
+ * <p>
+ * It is case SENSITIVE.
+ *
+ * @see <a href="https://datatracker.ietf.org/doc/html/draft-msporny-base58-03">The Base58 Encoding Scheme</a>
+ */
+public final class Base58BtcCodec extends BaseNCodec {
+
+    private static final BaseN BASE_N = new BaseN("123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz");
+
+    /**
+     * A shared immutable instance.
+     */
+    public static final Base58BtcCodec INSTANCE = new Base58BtcCodec();
+
+    /**
+     * Default constructor.
+     */
+    public Base58BtcCodec() {
+        super(BASE_N, new BaseNRemainderEncoder(BASE_N), new BaseNRemainderDecoder(BASE_N));
+    }
+}
@@ -0,0 +1,30 @@
+package io.geewit.utils.core.uuid.codec.base;
+
+import io.geewit.utils.core.uuid.codec.base.function.BaseNRemainderDecoder;
+import io.geewit.utils.core.uuid.codec.base.function.BaseNRemainderEncoder;
+
+/**
+ * Codec for base-62.
+ * <p>
+ * The alphabet has only digits and letters, so the encoded strings are safe
+ * in URLs, file names and cache keys. The UUID is encoded as a 128-bit number
+ * in 22 chars, padded with '0'.
+ * <p>
+ * It is case SENSITIVE.
+ */
+public final class Base62Codec extends BaseNCodec {
+
+    private static final BaseN BASE_N = new BaseN("0-9A-Za-z");
+
+    /**
+     * A shared immutable instance.
+     */
+    public static final Base62Codec INSTANCE = new Base62Codec();
+
+    /**
+     * Default constructor.
+     */
+    public Base62Codec() {
+        super(BASE_N, new BaseNRemainderEncoder(BASE_N), new BaseNRemainderDecoder(BASE_N));
+    }
+}
@@ -0,0 +1,58 @@
+package io.geewit.utils.core.uuid.codec.base.function;
+
+import io.geewit.utils.core.uuid.UUID;
+import io.geewit.utils.core.uuid.codec.base.BaseN;
+import io.geewit.utils.core.uuid.exception.InvalidUuidException;
+import io.geewit.utils.core.uuid.util.immutable.ByteArray;
+
+/**
+ * Function that decodes a Crockford's base-32 string to a UUID.
+ * <p>
+ * It is case insensitive, so it decodes in lower case and upper case. It also
+ * decodes the aliases 'i' and 'l' as '1' and 'o' as '0'.
+ *
+ * @see <a href="https://www.crockford.com/base32.html">Base 32</a>
+ */
+public final class Base32CrockfordDecoder extends BaseNDecoder {
+
+    private static final int CHAR_LENGTH = 26;
+
+    /**
+     * Constructor with a base-n.
+     *
+     * @param base a base-n
+     */
+    public Base32CrockfordDecoder(BaseN base) {
+        super(base, aliases(base.getMap()));
+    }
+
+    @Override
+    public UUID apply(String string) {
+
+        // the first char holds only 3 bits
+        long msb = super.get(string, 0);
+        if (msb > 7) {
+            throw InvalidUuidException.newInstance(string);
+        }
+        for (int i = 1; i < 13; i++) {
+            msb = (msb << 5) | super.get(string, i);
+        }
+
+        final long middle = super.get(string, 13);
+        msb = (msb << 1) | (middle >>> 4);
+
+        long lsb = middle & 0xf;
+        for (int i = 14; i < CHAR_LENGTH; i++) {
+            lsb = (lsb << 5) | super.get(string, i);
+        }
+
+        return new UUID(msb, lsb);
+    }
+
+    private static ByteArray aliases(ByteArray map) {
+        final byte[] mapping = map.array();
+        mapping['i'] = mapping['I'] = mapping['l'] = mapping['L'] = mapping['1'];
+        mapping['o'] = mapping['O'] = mapping['0'];
+        return ByteArray.from(mapping);
+    }
+}
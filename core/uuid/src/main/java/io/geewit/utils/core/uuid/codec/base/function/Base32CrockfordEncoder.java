@@ -0,0 +1,47 @@
+package io.geewit.utils.core.uuid.codec.base.function;
+
+import io.geewit.utils.core.uuid.UUID;
+import io.geewit.utils.core.uuid.codec.base.BaseN;
+
+/**
+ * Function that encodes a UUID to a Crockford's base-32 string.
+ * <p>
+ * It encodes in lower case only.
+ *
+ * @see <a href="https://www.crockford.com/base32.html">Base 32</a>
+ */
+public final class Base32CrockfordEncoder extends BaseNEncoder {
+
+    private static final int CHAR_LENGTH = 26;
+
+    /**
+     * Constructor with a base-n.
+     *
+     * @param base a base-n
+     */
+    public Base32CrockfordEncoder(BaseN base) {
+        super(base);
+    }
+
+    @Override
+    public String apply(UUID uuid) {
+
+        final char[] chars = new char[CHAR_LENGTH];
+        final long msb = uuid.getMostSignificantBits();
+        final long lsb = uuid.getLeastSignificantBits();
+
+        // the 3 highest bits, then 12 groups of 5 bits
+        chars[0] = super.get(msb >>> 61);
+        for (int i = 1, shift = 56; i < 13; i++, shift -= 5) {
+            chars[i] = super.get(msb >>> shift & 0x1f);
+        }
+
+        // the lowest bit of the MSB and the 4 highest bits of the LSB
+        chars[13] = super.get((msb & 0x1) << 4 | lsb >>> 60);
+        for (int i = 14, shift = 55; i < CHAR_LENGTH; i++, shift -= 5) {
+            chars[i] = super.get(lsb >>> shift & 0x1f);
+        }
+
+        return new String(chars);
+    }
+}
@@ -28,8 +28,17 @@ public abstract class BaseNDecoder implements Function<String, UUID> {
      * @param base an enumeration that represents the base-n encoding
      */
     public BaseNDecoder(BaseN base) {
+        this(base, base.getMap());
+    }
+
+    /**
+     * @param base an enumeration that represents the base-n encoding
+     * @param map  a map from chars to values that replaces the base-n map, for
+     *             encodings that accept aliases
+     */
+    protected BaseNDecoder(BaseN base, ByteArray map) {
         this.base = base;
-        this.map = base.getMap();
+        this.map = map;
     }
 
     protected long get(String string, int i) {
@@ -0,0 +1,76 @@
+package io.geewit.utils.core.uuid.codec.base.function;
+
+import io.geewit.utils.core.uuid.UUID;
+import io.geewit.utils.core.uuid.codec.base.BaseN;
+import io.geewit.utils.core.uuid.exception.InvalidUuidException;
+
+/**
+ * Function that decodes a base-n string of any radix to a UUID.
+ * <p>
+ * The digits are gathered into chunks that fit in 31 bits, for example 5
+ * digits of base-62, and the 128-bit number, held in four 32-bit words, is
+ * multiplied by the chunk size and added to the chunk. Strings whose value
+ * exceeds 128 bits are rejected.
+ * <p>
+ * If the base-n is case insensitive, it decodes in lower case and upper case.
+ */
+public final class BaseNRemainderDecoder extends BaseNDecoder {
+
+    private final int length;
+    private final long radix;
+    private final int chunk;
+
+    /**
+     * Constructor with a base-n.
+     *
+     * @param base a base-n
+     */
+    public BaseNRemainderDecoder(BaseN base) {
+        super(base);
+        this.length = base.getLength();
+        this.radix = base.getRadix();
+        int digits = 1;
+        long power = this.radix;
+        while (power * this.radix <= Integer.MAX_VALUE) {
+            power *= this.radix;
+            digits++;
+        }
+        this.chunk = digits;
+    }
+
+    @Override
+    public UUID apply(String string) {
+
+        long w0 = 0;
+        long w1 = 0;
+        long w2 = 0;
+        long w3 = 0;
+
+        int i = 0;
+        while (i < this.length) {
+            // the first chunk takes the odd digits, the others are full
+            final int end = i == 0 ? this.length - (this.length - 1) / this.chunk * this.chunk : i + this.chunk;
+            long multiplier = 1;
+            long value = 0;
+            for (; i < end; i++) {
+                value = value * radix + super.get(string, i);
+                multiplier *= radix;
+            }
+
+            // the products are smaller than 2^63, so each step fits in a long
+            long product = w3 * multiplier + value;
+            w3 = product & 0xffffffffL;
+            product = w2 * multiplier + (product >>> 32);
+            w2 = product & 0xffffffffL;
+            product = w1 * multiplier + (product >>> 32);
+            w1 = product & 0xffffffffL;
+            product = w0 * multiplier + (product >>> 32);
+            w0 = product & 0xffffffffL;
+            if ((product >>> 32) != 0) {
+                throw InvalidUuidException.newInstance(string);
+            }
+        }
+
+        return new UUID(w0 << 32 | w1, w2 << 32 | w3);
+    }
+}
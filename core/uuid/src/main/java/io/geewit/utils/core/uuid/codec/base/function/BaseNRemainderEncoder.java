@@ -0,0 +1,116 @@
+package io.geewit.utils.core.uuid.codec.base.function;
+
+import io.geewit.utils.core.uuid.UUID;
+import io.geewit.utils.core.uuid.codec.base.BaseN;
+
+import java.math.BigInteger;
+
+/**
+ * Function that encodes a UUID to a base-n string of any radix.
+ * <p>
+ * The 128-bit number is held in four 32-bit words and repeatedly divided by the
+ * largest power of the radix that fits in 31 bits, for example 62^5. Each
+ * remainder gives several digits at once.
+ * <p>
+ * No {@link BigInteger} and no division instruction is used: every division by
+ * a constant is a multiplication by its precomputed reciprocal and a shift,
+ * which is exact for the bounded dividends of this function.
+ * <p>
+ * It encodes in lower case only, if the base-n is case insensitive.
+ */
+public final class BaseNRemainderEncoder extends BaseNEncoder {
+
+    private final int length;
+    private final int radix;
+    private final int chunk;
+    private final long divisor;
+
+    /**
+     * The reciprocal of the divisor for dividends below 2^63.
+     */
+    private final long multiplier;
+    private final int shift;
+
+    /**
+     * The reciprocal of the radix for dividends below 2^31.
+     */
+    private final long radixMultiplier;
+    private final int radixShift;
+
+    /**
+     * Constructor with a base-n.
+     *
+     * @param base a base-n
+     */
+    public BaseNRemainderEncoder(BaseN base) {
+        super(base);
+        this.length = base.getLength();
+        this.radix = base.getRadix();
+        int digits = 1;
+        long power = this.radix;
+        while (power * this.radix <= Integer.MAX_VALUE) {
+            power *= this.radix;
+            digits++;
+        }
+        this.chunk = digits;
+        this.divisor = power;
+
+        // for dividends below 2^n: m = ceil(2^(n + s) / d), where s = ceil(log2(d))
+        final int bits = Long.SIZE - Long.numberOfLeadingZeros(power - 1);
+        this.multiplier = reciprocal(power, 63 + bits);
+        this.shift = bits - 1;
+        final int radixBits = Long.SIZE - Long.numberOfLeadingZeros(this.radix - 1);
+        this.radixMultiplier = reciprocal(this.radix, 31 + radixBits);
+        this.radixShift = 31 + radixBits;
+    }
+
+    @Override
+    public String apply(UUID uuid) {
+
+        final char[] chars = new char[this.length];
+        final long msb = uuid.getMostSignificantBits();
+        final long lsb = uuid.getLeastSignificantBits();
+
+        long w0 = msb >>> 32;
+        long w1 = msb & 0xffffffffL;
+        long w2 = lsb >>> 32;
+        long w3 = lsb & 0xffffffffL;
+
+        int i = this.length;
+        while (i > 0) {
+            // the remainders are smaller than 2^31, so the dividends are smaller than 2^63
+            long quotient = this.divide(w0);
+            long remainder = w0 - quotient * divisor;
+            w0 = quotient;
+            long dividend = remainder << 32 | w1;
+            quotient = this.divide(dividend);
+            remainder = dividend - quotient * divisor;
+            w1 = quotient;
+            dividend = remainder << 32 | w2;
+            quotient = this.divide(dividend);
+            remainder = dividend - quotient * divisor;
+            w2 = quotient;
+            dividend = remainder << 32 | w3;
+            quotient = this.divide(dividend);
+            remainder = dividend - quotient * divisor;
+            w3 = quotient;
+
+            for (int j = Math.min(this.chunk, i); j > 0; j--) {
+                final long next = (remainder * radixMultiplier) >>> radixShift;
+                chars[--i] = super.get(remainder - next * radix);
+                remainder = next;
+            }
+        }
+
+        return new String(chars);
+    }
+
+    private long divide(long dividend) {
+        return Math.unsignedMultiplyHigh(dividend, multiplier) >>> shift;
+    }
+
+    private static long reciprocal(long divisor, int exponent) {
+        final BigInteger[] division = BigInteger.ONE.shiftLeft(exponent).divideAndRemainder(BigInteger.valueOf(divisor));
+        return division[0].longValue() + (division[1].signum() == 0 ? 0 : 1);
+    }
+}
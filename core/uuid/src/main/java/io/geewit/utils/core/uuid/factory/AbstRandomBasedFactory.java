@@ -4,6 +4,7 @@ import io.geewit.utils.core.uuid.UUID;
 import io.geewit.utils.core.uuid.enums.UuidVersion;
 import io.geewit.utils.core.uuid.factory.function.RandomFunction;
 import io.geewit.utils.core.uuid.factory.function.impl.DefaultRandomFunction;
+import io.geewit.utils.core.uuid.util.EntropyPool;
 import io.geewit.utils.core.uuid.util.internal.ByteUtil;
 
 import java.util.Objects;
@@ -64,6 +65,20 @@ public abstract class AbstRandomBasedFactory extends UuidFactory {
             return this.random;
         }
 
+        /**
+         * Set the random generator with the {@link DefaultRandomFunction},
+         * which takes bytes from a pool of secure randoms.
+         * <p>
+         * It is the default of most factories. Call it explicitly to keep it
+         * where a factory would choose another default.
+         *
+         * @return the generator
+         */
+        public B withSecureRandom() {
+            this.random = new SafeRandom(new DefaultRandomFunction());
+            return self();
+        }
+
         /**
          * Set the random generator with a fast algorithm.
          * Use it to replace the {@link DefaultRandomFunction} with
@@ -76,6 +91,21 @@ public abstract class AbstRandomBasedFactory extends UuidFactory {
             return self();
         }
 
+        /**
+         * Set the random generator with a pool of secure random numbers.
+         * Use it to replace the {@link DefaultRandomFunction} with the shared
+         * {@link EntropyPool}, which prefills buffers from a secure random in
+         * a background thread and hands out numbers from them without locks.
+         * Only if the background thread falls behind are the numbers taken
+         * from a secure random directly.
+         *
+         * @return the generator
+         */
+        public B withEntropyPool() {
+            this.random = new PooledRandom(EntropyPool.shared());
+            return self();
+        }
+
         /**
          * Returns the concrete builder instance.
          *
@@ -192,4 +222,31 @@ public abstract class AbstRandomBasedFactory extends UuidFactory {
             return this.randomFunction.apply(length);
         }
     }
+
+    /**
+     * A long random generator backed by a pool of secure random numbers.
+     */
+    protected record PooledRandom(EntropyPool pool) implements IRandom {
+
+        /**
+         * Constructor with a pool.
+         *
+         * @param pool a pool of random numbers
+         */
+        protected PooledRandom(EntropyPool pool) {
+            this.pool = Objects.requireNonNull(pool);
+        }
+
+        @Override
+        public long nextLong() {
+            return pool.nextLong();
+        }
+
+        @Override
+        public byte[] nextBytes(int length) {
+            final byte[] bytes = new byte[length];
+            pool.nextBytes(bytes);
+            return bytes;
+        }
+    }
 }
@@ -56,6 +56,63 @@ public abstract class UuidFactory {
      */
     public abstract UUID create(Parameters parameters);
 
+    /**
+     * Creates a batch of UUIDs.
+     * <p>
+     * The default implementation calls {@link #create()} for each UUID.
+     * Factories that keep an internal state override it to reserve the whole
+     * batch at once.
+     *
+     * @param n the number of UUIDs
+     * @return an array of UUIDs
+     * @throws IllegalArgumentException if n is negative
+     */
+    public UUID[] create(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Negative count: " + n);
+        }
+        final UUID[] uuids = new UUID[n];
+        for (int i = 0; i < n; i++) {
+            uuids[i] = this.create();
+        }
+        return uuids;
+    }
+
+    /**
+     * Fills two arrays with the bits of a batch of UUIDs.
+     * <p>
+     * The i-th UUID is {@code new UUID(msbs[i], lsbs[i])}. Factories that keep
+     * an internal state override it to write the bits without creating UUID
+     * objects.
+     *
+     * @param msbs the most significant bits, one element per UUID
+     * @param lsbs the least significant bits, one element per UUID
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public void fill(long[] msbs, long[] lsbs) {
+        checkLengths(msbs, lsbs);
+        for (int i = 0; i < msbs.length; i++) {
+            final UUID uuid = this.create();
+            msbs[i] = uuid.getMostSignificantBits();
+            lsbs[i] = uuid.getLeastSignificantBits();
+        }
+    }
+
+    /**
+     * Checks that the arrays passed to {@link #fill(long[], long[])} have the
+     * same length.
+     *
+     * @param msbs the most significant bits
+     * @param lsbs the least significant bits
+     */
+    protected static void checkLengths(long[] msbs, long[] lsbs) {
+        Objects.requireNonNull(msbs, "Null msbs");
+        Objects.requireNonNull(lsbs, "Null lsbs");
+        if (msbs.length != lsbs.length) {
+            throw new IllegalArgumentException("Array lengths differ: " + msbs.length + " != " + lsbs.length);
+        }
+    }
+
     /**
      * Parameters object to be used with a {@link UuidFactory#create(Parameters)}.
      *
@@ -127,8 +184,26 @@ public abstract class UuidFactory {
      * @return a UUID
      */
     protected UUID toUuid(final long msb, final long lsb) {
-        final long msb0 = (msb & 0xffffffffffff0fffL) | this.versionMask; // set version
-        final long lsb0 = (lsb & 0x3fffffffffffffffL) | 0x8000000000000000L; // set variant
-        return new UUID(msb0, lsb0);
+        return new UUID(this.toMsb(msb), toLsb(lsb));
+    }
+
+    /**
+     * Applies the version number to the most significant bits.
+     *
+     * @param msb the most significant bits
+     * @return the most significant bits with the version number
+     */
+    protected long toMsb(final long msb) {
+        return (msb & 0xffffffffffff0fffL) | this.versionMask; // set version
+    }
+
+    /**
+     * Applies the variant number to the least significant bits.
+     *
+     * @param lsb the least significant bits
+     * @return the least significant bits with the variant number
+     */
+    protected static long toLsb(final long lsb) {
+        return (lsb & 0x3fffffffffffffffL) | 0x8000000000000000L; // set variant
     }
 }
@@ -7,6 +7,8 @@ import io.geewit.utils.core.uuid.util.internal.ByteUtil;
 
 import java.time.Instant;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import java.util.function.LongSupplier;
@@ -34,6 +36,23 @@ import java.util.function.LongSupplier;
  * Monotonic ULID.
  * </ul>
  * <p>
+ * By default the internal state is guarded by a lock. The lock-free mode
+ * ({@link Builder#withLockFree()}) keeps the last UUID in an atomic reference
+ * and advances it with compare-and-set, so that many threads can generate
+ * UUIDs without blocking each other. Both modes produce strictly increasing
+ * UUIDs within the same factory.
+ * <p>
+ * The default random generator takes a lock shared by all factories, so the
+ * lock-free and striped modes use {@link Builder#withEntropyPool()} instead,
+ * unless another random generator is set explicitly.
+ * <p>
+ * The striped mode ({@link Builder#withStripes(int)}) splits the state into
+ * independent stripes, one of which is chosen by the current thread's id. The
+ * stripe number is kept in the lowest bits of {@code rand_a}, which are never
+ * touched by the counter, so UUIDs of different stripes never collide. UUIDs
+ * are strictly increasing per stripe, and therefore per thread, but not across
+ * threads.
+ * <p>
  * <b>Warning:</b> this can change in the future.
  * 
  * @since 5.0.0
@@ -46,7 +65,7 @@ import java.util.function.LongSupplier;
  */
 public final class TimeOrderedEpochFactory extends AbstRandomBasedFactory {
 
-    private final UuidFunction uuidFunction;
+    private final BlockFunction uuidFunction;
 
     private static final int INCREMENT_TYPE_DEFAULT = 0; // add 2^48 to `rand_b`
     private static final int INCREMENT_TYPE_PLUS_1 = 1; // just add 1 to `rand_b`
@@ -54,6 +73,9 @@ public final class TimeOrderedEpochFactory extends AbstRandomBasedFactory {
 
     private static final long INCREMENT_MAX_DEFAULT = 0xffffffffL; // 2^32-1
 
+    // at least 4 bits of `rand_a` are left random
+    private static final int MAX_STRIPES = 256;
+
     // Used to preserve monotonicity when the system clock is
     // adjusted by NTP after a small clock drift or when the
     // system clock jumps back by 1 second due to leap second.
@@ -74,11 +96,17 @@ public final class TimeOrderedEpochFactory extends AbstRandomBasedFactory {
     private TimeOrderedEpochFactory(Builder builder) {
         super(UuidVersion.VERSION_TIME_ORDERED_EPOCH, builder);
         LongSupplier timeFunction = builder.getTimeFunction();
-        switch (builder.getIncrementType()) {
-            case INCREMENT_TYPE_PLUS_1 -> this.uuidFunction = new Plus1Function(random, timeFunction);
-            case INCREMENT_TYPE_PLUS_N ->
-                    this.uuidFunction = new PlusNFunction(random, timeFunction, builder.getIncrementMax());
-            default -> this.uuidFunction = new DefaultFunction(random, timeFunction);
+        int stripes = builder.getStripes();
+        int stripeBits = Integer.numberOfTrailingZeros(stripes);
+        UuidFunction function = switch (builder.getIncrementType()) {
+            case INCREMENT_TYPE_PLUS_1 -> new Plus1Function(random, timeFunction, stripeBits);
+            case INCREMENT_TYPE_PLUS_N -> new PlusNFunction(random, timeFunction, stripeBits, builder.getIncrementMax());
+            default -> new DefaultFunction(random, timeFunction, stripeBits);
+        };
+        if (stripes > 1) {
+            this.uuidFunction = new StripedFunction(function, stripes);
+        } else {
+            this.uuidFunction = builder.isLockFree() ? new LockFreeFunction(function) : function;
         }
     }
 
@@ -91,6 +119,8 @@ public final class TimeOrderedEpochFactory extends AbstRandomBasedFactory {
 
         private Integer incrementType;
         private Long incrementMax;
+        private boolean lockFree;
+        private Integer stripes;
         /**
          * The time function.
          */
@@ -118,6 +148,70 @@ public final class TimeOrderedEpochFactory extends AbstRandomBasedFactory {
             return this;
         }
 
+        /**
+         * Use the lock-free mode.
+         * <p>
+         * The last UUID is kept in an atomic reference and advanced with
+         * compare-and-set instead of a lock. Under contention a thread may
+         * compute the next UUID more than once, drawing new random bits each
+         * time, but no thread waits for another.
+         * <p>
+         * Unless a random generator is set explicitly, this mode uses
+         * {@link #withEntropyPool()}, because the default secure random
+         * takes a global lock. A random generator set explicitly, such as
+         * {@link #withSecureRandom()}, may still block.
+         *
+         * @return the builder
+         */
+        public Builder withLockFree() {
+            this.lockFree = true;
+            return this;
+        }
+
+        /**
+         * Use the striped mode with a number of stripes.
+         * <p>
+         * Each stripe is advanced with compare-and-set like in the lock-free
+         * mode, and each thread always uses the same stripe, so threads of
+         * different stripes never contend. The stripe number takes
+         * {@code log2(stripes)} of the 12 bits of {@code rand_a}.
+         * <p>
+         * Like the lock-free mode, it uses {@link #withEntropyPool()} unless a
+         * random generator is set explicitly.
+         *
+         * @param stripes a power of two between 2 and 256
+         * @return the builder
+         * @throws IllegalArgumentException if the number of stripes is invalid
+         */
+        public Builder withStripes(int stripes) {
+            if (stripes < 2 || stripes > MAX_STRIPES || Integer.bitCount(stripes) != 1) {
+                throw new IllegalArgumentException("Stripes must be a power of two between 2 and " + MAX_STRIPES + ": " + stripes);
+            }
+            this.stripes = stripes;
+            return this;
+        }
+
+        /**
+         * Get the number of stripes.
+         *
+         * @return a power of two, 1 if not striped
+         */
+        protected int getStripes() {
+            if (this.stripes == null) {
+                this.stripes = 1;
+            }
+            return this.stripes;
+        }
+
+        /**
+         * Whether the lock-free mode is used.
+         *
+         * @return true if lock-free
+         */
+        protected boolean isLockFree() {
+            return this.lockFree;
+        }
+
         /**
          * Set the increment type.
          * 
@@ -142,6 +236,15 @@ public final class TimeOrderedEpochFactory extends AbstRandomBasedFactory {
             return this.incrementMax;
         }
 
+        @Override
+        protected IRandom getRandom() {
+            if (this.random == null && (this.isLockFree() || this.getStripes() > 1)) {
+                // the default secure random would make the lock-free modes wait for its global lock
+                this.withEntropyPool();
+            }
+            return super.getRandom();
+        }
+
         @Override
         protected Builder self() {
             return this;
@@ -199,10 +302,71 @@ public final class TimeOrderedEpochFactory extends AbstRandomBasedFactory {
         return super.toUuid(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
     }
 
-    static abstract class UuidFunction implements Function<Instant, UUID> {
+    /**
+     * Returns a batch of time-ordered unique identifiers (UUIDv7).
+     * <p>
+     * The whole batch is reserved at once, as if {@link #create()} were called
+     * n times without interruption by other threads.
+     *
+     * @param n the number of UUIDs
+     * @return an array of UUIDv7
+     */
+    @Override
+    public UUID[] create(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Negative count: " + n);
+        }
+        final long[] msbs = new long[n];
+        final long[] lsbs = new long[n];
+        this.fill(msbs, lsbs);
+        final UUID[] uuids = new UUID[n];
+        for (int i = 0; i < n; i++) {
+            uuids[i] = new UUID(msbs[i], lsbs[i]);
+        }
+        return uuids;
+    }
+
+    /**
+     * Fills two arrays with the bits of a batch of time-ordered unique
+     * identifiers (UUIDv7).
+     * <p>
+     * The whole batch is reserved with a single lock acquisition (or a single
+     * successful compare-and-set in lock-free mode): the clock is read once and
+     * the counter is advanced for each UUID, so no UUID object is created. The
+     * random bits of the batch are drawn after the reservation, so the lock is
+     * not held while the random generator runs.
+     *
+     * @param msbs the most significant bits, one element per UUID
+     * @param lsbs the least significant bits, one element per UUID
+     */
+    @Override
+    public void fill(long[] msbs, long[] lsbs) {
+        checkLengths(msbs, lsbs);
+        if (msbs.length == 0) {
+            return;
+        }
+        this.uuidFunction.fill(msbs, lsbs);
+        for (int i = 0; i < msbs.length; i++) {
+            msbs[i] = super.toMsb(msbs[i]);
+            lsbs[i] = toLsb(lsbs[i]);
+        }
+    }
 
-        protected long msb = 0L; // most significant bits
-        protected long lsb = 0L; // least significant bits
+    /**
+     * A function that also reserves blocks of UUIDs.
+     */
+    interface BlockFunction extends Function<Instant, UUID> {
+
+        /**
+         * Writes the bits of the next UUIDs, as many as the length of the arrays.
+         *
+         * @param msbs the most significant bits
+         * @param lsbs the least significant bits
+         */
+        void fill(long[] msbs, long[] lsbs);
+    }
+
+    static abstract class UuidFunction implements BlockFunction {
 
         protected final IRandom random;
         protected final LongSupplier timeFunction;
@@ -210,13 +374,23 @@ public final class TimeOrderedEpochFactory extends AbstRandomBasedFactory {
 
         protected static final long overflow = 0x0000000000000000L;
 
-        public UuidFunction(IRandom random, LongSupplier timeFunction) {
+        // the lowest bits of `rand_a` holding the stripe number, not touched by the counter
+        protected final long stripeMask;
+        // added to `rand_a` when `rand_b` overflows
+        protected final long carry;
+
+        // the last UUID, guarded by the lock
+        private UUID last;
+
+        public UuidFunction(IRandom random, LongSupplier timeFunction, int stripeBits) {
 
             this.random = random;
             this.timeFunction = timeFunction;
+            this.stripeMask = (1L << stripeBits) - 1;
+            this.carry = 1L << stripeBits;
 
             // instantiate the internal state
-            this.reset(this.timeFunction.getAsLong());
+            this.last = this.reset(this.timeFunction.getAsLong());
         }
 
         @Override
@@ -226,92 +400,300 @@ public final class TimeOrderedEpochFactory extends AbstRandomBasedFactory {
 
                 if (instant != null) {
                     // The user provided the time.
-                    this.reset(instant.toEpochMilli());
-                    return new UUID(this.msb, this.lsb);
-                }
-
-                final long lastTime = this.time();
-                final long time = timeFunction.getAsLong();
-
-                // Check if the current time is the same as the previous time or has moved
-                // backwards after a small system clock adjustment or after a leap second.
-                // Drift tolerance = (previous_time - 10s) < current_time <= previous_time
-                if ((time > lastTime - CLOCK_DRIFT_TOLERANCE) && (time <= lastTime)) {
-                    this.increment();
+                    this.last = this.reset(instant.toEpochMilli());
                 } else {
-                    this.reset(time);
+                    this.last = this.next(this.last, timeFunction.getAsLong());
                 }
+                return this.last;
 
-                return new UUID(this.msb, this.lsb);
+            } finally {
+                lock.unlock();
+            }
+        }
 
+        @Override
+        public void fill(long[] msbs, long[] lsbs) {
+            lock.lock();
+            try {
+                this.last = this.next(this.last, timeFunction.getAsLong(), msbs, lsbs);
             } finally {
                 lock.unlock();
             }
+            // the random bits are drawn after the block is reserved, outside the lock
+            this.randomize(lsbs, 1, lsbs.length);
+        }
+
+        /**
+         * Writes a block of UUIDs that follow the last one at the given time and
+         * returns the last UUID of the block.
+         * <p>
+         * Only the counters are written: the bits of {@code lsbs[1..]} that are
+         * filled by {@link #randomize(long[], int, int)} are left to zero, so that
+         * the caller can randomize them after releasing the lock or after a
+         * successful compare-and-set. The increment ignores those bits, so the
+         * returned UUID can be used as the last one without them.
+         * <p>
+         * It does not change any state, so it can be retried.
+         *
+         * @param last the last UUID
+         * @param time the current time
+         * @param msbs the most significant bits of the block
+         * @param lsbs the least significant bits of the block
+         * @return the last UUID of the block
+         */
+        UUID next(UUID last, long time, long[] msbs, long[] lsbs) {
+
+            final UUID first = this.next(last, time);
+            long msb = first.getMostSignificantBits();
+            long lsb = first.getLeastSignificantBits();
+            msbs[0] = msb;
+            lsbs[0] = lsb;
+
+            // the time does not move within the block, so the counter is incremented
+            for (int i = 1; i < msbs.length; i++) {
+                lsb = this.increment(lsb);
+                if (lsb == overflow) {
+                    // add 1 to rand_a if rand_b overflows
+                    msb = (msb | versionBits) + carry;
+                }
+                msbs[i] = msb;
+                lsbs[i] = lsb;
+            }
+
+            return msbs.length == 1 ? first : new UUID(msb, lsbs[lsbs.length - 1]);
+        }
+
+        /**
+         * Returns the UUID that follows the last one at the given time.
+         * <p>
+         * It does not change any state, so it can be retried.
+         *
+         * @param last the last UUID
+         * @param time the current time
+         * @return the next UUID
+         */
+        UUID next(UUID last, long time) {
+
+            final long lastTime = last.getMostSignificantBits() >>> 16;
+
+            // Check if the current time is the same as the previous time or has moved
+            // backwards after a small system clock adjustment or after a leap second.
+            // Drift tolerance = (previous_time - 10s) < current_time <= previous_time
+            if ((time > lastTime - CLOCK_DRIFT_TOLERANCE) && (time <= lastTime)) {
+                return this.increment(last);
+            } else {
+                return this.reset(time, last.getMostSignificantBits() & stripeMask);
+            }
         }
 
-        // to be implemented
-        abstract void increment();
+        UUID increment(UUID last) {
 
-        long time() {
-            return this.msb >>> 16;
+            long msb = last.getMostSignificantBits();
+            long lsb = this.increment(last.getLeastSignificantBits());
+
+            if (lsb == overflow) {
+                // add 1 to rand_a if rand_b overflows
+                msb = (msb | versionBits) + carry;
+            }
+
+            return new UUID(msb, this.randomize(lsb));
         }
 
-        void reset(final long time) {
+        // to be implemented: increments `rand_b`, returning `overflow` when it overflows
+        abstract long increment(long lsb);
+
+        // randomizes the bits of `rand_b` that are not part of the counter
+        long randomize(long lsb) {
+            return lsb;
+        }
+
+        // randomizes lsbs[from, to)
+        void randomize(long[] lsbs, int from, int to) {
+            for (int i = from; i < to; i++) {
+                lsbs[i] = this.randomize(lsbs[i]);
+            }
+        }
+
+        UUID reset(final long time) {
+            return this.reset(time, 0L);
+        }
+
+        UUID reset(final long time, final long stripe) {
             if (random instanceof SafeRandom) {
                 final byte[] bytes = random.nextBytes(10);
-                this.msb = (time << 16) | (ByteUtil.toNumber(bytes, 0, 2));
-                this.lsb = ByteUtil.toNumber(bytes, 2, 10);
+                final long msb = (time << 16) | (ByteUtil.toNumber(bytes, 0, 2) & ~stripeMask) | stripe;
+                return new UUID(msb, ByteUtil.toNumber(bytes, 2, 10));
             } else {
-                this.msb = (time << 16) | (random.nextLong() & lower16Bits);
-                this.lsb = random.nextLong();
+                final long msb = (time << 16) | (random.nextLong() & lower16Bits & ~stripeMask) | stripe;
+                return new UUID(msb, random.nextLong());
             }
         }
     }
 
-    static final class DefaultFunction extends UuidFunction {
+    /**
+     * Lock-free variant: the last UUID is advanced with compare-and-set.
+     * <p>
+     * Each successful compare-and-set replaces the last UUID with one computed
+     * from it, so the UUIDs returned by the factory are as monotonic as with the
+     * lock. The time is read again on every retry.
+     */
+    static final class LockFreeFunction implements BlockFunction {
+
+        private final UuidFunction function;
+        private final AtomicReference<UUID> last;
 
-        public DefaultFunction(IRandom random, LongSupplier timeFunction) {
-            super(random, timeFunction);
+        LockFreeFunction(UuidFunction function) {
+            this.function = function;
+            this.last = new AtomicReference<>(function.reset(function.timeFunction.getAsLong()));
         }
 
         @Override
-        void increment() {
+        public UUID apply(Instant instant) {
 
-            // add 2^48 to rand_b
-            this.lsb = (this.lsb & upper16Bits);
-            this.lsb = (this.lsb | variantBits) + (1L << 48);
+            if (instant != null) {
+                // The user provided the time.
+                final UUID uuid = function.reset(instant.toEpochMilli());
+                this.last.set(uuid);
+                return uuid;
+            }
 
-            if (this.lsb == overflow) {
-                // add 1 to rand_a if rand_b overflows
-                this.msb = (this.msb | versionBits) + 1L;
+            while (true) {
+                final UUID previous = this.last.get();
+                final UUID next = function.next(previous, function.timeFunction.getAsLong());
+                if (this.last.compareAndSet(previous, next)) {
+                    return next;
+                }
+            }
+        }
+
+        @Override
+        public void fill(long[] msbs, long[] lsbs) {
+            while (true) {
+                final UUID previous = this.last.get();
+                final UUID next = function.next(previous, function.timeFunction.getAsLong(), msbs, lsbs);
+                if (this.last.compareAndSet(previous, next)) {
+                    // no random bits are wasted on failed attempts
+                    function.randomize(lsbs, 1, lsbs.length);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Striped variant: a lock-free state per stripe, chosen by the thread id.
+     * <p>
+     * The stripe number is kept in the lowest bits of `rand_a` of each state and
+     * preserved by the counter and by the reset, so the stripes never produce
+     * the same UUID.
+     */
+    static final class StripedFunction implements BlockFunction {
+
+        // states of two stripes are 16 references apart, so that they do not share a cache line
+        private static final int PADDING_SHIFT = 4;
+
+        private final UuidFunction function;
+        private final int mask;
+        private final AtomicReferenceArray<UUID> states;
+
+        StripedFunction(UuidFunction function, int stripes) {
+            this.function = function;
+            this.mask = stripes - 1;
+            this.states = new AtomicReferenceArray<>(stripes << PADDING_SHIFT);
+            final long time = function.timeFunction.getAsLong();
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                this.states.set(stripe << PADDING_SHIFT, function.reset(time, stripe));
+            }
+        }
+
+        @Override
+        public UUID apply(Instant instant) {
+
+            final int stripe = this.stripe();
+            final int slot = stripe << PADDING_SHIFT;
+
+            if (instant != null) {
+                // The user provided the time.
+                final UUID uuid = function.reset(instant.toEpochMilli(), stripe);
+                this.states.set(slot, uuid);
+                return uuid;
             }
 
+            while (true) {
+                final UUID previous = this.states.get(slot);
+                final UUID next = function.next(previous, function.timeFunction.getAsLong());
+                if (this.states.compareAndSet(slot, previous, next)) {
+                    return next;
+                }
+            }
+        }
+
+        @Override
+        public void fill(long[] msbs, long[] lsbs) {
+            final int slot = this.stripe() << PADDING_SHIFT;
+            while (true) {
+                final UUID previous = this.states.get(slot);
+                final UUID next = function.next(previous, function.timeFunction.getAsLong(), msbs, lsbs);
+                if (this.states.compareAndSet(slot, previous, next)) {
+                    function.randomize(lsbs, 1, lsbs.length);
+                    return;
+                }
+            }
+        }
+
+        private int stripe() {
+            // thread ids are assigned sequentially, so threads are spread evenly over the stripes
+            return (int) Thread.currentThread().threadId() & mask;
+        }
+    }
+
+    static final class DefaultFunction extends UuidFunction {
+
+        public DefaultFunction(IRandom random, LongSupplier timeFunction, int stripeBits) {
+            super(random, timeFunction, stripeBits);
+        }
+
+        @Override
+        long increment(long lsb) {
+            // add 2^48 to rand_b
+            return ((lsb & upper16Bits) | variantBits) + (1L << 48);
+        }
+
+        @Override
+        long randomize(long lsb) {
             // then randomize the lower 48 bits
             if (random instanceof SafeRandom) {
                 final byte[] bytes = random.nextBytes(6);
-                this.lsb |= ByteUtil.toNumber(bytes);
+                return lsb | ByteUtil.toNumber(bytes);
+            } else {
+                return lsb | (this.random.nextLong() & (~upper16Bits));
+            }
+        }
+
+        @Override
+        void randomize(long[] lsbs, int from, int to) {
+            if (random instanceof SafeRandom && to > from) {
+                // one call to the secure random for the whole block
+                final byte[] bytes = random.nextBytes(6 * (to - from));
+                for (int i = from, offset = 0; i < to; i++, offset += 6) {
+                    lsbs[i] |= ByteUtil.toNumber(bytes, offset, offset + 6);
+                }
             } else {
-                this.lsb |= this.random.nextLong() & (~upper16Bits);
+                super.randomize(lsbs, from, to);
             }
         }
     }
 
     static final class Plus1Function extends UuidFunction {
 
-        public Plus1Function(IRandom random, LongSupplier timeFunction) {
-            super(random, timeFunction);
+        public Plus1Function(IRandom random, LongSupplier timeFunction, int stripeBits) {
+            super(random, timeFunction, stripeBits);
         }
 
         @Override
-        void increment() {
-
+        long increment(long lsb) {
             // just add 1 to rand_b
-            this.lsb = (this.lsb | variantBits) + 1L;
-
-            if (this.lsb == overflow) {
-                // add 1 to rand_a if rand_b overflows
-                this.msb = (this.msb | versionBits) + 1L;
-            }
+            return (lsb | variantBits) + 1L;
         }
     }
 
@@ -319,21 +701,15 @@ public final class TimeOrderedEpochFactory extends AbstRandomBasedFactory {
 
         private final LongSupplier plusNFunction;
 
-        public PlusNFunction(IRandom random, LongSupplier timeFunction, Long incrementMax) {
-            super(random, timeFunction);
+        public PlusNFunction(IRandom random, LongSupplier timeFunction, int stripeBits, Long incrementMax) {
+            super(random, timeFunction, stripeBits);
             this.plusNFunction = customPlusNFunction(random, incrementMax);
         }
 
         @Override
-        void increment() {
-
+        long increment(long lsb) {
             // add a random n to rand_b, where 1 <= n <= incrementMax
-            this.lsb = (this.lsb | variantBits) + plusNFunction.getAsLong();
-
-            if (this.lsb == overflow) {
-                // add 1 to rand_a if rand_b overflows
-                this.msb = (this.msb | versionBits) + 1L;
-            }
+            return (lsb | variantBits) + plusNFunction.getAsLong();
         }
 
         private LongSupplier customPlusNFunction(IRandom random, Long incrementMax) {
@@ -0,0 +1,256 @@
+package io.geewit.utils.core.uuid.util;
+
+import io.geewit.utils.core.uuid.util.internal.ByteUtil;
+import io.geewit.utils.core.uuid.util.internal.RandomUtil;
+
+import java.security.SecureRandom;
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pool of random numbers prefilled from {@link SecureRandom} in the background.
+ * <p>
+ * The pool has a number of slots, a power of two that depends on the number of
+ * processors, from 4 to 32. A thread always takes its numbers from the same
+ * slot, chosen by a hash of the thread ID, so sequential IDs of virtual threads
+ * are spread evenly over the slots.
+ * <p>
+ * Each slot is double-buffered: the active buffer hands out numbers with an
+ * atomic cursor, while the standby buffer is filled by a dedicated producer
+ * thread. When the active buffer runs out, the thread that swaps in the
+ * standby buffer raises the slot's refill flag and unparks the producer. Taking
+ * a number from a buffer, swapping the buffers and requesting a refill never
+ * lock nor allocate; all the allocation and the {@link SecureRandom} calls are
+ * done by the producer.
+ * <p>
+ * The producer fills a new array each time instead of refilling the exhausted
+ * one, so a number is never handed out twice, even to a thread that was
+ * preempted while holding an index of an old buffer.
+ * <p>
+ * If the producer falls behind, the numbers are taken directly from a
+ * {@link SecureRandom} of the slot until the standby buffer is ready. It is
+ * created the first time the slot needs it. Only the
+ * threads of the same slot share it, but a {@link SecureRandom} may synchronize
+ * internally, so this fallback is not guaranteed to be lock-free.
+ * <p>
+ * The PRNG algorithm is the same as the one of the default secure random of
+ * the UUID factories.
+ */
+public final class EntropyPool implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 256;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final Thread producer;
+
+    /**
+     * Constructor with the default sizes and a daemon producer thread.
+     */
+    public EntropyPool() {
+        this(slots(), BUFFER_SIZE, runnable -> {
+            final Thread thread = new Thread(runnable, "uuid-entropy-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Constructor with the sizes and the factory of the producer thread.
+     * <p>
+     * The standby buffers are filled before the constructor returns, and the
+     * producer thread is started.
+     *
+     * @param slots         the number of slots, a power of two
+     * @param bufferSize    the number of longs of each buffer
+     * @param threadFactory the factory of the producer thread
+     * @throws IllegalArgumentException if a size is invalid
+     */
+    public EntropyPool(int slots, int bufferSize, ThreadFactory threadFactory) {
+        if (slots < 1 || Integer.bitCount(slots) != 1) {
+            throw new IllegalArgumentException("Slots must be a power of two: " + slots);
+        }
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Invalid buffer size: " + bufferSize);
+        }
+        this.mask = slots - 1;
+        this.slots = new Slot[slots];
+        final SecureRandom random = RandomUtil.newSecureRandom();
+        for (int i = 0; i < slots; i++) {
+            this.slots[i] = new Slot();
+            this.slots[i].standby.set(new Buffer(newValues(random, bufferSize)));
+        }
+        this.producer = Objects.requireNonNull(threadFactory.newThread(new Producer(this.slots, random, bufferSize)),
+                "Null producer thread");
+        this.producer.start();
+    }
+
+    /**
+     * Returns the shared instance, created on first use.
+     * <p>
+     * The shared instance is never closed.
+     *
+     * @return the shared pool
+     */
+    public static EntropyPool shared() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Returns a random number.
+     *
+     * @return a number
+     */
+    public long nextLong() {
+        final Slot slot = this.slots[index()];
+        while (true) {
+            final Buffer active = slot.active.get();
+            final long cursor = active.cursor.getAndIncrement();
+            if (cursor < active.values.length) {
+                return active.values[(int) cursor];
+            }
+            final Buffer standby = slot.standby.getAndSet(null);
+            if (standby == null) {
+                // the producer is behind
+                return slot.fallback().nextLong();
+            }
+            if (slot.active.compareAndSet(active, standby)) {
+                slot.refill.set(true);
+                LockSupport.unpark(this.producer);
+            } else {
+                // another thread already swapped the buffers, give the standby back
+                slot.standby.set(standby);
+            }
+        }
+    }
+
+    /**
+     * Fills an array with random bytes.
+     *
+     * @param bytes the array
+     */
+    public void nextBytes(byte[] bytes) {
+        int shift = 0;
+        long random = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (shift < Byte.SIZE) {
+                shift = Long.SIZE;
+                random = this.nextLong();
+            }
+            shift -= Byte.SIZE; // 56, 48, 40...
+            bytes[i] = (byte) (random >>> shift);
+        }
+    }
+
+    /**
+     * Stops the producer thread.
+     * <p>
+     * The pool can still be used after it is closed: once the buffers run out,
+     * all the numbers are taken from the fallback of each slot.
+     */
+    @Override
+    public void close() {
+        this.producer.interrupt();
+    }
+
+    private int index() {
+        // spread sequential thread IDs over the slots
+        final long id = Thread.currentThread().threadId() * 0x9e3779b97f4a7c15L;
+        return (int) (id >>> 32) & this.mask;
+    }
+
+    private static long[] newValues(SecureRandom random, int size) {
+        final byte[] bytes = new byte[size * Long.BYTES];
+        random.nextBytes(bytes);
+        final long[] values = new long[size];
+        for (int i = 0, offset = 0; i < values.length; i++, offset += Long.BYTES) {
+            values[i] = ByteUtil.toNumber(bytes, offset, offset + Long.BYTES);
+        }
+        return values;
+    }
+
+    private static int slots() {
+        final int min = 4;
+        final int max = 32;
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final int slots = Integer.highestOneBit(Math.max(processors, 1) * 2 - 1);
+        return Math.min(Math.max(slots, min), max);
+    }
+
+    /**
+     * Fills the standby buffers of the slots whose refill flag is raised, and
+     * parks when there is none.
+     * <p>
+     * It does not reference the pool, so the slots are the only shared state.
+     */
+    private static final class Producer implements Runnable {
+
+        private final Slot[] slots;
+        private final SecureRandom random;
+        private final int bufferSize;
+
+        private Producer(Slot[] slots, SecureRandom random, int bufferSize) {
+            this.slots = slots;
+            this.random = random;
+            this.bufferSize = bufferSize;
+        }
+
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                boolean filled = false;
+                for (Slot slot : this.slots) {
+                    if (slot.refill.getAndSet(false)) {
+                        slot.standby.set(new Buffer(newValues(this.random, this.bufferSize)));
+                        filled = true;
+                    }
+                }
+                if (!filled) {
+                    // an unpark between the scan and the park is not lost: park returns at once
+                    LockSupport.park(this);
+                }
+            }
+        }
+    }
+
+    private static final class Slot {
+
+        private final AtomicReference<Buffer> active = new AtomicReference<>(new Buffer(new long[0]));
+        private final AtomicReference<Buffer> standby = new AtomicReference<>();
+        // raised when the standby buffer was taken, cleared by the producer
+        private final AtomicBoolean refill = new AtomicBoolean();
+        // used only while the producer is behind, so created on first use
+        private final AtomicReference<SecureRandom> fallback = new AtomicReference<>();
+
+        private SecureRandom fallback() {
+            final SecureRandom random = this.fallback.get();
+            if (random != null) {
+                return random;
+            }
+            // two threads may both create one, only the first is kept
+            final SecureRandom created = RandomUtil.newSecureRandom();
+            final SecureRandom witness = this.fallback.compareAndExchange(null, created);
+            return witness == null ? created : witness;
+        }
+    }
+
+    private static final class Buffer {
+
+        private final long[] values;
+        // a long never wraps around, however long a buffer stays exhausted
+        private final AtomicLong cursor = new AtomicLong();
+
+        private Buffer(long[] values) {
+            this.values = values;
+        }
+    }
+
+    private static final class Holder {
+
+        private static final EntropyPool INSTANCE = new EntropyPool();
+    }
+}
@@ -1,7 +1,10 @@
 package io.geewit.utils.core.uuid;
 
+import io.geewit.utils.core.uuid.codec.StandardStringCodec;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 public class UUIDTest {
 
     @Test
@@ -13,7 +16,10 @@ public class UUIDTest {
 
     @Test
     public void fromUUID() {
-        UUID uuid = UUID.fromString("9084a02bf5b84af9928a4661c2ca7a0d");
+        // fromString 只解析 36 进制字符串, 16 进制字符串由 StandardStringCodec 解析
+        UUID uuid = StandardStringCodec.INSTANCE.decode("9084a02bf5b84af9928a4661c2ca7a0d");
         System.out.println(uuid.toString());
+        assertEquals(uuid, UUID.fromString(uuid.toString()));
+        assertThrows(IllegalArgumentException.class, () -> UUID.fromString("9084a02bf5b84af9928a4661c2ca7a0d"));
     }
 }
@@ -0,0 +1,82 @@
+package io.geewit.utils.core.uuid.codec;
+
+import io.geewit.utils.core.uuid.UUID;
+import io.geewit.utils.core.uuid.exception.InvalidUuidException;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryCodecTest {
+
+    private static final BinaryCodec CODEC = BinaryCodec.INSTANCE;
+    private static final UUID UUID = new UUID(0x0011223344556677L, 0x8899aabbccddeeffL);
+    private static final byte[] BYTES = {
+            0x00, 0x11, 0x22, 0x33, 0x44, 0x55, 0x66, 0x77,
+            (byte) 0x88, (byte) 0x99, (byte) 0xaa, (byte) 0xbb, (byte) 0xcc, (byte) 0xdd, (byte) 0xee, (byte) 0xff,
+    };
+
+    @Test
+    void testByteOrder() {
+        assertArrayEquals(BYTES, CODEC.encode(UUID));
+        assertEquals(UUID, CODEC.decode(BYTES));
+
+        byte[] bytes = new byte[20];
+        assertEquals(18, CODEC.encode(UUID, bytes, 2));
+        assertEquals(UUID, CODEC.decode(bytes, 2));
+
+        // the buffer order does not change the bytes
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            ByteBuffer buffer = ByteBuffer.allocate(40).order(order).position(3);
+            CODEC.write(new UUID[]{UUID, UUID}, buffer);
+            assertEquals(35, buffer.position());
+            byte[] written = new byte[16];
+            buffer.get(19, written);
+            assertArrayEquals(BYTES, written);
+            assertArrayEquals(new UUID[]{UUID, UUID}, CODEC.read(buffer.position(3), 2));
+            assertEquals(35, buffer.position());
+        }
+
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment segment = arena.allocate(40);
+            assertEquals(37, CODEC.write(new UUID[]{UUID, UUID}, segment, 5));
+            assertArrayEquals(BYTES, segment.asSlice(21, 16).toArray(ValueLayout.JAVA_BYTE));
+            assertEquals(21, CODEC.write(new long[]{UUID.getMostSignificantBits()},
+                    new long[]{UUID.getLeastSignificantBits()}, segment, 5));
+            assertArrayEquals(new UUID[]{UUID, UUID}, CODEC.read(segment, 5, 2));
+        }
+    }
+
+    @Test
+    void testBounds() {
+        assertThrows(IndexOutOfBoundsException.class, () -> CODEC.encode(UUID, new byte[16], 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> CODEC.encode(UUID, new byte[16], -1));
+        assertThrows(IndexOutOfBoundsException.class, () -> CODEC.decode(new byte[20], 5));
+        assertThrows(InvalidUuidException.class, () -> CODEC.decode(new byte[15]));
+        assertThrows(InvalidUuidException.class, () -> CODEC.encode(null));
+
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        assertThrows(BufferOverflowException.class, () -> CODEC.write(new UUID[]{UUID, UUID, UUID}, buffer));
+        assertThrows(BufferUnderflowException.class, () -> CODEC.read(buffer, 3));
+        // a null UUID after a valid one
+        assertThrows(InvalidUuidException.class, () -> CODEC.write(new UUID[]{UUID, null}, buffer));
+        assertEquals(0, buffer.position());
+        assertArrayEquals(new byte[32], buffer.array());
+
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment segment = arena.allocate(32);
+            assertThrows(IndexOutOfBoundsException.class, () -> CODEC.write(new UUID[]{UUID, UUID}, segment, 1));
+            assertThrows(IndexOutOfBoundsException.class, () -> CODEC.read(segment, 17, 1));
+            assertThrows(IllegalArgumentException.class, () -> CODEC.write(new long[1], new long[2], segment, 0));
+            assertThrows(InvalidUuidException.class, () -> CODEC.write(new UUID[]{UUID, null}, segment, 0));
+            assertArrayEquals(new byte[32], segment.toArray(ValueLayout.JAVA_BYTE));
+        }
+    }
+}
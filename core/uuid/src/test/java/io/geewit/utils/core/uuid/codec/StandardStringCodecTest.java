@@ -0,0 +1,115 @@
+package io.geewit.utils.core.uuid.codec;
+
+import io.geewit.utils.core.uuid.UUID;
+import io.geewit.utils.core.uuid.exception.InvalidUuidException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StandardStringCodecTest {
+
+    private static final StandardStringCodec CODEC = StandardStringCodec.INSTANCE;
+    private static final String STRING = "01234567-89ab-cdef-0123-456789abcdef";
+    private static final UUID UUID = new UUID(0x0123456789abcdefL, 0x0123456789abcdefL);
+
+    @Test
+    void testEncodeIntoBuffers() {
+        assertEquals(STRING, CODEC.encode(UUID));
+
+        byte[] bytes = new byte[40];
+        assertEquals(38, CODEC.encode(UUID, bytes, 2));
+        assertEquals(STRING, new String(bytes, 2, 36, StandardCharsets.US_ASCII));
+        assertEquals(0, bytes[1]);
+        assertEquals(0, bytes[38]);
+
+        char[] chars = new char[37];
+        assertEquals(37, CODEC.encode(UUID, chars, 1));
+        assertEquals(STRING, new String(chars, 1, 36));
+
+        ByteBuffer heap = ByteBuffer.allocate(40).position(4);
+        CODEC.encode(UUID, heap);
+        assertEquals(40, heap.position());
+        assertEquals(STRING, new String(heap.array(), 4, 36, StandardCharsets.US_ASCII));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(36);
+        CODEC.encode(UUID, direct);
+        assertFalse(direct.hasRemaining());
+        byte[] copy = new byte[36];
+        direct.flip().get(copy);
+        assertEquals(STRING, new String(copy, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testEncodeOutOfBounds() {
+        assertThrows(IndexOutOfBoundsException.class, () -> CODEC.encode(UUID, new byte[36], 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> CODEC.encode(UUID, new char[35], 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> CODEC.encode(UUID, new byte[40], -1));
+        ByteBuffer buffer = ByteBuffer.allocate(40).position(5);
+        assertThrows(BufferOverflowException.class, () -> CODEC.encode(UUID, buffer));
+        assertEquals(5, buffer.position());
+        assertThrows(InvalidUuidException.class, () -> CODEC.encode(null, new byte[36], 0));
+    }
+
+    @Test
+    void testDecodeRanges() {
+        String line = "id," + STRING + ",{" + STRING + "},urn:uuid:" + STRING + "," + STRING.replace("-", "");
+        byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+        int[][] ranges = {{3, 36}, {40, 38}, {79, 45}, {125, 32}};
+        for (int[] range : ranges) {
+            assertEquals(UUID, CODEC.decode(line, range[0], range[1]));
+            assertEquals(UUID, CODEC.decode(new StringBuilder(line), range[0], range[1]));
+            assertEquals(UUID, CODEC.decode(bytes, range[0], range[1]));
+        }
+        assertEquals(UUID, CODEC.decode(STRING.toUpperCase()));
+    }
+
+    @Test
+    void testDecodeInvalid() {
+        String line = "id," + STRING + ",";
+        byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+        // the range misses the first char
+        assertThrows(InvalidUuidException.class, () -> CODEC.decode(line, 4, 36));
+        assertThrows(InvalidUuidException.class, () -> CODEC.decode(bytes, 4, 36));
+        assertThrows(InvalidUuidException.class, () -> CODEC.decode(line, 3, 35));
+        assertThrows(IndexOutOfBoundsException.class, () -> CODEC.decode(line, 10, 36));
+        assertThrows(IndexOutOfBoundsException.class, () -> CODEC.decode(bytes, -1, 36));
+        assertThrows(InvalidUuidException.class, () -> CODEC.decode((CharSequence) null, 0, 36));
+        assertThrows(InvalidUuidException.class, () -> CODEC.decode((byte[]) null, 0, 36));
+
+        String[] invalid = {
+                "01234567-89ab-cdef-0123-456789abcdeg",
+                "01234567-89ab-cdef-0123_456789abcdef",
+                "01234567-89ab-cdef-0123-456789abcdeİ",
+                "{01234567-89ab-cdef-0123-456789abcdef]",
+                "urn:uuie:01234567-89ab-cdef-0123-456789abcdef",
+                "0123456789abcdef0123456789abcdeg",
+        };
+        for (String string : invalid) {
+            assertThrows(InvalidUuidException.class, () -> CODEC.decode(string, 0, string.length()), string);
+            byte[] ascii = string.getBytes(StandardCharsets.ISO_8859_1);
+            assertThrows(InvalidUuidException.class, () -> CODEC.decode(ascii, 0, ascii.length), string);
+        }
+    }
+
+    @Test
+    void testRoundTrip() {
+        SplittableRandom random = new SplittableRandom(42);
+        byte[] bytes = new byte[36];
+        char[] chars = new char[36];
+        for (int i = 0; i < 10_000; i++) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            String string = CODEC.encode(uuid);
+            CODEC.encode(uuid, bytes, 0);
+            CODEC.encode(uuid, chars, 0);
+            assertEquals(string, new String(bytes, StandardCharsets.US_ASCII));
+            assertEquals(string, new String(chars));
+            assertEquals(uuid, CODEC.decode(bytes, 0, 36));
+            assertEquals(uuid, CODEC.decode(string, 0, 36));
+        }
+    }
+}
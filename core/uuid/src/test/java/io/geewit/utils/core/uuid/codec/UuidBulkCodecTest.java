@@ -0,0 +1,149 @@
+package io.geewit.utils.core.uuid.codec;
+
+import io.geewit.utils.core.uuid.UUID;
+import io.geewit.utils.core.uuid.exception.InvalidUuidException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UuidBulkCodecTest {
+
+    private static final UuidBulkCodec CODEC = UuidBulkCodec.INSTANCE;
+
+    @Test
+    void testDecodeAll() {
+        SplittableRandom random = new SplittableRandom(42);
+        int n = 1000;
+        UUID[] uuids = new UUID[n];
+        CharSequence[] strings = new CharSequence[n];
+        byte[][] arrays = new byte[n][];
+        StringBuilder csv = new StringBuilder();
+        int[] offsets = new int[n];
+        for (int i = 0; i < n; i++) {
+            uuids[i] = new UUID(random.nextLong(), random.nextLong());
+            String string = StandardStringCodec.INSTANCE.encode(uuids[i]);
+            // mixed case, and a few of the other forms
+            strings[i] = switch (i % 4) {
+                case 0 -> string.toUpperCase();
+                case 1 -> new StringBuilder(string);
+                case 2 -> i % 8 == 2 ? "{" + string + "}" : string.replace("-", "");
+                default -> string;
+            };
+            arrays[i] = (i % 2 == 0 ? string.toUpperCase() : string).getBytes(StandardCharsets.US_ASCII);
+            csv.append(i).append(',');
+            offsets[i] = csv.length();
+            csv.append(string).append('\n');
+        }
+        byte[] data = csv.toString().getBytes(StandardCharsets.US_ASCII);
+
+        long[] fromStrings = new long[2 * n];
+        long[] fromArrays = new long[2 * n];
+        long[] fromData = new long[2 * n + 2];
+        CODEC.decodeAll(strings, fromStrings);
+        CODEC.decodeAll(arrays, fromArrays);
+        CODEC.decodeAll(data, offsets, fromData);
+        for (int i = 0; i < n; i++) {
+            assertEquals(uuids[i].getMostSignificantBits(), fromStrings[2 * i]);
+            assertEquals(uuids[i].getLeastSignificantBits(), fromStrings[2 * i + 1]);
+            assertEquals(fromStrings[2 * i], fromArrays[2 * i]);
+            assertEquals(fromStrings[2 * i + 1], fromArrays[2 * i + 1]);
+            assertEquals(fromStrings[2 * i], fromData[2 * i]);
+            assertEquals(fromStrings[2 * i + 1], fromData[2 * i + 1]);
+        }
+    }
+
+    @Test
+    void testDecodeAllInvalid() {
+        String valid = "01234567-89ab-cdef-0123-456789abcdef";
+        String[] invalid = {
+                "01234567-89ab-cdef-0123-456789abcdeg",
+                "01234567-89ab-cdef-0123-456789abcde/",
+                "01234567-89ab-cdef-0123-456789abcde:",
+                "01234567-89ab-cdef-0123-456789abcde@",
+                "01234567-89ab-cdef-0123-456789abcde`",
+                "01234567-89ab-cdef-0123-456789abcdeG",
+                "01234567-89ab-cdef-0123-456789abcdeá",
+                "01234567-89ab-cdef-0123-456789abcdeİ",
+                "01234567+89ab-cdef-0123-456789abcdef",
+                "01234567-89ab-cdef-0123-456789abcdef0",
+                "",
+                null,
+        };
+        for (String string : invalid) {
+            CharSequence[] strings = {valid, valid, string};
+            InvalidUuidException e = assertThrows(InvalidUuidException.class, () -> CODEC.decodeAll(strings, new long[6]));
+            assertTrue(e.getMessage().contains("index 2"), e.getMessage());
+
+            if (string != null && string.length() == 36) {
+                byte[] bytes = string.getBytes(StandardCharsets.ISO_8859_1);
+                byte[][] arrays = {valid.getBytes(StandardCharsets.US_ASCII), bytes};
+                e = assertThrows(InvalidUuidException.class, () -> CODEC.decodeAll(arrays, new long[4]));
+                assertTrue(e.getMessage().contains("index 1"), e.getMessage());
+
+                byte[] data = (valid + "," + new String(bytes, StandardCharsets.ISO_8859_1)).getBytes(StandardCharsets.ISO_8859_1);
+                e = assertThrows(InvalidUuidException.class, () -> CODEC.decodeAll(data, new int[]{0, 37}, new long[4]));
+                assertTrue(e.getMessage().contains("index 1"), e.getMessage());
+            }
+        }
+        assertThrows(InvalidUuidException.class, () -> CODEC.decodeAll(new byte[][]{null}, new long[2]));
+        assertThrows(InvalidUuidException.class,
+                () -> CODEC.decodeAll(new byte[][]{valid.substring(1).getBytes(StandardCharsets.US_ASCII)}, new long[2]));
+    }
+
+    @Test
+    void testDecodeAllOutOfBounds() {
+        String valid = "01234567-89ab-cdef-0123-456789abcdef";
+        byte[] data = valid.getBytes(StandardCharsets.US_ASCII);
+        assertThrows(IndexOutOfBoundsException.class, () -> CODEC.decodeAll(new CharSequence[]{valid, valid}, new long[3]));
+        assertThrows(IndexOutOfBoundsException.class, () -> CODEC.decodeAll(new byte[][]{data}, new long[1]));
+        assertThrows(IndexOutOfBoundsException.class, () -> CODEC.decodeAll(data, new int[]{1}, new long[2]));
+        assertThrows(IndexOutOfBoundsException.class, () -> CODEC.decodeAll(data, new int[]{-1}, new long[2]));
+        assertThrows(IndexOutOfBoundsException.class, () -> CODEC.validateAll(data, new int[]{0, 1}, new boolean[2]));
+        assertThrows(IndexOutOfBoundsException.class, () -> CODEC.validateAll(new CharSequence[2], new boolean[1]));
+    }
+
+    @Test
+    void testValidateAll() {
+        String valid = "01234567-89ab-cdef-0123-456789ABCDEF";
+        CharSequence[] strings = {
+                valid,
+                null,
+                "01234567-89ab-cdef-0123-456789abcdeg",
+                "0123456789abcdef0123456789abcdef",
+                "urn:uuid:" + valid,
+                "01234567-89ab-cdef-0123-456789abcdef ",
+        };
+        boolean[] result = new boolean[strings.length];
+        assertEquals(3, CODEC.validateAll(strings, result));
+        assertArrayEquals(new boolean[]{true, false, false, true, true, false}, result);
+
+        byte[] data = (valid + ";01234567-89ab-cdef-0123-456789abcdeg;" + valid.toLowerCase())
+                .getBytes(StandardCharsets.US_ASCII);
+        result = new boolean[3];
+        assertEquals(2, CODEC.validateAll(data, new int[]{0, 37, 74}, result));
+        assertArrayEquals(new boolean[]{true, false, true}, result);
+    }
+
+    @Test
+    void testHexWord() {
+        assertEquals(0x0123abcdL, UuidBulkCodec.hex(word("0123abcd")));
+        assertEquals(0x89ABCDEFL, UuidBulkCodec.hex(word("89ABCDEF")));
+        assertEquals(0xffffffffL, UuidBulkCodec.hex(word("ffffffff")));
+        for (char c = 0; c < 0x100; c++) {
+            boolean digit = (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+            long word = word("0000000" + c);
+            assertEquals(digit, UuidBulkCodec.hex(word) >= 0, "char " + (int) c);
+        }
+    }
+
+    private static long word(String chars) {
+        long word = 0;
+        for (int i = 0; i < 8; i++) {
+            word = (word << 8) | (chars.charAt(i) & 0xff);
+        }
+        return word;
+    }
+}
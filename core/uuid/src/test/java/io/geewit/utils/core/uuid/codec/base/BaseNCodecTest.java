@@ -0,0 +1,87 @@
+package io.geewit.utils.core.uuid.codec.base;
+
+import io.geewit.utils.core.uuid.UUID;
+import io.geewit.utils.core.uuid.exception.InvalidUuidException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BaseNCodecTest {
+
+    private static final UUID MIN = new UUID(0L, 0L);
+    private static final UUID MAX = new UUID(-1L, -1L);
+
+    @Test
+    void testRoundTrip() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (BaseNCodec codec : List.of(Base32CrockfordCodec.INSTANCE, Base58BtcCodec.INSTANCE, Base62Codec.INSTANCE)) {
+            assertEquals(MIN, codec.decode(codec.encode(MIN)));
+            assertEquals(MAX, codec.decode(codec.encode(MAX)));
+            for (int i = 0; i < 10_000; i++) {
+                UUID uuid = new UUID(random.nextLong(), random.nextLong());
+                String encoded = codec.encode(uuid);
+                assertEquals(codec.encode(MIN).length(), encoded.length());
+                assertEquals(uuid, codec.decode(encoded));
+            }
+        }
+    }
+
+    @Test
+    void testKnownValues() {
+        assertEquals("00000000000000000000000000", Base32CrockfordCodec.INSTANCE.encode(MIN));
+        assertEquals("7zzzzzzzzzzzzzzzzzzzzzzzzz", Base32CrockfordCodec.INSTANCE.encode(MAX));
+        assertEquals("1111111111111111111111", Base58BtcCodec.INSTANCE.encode(MIN));
+        assertEquals("0000000000000000000000", Base62Codec.INSTANCE.encode(MIN));
+        assertEquals("7n42DGM5Tflk9n8mt7Fhc7", Base62Codec.INSTANCE.encode(MAX));
+    }
+
+    @Test
+    void testCrockfordSortsLikeUuids() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 10_000; i++) {
+            UUID a = new UUID(random.nextLong(), random.nextLong());
+            UUID b = new UUID(random.nextLong(), random.nextLong());
+            int expected = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+            if (expected == 0) {
+                expected = Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+            }
+            int actual = Base32CrockfordCodec.INSTANCE.encode(a).compareTo(Base32CrockfordCodec.INSTANCE.encode(b));
+            assertEquals(Integer.signum(expected), Integer.signum(actual));
+        }
+    }
+
+    @Test
+    void testCrockfordAliases() {
+        UUID uuid = Base32CrockfordCodec.INSTANCE.decode("01arz3ndektsv4rrffq69g5fav");
+        assertEquals(uuid, Base32CrockfordCodec.INSTANCE.decode("01ARZ3NDEKTSV4RRFFQ69G5FAV"));
+        assertEquals(uuid, Base32CrockfordCodec.INSTANCE.decode("o1arz3ndektsv4rrffq69g5fav"));
+        assertEquals(uuid, Base32CrockfordCodec.INSTANCE.decode("OIarz3ndektsv4rrffq69g5fav"));
+        assertEquals(uuid, Base32CrockfordCodec.INSTANCE.decode("0larz3ndektsv4rrffq69g5fav"));
+        assertEquals(uuid, Base32CrockfordCodec.INSTANCE.decode("0Larz3ndektsv4rrffq69g5fav"));
+        assertEquals("01arz3ndektsv4rrffq69g5fav", Base32CrockfordCodec.INSTANCE.encode(uuid));
+    }
+
+    @Test
+    void testInvalid() {
+        // wrong length
+        assertThrows(InvalidUuidException.class, () -> Base32CrockfordCodec.INSTANCE.decode("0000000000000000000000000"));
+        assertThrows(InvalidUuidException.class, () -> Base58BtcCodec.INSTANCE.decode("11111111111111111111111"));
+        assertThrows(InvalidUuidException.class, () -> Base62Codec.INSTANCE.decode(""));
+        assertThrows(InvalidUuidException.class, () -> Base62Codec.INSTANCE.decode(null));
+        // chars out of the alphabet
+        assertThrows(InvalidUuidException.class, () -> Base32CrockfordCodec.INSTANCE.decode("0000000000000000000000000u"));
+        assertThrows(InvalidUuidException.class, () -> Base32CrockfordCodec.INSTANCE.decode("000000000000000000000000é0"));
+        assertThrows(InvalidUuidException.class, () -> Base58BtcCodec.INSTANCE.decode("111111111111111111111O"));
+        assertThrows(InvalidUuidException.class, () -> Base58BtcCodec.INSTANCE.decode("1111111111111111111110"));
+        assertThrows(InvalidUuidException.class, () -> Base62Codec.INSTANCE.decode("000000000000000000000-"));
+        assertThrows(InvalidUuidException.class, () -> Base62Codec.INSTANCE.decode("000000000000000000000一"));
+        // more than 128 bits
+        assertThrows(InvalidUuidException.class, () -> Base32CrockfordCodec.INSTANCE.decode("8zzzzzzzzzzzzzzzzzzzzzzzzz"));
+        assertThrows(InvalidUuidException.class, () -> Base58BtcCodec.INSTANCE.decode("zzzzzzzzzzzzzzzzzzzzzz"));
+        assertThrows(InvalidUuidException.class, () -> Base62Codec.INSTANCE.decode("7n42DGM5Tflk9n8mt7Fhc8"));
+        assertThrows(InvalidUuidException.class, () -> Base62Codec.INSTANCE.decode("zzzzzzzzzzzzzzzzzzzzzz"));
+    }
+}
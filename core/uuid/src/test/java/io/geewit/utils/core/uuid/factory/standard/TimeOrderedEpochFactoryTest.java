@@ -0,0 +1,151 @@
+package io.geewit.utils.core.uuid.factory.standard;
+
+import io.geewit.utils.core.uuid.UUID;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeOrderedEpochFactoryTest {
+
+    private static final int THREADS = 16;
+    private static final int PER_THREAD = 10_000;
+
+    @Test
+    void testLockedUniqueAndMonotonic() throws InterruptedException {
+        assertUniqueAndMonotonic(TimeOrderedEpochFactory.builder().withFastRandom().build());
+    }
+
+    @Test
+    void testLockFreeUniqueAndMonotonic() throws InterruptedException {
+        assertUniqueAndMonotonic(TimeOrderedEpochFactory.builder().withLockFree().build());
+    }
+
+    @Test
+    void testStripedUniqueAndMonotonic() throws InterruptedException {
+        assertUniqueAndMonotonic(TimeOrderedEpochFactory.builder().withStripes(4).build());
+        assertUniqueAndMonotonic(TimeOrderedEpochFactory.builder().withStripes(256).withIncrementPlus1().build());
+    }
+
+    @Test
+    void testStripeBitsSurviveCarry() {
+        // the default increment adds 2^48 to rand_b, so its upper 14 bits overflow within 16384 UUIDs
+        TimeOrderedEpochFactory factory = TimeOrderedEpochFactory.builder().withStripes(256).build();
+        long[] msbs = new long[40_000];
+        long[] lsbs = new long[msbs.length];
+        factory.fill(msbs, lsbs);
+
+        long stripe = msbs[0] & 0xff;
+        int carries = 0;
+        for (int i = 0; i < msbs.length; i++) {
+            assertEquals(stripe, msbs[i] & 0xff, "stripe bits at " + i);
+            assertVersionAndVariant(msbs[i], lsbs[i]);
+            if (i > 0) {
+                assertTrue(compare(msbs[i - 1], lsbs[i - 1], msbs[i], lsbs[i]) < 0, "not increasing at " + i);
+                if (msbs[i] != msbs[i - 1]) {
+                    carries++;
+                }
+            }
+        }
+        assertTrue(carries > 0);
+
+        // the next UUID of the same thread stays on the stripe and after the block
+        UUID next = factory.create();
+        assertEquals(stripe, next.getMostSignificantBits() & 0xff);
+        int last = msbs.length - 1;
+        assertTrue(compare(msbs[last], lsbs[last], next.getMostSignificantBits(), next.getLeastSignificantBits()) < 0);
+    }
+
+    @Test
+    void testFillBlockBoundaries() {
+        List<TimeOrderedEpochFactory> factories = List.of(
+                TimeOrderedEpochFactory.builder().withFastRandom().build(),
+                TimeOrderedEpochFactory.builder().withSecureRandom().build(),
+                TimeOrderedEpochFactory.builder().withIncrementPlus1().withLockFree().build(),
+                TimeOrderedEpochFactory.builder().withIncrementPlusN().withStripes(8).build());
+        for (TimeOrderedEpochFactory factory : factories) {
+            factory.fill(new long[0], new long[0]);
+            assertEquals(0, factory.create(0).length);
+
+            UUID previous = factory.create();
+            for (int n : new int[]{1, 2, 1000, 100_000}) {
+                UUID[] uuids = factory.create(n);
+                assertEquals(n, uuids.length);
+                for (UUID uuid : uuids) {
+                    assertEquals(7, uuid.version());
+                    assertEquals(2, uuid.variant());
+                    assertTrue(compare(previous, uuid) < 0);
+                    previous = uuid;
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFillInvalidArguments() {
+        TimeOrderedEpochFactory factory = TimeOrderedEpochFactory.builder().build();
+        assertThrows(IllegalArgumentException.class, () -> factory.fill(new long[2], new long[3]));
+        assertThrows(IllegalArgumentException.class, () -> factory.create(-1));
+        assertThrows(IllegalArgumentException.class, () -> TimeOrderedEpochFactory.builder().withStripes(3));
+        assertThrows(IllegalArgumentException.class, () -> TimeOrderedEpochFactory.builder().withStripes(512));
+    }
+
+    private static void assertUniqueAndMonotonic(TimeOrderedEpochFactory factory) throws InterruptedException {
+        Set<UUID> all = ConcurrentHashMap.newKeySet();
+        List<Throwable> errors = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final boolean blocks = (t & 1) == 1;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    Set<UUID> own = new HashSet<>();
+                    UUID previous = null;
+                    for (int i = 0; i < PER_THREAD; i += blocks ? 10 : 1) {
+                        UUID[] uuids = blocks ? factory.create(10) : new UUID[]{factory.create()};
+                        for (UUID uuid : uuids) {
+                            if (previous != null && compare(previous, uuid) >= 0) {
+                                throw new AssertionError(previous + " >= " + uuid);
+                            }
+                            previous = uuid;
+                            own.add(uuid);
+                        }
+                    }
+                    all.addAll(own);
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(List.of(), errors);
+        assertEquals(THREADS * PER_THREAD, all.size());
+    }
+
+    private static void assertVersionAndVariant(long msb, long lsb) {
+        assertEquals(0x7000L, msb & 0xf000L);
+        assertEquals(0x8000000000000000L, lsb & 0xc000000000000000L);
+    }
+
+    private static int compare(UUID a, UUID b) {
+        return compare(a.getMostSignificantBits(), a.getLeastSignificantBits(),
+                b.getMostSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    private static int compare(long msb1, long lsb1, long msb2, long lsb2) {
+        int c = Long.compareUnsigned(msb1, msb2);
+        return c != 0 ? c : Long.compareUnsigned(lsb1, lsb2);
+    }
+}
@@ -0,0 +1,98 @@
+package io.geewit.utils.core.uuid.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntropyPoolTest {
+
+    @Test
+    void testInvalidSizes() {
+        ThreadFactory factory = Thread.ofPlatform().daemon().factory();
+        assertThrows(IllegalArgumentException.class, () -> new EntropyPool(0, 4, factory));
+        assertThrows(IllegalArgumentException.class, () -> new EntropyPool(3, 4, factory));
+        assertThrows(IllegalArgumentException.class, () -> new EntropyPool(4, 0, factory));
+    }
+
+    @Test
+    void testFallbackWhileProducerIsBehind() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> producer = new AtomicReference<>();
+        ThreadFactory factory = runnable -> {
+            Thread thread = Thread.ofPlatform().daemon().unstarted(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                runnable.run();
+            });
+            producer.set(thread);
+            return thread;
+        };
+
+        try (EntropyPool pool = new EntropyPool(1, 4, factory)) {
+            // the 4 prefilled numbers, then the fallback, with no producer running
+            Set<Long> values = new HashSet<>();
+            for (int i = 0; i < 1000; i++) {
+                values.add(pool.nextLong());
+            }
+            assertEquals(1000, values.size());
+
+            release.countDown();
+            for (int i = 0; i < 1000; i++) {
+                values.add(pool.nextLong());
+            }
+            assertEquals(2000, values.size());
+        }
+        producer.get().join(10_000);
+        assertFalse(producer.get().isAlive());
+    }
+
+    @Test
+    void testConcurrentTakes() throws InterruptedException {
+        int threads = 8;
+        int perThread = 20_000;
+        Set<Long> all = ConcurrentHashMap.newKeySet();
+        List<Thread> workers = new ArrayList<>();
+        try (EntropyPool pool = new EntropyPool(2, 16, Thread.ofPlatform().daemon().factory())) {
+            for (int t = 0; t < threads; t++) {
+                workers.add(Thread.ofPlatform().start(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        all.add(pool.nextLong());
+                    }
+                }));
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        }
+        // a number handed out twice would show up as a duplicate
+        assertEquals(threads * perThread, all.size());
+    }
+
+    @Test
+    void testUsableAfterClose() {
+        EntropyPool pool = new EntropyPool(1, 8, Thread.ofPlatform().daemon().factory());
+        pool.close();
+        Set<Long> values = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            values.add(pool.nextLong());
+        }
+        assertEquals(100, values.size());
+
+        byte[] bytes = new byte[13];
+        pool.nextBytes(bytes);
+        pool.nextBytes(new byte[0]);
+        assertNotEquals(0, bytes[0] | bytes[7] | bytes[8] | bytes[12]);
+    }
+}